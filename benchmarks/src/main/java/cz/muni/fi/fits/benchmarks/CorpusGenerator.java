@@ -0,0 +1,297 @@
+package cz.muni.fi.fits.benchmarks;
+
+import cz.muni.fi.fits.common.utils.Constants;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Class generating reproducible corpus of synthetic FITS files for load tests.
+ * Every file has primary header with observation records used by time operations
+ * (<code>DATE-OBS</code>, <code>EXPTIME</code>, <code>RA</code>, <code>DEC</code>),
+ * records with values drawn from weighted distributions (<code>OBJECT</code>,
+ * <code>FILTER</code>, <code>IMAGETYP</code>) and generated records filling header
+ * to random number of records. Files contain random number of image extensions
+ * and data units of random size. Content of every file depends only on seed
+ * and index of file, so the same corpus is generated on every machine.
+ * <p>
+ * Usage:
+ * <pre>
+ *     java -cp target/benchmarks.jar cz.muni.fi.fits.benchmarks.CorpusGenerator
+ *          directory files [seed] [minHeaderCards] [maxHeaderCards] [maxExtensions] [minDataSize] [maxDataSize]
+ * </pre>
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public final class CorpusGenerator {
+
+    public static final long DEFAULT_SEED = 42;
+    public static final int DEFAULT_MIN_HEADER_CARDS = 36;
+    public static final int DEFAULT_MAX_HEADER_CARDS = 360;
+    public static final int DEFAULT_MAX_EXTENSIONS = 2;
+    public static final long DEFAULT_MIN_DATA_SIZE = 0;
+    public static final long DEFAULT_MAX_DATA_SIZE = 1024 * 1024;
+
+    private static final String FILE_NAME_FORMAT = "corpus-%06d.fits";
+    private static final String[] EXTENSION_NAMES = { "SCI", "ERR", "DQ" };
+    private static final String[] OBJECTS = { "M31", "M33", "M42", "M45", "M51", "M101", "NGC 7000", "IC 434" };
+    private static final String[] FILTERS = { "V", "V", "V", "B", "B", "R", "I", "Ha" };
+    private static final String[] IMAGE_TYPES = { "LIGHT", "LIGHT", "LIGHT", "LIGHT", "LIGHT", "LIGHT", "LIGHT",
+            "DARK", "FLAT", "BIAS" };
+    private static final LocalDateTime FIRST_OBSERVATION = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final int OBSERVATION_DAYS = 25 * 365;
+
+    // records always present in primary header including END, NAXIS1 is present only with data unit
+    private static final int PRIMARY_RECORDS = 12;
+    private static final DateTimeFormatter DATE_OBS_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private final long _seed;
+    private final int _minHeaderCards;
+    private final int _maxHeaderCards;
+    private final int _maxExtensions;
+    private final long _minDataSize;
+    private final long _maxDataSize;
+
+    /**
+     * Creates new {@link CorpusGenerator} with default sizes of headers and data units
+     *
+     * @param seed  seed of generated values
+     */
+    public CorpusGenerator(long seed) {
+        this(seed, DEFAULT_MIN_HEADER_CARDS, DEFAULT_MAX_HEADER_CARDS, DEFAULT_MAX_EXTENSIONS,
+                DEFAULT_MIN_DATA_SIZE, DEFAULT_MAX_DATA_SIZE);
+    }
+
+    /**
+     * Creates new {@link CorpusGenerator}
+     *
+     * @param seed              seed of generated values
+     * @param minHeaderCards    minimal number of records in primary header
+     * @param maxHeaderCards    maximal number of records in primary header
+     * @param maxExtensions     maximal number of image extensions in file
+     * @param minDataSize       minimal size of every data unit in bytes
+     * @param maxDataSize       maximal size of every data unit in bytes
+     */
+    public CorpusGenerator(long seed, int minHeaderCards, int maxHeaderCards, int maxExtensions,
+                           long minDataSize, long maxDataSize) {
+        if (minHeaderCards < 1 || maxHeaderCards < minHeaderCards)
+            throw new IllegalArgumentException("Invalid range of header records");
+        if (maxExtensions < 0)
+            throw new IllegalArgumentException("maxExtensions cannot be negative");
+        if (minDataSize < 0 || maxDataSize < minDataSize)
+            throw new IllegalArgumentException("Invalid range of data sizes");
+
+        _seed = seed;
+        _minHeaderCards = minHeaderCards;
+        _maxHeaderCards = maxHeaderCards;
+        _maxExtensions = maxExtensions;
+        _minDataSize = minDataSize;
+        _maxDataSize = maxDataSize;
+    }
+
+    /**
+     * Generates specified number of FITS files to <code>directory</code>,
+     * existing files of corpus are overwritten
+     *
+     * @param directory     directory in which to generate files, created if it does not exist
+     * @param files         number of generated files
+     * @return              paths of generated files
+     * @throws IOException  when some error occurs during writing files
+     */
+    public List<Path> generate(Path directory, int files) throws IOException {
+        if (directory == null)
+            throw new IllegalArgumentException("directory is null");
+        if (files < 0)
+            throw new IllegalArgumentException("files cannot be negative");
+
+        Files.createDirectories(directory);
+
+        List<Path> fitsFiles = new ArrayList<>(files);
+        for (int i = 0; i < files; i++) {
+            Path fitsFile = directory.resolve(String.format(FILE_NAME_FORMAT, i));
+            generateFile(fitsFile, i);
+            fitsFiles.add(fitsFile);
+        }
+
+        return fitsFiles;
+    }
+
+    /**
+     * Generates single FITS file with specified <code>index</code> in corpus
+     *
+     * @param fitsFile      path of file to create, existing file is overwritten
+     * @param index         index of file in corpus
+     * @throws IOException  when some error occurs during writing the file
+     */
+    public void generateFile(Path fitsFile, int index) throws IOException {
+        if (fitsFile == null)
+            throw new IllegalArgumentException("fitsFile is null");
+
+        // every file has its own generator, so it does not depend on other files
+        Random random = new Random(_seed * 1_000_003L + index);
+        int extensions = random.nextInt(_maxExtensions + 1);
+
+        try (FileChannel channel = FileChannel.open(fitsFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long dataSize = nextDataSize(random);
+            writeHeader(channel, createPrimaryHeader(random, dataSize, extensions > 0));
+            FitsFileGenerator.writeDataUnit(channel, dataSize);
+
+            for (int extension = 1; extension <= extensions; extension++) {
+                dataSize = nextDataSize(random);
+                writeHeader(channel, createExtensionHeader(extension, dataSize));
+                FitsFileGenerator.writeDataUnit(channel, dataSize);
+            }
+        }
+    }
+
+    private String createPrimaryHeader(Random random, long dataSize, boolean extend) {
+        StringBuilder header = new StringBuilder();
+        FitsFileGenerator.appendCard(header, "SIMPLE  =                    T");
+        FitsFileGenerator.appendCard(header, "BITPIX  =                    8");
+        appendDimensions(header, dataSize);
+        FitsFileGenerator.appendCard(header, "EXTEND  =                    " + (extend ? "T" : "F"));
+
+        // records used by time operations
+        LocalDateTime observation = FIRST_OBSERVATION
+                .plusDays(random.nextInt(OBSERVATION_DAYS))
+                .plusSeconds(random.nextInt(24 * 60 * 60));
+        appendStringCard(header, "DATE-OBS", observation.format(DATE_OBS_FORMATTER));
+        appendValueCard(header, "EXPTIME", String.format(Locale.ROOT, "%.1f", 1 + random.nextInt(600) / 2.0));
+
+        // coordinates either in degrees or sexagesimal
+        double rightAscension = random.nextDouble() * 360;
+        double declination = random.nextDouble() * 180 - 90;
+        if (random.nextBoolean()) {
+            appendValueCard(header, "RA", String.format(Locale.ROOT, "%.6f", rightAscension));
+            appendValueCard(header, "DEC", String.format(Locale.ROOT, "%.6f", declination));
+        } else {
+            appendStringCard(header, "RA", toSexagesimal(rightAscension / 15, false));
+            appendStringCard(header, "DEC", toSexagesimal(declination, true));
+        }
+
+        appendStringCard(header, "OBJECT", OBJECTS[random.nextInt(OBJECTS.length)]);
+        appendStringCard(header, "FILTER", FILTERS[random.nextInt(FILTERS.length)]);
+        appendStringCard(header, "IMAGETYP", IMAGE_TYPES[random.nextInt(IMAGE_TYPES.length)]);
+
+        // fill header with generated records of various types
+        int headerCards = _minHeaderCards + random.nextInt(_maxHeaderCards - _minHeaderCards + 1);
+        int generatedCards = Math.max(0, headerCards - PRIMARY_RECORDS - (dataSize > 0 ? 1 : 0));
+        for (int i = 0; i < generatedCards; i++) {
+            String keyword = String.format("GEN%05d", i);
+            switch (random.nextInt(5)) {
+                case 0:
+                    appendValueCard(header, keyword, Integer.toString(random.nextInt(100000)));
+                    break;
+                case 1:
+                    appendValueCard(header, keyword, String.format(Locale.ROOT, "%.8E", random.nextGaussian()));
+                    break;
+                case 2:
+                    appendStringCard(header, keyword, "value " + random.nextInt(1000));
+                    break;
+                case 3:
+                    appendValueCard(header, keyword, random.nextBoolean() ? "T" : "F");
+                    break;
+                default:
+                    FitsFileGenerator.appendCard(header, "HISTORY generated record " + i);
+            }
+        }
+
+        FitsFileGenerator.appendCard(header, "END");
+        return header.toString();
+    }
+
+    private static String createExtensionHeader(int extension, long dataSize) {
+        StringBuilder header = new StringBuilder();
+        FitsFileGenerator.appendCard(header, "XTENSION= 'IMAGE   '");
+        FitsFileGenerator.appendCard(header, "BITPIX  =                    8");
+        appendDimensions(header, dataSize);
+        FitsFileGenerator.appendCard(header, "PCOUNT  =                    0");
+        FitsFileGenerator.appendCard(header, "GCOUNT  =                    1");
+        appendStringCard(header, "EXTNAME", EXTENSION_NAMES[(extension - 1) % EXTENSION_NAMES.length]);
+        appendValueCard(header, "EXTVER", Integer.toString((extension - 1) / EXTENSION_NAMES.length + 1));
+        FitsFileGenerator.appendCard(header, "END");
+        return header.toString();
+    }
+
+    private static void appendDimensions(StringBuilder header, long dataSize) {
+        if (dataSize == 0) {
+            FitsFileGenerator.appendCard(header, "NAXIS   =                    0");
+        } else {
+            FitsFileGenerator.appendCard(header, "NAXIS   =                    1");
+            appendValueCard(header, "NAXIS1", Long.toString(dataSize));
+        }
+    }
+
+    private static void appendValueCard(StringBuilder header, String keyword, String value) {
+        FitsFileGenerator.appendCard(header, String.format("%-8s= %20s", keyword, value));
+    }
+
+    private static void appendStringCard(StringBuilder header, String keyword, String value) {
+        FitsFileGenerator.appendCard(header, String.format("%-8s= '%-8s'", keyword, value));
+    }
+
+    private static String toSexagesimal(double value, boolean signed) {
+        String sign = value < 0 ? "-" : "+";
+        value = Math.abs(value);
+        int units = (int) value;
+        int minutes = (int) ((value - units) * 60);
+        double seconds = ((value - units) * 60 - minutes) * 60;
+
+        return String.format(Locale.ROOT, "%s%02d:%02d:%04.1f", signed ? sign : "", units, minutes, seconds);
+    }
+
+    private long nextDataSize(Random random) {
+        if (_maxDataSize == _minDataSize)
+            return _minDataSize;
+
+        return _minDataSize + (long) (random.nextDouble() * (_maxDataSize - _minDataSize + 1));
+    }
+
+    private static void writeHeader(FileChannel channel, String header) throws IOException {
+        StringBuilder paddedHeader = new StringBuilder(header);
+        while (paddedHeader.length() % Constants.FITS_BLOCK_SIZE != 0)
+            paddedHeader.append(' ');
+
+        ByteBuffer buffer = ByteBuffer.wrap(paddedHeader.toString().getBytes(StandardCharsets.US_ASCII));
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CorpusGenerator directory files [seed] [minHeaderCards] [maxHeaderCards] "
+                    + "[maxExtensions] [minDataSize] [maxDataSize]");
+            return;
+        }
+
+        Path directory = Paths.get(args[0]);
+        int files = Integer.parseInt(args[1]);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+        int minHeaderCards = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_MIN_HEADER_CARDS;
+        int maxHeaderCards = args.length > 4 ? Integer.parseInt(args[4]) : Math.max(minHeaderCards, DEFAULT_MAX_HEADER_CARDS);
+        int maxExtensions = args.length > 5 ? Integer.parseInt(args[5]) : DEFAULT_MAX_EXTENSIONS;
+        long minDataSize = args.length > 6 ? Long.parseLong(args[6]) : DEFAULT_MIN_DATA_SIZE;
+        long maxDataSize = args.length > 7 ? Long.parseLong(args[7]) : Math.max(minDataSize, DEFAULT_MAX_DATA_SIZE);
+
+        CorpusGenerator generator = new CorpusGenerator(seed, minHeaderCards, maxHeaderCards, maxExtensions,
+                minDataSize, maxDataSize);
+        long start = System.nanoTime();
+        List<Path> fitsFiles = generator.generate(directory, files);
+        System.out.println(String.format(Locale.ROOT, "Generated %d files to '%s' in %.3f s",
+                fitsFiles.size(), directory, (System.nanoTime() - start) / 1e9));
+    }
+}
@@ -0,0 +1,67 @@
+package cz.muni.fi.fits.benchmarks;
+
+import cz.muni.fi.fits.engine.HeaderEditingEngine;
+import cz.muni.fi.fits.engine.MappedFitsEditingEngine;
+import cz.muni.fi.fits.engine.NomTamFitsEditingEngine;
+import cz.muni.fi.fits.engine.models.Result;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark comparing implementations of {@link HeaderEditingEngine} interface
+ * when changing single record in header of FITS files with data units of different sizes
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EditingEngineBenchmark {
+
+    @Param({ "NOM_TAM", "MAPPED" })
+    public HeaderEditingEngine.Type engineType;
+
+    @Param({ "0", "1048576", "67108864" })
+    public long dataSize;
+
+    private HeaderEditingEngine _engine;
+    private Path _fitsFile;
+    private double _exposure;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        _engine = engineType == HeaderEditingEngine.Type.MAPPED
+                ? new MappedFitsEditingEngine()
+                : new NomTamFitsEditingEngine();
+
+        _fitsFile = Files.createTempFile("engine-benchmark", ".fits");
+        FitsFileGenerator.createFitsFile(_fitsFile, 20, dataSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(_fitsFile);
+    }
+
+    @Benchmark
+    public Result changeValueOfRecord() {
+        // change value every time so that header is always written
+        _exposure += 1.0;
+        return _engine.changeValueOfRecord("EXPTIME", _exposure, null, false, _fitsFile.toFile());
+    }
+
+    @Benchmark
+    public Result computeJulianDate() {
+        File fitsFile = _fitsFile.toFile();
+        return _engine.computeJulianDate("DATE-OBS", "EXPTIME", null, fitsFile);
+    }
+}
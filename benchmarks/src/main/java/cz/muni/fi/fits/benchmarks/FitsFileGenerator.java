@@ -0,0 +1,101 @@
+package cz.muni.fi.fits.benchmarks;
+
+import cz.muni.fi.fits.common.utils.Constants;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Helper class generating FITS files used in benchmarks
+ *
+ * @author Martin Vrábel
+ * @version 1.2
+ */
+public final class FitsFileGenerator {
+
+    private static final int DATA_CHUNK_SIZE = 1024 * Constants.FITS_BLOCK_SIZE;
+
+    /**
+     * Creates FITS file with 8-bit one-dimensional image of specified <code>dataSize</code>
+     * and primary header with <code>extraCards</code> records in addition to mandatory ones
+     *
+     * @param fitsFile      path of file to create, existing file is overwritten
+     * @param extraCards    number of records added to header
+     * @param dataSize      size of data unit in bytes
+     * @throws IOException  when some error occurs during writing the file
+     */
+    public static void createFitsFile(Path fitsFile, int extraCards, long dataSize)
+            throws IOException {
+        if (fitsFile == null)
+            throw new IllegalArgumentException("fitsFile is null");
+
+        try (FileChannel channel = FileChannel.open(fitsFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer headerBuffer = ByteBuffer.wrap(createHeader(extraCards, dataSize));
+            while (headerBuffer.hasRemaining())
+                channel.write(headerBuffer);
+
+            writeDataUnit(channel, dataSize);
+        }
+    }
+
+    /**
+     * Writes zero-filled data unit of specified <code>dataSize</code>
+     * padded to the whole blocks at current position of <code>channel</code>
+     *
+     * @param channel       channel to write to
+     * @param dataSize      size of data unit in bytes
+     * @throws IOException  when some error occurs during writing to channel
+     */
+    static void writeDataUnit(FileChannel channel, long dataSize) throws IOException {
+        long paddedDataSize = (dataSize + Constants.FITS_BLOCK_SIZE - 1) / Constants.FITS_BLOCK_SIZE * Constants.FITS_BLOCK_SIZE;
+        ByteBuffer dataBuffer = ByteBuffer.allocate((int) Math.min(DATA_CHUNK_SIZE, Math.max(paddedDataSize, 1)));
+        long written = 0;
+        while (written < paddedDataSize) {
+            dataBuffer.clear();
+            dataBuffer.limit((int) Math.min(dataBuffer.capacity(), paddedDataSize - written));
+            written += channel.write(dataBuffer);
+        }
+    }
+
+    /**
+     * Creates serialized primary header describing 8-bit one-dimensional image
+     * of specified <code>dataSize</code> with <code>extraCards</code> records
+     * in addition to mandatory ones
+     *
+     * @param extraCards    number of records added to header
+     * @param dataSize      size of data unit in bytes
+     * @return              header padded to the whole blocks
+     */
+    public static byte[] createHeader(int extraCards, long dataSize) {
+        StringBuilder header = new StringBuilder();
+        appendCard(header, "SIMPLE  =                    T");
+        appendCard(header, "BITPIX  =                    8");
+        appendCard(header, "NAXIS   =                    1");
+        appendCard(header, String.format("NAXIS1  = %20d", dataSize));
+        appendCard(header, "OBJECT  = 'M31     '");
+        appendCard(header, "DATE-OBS= '2015-06-12T21:30:00'");
+        appendCard(header, "EXPTIME =                 30.0");
+        appendCard(header, "RA      = '00 42 44.3'");
+        appendCard(header, "DEC     = '+41 16 09'");
+        for (int i = 0; i < extraCards; i++)
+            appendCard(header, String.format("KEY%05d= %20d / generated record", i, i));
+        appendCard(header, "END");
+        while (header.length() % Constants.FITS_BLOCK_SIZE != 0)
+            header.append(' ');
+
+        return header.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    static void appendCard(StringBuilder header, String card) {
+        header.append(card);
+        for (int i = card.length(); i < Constants.HEADER_CARD_SIZE; i++)
+            header.append(' ');
+    }
+
+    private FitsFileGenerator() { }
+}
@@ -0,0 +1,144 @@
+package cz.muni.fi.fits.benchmarks;
+
+import cz.muni.fi.fits.common.utils.Constants;
+import cz.muni.fi.fits.engine.io.HeaderBlockWriter;
+import nom.tam.fits.Fits;
+import nom.tam.fits.FitsException;
+import nom.tam.fits.Header;
+import nom.tam.util.BufferedFile;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark comparing ways of writing header that changes its number of blocks
+ * to FITS files with large data units: rewriting whole file with <b>nom.tam.fits</b>
+ * library through {@link BufferedFile}, shifting the data unit in place
+ * through heap buffer and transferring the data unit channel to channel
+ * to replacement file
+ * <p>
+ * Shifting in place is implemented only here, as the editing engines
+ * always transfer data units to replacement files
+ *
+ * @author Martin Vrábel
+ * @version 1.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HeaderGrowthBenchmark {
+
+    private static final String FILE_OPENING_MODE = "rw";
+    private static final int SHIFT_BUFFER_SIZE = 1024 * Constants.FITS_BLOCK_SIZE;
+
+    @Param({ "67108864", "1073741824" })
+    public long dataSize;
+
+    private Path _fitsFile;
+    private Path _outputFile;
+    private byte[] _smallHeader;
+    private byte[] _largeHeader;
+    private boolean _grown;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        _fitsFile = Files.createTempFile("growth-benchmark", ".fits");
+        _outputFile = Files.createTempFile("growth-benchmark-output", ".fits");
+        FitsFileGenerator.createFitsFile(_fitsFile, 20, dataSize);
+
+        // headers occupying one and two blocks
+        _smallHeader = FitsFileGenerator.createHeader(20, dataSize);
+        _largeHeader = FitsFileGenerator.createHeader(20 + Constants.CARDS_PER_BLOCK, dataSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(_fitsFile);
+        Files.deleteIfExists(_outputFile);
+    }
+
+    @Benchmark
+    public void rewriteWithNomTam() throws FitsException, IOException {
+        Fits fits = new Fits(_fitsFile.toFile());
+        Header header = fits.getHDU(0).getHeader();
+        for (int i = 0; i < Constants.CARDS_PER_BLOCK; i++)
+            header.addValue(String.format("NEW%05d", i), i, "added record");
+
+        // whole file including data unit goes through Java heap
+        BufferedFile bf = new BufferedFile(_outputFile.toFile(), FILE_OPENING_MODE);
+        fits.write(bf);
+        bf.flush();
+        bf.close();
+        fits.close();
+    }
+
+    @Benchmark
+    public long shiftInPlace() throws IOException {
+        try (FileChannel channel = FileChannel.open(_fitsFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            byte[] oldHeader = HeaderBlockWriter.readHeaderBlocks(channel, 0);
+            byte[] newHeader = HeaderBlockWriter.padToBlocks(nextHeader());
+
+            long tailStart = oldHeader.length;
+            long shift = newHeader.length - oldHeader.length;
+            long tailLength = channel.size() - tailStart;
+
+            shiftTail(channel, tailStart, tailLength, shift);
+            if (shift < 0)
+                channel.truncate(tailStart + shift + tailLength);
+
+            ByteBuffer header = ByteBuffer.wrap(newHeader);
+            while (header.hasRemaining())
+                channel.write(header, header.position());
+
+            return newHeader.length + tailLength;
+        }
+    }
+
+    @Benchmark
+    public long transferToReplacement() throws IOException {
+        return HeaderBlockWriter.writeReplaced(_fitsFile.toFile(), 0, nextHeader());
+    }
+
+    private byte[] nextHeader() {
+        // alternate header sizes, so that every invocation moves the data unit
+        _grown = !_grown;
+        return _grown ? _largeHeader : _smallHeader;
+    }
+
+    private static void shiftTail(FileChannel channel, long tailStart, long tailLength, long shift)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(SHIFT_BUFFER_SIZE, Math.max(tailLength, 1)));
+        long moved = 0;
+
+        while (moved < tailLength) {
+            int chunkLength = (int) Math.min(buffer.capacity(), tailLength - moved);
+
+            // move chunks from the end when growing, so data are not overwritten before being read
+            long chunkStart = shift > 0
+                    ? tailStart + tailLength - moved - chunkLength
+                    : tailStart + moved;
+
+            buffer.clear();
+            buffer.limit(chunkLength);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, chunkStart + buffer.position()) < 0)
+                    throw new IOException("Unexpected end of file");
+            }
+
+            buffer.flip();
+            while (buffer.hasRemaining())
+                channel.write(buffer, chunkStart + shift + buffer.position());
+
+            moved += chunkLength;
+        }
+    }
+}
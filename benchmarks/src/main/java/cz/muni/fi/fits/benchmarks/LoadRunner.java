@@ -0,0 +1,236 @@
+package cz.muni.fi.fits.benchmarks;
+
+import cz.muni.fi.fits.EditorFactory;
+import cz.muni.fi.fits.FITSHeaderEditor;
+import cz.muni.fi.fits.common.Configuration;
+import cz.muni.fi.fits.engine.HeaderEditingEngine;
+import cz.muni.fi.fits.engine.io.FileSynchronizer;
+import cz.muni.fi.fits.execution.FileOperationExecutor;
+import cz.muni.fi.fits.execution.HistogramPerformanceRecorder;
+import cz.muni.fi.fits.output.writers.LogChannel;
+import cz.muni.fi.fits.output.writers.OutputWriter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Load test running mix of operations over corpus of FITS files through the whole
+ * pipeline of FITS Header Editor, from processing of commandline arguments
+ * and discovery of input files in {@link FITSHeaderEditor} to writing results
+ * by output writer. Files of corpus are split among operations of mix by their
+ * weights and every operation runs over its files in every round. Durations
+ * of all files are recorded to single {@link HistogramPerformanceRecorder},
+ * so the final summary reports sustained number of files per second
+ * and tail latencies of the whole mix.
+ * <p>
+ * Usage:
+ * <pre>
+ *     java -cp target/benchmarks.jar cz.muni.fi.fits.benchmarks.LoadRunner
+ *          directory mix [threads] [rounds] [engine]
+ * </pre>
+ * where mix is comma-separated list of operations with weights, e.g. <code>CHANGE:4,ADD:2,JD:1,HJD:1</code>.
+ * Supported operations are {@link #OPERATIONS}, engine is <code>NOM_TAM</code> or <code>MAPPED</code>.
+ * Results of files are written to <code>load-runner.log</code> in corpus directory
+ *
+ * @author Martin Vrábel
+ * @version 1.1
+ */
+public final class LoadRunner {
+
+    /**
+     * Operations supported in mix
+     */
+    public static final List<String> OPERATIONS = Collections.unmodifiableList(Arrays.asList(
+            "ADD", "CHANGE", "SHIFT_TIME", "JD", "HJD", "CHAIN"));
+
+    private static final String FILES_PLACEHOLDER = "{files}";
+    private static final String LOG_FILE_NAME = "load-runner.log";
+    private static final String FITS_FILES_GLOB = "*.fits";
+
+    private final Path _directory;
+    private final Map<String, Integer> _mix;
+    private final int _threads;
+    private final HeaderEditingEngine.Type _engineType;
+    private final HistogramPerformanceRecorder _performanceRecorder;
+
+    /**
+     * Creates new {@link LoadRunner}
+     *
+     * @param directory     directory with corpus of FITS files
+     * @param mix           operations mapped to their weights
+     * @param threads       number of worker threads processing files
+     * @param engineType    type of editing engine
+     */
+    public LoadRunner(Path directory, Map<String, Integer> mix, int threads, HeaderEditingEngine.Type engineType) {
+        if (directory == null)
+            throw new IllegalArgumentException("directory is null");
+        if (mix == null || mix.isEmpty())
+            throw new IllegalArgumentException("mix is empty");
+        for (Map.Entry<String, Integer> operation : mix.entrySet()) {
+            if (!OPERATIONS.contains(operation.getKey()))
+                throw new IllegalArgumentException("Unsupported operation '" + operation.getKey() + "'");
+            if (operation.getValue() < 1)
+                throw new IllegalArgumentException("Weight of operation '" + operation.getKey() + "' must be positive");
+        }
+        if (threads < 1)
+            throw new IllegalArgumentException("threads must be positive number");
+        if (engineType == null)
+            throw new IllegalArgumentException("engineType is null");
+
+        _directory = directory;
+        _mix = new LinkedHashMap<>(mix);
+        _threads = threads;
+        _engineType = engineType;
+        _performanceRecorder = new HistogramPerformanceRecorder();
+    }
+
+    /**
+     * Runs all operations of mix over their files in specified number of <code>rounds</code>
+     *
+     * @param rounds        number of times every operation runs over its files
+     * @return              lines of summary of the whole run
+     * @throws IOException  when files of corpus cannot be listed
+     */
+    public List<String> run(int rounds) throws IOException {
+        if (rounds < 1)
+            throw new IllegalArgumentException("rounds must be positive number");
+
+        Map<String, Path> fileLists = splitCorpus();
+        Path logFile = _directory.resolve(LOG_FILE_NAME);
+        Configuration configuration = new Configuration(OutputWriter.Type.FILE, logFile.toString(), _engineType,
+                _threads, FileOperationExecutor.Order.COMPLETION, 0, FileSynchronizer.Mode.NONE, 1, null,
+                8192, LogChannel.OverflowPolicy.BLOCK, true);
+
+        List<String> summary = new ArrayList<>();
+        long start = System.nanoTime();
+        try {
+            for (int round = 1; round <= rounds; round++) {
+                for (Map.Entry<String, Path> fileList : fileLists.entrySet()) {
+                    long operationStart = System.nanoTime();
+                    runOperation(configuration, operationArgs(fileList.getKey(), fileList.getValue()));
+                    summary.add(String.format(Locale.ROOT, "Round %d, operation %s: %.3f s", round,
+                            fileList.getKey(), (System.nanoTime() - operationStart) / 1e9));
+                }
+            }
+
+            summary.addAll(_performanceRecorder.summarize(System.nanoTime() - start));
+            return summary;
+        } finally {
+            for (Path fileList : fileLists.values())
+                Files.deleteIfExists(fileList);
+        }
+    }
+
+    private void runOperation(Configuration configuration, String[] args) {
+        // every operation is wired the same way as commandline run, files are recorded to shared recorder
+        EditorFactory editorFactory = new EditorFactory(args, configuration, null, null, _performanceRecorder);
+
+        try {
+            editorFactory.getEditor().start();
+        } finally {
+            editorFactory.getOutputWriter().close();
+        }
+    }
+
+    private Map<String, Path> splitCorpus() throws IOException {
+        List<String> fitsFiles = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(_directory, FITS_FILES_GLOB)) {
+            for (Path fitsFile : stream)
+                fitsFiles.add(fitsFile.toAbsolutePath().toString());
+        }
+        Collections.sort(fitsFiles);
+
+        // files are dealt to operations by weighted round robin
+        List<String> slots = new ArrayList<>();
+        for (Map.Entry<String, Integer> operation : _mix.entrySet()) {
+            for (int i = 0; i < operation.getValue(); i++)
+                slots.add(operation.getKey());
+        }
+
+        Map<String, List<String>> operationFiles = new LinkedHashMap<>();
+        for (int i = 0; i < fitsFiles.size(); i++)
+            operationFiles.computeIfAbsent(slots.get(i % slots.size()), operation -> new ArrayList<>()).add(fitsFiles.get(i));
+
+        Map<String, Path> fileLists = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> files : operationFiles.entrySet()) {
+            Path fileList = Files.createTempFile("load-runner-" + files.getKey().toLowerCase(Locale.ROOT), ".txt");
+            Files.write(fileList, files.getValue(), StandardCharsets.UTF_8);
+            fileLists.put(files.getKey(), fileList);
+        }
+
+        return fileLists;
+    }
+
+    private static String[] operationArgs(String operation, Path fileList) {
+        String[] args;
+        switch (operation) {
+            case "ADD":
+                args = new String[] { "ADD", "-u", FILES_PLACEHOLDER, "OBSERVER", "LoadRunner", "load test" };
+                break;
+
+            case "CHANGE":
+                args = new String[] { "CHANGE", FILES_PLACEHOLDER, "EXPTIME", "45.5" };
+                break;
+
+            case "SHIFT_TIME":
+                args = new String[] { "SHIFT_TIME", FILES_PLACEHOLDER, "DATE-OBS", "-s=1" };
+                break;
+
+            case "JD":
+                args = new String[] { "JD", FILES_PLACEHOLDER, "DATE-OBS", "EXPTIME" };
+                break;
+
+            case "HJD":
+                args = new String[] { "HJD", FILES_PLACEHOLDER, "DATE-OBS", "EXPTIME", "RA", "DEC" };
+                break;
+
+            case "CHAIN":
+                args = new String[] { "CHAIN", "-u", FILES_PLACEHOLDER, "DESCR", "-c=Object: ", "-k=OBJECT" };
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unsupported operation '" + operation + "'");
+        }
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals(FILES_PLACEHOLDER))
+                args[i] = fileList.toString();
+        }
+        return args;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> operations = new LinkedHashMap<>();
+        for (String operation : mix.split(",")) {
+            String[] parts = operation.trim().split(":");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            operations.put(parts[0].trim().toUpperCase(Locale.ROOT), weight);
+        }
+
+        return operations;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: LoadRunner directory mix [threads] [rounds] [engine]");
+            System.err.println("Supported operations of mix: " + OPERATIONS);
+            return;
+        }
+
+        Path directory = Paths.get(args[0]);
+        Map<String, Integer> mix = parseMix(args[1]);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        HeaderEditingEngine.Type engineType = args.length > 4
+                ? HeaderEditingEngine.Type.valueOf(args[4].toUpperCase(Locale.ROOT))
+                : HeaderEditingEngine.Type.NOM_TAM;
+
+        for (String line : new LoadRunner(directory, mix, threads, engineType).run(rounds))
+            System.out.println(line);
+    }
+}
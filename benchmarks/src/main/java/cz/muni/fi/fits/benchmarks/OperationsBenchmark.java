@@ -0,0 +1,172 @@
+package cz.muni.fi.fits.benchmarks;
+
+import cz.muni.fi.fits.common.utils.Constants;
+import cz.muni.fi.fits.common.utils.Tuple;
+import cz.muni.fi.fits.engine.HeaderEditingEngine;
+import cz.muni.fi.fits.engine.MappedFitsEditingEngine;
+import cz.muni.fi.fits.engine.NomTamFitsEditingEngine;
+import cz.muni.fi.fits.engine.models.Result;
+import cz.muni.fi.fits.models.ChainValueType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of every editing operation of {@link HeaderEditingEngine} interface
+ * over generated FITS files with headers from one block (36 records) to 556 blocks
+ * (20016 records) and data units from 0 bytes to 1 GB. Headers either fill
+ * their last block completely, so that every added record grows the header
+ * by one block, or leave one blank record in it, so that added record fits
+ * into the original blocks.
+ * <p>
+ * Every measured iteration runs exactly one operation over file restored
+ * from pristine copy before the iteration, so every operation edits the same
+ * file and copying of data units stays outside of measured time. Single shot
+ * times are measured, as restoring file of 1 GB after every invocation
+ * of throughput benchmark would dominate whole run.
+ * <p>
+ * Run with allocation rate reported by GC profiler:
+ * <pre>
+ *     java -cp target/benchmarks.jar cz.muni.fi.fits.benchmarks.OperationsBenchmark
+ *     java -jar target/benchmarks.jar OperationsBenchmark -prof gc -p dataSize=0
+ * </pre>
+ *
+ * @author Martin Vrábel
+ * @version 1.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, batchSize = 1)
+@Measurement(iterations = 20, batchSize = 1)
+@Fork(1)
+public class OperationsBenchmark {
+
+    // mandatory and basic records generated in every header, including END
+    private static final int GENERATED_CARDS = 10;
+
+    private static final List<Tuple<ChainValueType, String>> CHAIN_PARAMETERS = Arrays.asList(
+            new Tuple<>(ChainValueType.CONSTANT, "Object: "),
+            new Tuple<>(ChainValueType.KEYWORD, "OBJECT"));
+
+    @Param({ "NOM_TAM", "MAPPED" })
+    public HeaderEditingEngine.Type engineType;
+
+    @Param({ "36", "1008", "20016" })
+    public int headerCards;
+
+    @Param({ "0", "1048576", "1073741824" })
+    public long dataSize;
+
+    @Param({ "true", "false" })
+    public boolean fullHeader;
+
+    private HeaderEditingEngine _engine;
+    private Path _pristineFile;
+    private Path _fitsFile;
+    private File _file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        _engine = engineType == HeaderEditingEngine.Type.MAPPED
+                ? new MappedFitsEditingEngine()
+                : new NomTamFitsEditingEngine();
+
+        // full header has no blank record left in its last block
+        int extraCards = headerCards - GENERATED_CARDS - (fullHeader ? 0 : 1);
+        _pristineFile = Files.createTempFile("operations-benchmark-pristine", ".fits");
+        _fitsFile = Files.createTempFile("operations-benchmark", ".fits");
+        _file = _fitsFile.toFile();
+        FitsFileGenerator.createFitsFile(_pristineFile, extraCards, dataSize);
+    }
+
+    @Setup(Level.Iteration)
+    public void restoreFile() throws IOException {
+        // edited file is replaced by pristine one outside of measured time
+        Files.copy(_pristineFile, _fitsFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(_fitsFile);
+        Files.deleteIfExists(_pristineFile);
+    }
+
+    @Benchmark
+    public Result addNewRecord() {
+        return _engine.addNewRecord("OBSERVER", "Vrabel", "observer", false, _file);
+    }
+
+    @Benchmark
+    public Result addNewRecordToIndex() {
+        return _engine.addNewRecordToIndex(5, "OBSERVER", "Vrabel", "observer", false, _file);
+    }
+
+    @Benchmark
+    public Result removeRecordByKeyword() {
+        return _engine.removeRecordByKeyword("OBJECT", _file);
+    }
+
+    @Benchmark
+    public Result removeRecordFromIndex() {
+        return _engine.removeRecordFromIndex(5, _file);
+    }
+
+    @Benchmark
+    public Result changeKeywordOfRecord() {
+        return _engine.changeKeywordOfRecord("OBJECT", "TARGET", false, _file);
+    }
+
+    @Benchmark
+    public Result changeValueOfRecord() {
+        return _engine.changeValueOfRecord("EXPTIME", 45.5, "seconds", false, _file);
+    }
+
+    @Benchmark
+    public Result chainMultipleRecords() {
+        return _engine.chainMultipleRecords("DESCR", CHAIN_PARAMETERS, null, false, false, _file);
+    }
+
+    @Benchmark
+    public Result shiftTimeOfTimeRecord() {
+        return _engine.shiftTimeOfTimeRecord("DATE-OBS", 0, 0, 1, 2, 0, 0, 0, _file);
+    }
+
+    @Benchmark
+    public Result computeJulianDate() {
+        return _engine.computeJulianDate("DATE-OBS", "EXPTIME", Constants.DEFAULT_JD_COMMENT, _file);
+    }
+
+    @Benchmark
+    public Result computeHeliocentricJulianDate() {
+        return _engine.computeHeliocentricJulianDate("DATE-OBS", "EXPTIME", "RA", "DEC",
+                Constants.DEFAULT_HJD_COMMENT, _file);
+    }
+
+    /**
+     * Runs all benchmarks of this class with allocation rate measured by GC profiler
+     *
+     * @param args              no arguments are used
+     * @throws RunnerException  when benchmarks cannot be run
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(OperationsBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
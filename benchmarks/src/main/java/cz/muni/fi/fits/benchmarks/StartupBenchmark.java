@@ -0,0 +1,259 @@
+package cz.muni.fi.fits.benchmarks;
+
+import cz.muni.fi.fits.ApplicationInitializer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Benchmark of cold start of FITS Header Editor, every run starts new JVM
+ * with {@link ApplicationInitializer} that changes single record of single FITS file,
+ * the same way as scripts calling editor for every file do. Time to first edit
+ * is measured from start of the process to the moment result of the file is written
+ * to output, time to exit includes shutdown of JVM. Optionally runs use application
+ * class-data-sharing archive, which is created by the first run when it does not exist
+ * (requires JDK 13 or newer). When budget is set, benchmark fails when median time
+ * to first edit exceeds it.
+ * <p>
+ * Usage:
+ * <pre>
+ *     java -cp target/benchmarks.jar cz.muni.fi.fits.benchmarks.StartupBenchmark
+ *          directory [runs] [budgetMillis] [engine] [jar] [cdsArchive]
+ * </pre>
+ * where engine is value of property <code>engine</code> (<code>nomtam</code> or <code>mapped</code>)
+ * and jar is launched FITS Header Editor jar, classpath of benchmark is launched by default
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public final class StartupBenchmark {
+
+    public static final int DEFAULT_RUNS = 10;
+    public static final String DEFAULT_ENGINE = "nomtam";
+
+    private static final String FITS_FILE_NAME = "startup.fits";
+    private static final String FILE_LIST_NAME = "startup-files.txt";
+    private static final String PROPERTIES_FILE_NAME = "fits.properties";
+    private static final int WARMUP_RUNS = 1;
+    private static final int EXTRA_CARDS = 100;
+    private static final long DATA_SIZE = 64 * 1024;
+
+    private final Path _directory;
+    private final String _engine;
+    private final Path _jar;
+    private final Path _cdsArchive;
+
+    /**
+     * Creates new {@link StartupBenchmark}
+     *
+     * @param directory     working directory of launched editor, edited file is created in it
+     * @param engine        value of property <code>engine</code> of launched editor
+     * @param jar           launched jar with FITS Header Editor
+     * @param cdsArchive    class-data-sharing archive used by runs,
+     *                      or <code>null</code> when runs do not use it
+     */
+    public StartupBenchmark(Path directory, String engine, Path jar, Path cdsArchive) {
+        if (directory == null)
+            throw new IllegalArgumentException("directory is null");
+        if (engine == null)
+            throw new IllegalArgumentException("engine is null");
+        if (jar == null)
+            throw new IllegalArgumentException("jar is null");
+
+        _directory = directory;
+        _engine = engine;
+        _jar = jar;
+        _cdsArchive = cdsArchive;
+    }
+
+    /**
+     * Runs editor in new JVM specified number of <code>runs</code>
+     *
+     * @param runs          number of measured runs
+     * @return              measured runs
+     * @throws IOException  when editor cannot be started or does not edit the file
+     */
+    public List<Run> run(int runs) throws IOException {
+        if (runs < 1)
+            throw new IllegalArgumentException("runs must be positive number");
+
+        prepareDirectory();
+
+        // archive is created by training run with the same classpath
+        if (_cdsArchive != null && !Files.exists(_cdsArchive)) {
+            launch("-XX:ArchiveClassesAtExit=" + _cdsArchive.toAbsolutePath());
+            if (!Files.exists(_cdsArchive))
+                throw new IOException("Class-data-sharing archive '" + _cdsArchive + "' was not created");
+        }
+
+        for (int i = 0; i < WARMUP_RUNS; i++)
+            launch(sharedArchiveOption());
+
+        List<Run> measuredRuns = new ArrayList<>(runs);
+        for (int i = 0; i < runs; i++)
+            measuredRuns.add(launch(sharedArchiveOption()));
+
+        return measuredRuns;
+    }
+
+    private void prepareDirectory() throws IOException {
+        Files.createDirectories(_directory);
+        Path fitsFile = _directory.resolve(FITS_FILE_NAME).toAbsolutePath();
+        FitsFileGenerator.createFitsFile(fitsFile, EXTRA_CARDS, DATA_SIZE);
+        Files.write(_directory.resolve(FILE_LIST_NAME), Collections.singletonList(fitsFile.toString()), StandardCharsets.UTF_8);
+        Files.write(_directory.resolve(PROPERTIES_FILE_NAME), Arrays.asList("output.writer = console",
+                "engine = " + _engine), StandardCharsets.UTF_8);
+    }
+
+    private String sharedArchiveOption() {
+        return _cdsArchive != null ? "-XX:SharedArchiveFile=" + _cdsArchive.toAbsolutePath() : null;
+    }
+
+    private Run launch(String jvmOption) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (jvmOption != null)
+            command.add(jvmOption);
+        command.addAll(Arrays.asList("-cp", _jar.toAbsolutePath().toString(), ApplicationInitializer.class.getName(),
+                "CHANGE", "-a", FILE_LIST_NAME, "EXPTIME", "45.5"));
+
+        List<String> output = new ArrayList<>();
+        long firstEditNanos = -1;
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(_directory.toFile())
+                .redirectErrorStream(true)
+                .start();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // result of the file is written as soon as the file is edited
+                if (firstEditNanos < 0 && line.contains("INFO >> [" + FITS_FILE_NAME + "]"))
+                    firstEditNanos = System.nanoTime() - start;
+                output.add(line);
+            }
+        }
+
+        int exitCode;
+        try {
+            exitCode = process.waitFor();
+        } catch (InterruptedException iEx) {
+            Thread.currentThread().interrupt();
+            process.destroy();
+            throw new IOException("Benchmark was interrupted", iEx);
+        }
+        long exitNanos = System.nanoTime() - start;
+
+        if (exitCode != 0 || firstEditNanos < 0)
+            throw new IOException("Editor did not edit file, exit code " + exitCode + ", output:"
+                    + System.lineSeparator() + String.join(System.lineSeparator(), output));
+
+        return new Run(firstEditNanos, exitNanos);
+    }
+
+    /**
+     * Creates lines of summary of measured <code>runs</code>
+     *
+     * @param runs  measured runs
+     * @return      lines with minimal, median and maximal times of runs
+     */
+    public static List<String> summarize(List<Run> runs) {
+        if (runs == null || runs.isEmpty())
+            throw new IllegalArgumentException("runs are empty");
+
+        List<Long> firstEdits = new ArrayList<>(runs.size());
+        List<Long> exits = new ArrayList<>(runs.size());
+        for (Run run : runs) {
+            firstEdits.add(run.getFirstEditNanos());
+            exits.add(run.getExitNanos());
+        }
+        Collections.sort(firstEdits);
+        Collections.sort(exits);
+
+        return Arrays.asList(
+                String.format(Locale.ROOT, "Runs: %d", runs.size()),
+                String.format(Locale.ROOT, "Time to first edit: min %.1f ms, median %.1f ms, max %.1f ms",
+                        firstEdits.get(0) / 1e6, median(firstEdits) / 1e6, firstEdits.get(firstEdits.size() - 1) / 1e6),
+                String.format(Locale.ROOT, "Time to exit:       min %.1f ms, median %.1f ms, max %.1f ms",
+                        exits.get(0) / 1e6, median(exits) / 1e6, exits.get(exits.size() - 1) / 1e6));
+    }
+
+    /**
+     * Computes median of sorted <code>values</code>
+     *
+     * @param values    sorted values
+     * @return          median of values
+     */
+    static long median(List<Long> values) {
+        int middle = values.size() / 2;
+        return values.size() % 2 == 1
+                ? values.get(middle)
+                : (values.get(middle - 1) + values.get(middle)) / 2;
+    }
+
+    private static Path defaultJar() throws URISyntaxException {
+        return Paths.get(ApplicationInitializer.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    public static void main(String[] args) throws IOException, URISyntaxException {
+        if (args.length < 1) {
+            System.err.println("Usage: StartupBenchmark directory [runs] [budgetMillis] [engine] [jar] [cdsArchive]");
+            return;
+        }
+
+        Path directory = Paths.get(args[0]);
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_RUNS;
+        long budgetMillis = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        String engine = args.length > 3 ? args[3] : DEFAULT_ENGINE;
+        Path jar = args.length > 4 && !args[4].isEmpty() ? Paths.get(args[4]) : defaultJar();
+        Path cdsArchive = args.length > 5 && !args[5].isEmpty() ? Paths.get(args[5]) : null;
+
+        List<Run> measuredRuns = new StartupBenchmark(directory, engine, jar, cdsArchive).run(runs);
+        System.out.println("Launched jar: " + jar + ", engine: " + engine + (cdsArchive != null ? ", class-data-sharing archive: " + cdsArchive : ""));
+        for (String line : summarize(measuredRuns))
+            System.out.println(line);
+
+        // startup budget is checked against typical run
+        List<Long> firstEdits = new ArrayList<>();
+        for (Run run : measuredRuns)
+            firstEdits.add(run.getFirstEditNanos());
+        Collections.sort(firstEdits);
+        long medianMillis = median(firstEdits) / 1000000;
+        if (budgetMillis > 0 && medianMillis > budgetMillis) {
+            System.err.println("Median time to first edit " + medianMillis + " ms exceeds budget of " + budgetMillis + " ms");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Class with measured times of single run
+     */
+    public static final class Run {
+        private final long _firstEditNanos;
+        private final long _exitNanos;
+
+        Run(long firstEditNanos, long exitNanos) {
+            _firstEditNanos = firstEditNanos;
+            _exitNanos = exitNanos;
+        }
+
+        public long getFirstEditNanos() {
+            return _firstEditNanos;
+        }
+
+        public long getExitNanos() {
+            return _exitNanos;
+        }
+    }
+}
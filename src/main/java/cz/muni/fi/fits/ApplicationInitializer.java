@@ -1,21 +1,27 @@
 package cz.muni.fi.fits;
 
-import com.google.inject.Guice;
-import com.google.inject.Injector;
 import cz.muni.fi.fits.common.Configuration;
 import cz.muni.fi.fits.common.exceptions.ConfigurationException;
 import cz.muni.fi.fits.common.loaders.ConfigurationLoader;
 import cz.muni.fi.fits.common.loaders.PropertiesLoader;
 import cz.muni.fi.fits.common.utils.Constants;
+import cz.muni.fi.fits.common.utils.Placeholders;
+import cz.muni.fi.fits.daemon.DaemonProtocol;
+import cz.muni.fi.fits.daemon.DaemonServer;
+import cz.muni.fi.fits.execution.FolderWatcher;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
 
 /**
- * Main initializing class of FITS Header Editor Tool
+ * Main initializing class of FITS Header Editor Tool, single runs
+ * as well as jobs of {@link DaemonServer} are wired by {@link EditorFactory}
  *
  * @author Martin Vrábel
- * @version 1.1.1
+ * @version 1.8
  */
 public class ApplicationInitializer {
 
@@ -31,22 +37,59 @@ public class ApplicationInitializer {
             //Properties properties = PropertiesLoader.loadProperties(ApplicationInitializer.class, "/fits.properties");    // for IDE
             Properties properties = PropertiesLoader.loadProperties("." + Constants.FILE_SEPARATOR + "fits.properties");    // for JAR
 
+            // commandline switches override properties from file
+            String[] operationArgs = applyCommandlineSwitches(args, properties);
+
             // load configuration
             Configuration config = ConfigurationLoader.loadConfiguration(properties);
 
-            // inject all necessary dependencies
-            Injector injector = Guice.createInjector(new AppInjector(args, config));
+            // keep editor running and accept jobs from clients
+            if (isDaemonAsked(operationArgs)) {
+                serveDaemon(properties, config);
+                return;
+            }
+
+            // watch switch precedes arguments of operation applied to new files
+            boolean watch = isWatchAsked(operationArgs);
+            if (watch)
+                operationArgs = Arrays.copyOfRange(operationArgs, 1, operationArgs.length);
+
+            // wire all necessary dependencies without reflective injection
+            EditorFactory editorFactory = new EditorFactory(operationArgs, config);
+
+            // in case of uncaught exception, handler is set once for the whole JVM
+            Thread.setDefaultUncaughtExceptionHandler((t, e) -> editorFactory.getOutputWriter().writeException(e));
 
             // get instance of executive class
-            FITSHeaderEditor editor = injector.getInstance(FITSHeaderEditor.class);
+            FITSHeaderEditor editor = editorFactory.getEditor();
 
             // start FITS header editing operation
-            editor.start();
+            try {
+                if (watch) {
+                    FolderWatcher folderWatcher = new FolderWatcher(ConfigurationLoader.loadWatchConfiguration(properties),
+                            config.getThreads(), editorFactory.getPerformanceRecorder());
+                    editor.watch(folderWatcher);
+                } else {
+                    editor.start();
+                }
+            } finally {
+                // write messages still waiting in queue of output writer
+                editorFactory.getOutputWriter().close();
+            }
         } catch (ConfigurationException | IOException ex) {
             System.err.println(ex.getMessage());
         }
     }
 
+    private static void serveDaemon(Properties properties, Configuration config)
+            throws ConfigurationException, IOException {
+        // classes of daemon are loaded only in daemon mode
+        try (DaemonServer daemon = new DaemonServer(properties, config, DaemonProtocol.loadPort(properties))) {
+            System.out.println("FITS Header Editor daemon accepts jobs on port " + daemon.getPort());
+            daemon.serve();
+        }
+    }
+
     private static boolean isVersionAsked(String[] args) {
         if (args != null) {
             if (args.length > 0 && args[0].toLowerCase().equals("-version")) {
@@ -56,4 +99,37 @@ public class ApplicationInitializer {
 
         return false;
     }
+
+    private static boolean isWatchAsked(String[] args) {
+        return args != null && args.length > 0 && args[0].equals(Placeholders.WATCH_SWITCH);
+    }
+
+    private static boolean isDaemonAsked(String[] args) {
+        return args != null && args.length == 1 && args[0].equals(Placeholders.DAEMON_SWITCH);
+    }
+
+    /**
+     * Applies commandline switches from <code>args</code> to <code>properties</code>,
+     * values of switches override values from properties file
+     *
+     * @param args          commandline arguments
+     * @param properties    properties to which to apply switches
+     * @return              arguments of editing operation without switches
+     */
+    public static String[] applyCommandlineSwitches(String[] args, Properties properties) {
+        if (args == null)
+            return null;
+
+        List<String> operationArgs = new ArrayList<>(args.length);
+        for (String arg : args) {
+            if (arg.startsWith(Placeholders.THREADS_SWITCH))
+                properties.setProperty(Placeholders.THREADS_PROPERTY, arg.substring(Placeholders.THREADS_SWITCH.length()));
+            else if (arg.startsWith(Placeholders.OUTPUT_ORDER_SWITCH))
+                properties.setProperty(Placeholders.OUTPUT_ORDER_PROPERTY, arg.substring(Placeholders.OUTPUT_ORDER_SWITCH.length()));
+            else
+                operationArgs.add(arg);
+        }
+
+        return operationArgs.toArray(new String[operationArgs.size()]);
+    }
 }
@@ -0,0 +1,272 @@
+package cz.muni.fi.fits;
+
+import cz.muni.fi.fits.common.Configuration;
+import cz.muni.fi.fits.engine.HeaderEditingEngine;
+import cz.muni.fi.fits.engine.MappedFitsEditingEngine;
+import cz.muni.fi.fits.engine.NomTamFitsEditingEngine;
+import cz.muni.fi.fits.engine.io.FileSynchronizer;
+import cz.muni.fi.fits.engine.io.HeaderIndex;
+import cz.muni.fi.fits.execution.FileOperationExecutor;
+import cz.muni.fi.fits.execution.HistogramPerformanceRecorder;
+import cz.muni.fi.fits.execution.NoopPerformanceRecorder;
+import cz.muni.fi.fits.execution.PerformanceRecorder;
+import cz.muni.fi.fits.input.converters.DefaultTypeConverter;
+import cz.muni.fi.fits.input.processors.CmdArgumentsProcessor;
+import cz.muni.fi.fits.input.validators.DefaultInputDataValidator;
+import cz.muni.fi.fits.output.writers.ConsoleOutputWriter;
+import cz.muni.fi.fits.output.writers.FileConsoleOutputWriter;
+import cz.muni.fi.fits.output.writers.FileOutputWriter;
+import cz.muni.fi.fits.output.writers.OutputWriter;
+import cz.muni.fi.fits.output.writers.StructuredOutputWriter;
+
+import java.io.File;
+import java.nio.file.Paths;
+
+/**
+ * Factory wiring {@link FITSHeaderEditor} with its dependencies directly by constructors.
+ * Single commandline runs, jobs of daemon and benchmarks are all wired by this class.
+ * Every dependency is created only when it is requested for the first time
+ *
+ * @author Martin Vrábel
+ * @version 1.2
+ */
+public final class EditorFactory {
+
+    private final String[] _operationArgs;
+    private final Configuration _configuration;
+    private final EditorFactory _engineFactory;
+
+    private HeaderEditingEngine _engine;
+    private FileSynchronizer _fileSynchronizer;
+    private HeaderIndex _headerIndex;
+    private OutputWriter _outputWriter;
+    private PerformanceRecorder _performanceRecorder;
+    private FITSHeaderEditor _editor;
+
+    /**
+     * Creates new {@link EditorFactory} object for single run of editing operation
+     *
+     * @param operationArgs commandline arguments of editing operation
+     * @param configuration {@link Configuration} object with program configuration
+     */
+    public EditorFactory(String[] operationArgs, Configuration configuration) {
+        this(operationArgs, configuration, null, null, null);
+    }
+
+    /**
+     * Creates new {@link EditorFactory} object for one of multiple runs of editing
+     * operations in single JVM, dependencies that are not provided are created
+     * from <code>configuration</code>
+     *
+     * @param operationArgs         commandline arguments of editing operation
+     * @param configuration         {@link Configuration} object with configuration of run
+     * @param engineFactory         factory which engine, file synchronizer and header index
+     *                              are shared by this run, can be <code>null</code>
+     * @param outputWriter          output writer of this run, can be <code>null</code>
+     * @param performanceRecorder   performance recorder of this run, can be <code>null</code>
+     */
+    public EditorFactory(String[] operationArgs, Configuration configuration, EditorFactory engineFactory,
+                         OutputWriter outputWriter, PerformanceRecorder performanceRecorder) {
+        if (configuration == null)
+            throw new IllegalArgumentException("configuration is null");
+
+        _operationArgs = operationArgs;
+        _configuration = configuration;
+        _engineFactory = engineFactory;
+        _outputWriter = outputWriter;
+        _performanceRecorder = performanceRecorder;
+    }
+
+    /**
+     * Gets editor wired with all dependencies
+     *
+     * @return  editor of this run
+     */
+    public FITSHeaderEditor getEditor() {
+        if (_editor == null) {
+            PerformanceRecorder performanceRecorder = getPerformanceRecorder();
+
+            _editor = new FITSHeaderEditor(
+                    getEngine(),
+                    new CmdArgumentsProcessor(_operationArgs, new DefaultTypeConverter()),
+                    new DefaultInputDataValidator(),
+                    getOutputWriter(),
+                    new FileOperationExecutor(_configuration.getThreads(), _configuration.getOutputOrder(), performanceRecorder),
+                    getFileSynchronizer(),
+                    getHeaderIndex(),
+                    performanceRecorder);
+        }
+
+        return _editor;
+    }
+
+    /**
+     * Gets editing engine used by editor of this run
+     *
+     * @return  editing engine of this run
+     */
+    public HeaderEditingEngine getEngine() {
+        if (_engine == null) {
+            _engine = _engineFactory != null
+                    ? _engineFactory.getEngine()
+                    : createEngine(_configuration, getFileSynchronizer(), getHeaderIndex());
+        }
+
+        return _engine;
+    }
+
+    /**
+     * Gets synchronizer of files written by editing engine of this run
+     *
+     * @return  file synchronizer of this run
+     */
+    public FileSynchronizer getFileSynchronizer() {
+        if (_fileSynchronizer == null) {
+            _fileSynchronizer = _engineFactory != null
+                    ? _engineFactory.getFileSynchronizer()
+                    : createFileSynchronizer(_configuration);
+        }
+
+        return _fileSynchronizer;
+    }
+
+    /**
+     * Gets index of primary header values updated by editing engine of this run
+     *
+     * @return  header index of this run
+     */
+    public HeaderIndex getHeaderIndex() {
+        if (_headerIndex == null) {
+            _headerIndex = _engineFactory != null
+                    ? _engineFactory.getHeaderIndex()
+                    : createHeaderIndex(_configuration);
+        }
+
+        return _headerIndex;
+    }
+
+    /**
+     * Gets output writer used by editor of this run
+     *
+     * @return  output writer of this run
+     */
+    public OutputWriter getOutputWriter() {
+        if (_outputWriter == null)
+            _outputWriter = createOutputWriter(_configuration);
+
+        return _outputWriter;
+    }
+
+    /**
+     * Gets performance recorder used by editor of this run
+     *
+     * @return  performance recorder of this run
+     */
+    public PerformanceRecorder getPerformanceRecorder() {
+        if (_performanceRecorder == null)
+            _performanceRecorder = createPerformanceRecorder(_configuration);
+
+        return _performanceRecorder;
+    }
+
+    /**
+     * Creates output writer of type specified in <code>configuration</code>,
+     * console output writer is used as default
+     *
+     * @param configuration {@link Configuration} object with program configuration
+     * @return              new output writer
+     */
+    public static OutputWriter createOutputWriter(Configuration configuration) {
+        if (configuration == null)
+            throw new IllegalArgumentException("configuration is null");
+
+        OutputWriter.Type outputWriterType = configuration.getOutputWriterType();
+        if (outputWriterType == null)
+            return new ConsoleOutputWriter();
+
+        switch (outputWriterType) {
+            case FILE:
+                return new FileOutputWriter(new File(configuration.getOutputFilePath()),
+                        configuration.getOutputQueueSize(), configuration.getOutputOverflowPolicy());
+
+            case FILE_AND_CONSOLE:
+                return new FileConsoleOutputWriter(new File(configuration.getOutputFilePath()),
+                        configuration.getOutputQueueSize(), configuration.getOutputOverflowPolicy());
+
+            case JSON_LINES:
+                return new StructuredOutputWriter(new File(configuration.getOutputFilePath()),
+                        StructuredOutputWriter.Format.JSON_LINES);
+
+            case CSV:
+                return new StructuredOutputWriter(new File(configuration.getOutputFilePath()),
+                        StructuredOutputWriter.Format.CSV);
+
+            // use console output writer as default
+            default:
+                return new ConsoleOutputWriter();
+        }
+    }
+
+    /**
+     * Creates editing engine of type specified in <code>configuration</code>,
+     * nom.tam.fits editing engine is used as default
+     *
+     * @param configuration     {@link Configuration} object with program configuration
+     * @param fileSynchronizer  synchronizer of files written by engine
+     * @param headerIndex       index of primary header values updated by engine
+     * @return                  new editing engine
+     */
+    public static HeaderEditingEngine createEngine(Configuration configuration, FileSynchronizer fileSynchronizer,
+                                                   HeaderIndex headerIndex) {
+        if (configuration == null)
+            throw new IllegalArgumentException("configuration is null");
+
+        // engines are loaded only when they are used
+        if (configuration.getEngineType() == HeaderEditingEngine.Type.MAPPED)
+            return new MappedFitsEditingEngine(configuration.getHeaderReserve(), fileSynchronizer, headerIndex);
+        else
+            return new NomTamFitsEditingEngine(configuration.getHeaderReserve(), fileSynchronizer, headerIndex);
+    }
+
+    /**
+     * Creates synchronizer of files with durability specified in <code>configuration</code>
+     *
+     * @param configuration {@link Configuration} object with program configuration
+     * @return              new file synchronizer
+     */
+    public static FileSynchronizer createFileSynchronizer(Configuration configuration) {
+        if (configuration == null)
+            throw new IllegalArgumentException("configuration is null");
+
+        return new FileSynchronizer(configuration.getDurability(), configuration.getGroupCommitSize());
+    }
+
+    /**
+     * Creates index of primary header values stored in file specified in <code>configuration</code>
+     *
+     * @param configuration {@link Configuration} object with program configuration
+     * @return              new header index
+     */
+    public static HeaderIndex createHeaderIndex(Configuration configuration) {
+        if (configuration == null)
+            throw new IllegalArgumentException("configuration is null");
+
+        String headerIndexPath = configuration.getHeaderIndexPath();
+        return new HeaderIndex(headerIndexPath != null ? Paths.get(headerIndexPath) : null);
+    }
+
+    /**
+     * Creates performance recorder, performance is recorded only when summary is requested
+     *
+     * @param configuration {@link Configuration} object with program configuration
+     * @return              new performance recorder
+     */
+    public static PerformanceRecorder createPerformanceRecorder(Configuration configuration) {
+        if (configuration == null)
+            throw new IllegalArgumentException("configuration is null");
+
+        return configuration.isPerformanceSummary()
+                ? new HistogramPerformanceRecorder()
+                : new NoopPerformanceRecorder();
+    }
+}
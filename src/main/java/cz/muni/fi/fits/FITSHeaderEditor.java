@@ -1,29 +1,51 @@
 package cz.muni.fi.fits;
 
 import cz.muni.fi.fits.engine.HeaderEditingEngine;
+import cz.muni.fi.fits.engine.HeaderFilter;
+import cz.muni.fi.fits.engine.io.FileSynchronizer;
+import cz.muni.fi.fits.engine.io.HeaderIndex;
 import cz.muni.fi.fits.common.exceptions.IllegalInputDataException;
 import cz.muni.fi.fits.common.exceptions.ValidationException;
 import cz.muni.fi.fits.input.models.*;
 import cz.muni.fi.fits.input.processors.InputProcessor;
 import cz.muni.fi.fits.input.validators.InputDataValidator;
 import cz.muni.fi.fits.engine.models.Result;
+import cz.muni.fi.fits.execution.CommittedResultConsumer;
+import cz.muni.fi.fits.execution.FileOperationExecutor;
+import cz.muni.fi.fits.execution.FolderWatcher;
+import cz.muni.fi.fits.execution.PerformanceRecorder;
+import cz.muni.fi.fits.models.OperationType;
 import cz.muni.fi.fits.output.writers.OutputWriter;
 
-import javax.inject.Inject;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * Core editing class used as a central point of FITS Header Editor Tool
  *
  * @author Martin Vrábel
- * @version 1.0.1
+ * @version 1.15
  */
 public class FITSHeaderEditor {
 
+    // result of files not matching filter, such files are not reported
+    private static final Result NOT_MATCHING_FILTER = new Result(true, "Header does not match filter");
+
     private final HeaderEditingEngine _headerEditingEngine;
     private final InputProcessor _inputProcessor;
     private final InputDataValidator _inputDataValidator;
     private final OutputWriter _outputWriter;
+    private final FileOperationExecutor _fileOperationExecutor;
+    private final FileSynchronizer _fileSynchronizer;
+    private final HeaderIndex _headerIndex;
+    private final PerformanceRecorder _performanceRecorder;
 
     /**
      * Creates new {@link FITSHeaderEditor} object with specified external dependencies
@@ -32,264 +54,354 @@ public class FITSHeaderEditor {
      * @param inputProcessor        process input data
      * @param inputDataValidator    validates input data
      * @param outputWriter          writer object that takes care of writing to output
+     * @param fileOperationExecutor executes editing operations over multiple files
+     * @param fileSynchronizer      synchronizes files written by editing engine
+     * @param headerIndex           index of primary header values used and updated during processing
+     * @param performanceRecorder   recorder of duration of processing phases
      */
-    @Inject
     public FITSHeaderEditor(HeaderEditingEngine headerEditingEngine,
                             InputProcessor inputProcessor,
                             InputDataValidator inputDataValidator,
-                            OutputWriter outputWriter) {
+                            OutputWriter outputWriter,
+                            FileOperationExecutor fileOperationExecutor,
+                            FileSynchronizer fileSynchronizer,
+                            HeaderIndex headerIndex,
+                            PerformanceRecorder performanceRecorder) {
         _headerEditingEngine = headerEditingEngine;
         _inputProcessor = inputProcessor;
         _inputDataValidator = inputDataValidator;
         _outputWriter = outputWriter;
-
-        // in case of uncaught exception
-        Thread.setDefaultUncaughtExceptionHandler((t, e) -> _outputWriter.writeException(e));
+        _fileOperationExecutor = fileOperationExecutor;
+        _fileSynchronizer = fileSynchronizer;
+        _headerIndex = headerIndex;
+        _performanceRecorder = performanceRecorder;
     }
 
     /**
      * Main method which starts FITS header editing with constructor-provided input data and dependencies
      */
     public void start() {
+        long startTime = System.nanoTime();
+
         try {
             _outputWriter.writeInfo("Entered parameters: " + _inputProcessor.getInputParameters());
 
-            // process input parameters
+            // process input parameters, input files are discovered
+            long discoveryStartTime = System.nanoTime();
             InputData inputData = _inputProcessor.getProcessedInput();
+            if (_performanceRecorder.isEnabled())
+                _performanceRecorder.recordPhase(PerformanceRecorder.Phase.DISCOVERY, System.nanoTime() - discoveryStartTime);
+
+            // results of all files are written along with type of performed operation,
+            // changed files are reported after their group is synchronized
+            OperationType operationType = inputData.getOperationType();
+            CommittedResultConsumer resultWriter = new CommittedResultConsumer(_fileSynchronizer,
+                    (fitsFile, result) -> _outputWriter.writeResult(fitsFile, operationType, result));
+
+            if (operationType == OperationType.FILTER_FILES) {
+                FilterInputData fid = (FilterInputData)inputData;
+                // validate input data
+                _inputDataValidator.validate(fid);
+                _outputWriter.writeInfo("Provided parameters are in correct format");
+
+                // select files by values of header records
+                HeaderFilter headerFilter = new HeaderFilter(fid.getPredicates(), _headerIndex);
+                List<String> matchingFiles = new ArrayList<>();
+                // files are discovered during filtering, so they are counted when filtered
+                AtomicInteger filteredFiles = new AtomicInteger();
+                _fileOperationExecutor.execute(fid.getFitsFiles(),
+                        fitsFile -> filterFile(headerFilter, fitsFile),
+                        (fitsFile, result) -> {
+                            filteredFiles.incrementAndGet();
+                            if (result == NOT_MATCHING_FILTER)
+                                return;
+                            if (result.isSuccess())
+                                matchingFiles.add(fitsFile.getPath());
+                            resultWriter.accept(fitsFile, result);
+                        });
+
+                // list of matching files can be used as input of other operations
+                try {
+                    Files.write(Paths.get(fid.getOutputPath()), matchingFiles, StandardCharsets.UTF_8);
+                    _outputWriter.writeInfo(matchingFiles.size() + " of " + filteredFiles.get()
+                            + " files match filter, list written to '" + fid.getOutputPath() + "'");
+                } catch (IOException ioEx) {
+                    _outputWriter.writeException("List of matching files was not written", ioEx);
+                }
+            } else {
+                // the same operation is executed for every file
+                _fileOperationExecutor.execute(inputData.getFitsFiles(), createOperation(inputData), resultWriter);
+            }
 
-            switch (inputData.getOperationType()) {
-                case ADD_NEW_RECORD_TO_END:
-                    AddNewRecordInputData anrid = (AddNewRecordInputData)inputData;
-                    // validate input data
-                    _inputDataValidator.validate(anrid);
-
-                    _outputWriter.writeInfo("Provided parameters are in correct format");
-
-                    // insert into FITS files
-                    for (File fitsFile : anrid.getFitsFiles()) {
-                        Result result = _headerEditingEngine.addNewRecord(
-                                anrid.getKeyword(),
-                                anrid.getValue(),
-                                anrid.getComment(),
-                                anrid.updateIfExists(),
-                                fitsFile);
-
-                        // write result to output
-                        if (result.isSuccess())
-                            _outputWriter.writeInfo(fitsFile, result.getMessage());
-                        else
-                            _outputWriter.writeError(fitsFile, result.getMessage());
-                    }
-                    break;
-
-                case ADD_NEW_RECORD_TO_INDEX:
-                    AddNewToIndexInputData antiid = (AddNewToIndexInputData)inputData;
-                    // validate input data
-                    _inputDataValidator.validate(antiid);
-                    _outputWriter.writeInfo("Provided parameters are in correct format");
-
-                    // insert into FITS files
-                    for (File fitsFile : antiid.getFitsFiles()) {
-                        Result result = _headerEditingEngine.addNewRecordToIndex(
-                                antiid.getIndex(),
-                                antiid.getKeyword(),
-                                antiid.getValue(),
-                                antiid.getComment(),
-                                antiid.removeOldIfExists(),
-                                fitsFile);
-
-                        // write result
-                        if (result.isSuccess())
-                            _outputWriter.writeInfo(fitsFile, result.getMessage());
-                        else
-                            _outputWriter.writeError(fitsFile, result.getMessage());
-                    }
-                    break;
-
-                case REMOVE_RECORD_BY_KEYWORD:
-                    RemoveByKeywordInputData rbkid = (RemoveByKeywordInputData)inputData;
-                    // validate input data
-                    _inputDataValidator.validate(rbkid);
-                    _outputWriter.writeInfo("Provided parameters are in correct format");
-
-                    // remove record from FITS files
-                    for (File fitsFile : rbkid.getFitsFiles()) {
-                        Result result = _headerEditingEngine.removeRecordByKeyword(
-                                rbkid.getKeyword(),
-                                fitsFile);
-
-                        // write result
-                        if (result.isSuccess())
-                            _outputWriter.writeInfo(fitsFile, result.getMessage());
-                        else
-                            _outputWriter.writeError(fitsFile, result.getMessage());
-                    }
-                    break;
-
-                case REMOVE_RECORD_FROM_INDEX:
-                    RemoveFromIndexInputData rfiid = (RemoveFromIndexInputData)inputData;
-                    // validate input data
-                    _inputDataValidator.validate(rfiid);
-                    _outputWriter.writeInfo("Provided parameters are in correct format");
-
-                    // remove record from specified index in FITS files
-                    for (File fitsFile : rfiid.getFitsFiles()) {
-                        Result result = _headerEditingEngine.removeRecordFromIndex(
-                                rfiid.getIndex(),
-                                fitsFile);
-
-                        // write result
-                        if (result.isSuccess())
-                            _outputWriter.writeInfo(fitsFile, result.getMessage());
-                        else
-                            _outputWriter.writeError(fitsFile, result.getMessage());
-                    }
-                    break;
-
-                case CHANGE_KEYWORD:
-                    ChangeKeywordInputData ckid = (ChangeKeywordInputData) inputData;
-                    // validate input data
-                    _inputDataValidator.validate(ckid);
-                    _outputWriter.writeInfo("Provided parameters are in correct format");
-
-                    // change keyword for specific record in FITS files
-                    for (File fitsFile : ckid.getFitsFiles()) {
-                        Result result = _headerEditingEngine.changeKeywordOfRecord(
-                                ckid.getOldKeyword(),
-                                ckid.getNewKeyword(),
-                                ckid.removeValueOfNewIfExists(),
-                                fitsFile);
-
-                        // write result
-                        if (result.isSuccess())
-                            _outputWriter.writeInfo(fitsFile, result.getMessage());
-                        else
-                            _outputWriter.writeError(fitsFile, result.getMessage());
-                    }
-                    break;
-
-                case CHANGE_VALUE_BY_KEYWORD:
-                    ChangeValueByKeywordInputData cvbkid = (ChangeValueByKeywordInputData)inputData;
-                    // validate input data
-                    _inputDataValidator.validate(cvbkid);
-                    _outputWriter.writeInfo("Provided parameters are in correct format");
-
-                    // change value of specified record in FITS files
-                    for (File fitsFile : cvbkid.getFitsFiles()) {
-                        Result result = _headerEditingEngine.changeValueOfRecord(
-                                cvbkid.getKeyword(),
-                                cvbkid.getValue(),
-                                cvbkid.getComment(),
-                                cvbkid.addNewIfNotExists(),
-                                fitsFile);
-
-                        // write result
-                        if (result.isSuccess())
-                            _outputWriter.writeInfo(fitsFile, result.getMessage());
-                        else
-                            _outputWriter.writeError(fitsFile, result.getMessage());
-                    }
-                    break;
-
-                case CHAIN_RECORDS:
-                    ChainRecordsInputData crid = (ChainRecordsInputData)inputData;
-                    // validate input data
-                    _inputDataValidator.validate(crid);
-                    _outputWriter.writeInfo("Provided parameters are in correct format");
-
-                    // chain multiple records to new record in FITS files
-                    for (File fitsFile : crid.getFitsFiles()) {
-                        Result result = _headerEditingEngine.chainMultipleRecords(
-                                crid.getKeyword(),
-                                crid.getChainValues(),
-                                crid.getComment(),
-                                crid.updateIfExists(),
-                                crid.longstringsAllowed(),
-                                fitsFile);
-
-                        // write result
-                        if (result.isSuccess())
-                            _outputWriter.writeInfo(fitsFile, result.getMessage());
-                        else
-                            _outputWriter.writeError(fitsFile, result.getMessage());
-                    }
-                    break;
-
-                case SHIFT_TIME:
-                    ShiftTimeInputData stid = (ShiftTimeInputData)inputData;
-                    // validate input data
-                    _inputDataValidator.validate(stid);
-                    _outputWriter.writeInfo("Provided parameters are in correct format");
-
-                    // shift time of time record in FITS files
-                    for (File fitsFile : stid.getFitsFiles()) {
-                        Result result = _headerEditingEngine.shiftTimeOfTimeRecord(
-                                stid.getKeyword(),
-                                stid.getYearShift(),
-                                stid.getMonthShift(),
-                                stid.getDayShift(),
-                                stid.getHourShift(),
-                                stid.getMinuteShift(),
-                                stid.getSecondShift(),
-                                stid.getNanosecondShift(),
-                                fitsFile);
-
-                        // write result
-                        if (result.isSuccess())
-                            _outputWriter.writeInfo(fitsFile, result.getMessage());
-                        else
-                            _outputWriter.writeError(fitsFile, result.getMessage());
-                    }
-                    break;
-
-                case COMPUTE_JD:
-                    ComputeJDInputData cjdid = (ComputeJDInputData)inputData;
-                    // validate input data
-                    _inputDataValidator.validate(cjdid);
-                    _outputWriter.writeInfo("Provided parameters are in correct format");
-
-                    // compute JD in FITS files
-                    for (File fitsFile : cjdid.getFitsFiles()) {
-                        Result result = _headerEditingEngine.computeJulianDate(
-                                cjdid.getDatetime(),
-                                cjdid.getExposure(),
-                                cjdid.getComment(),
-                                fitsFile);
-
-                        // write result
-                        if (result.isSuccess())
-                            _outputWriter.writeInfo(fitsFile, result.getMessage());
-                        else
-                            _outputWriter.writeError(fitsFile, result.getMessage());
-                    }
-                    break;
-
-                case COMPUTE_HJD:
-                    ComputeHJDInputData chjdid = (ComputeHJDInputData)inputData;
-                    // validate input data
-                    _inputDataValidator.validate(chjdid);
-                    _outputWriter.writeInfo("Provided parameters are in correct format");
-
-                    // compute HJD in FITS files
-                    for (File fitsFile : chjdid.getFitsFiles()) {
-                        Result result = _headerEditingEngine.computeHeliocentricJulianDate(
-                                chjdid.getDatetime(),
-                                chjdid.getExposure(),
-                                chjdid.getRightAscension(),
-                                chjdid.getDeclination(),
-                                chjdid.getComment(),
-                                fitsFile);
-
-                        // write result
-                        if (result.isSuccess())
-                            _outputWriter.writeInfo(fitsFile, result.getMessage());
-                        else
-                            _outputWriter.writeError(fitsFile, result.getMessage());
-                    }
-                    break;
+            // synchronize files remaining in unfinished group
+            try {
+                _fileSynchronizer.commit();
+            } finally {
+                resultWriter.flush();
             }
         } catch (IllegalInputDataException | ValidationException iidEx) {
             _outputWriter.writeException(iidEx);
+        } catch (IOException ioEx) {
+            _outputWriter.writeException("Changes in last group of files were not written", ioEx);
+        }
+
+        // index is saved after last group of files is synchronized
+        try {
+            _headerIndex.save();
+        } catch (IOException ioEx) {
+            _outputWriter.writeException("Header index was not saved", ioEx);
+        }
+
+        // summary is empty when performance is not recorded
+        for (String summaryLine : _performanceRecorder.summarize(System.nanoTime() - startTime))
+            _outputWriter.writeInfo(summaryLine);
+    }
+
+    /**
+     * Main method which watches input directory from constructor-provided input data
+     * and executes editing operation for every new FITS file in directory,
+     * watching continues until provided <code>folderWatcher</code> is closed
+     *
+     * @param folderWatcher watcher of input directory
+     */
+    public void watch(FolderWatcher folderWatcher) {
+        if (folderWatcher == null)
+            throw new IllegalArgumentException("folderWatcher is null");
+
+        try {
+            _outputWriter.writeInfo("Entered parameters: " + _inputProcessor.getInputParameters());
+
+            InputData inputData = _inputProcessor.getProcessedInput();
+            if (inputData.getInputPath() == null || !Files.isDirectory(Paths.get(inputData.getInputPath())))
+                throw new IllegalInputDataException("Input path must be directory when it is watched for new files");
+
+            OperationType operationType = inputData.getOperationType();
+            Function<File, Result> operation = createOperation(inputData);
+            _outputWriter.writeInfo("Watching directory '" + inputData.getInputPath() + "' for new files");
+
+            // changes are synchronized and indexed as soon as results are passed,
+            // results are written after their files are synchronized
+            CommittedResultConsumer resultWriter = new CommittedResultConsumer(_fileSynchronizer,
+                    (fitsFile, result) -> _outputWriter.writeResult(fitsFile, operationType, result));
+            folderWatcher.watch(Paths.get(inputData.getInputPath()), operation, resultWriter,
+                    () -> {
+                        try {
+                            try {
+                                _fileSynchronizer.commit();
+                            } finally {
+                                resultWriter.flush();
+                            }
+                            _headerIndex.save();
+                        } catch (IOException ioEx) {
+                            _outputWriter.writeException("Changes in last group of files were not written", ioEx);
+                        }
+                    });
+        } catch (IllegalInputDataException | ValidationException iidEx) {
+            _outputWriter.writeException(iidEx);
+        } catch (IOException ioEx) {
+            _outputWriter.writeException("Directory cannot be watched", ioEx);
+        }
+    }
+
+    private Function<File, Result> createOperation(InputData inputData)
+            throws IllegalInputDataException, ValidationException {
+        OperationType operationType = inputData.getOperationType();
+        switch (operationType) {
+            case ADD_NEW_RECORD_TO_END:
+                AddNewRecordInputData anrid = (AddNewRecordInputData)inputData;
+                // validate input data
+                _inputDataValidator.validate(anrid);
+
+                _outputWriter.writeInfo("Provided parameters are in correct format");
+
+                // insert into FITS files
+                return fitsFile -> _headerEditingEngine.addNewRecord(
+                        anrid.getKeyword(),
+                        anrid.getValue(),
+                        anrid.getComment(),
+                        anrid.updateIfExists(),
+                        anrid.getHduSelector(),
+                        fitsFile);
+
+            case ADD_NEW_RECORD_TO_INDEX:
+                AddNewToIndexInputData antiid = (AddNewToIndexInputData)inputData;
+                // validate input data
+                _inputDataValidator.validate(antiid);
+                _outputWriter.writeInfo("Provided parameters are in correct format");
+
+                // insert into FITS files
+                return fitsFile -> _headerEditingEngine.addNewRecordToIndex(
+                        antiid.getIndex(),
+                        antiid.getKeyword(),
+                        antiid.getValue(),
+                        antiid.getComment(),
+                        antiid.removeOldIfExists(),
+                        antiid.getHduSelector(),
+                        fitsFile);
+
+            case REMOVE_RECORD_BY_KEYWORD:
+                RemoveByKeywordInputData rbkid = (RemoveByKeywordInputData)inputData;
+                // validate input data
+                _inputDataValidator.validate(rbkid);
+                _outputWriter.writeInfo("Provided parameters are in correct format");
+
+                // remove record from FITS files
+                return fitsFile -> _headerEditingEngine.removeRecordByKeyword(
+                        rbkid.getKeyword(),
+                        rbkid.getHduSelector(),
+                        fitsFile);
+
+            case REMOVE_RECORD_FROM_INDEX:
+                RemoveFromIndexInputData rfiid = (RemoveFromIndexInputData)inputData;
+                // validate input data
+                _inputDataValidator.validate(rfiid);
+                _outputWriter.writeInfo("Provided parameters are in correct format");
+
+                // remove record from specified index in FITS files
+                return fitsFile -> _headerEditingEngine.removeRecordFromIndex(
+                        rfiid.getIndex(),
+                        rfiid.getHduSelector(),
+                        fitsFile);
+
+            case CHANGE_KEYWORD:
+                ChangeKeywordInputData ckid = (ChangeKeywordInputData) inputData;
+                // validate input data
+                _inputDataValidator.validate(ckid);
+                _outputWriter.writeInfo("Provided parameters are in correct format");
+
+                // change keyword for specific record in FITS files
+                return fitsFile -> _headerEditingEngine.changeKeywordOfRecord(
+                        ckid.getOldKeyword(),
+                        ckid.getNewKeyword(),
+                        ckid.removeValueOfNewIfExists(),
+                        ckid.getHduSelector(),
+                        fitsFile);
+
+            case CHANGE_VALUE_BY_KEYWORD:
+                ChangeValueByKeywordInputData cvbkid = (ChangeValueByKeywordInputData)inputData;
+                // validate input data
+                _inputDataValidator.validate(cvbkid);
+                _outputWriter.writeInfo("Provided parameters are in correct format");
+
+                // change value of specified record in FITS files
+                return fitsFile -> _headerEditingEngine.changeValueOfRecord(
+                        cvbkid.getKeyword(),
+                        cvbkid.getValue(),
+                        cvbkid.getComment(),
+                        cvbkid.addNewIfNotExists(),
+                        cvbkid.getHduSelector(),
+                        fitsFile);
+
+            case CHAIN_RECORDS:
+                ChainRecordsInputData crid = (ChainRecordsInputData)inputData;
+                // validate input data
+                _inputDataValidator.validate(crid);
+                _outputWriter.writeInfo("Provided parameters are in correct format");
+
+                // chain multiple records to new record in FITS files
+                return fitsFile -> _headerEditingEngine.chainMultipleRecords(
+                        crid.getKeyword(),
+                        crid.getChainValues(),
+                        crid.getComment(),
+                        crid.updateIfExists(),
+                        crid.longstringsAllowed(),
+                        crid.getHduSelector(),
+                        fitsFile);
+
+            case SHIFT_TIME:
+                ShiftTimeInputData stid = (ShiftTimeInputData)inputData;
+                // validate input data
+                _inputDataValidator.validate(stid);
+                _outputWriter.writeInfo("Provided parameters are in correct format");
+
+                if (stid.getCorrectionTable() != null) {
+                    // shift time of time records in FITS files by corrections from table
+                    return fitsFile -> _headerEditingEngine.shiftTimeOfTimeRecords(
+                            stid.getKeywords(),
+                            stid.getCorrectionTable(),
+                            stid.getHduSelector(),
+                            fitsFile);
+                } else {
+                    // shift time of time records in FITS files
+                    return fitsFile -> _headerEditingEngine.shiftTimeOfTimeRecords(
+                            stid.getKeywords(),
+                            stid.getYearShift(),
+                            stid.getMonthShift(),
+                            stid.getDayShift(),
+                            stid.getHourShift(),
+                            stid.getMinuteShift(),
+                            stid.getSecondShift(),
+                            stid.getNanosecondShift(),
+                            stid.getHduSelector(),
+                            fitsFile);
+                }
+
+            case COMPUTE_JD:
+                ComputeJDInputData cjdid = (ComputeJDInputData)inputData;
+                // validate input data
+                _inputDataValidator.validate(cjdid);
+                _outputWriter.writeInfo("Provided parameters are in correct format");
+
+                // compute JD in FITS files
+                return fitsFile -> _headerEditingEngine.computeJulianDate(
+                        cjdid.getDatetime(),
+                        cjdid.getExposure(),
+                        cjdid.getComment(),
+                        cjdid.getHduSelector(),
+                        fitsFile);
+
+            case COMPUTE_HJD:
+                ComputeHJDInputData chjdid = (ComputeHJDInputData)inputData;
+                // validate input data
+                _inputDataValidator.validate(chjdid);
+                _outputWriter.writeInfo("Provided parameters are in correct format");
+
+                // compute HJD in FITS files
+                return fitsFile -> _headerEditingEngine.computeHeliocentricJulianDate(
+                        chjdid.getDatetime(),
+                        chjdid.getExposure(),
+                        chjdid.getRightAscension(),
+                        chjdid.getDeclination(),
+                        chjdid.getComment(),
+                        chjdid.getHduSelector(),
+                        fitsFile);
+
+            case EXECUTE_SCRIPT:
+                ScriptInputData sid = (ScriptInputData)inputData;
+                // validate input data of script and all its operations
+                _inputDataValidator.validate(sid);
+                _outputWriter.writeInfo("Provided parameters are in correct format");
+
+                // execute all operations of script in FITS files
+                return fitsFile -> _headerEditingEngine.executeOperations(
+                        sid.getOperations(),
+                        sid.getHduSelector(),
+                        fitsFile);
+
+            case RESERVE_HEADER_SPACE:
+                ReserveInputData rid = (ReserveInputData)inputData;
+                // validate input data
+                _inputDataValidator.validate(rid);
+                _outputWriter.writeInfo("Provided parameters are in correct format");
+
+                // reserve blank records in headers of FITS files
+                return fitsFile -> _headerEditingEngine.reserveHeaderSpace(
+                        rid.getRecords(),
+                        rid.getHduSelector(),
+                        fitsFile);
+        }
+
+        throw new IllegalInputDataException("Operation " + operationType + " cannot be executed for single files");
+    }
+
+    private static Result filterFile(HeaderFilter headerFilter, File fitsFile) {
+        try {
+            if (headerFilter.matches(fitsFile))
+                return new Result(true, "Header matches filter");
+
+            return NOT_MATCHING_FILTER;
+        } catch (IOException ioEx) {
+            return new Result(false, "Error in reading header: " + ioEx.getMessage());
         }
     }
 }
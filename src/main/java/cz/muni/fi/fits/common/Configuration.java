@@ -1,5 +1,9 @@
 package cz.muni.fi.fits.common;
 
+import cz.muni.fi.fits.engine.HeaderEditingEngine;
+import cz.muni.fi.fits.engine.io.FileSynchronizer;
+import cz.muni.fi.fits.execution.FileOperationExecutor;
+import cz.muni.fi.fits.output.writers.LogChannel;
 import cz.muni.fi.fits.output.writers.OutputWriter;
 
 /**
@@ -7,23 +11,179 @@ import cz.muni.fi.fits.output.writers.OutputWriter;
  * instance of {@link cz.muni.fi.fits.FITSHeaderEditor} class
  *
  * @author Martin Vrábel
- * @version 1.0
+ * @version 1.7
  */
 public class Configuration {
 
     private final OutputWriter.Type _outputWriterType;
     private final String _outputFilePath;
+    private final HeaderEditingEngine.Type _engineType;
+    private final int _threads;
+    private final FileOperationExecutor.Order _outputOrder;
+    private final int _headerReserve;
+    private final FileSynchronizer.Mode _durability;
+    private final int _groupCommitSize;
+    private final String _headerIndexPath;
+    private final int _outputQueueSize;
+    private final LogChannel.OverflowPolicy _outputOverflowPolicy;
+    private final boolean _performanceSummary;
 
     /**
      * Creates new {@link Configuration} object and initializes
-     * properties with entered parameters
+     * properties with entered parameters, default editing engine is used
      *
      * @param outputWriterType  type of output writer
      * @param outputFilePath    path to file if output writer writes to file
      */
     public Configuration(OutputWriter.Type outputWriterType, String outputFilePath) {
+        this(outputWriterType, outputFilePath, HeaderEditingEngine.Type.NOM_TAM);
+    }
+
+    /**
+     * Creates new {@link Configuration} object and initializes
+     * properties with entered parameters
+     *
+     * @param outputWriterType  type of output writer
+     * @param outputFilePath    path to file if output writer writes to file
+     * @param engineType        type of editing engine
+     */
+    public Configuration(OutputWriter.Type outputWriterType, String outputFilePath, HeaderEditingEngine.Type engineType) {
+        this(outputWriterType, outputFilePath, engineType, 1, FileOperationExecutor.Order.INPUT);
+    }
+
+    /**
+     * Creates new {@link Configuration} object and initializes
+     * properties with entered parameters
+     *
+     * @param outputWriterType  type of output writer
+     * @param outputFilePath    path to file if output writer writes to file
+     * @param engineType        type of editing engine
+     * @param threads           number of worker threads processing FITS files
+     * @param outputOrder       order in which results are written to output
+     */
+    public Configuration(OutputWriter.Type outputWriterType, String outputFilePath, HeaderEditingEngine.Type engineType,
+                         int threads, FileOperationExecutor.Order outputOrder) {
+        this(outputWriterType, outputFilePath, engineType, threads, outputOrder, 0);
+    }
+
+    /**
+     * Creates new {@link Configuration} object and initializes
+     * properties with entered parameters
+     *
+     * @param outputWriterType  type of output writer
+     * @param outputFilePath    path to file if output writer writes to file
+     * @param engineType        type of editing engine
+     * @param threads           number of worker threads processing FITS files
+     * @param outputOrder       order in which results are written to output
+     * @param headerReserve     number of blank records reserved when header grows
+     */
+    public Configuration(OutputWriter.Type outputWriterType, String outputFilePath, HeaderEditingEngine.Type engineType,
+                         int threads, FileOperationExecutor.Order outputOrder, int headerReserve) {
+        this(outputWriterType, outputFilePath, engineType, threads, outputOrder, headerReserve, FileSynchronizer.Mode.NONE, 1);
+    }
+
+    /**
+     * Creates new {@link Configuration} object and initializes
+     * properties with entered parameters
+     *
+     * @param outputWriterType  type of output writer
+     * @param outputFilePath    path to file if output writer writes to file
+     * @param engineType        type of editing engine
+     * @param threads           number of worker threads processing FITS files
+     * @param outputOrder       order in which results are written to output
+     * @param headerReserve     number of blank records reserved when header grows
+     * @param durability        mode of synchronization of written files
+     * @param groupCommitSize   number of files synchronized together in group mode
+     */
+    public Configuration(OutputWriter.Type outputWriterType, String outputFilePath, HeaderEditingEngine.Type engineType,
+                         int threads, FileOperationExecutor.Order outputOrder, int headerReserve,
+                         FileSynchronizer.Mode durability, int groupCommitSize) {
+        this(outputWriterType, outputFilePath, engineType, threads, outputOrder, headerReserve, durability, groupCommitSize, null);
+    }
+
+    /**
+     * Creates new {@link Configuration} object and initializes
+     * properties with entered parameters
+     *
+     * @param outputWriterType  type of output writer
+     * @param outputFilePath    path to file if output writer writes to file
+     * @param engineType        type of editing engine
+     * @param threads           number of worker threads processing FITS files
+     * @param outputOrder       order in which results are written to output
+     * @param headerReserve     number of blank records reserved when header grows
+     * @param durability        mode of synchronization of written files
+     * @param groupCommitSize   number of files synchronized together in group mode
+     * @param headerIndexPath   path to file with index of primary header values,
+     *                          <code>null</code> when index is not used
+     */
+    public Configuration(OutputWriter.Type outputWriterType, String outputFilePath, HeaderEditingEngine.Type engineType,
+                         int threads, FileOperationExecutor.Order outputOrder, int headerReserve,
+                         FileSynchronizer.Mode durability, int groupCommitSize, String headerIndexPath) {
+        this(outputWriterType, outputFilePath, engineType, threads, outputOrder, headerReserve, durability, groupCommitSize,
+                headerIndexPath, 0, LogChannel.OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * Creates new {@link Configuration} object and initializes
+     * properties with entered parameters
+     *
+     * @param outputWriterType      type of output writer
+     * @param outputFilePath        path to file if output writer writes to file
+     * @param engineType            type of editing engine
+     * @param threads               number of worker threads processing FITS files
+     * @param outputOrder           order in which results are written to output
+     * @param headerReserve         number of blank records reserved when header grows
+     * @param durability            mode of synchronization of written files
+     * @param groupCommitSize       number of files synchronized together in group mode
+     * @param headerIndexPath       path to file with index of primary header values,
+     *                              <code>null</code> when index is not used
+     * @param outputQueueSize       number of messages waiting to be written to output file,
+     *                              <code>0</code> when messages are written synchronously
+     * @param outputOverflowPolicy  policy applied when queue of output messages is full
+     */
+    public Configuration(OutputWriter.Type outputWriterType, String outputFilePath, HeaderEditingEngine.Type engineType,
+                         int threads, FileOperationExecutor.Order outputOrder, int headerReserve,
+                         FileSynchronizer.Mode durability, int groupCommitSize, String headerIndexPath,
+                         int outputQueueSize, LogChannel.OverflowPolicy outputOverflowPolicy) {
+        this(outputWriterType, outputFilePath, engineType, threads, outputOrder, headerReserve, durability, groupCommitSize,
+                headerIndexPath, outputQueueSize, outputOverflowPolicy, false);
+    }
+
+    /**
+     * Creates new {@link Configuration} object and initializes
+     * properties with entered parameters
+     *
+     * @param outputWriterType      type of output writer
+     * @param outputFilePath        path to file if output writer writes to file
+     * @param engineType            type of editing engine
+     * @param threads               number of worker threads processing FITS files
+     * @param outputOrder           order in which results are written to output
+     * @param headerReserve         number of blank records reserved when header grows
+     * @param durability            mode of synchronization of written files
+     * @param groupCommitSize       number of files synchronized together in group mode
+     * @param headerIndexPath       path to file with index of primary header values,
+     *                              <code>null</code> when index is not used
+     * @param outputQueueSize       number of messages waiting to be written to output file,
+     *                              <code>0</code> when messages are written synchronously
+     * @param outputOverflowPolicy  policy applied when queue of output messages is full
+     * @param performanceSummary    indicates whether summary of performance is written at the end of run
+     */
+    public Configuration(OutputWriter.Type outputWriterType, String outputFilePath, HeaderEditingEngine.Type engineType,
+                         int threads, FileOperationExecutor.Order outputOrder, int headerReserve,
+                         FileSynchronizer.Mode durability, int groupCommitSize, String headerIndexPath,
+                         int outputQueueSize, LogChannel.OverflowPolicy outputOverflowPolicy, boolean performanceSummary) {
         _outputWriterType = outputWriterType;
         _outputFilePath = outputFilePath;
+        _engineType = engineType;
+        _threads = threads;
+        _outputOrder = outputOrder;
+        _headerReserve = headerReserve;
+        _durability = durability;
+        _groupCommitSize = groupCommitSize;
+        _headerIndexPath = headerIndexPath;
+        _outputQueueSize = outputQueueSize;
+        _outputOverflowPolicy = outputOverflowPolicy;
+        _performanceSummary = performanceSummary;
     }
 
     public OutputWriter.Type getOutputWriterType() {
@@ -33,4 +193,44 @@ public class Configuration {
     public String getOutputFilePath() {
         return _outputFilePath;
     }
+
+    public HeaderEditingEngine.Type getEngineType() {
+        return _engineType;
+    }
+
+    public int getThreads() {
+        return _threads;
+    }
+
+    public FileOperationExecutor.Order getOutputOrder() {
+        return _outputOrder;
+    }
+
+    public int getHeaderReserve() {
+        return _headerReserve;
+    }
+
+    public FileSynchronizer.Mode getDurability() {
+        return _durability;
+    }
+
+    public int getGroupCommitSize() {
+        return _groupCommitSize;
+    }
+
+    public String getHeaderIndexPath() {
+        return _headerIndexPath;
+    }
+
+    public int getOutputQueueSize() {
+        return _outputQueueSize;
+    }
+
+    public LogChannel.OverflowPolicy getOutputOverflowPolicy() {
+        return _outputOverflowPolicy;
+    }
+
+    public boolean isPerformanceSummary() {
+        return _performanceSummary;
+    }
 }
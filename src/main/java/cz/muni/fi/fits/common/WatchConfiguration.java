@@ -0,0 +1,51 @@
+package cz.muni.fi.fits.common;
+
+/**
+ * Class holding configuration properties of watching directory
+ * for new FITS files used by {@link cz.muni.fi.fits.execution.FolderWatcher} class
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class WatchConfiguration {
+
+    private final long _stabilityMillis;
+    private final String _markerSuffix;
+    private final int _queueSize;
+    private final long _rescanMillis;
+
+    /**
+     * Creates new {@link WatchConfiguration} object and initializes
+     * properties with entered parameters
+     *
+     * @param stabilityMillis   time in milliseconds for which size and modification time
+     *                          of file must not change to consider file fully written
+     * @param markerSuffix      suffix of marker file created next to fully written file,
+     *                          <code>null</code> when stability of file is used
+     * @param queueSize         number of fully written files waiting for worker threads
+     * @param rescanMillis      time in milliseconds between rescans of directory
+     *                          finding files missed by watch events
+     */
+    public WatchConfiguration(long stabilityMillis, String markerSuffix, int queueSize, long rescanMillis) {
+        _stabilityMillis = stabilityMillis;
+        _markerSuffix = markerSuffix;
+        _queueSize = queueSize;
+        _rescanMillis = rescanMillis;
+    }
+
+    public long getStabilityMillis() {
+        return _stabilityMillis;
+    }
+
+    public String getMarkerSuffix() {
+        return _markerSuffix;
+    }
+
+    public int getQueueSize() {
+        return _queueSize;
+    }
+
+    public long getRescanMillis() {
+        return _rescanMillis;
+    }
+}
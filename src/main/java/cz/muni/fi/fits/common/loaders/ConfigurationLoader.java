@@ -1,8 +1,13 @@
 package cz.muni.fi.fits.common.loaders;
 
 import cz.muni.fi.fits.common.Configuration;
+import cz.muni.fi.fits.common.WatchConfiguration;
 import cz.muni.fi.fits.common.exceptions.ConfigurationException;
 import cz.muni.fi.fits.common.utils.Placeholders;
+import cz.muni.fi.fits.engine.HeaderEditingEngine;
+import cz.muni.fi.fits.engine.io.FileSynchronizer;
+import cz.muni.fi.fits.execution.FileOperationExecutor;
+import cz.muni.fi.fits.output.writers.LogChannel;
 import cz.muni.fi.fits.output.writers.OutputWriter;
 
 import java.util.Arrays;
@@ -13,10 +18,16 @@ import java.util.Properties;
  * Class for loading configuration of FITS Header Editor program
  *
  * @author Martin Vrábel
- * @version 1.1
+ * @version 1.10
  */
 public final class ConfigurationLoader {
 
+    private static final int DEFAULT_GROUP_COMMIT_SIZE = 32;
+    private static final int DEFAULT_OUTPUT_QUEUE_SIZE = 8192;
+    private static final long DEFAULT_WATCH_STABILITY_MILLIS = 1000;
+    private static final int DEFAULT_WATCH_QUEUE_SIZE = 256;
+    private static final long DEFAULT_WATCH_RESCAN_MILLIS = 10000;
+
     /**
      * Loads configuration of FITS Header Editor from provided <code>properties</code>
      *
@@ -36,13 +47,24 @@ public final class ConfigurationLoader {
         if (outputWriter == null || outputWriter.isEmpty())
             throw new ConfigurationException("Cannot find property 'output.writer' in properties file");
 
+        HeaderEditingEngine.Type engineType = loadEngineType(properties);
+        int threads = loadThreads(properties);
+        FileOperationExecutor.Order outputOrder = loadOutputOrder(properties);
+        int headerReserve = loadHeaderReserve(properties);
+        FileSynchronizer.Mode durability = loadDurability(properties);
+        int groupCommitSize = loadGroupCommitSize(properties);
+        String headerIndexPath = loadHeaderIndexPath(properties);
+        int outputQueueSize = loadOutputQueueSize(properties);
+        LogChannel.OverflowPolicy outputOverflowPolicy = loadOutputOverflowPolicy(properties);
+        boolean performanceSummary = loadPerformanceSummary(properties);
         Configuration configuration = null;
 
         List<String> writers = Arrays.asList(splitAndTrimString(outputWriter, ","));
         if (writers.size() == 1) {
             // load console output writer
             if (writers.contains(Placeholders.CONSOLE_WRITER_OPTION)) {
-                configuration = new Configuration(OutputWriter.Type.CONSOLE, null);
+                configuration = new Configuration(OutputWriter.Type.CONSOLE, null, engineType, threads, outputOrder, headerReserve,
+                        durability, groupCommitSize, headerIndexPath, outputQueueSize, outputOverflowPolicy, performanceSummary);
             }
 
             // load file output writer
@@ -51,7 +73,21 @@ public final class ConfigurationLoader {
                 if (outputFilepath == null || outputFilepath.isEmpty())
                     throw new ConfigurationException("Cannot find property " + Placeholders.OUTPUT_FILE_PROPERTY + " in properties file");
 
-                configuration = new Configuration(OutputWriter.Type.FILE, outputFilepath);
+                configuration = new Configuration(OutputWriter.Type.FILE, outputFilepath, engineType, threads, outputOrder, headerReserve,
+                        durability, groupCommitSize, headerIndexPath, outputQueueSize, outputOverflowPolicy, performanceSummary);
+            }
+
+            // load structured output writer writing records of files in JSON lines or CSV format
+            if (writers.contains(Placeholders.JSON_LINES_WRITER_OPTION) || writers.contains(Placeholders.CSV_WRITER_OPTION)) {
+                String outputFilepath = properties.getProperty(Placeholders.OUTPUT_FILE_PROPERTY);
+                if (outputFilepath == null || outputFilepath.isEmpty())
+                    throw new ConfigurationException("Cannot find property " + Placeholders.OUTPUT_FILE_PROPERTY + " in properties file");
+
+                OutputWriter.Type writerType = writers.contains(Placeholders.JSON_LINES_WRITER_OPTION)
+                        ? OutputWriter.Type.JSON_LINES
+                        : OutputWriter.Type.CSV;
+                configuration = new Configuration(writerType, outputFilepath, engineType, threads, outputOrder, headerReserve,
+                        durability, groupCommitSize, headerIndexPath, outputQueueSize, outputOverflowPolicy, performanceSummary);
             }
         }
         if (writers.size() == 2) {
@@ -62,7 +98,8 @@ public final class ConfigurationLoader {
                 if (outputFilepath == null || outputFilepath.isEmpty())
                     throw new ConfigurationException("Cannot find property " + Placeholders.OUTPUT_FILE_PROPERTY + " in properties file");
 
-                configuration = new Configuration(OutputWriter.Type.FILE_AND_CONSOLE, outputFilepath);
+                configuration = new Configuration(OutputWriter.Type.FILE_AND_CONSOLE, outputFilepath, engineType, threads, outputOrder, headerReserve,
+                        durability, groupCommitSize, headerIndexPath, outputQueueSize, outputOverflowPolicy, performanceSummary);
             }
         }
 
@@ -72,6 +109,244 @@ public final class ConfigurationLoader {
             throw new ConfigurationException("Unknown value for property '" + Placeholders.OUTPUT_WRITER_PROPERTY + "'");
     }
 
+    /**
+     * Loads configuration of watching directory for new FITS files
+     * from provided <code>properties</code>
+     *
+     * @param properties                {@link Properties} object with user defined properties
+     * @return                          {@link WatchConfiguration} object
+     * @throws ConfigurationException   when some watch property has invalid value
+     */
+    public static WatchConfiguration loadWatchConfiguration(Properties properties)
+            throws ConfigurationException {
+        if (properties == null)
+            throw new IllegalArgumentException("properties are null");
+
+        // all watch properties are optional
+        long stabilityMillis = loadPositiveNumber(properties, Placeholders.WATCH_STABILITY_PROPERTY, DEFAULT_WATCH_STABILITY_MILLIS);
+        long queueSize = loadPositiveNumber(properties, Placeholders.WATCH_QUEUE_SIZE_PROPERTY, DEFAULT_WATCH_QUEUE_SIZE);
+        long rescanMillis = loadPositiveNumber(properties, Placeholders.WATCH_RESCAN_PROPERTY, DEFAULT_WATCH_RESCAN_MILLIS);
+        if (queueSize > Integer.MAX_VALUE)
+            throw new ConfigurationException("Value of property '" + Placeholders.WATCH_QUEUE_SIZE_PROPERTY + "' is too large");
+
+        String markerSuffix = properties.getProperty(Placeholders.WATCH_MARKER_PROPERTY);
+        if (markerSuffix != null && markerSuffix.trim().isEmpty())
+            markerSuffix = null;
+
+        return new WatchConfiguration(stabilityMillis, markerSuffix != null ? markerSuffix.trim() : null,
+                (int) queueSize, rescanMillis);
+    }
+
+    private static HeaderEditingEngine.Type loadEngineType(Properties properties)
+            throws ConfigurationException {
+        String engine = properties.getProperty(Placeholders.ENGINE_PROPERTY);
+
+        // engine property is optional, use nom.tam.fits engine as default
+        if (engine == null || engine.trim().isEmpty())
+            return HeaderEditingEngine.Type.NOM_TAM;
+
+        switch (engine.trim()) {
+            case Placeholders.NOM_TAM_ENGINE_OPTION:
+                return HeaderEditingEngine.Type.NOM_TAM;
+
+            case Placeholders.MAPPED_ENGINE_OPTION:
+                return HeaderEditingEngine.Type.MAPPED;
+
+            default:
+                throw new ConfigurationException("Unknown value for property '" + Placeholders.ENGINE_PROPERTY + "'");
+        }
+    }
+
+    private static int loadThreads(Properties properties)
+            throws ConfigurationException {
+        String threads = properties.getProperty(Placeholders.THREADS_PROPERTY);
+
+        // threads property is optional, process files sequentially as default
+        if (threads == null || threads.trim().isEmpty())
+            return 1;
+
+        if (threads.trim().equals(Placeholders.AUTO_THREADS_OPTION))
+            return Runtime.getRuntime().availableProcessors();
+
+        try {
+            int threadsCount = Integer.parseInt(threads.trim());
+            if (threadsCount < 1)
+                throw new ConfigurationException("Value of property '" + Placeholders.THREADS_PROPERTY + "' must be positive number");
+
+            return threadsCount;
+        } catch (NumberFormatException nfEx) {
+            throw new ConfigurationException("Unknown value for property '" + Placeholders.THREADS_PROPERTY + "'");
+        }
+    }
+
+    private static FileOperationExecutor.Order loadOutputOrder(Properties properties)
+            throws ConfigurationException {
+        String outputOrder = properties.getProperty(Placeholders.OUTPUT_ORDER_PROPERTY);
+
+        // output order property is optional, write results in order of input files as default
+        if (outputOrder == null || outputOrder.trim().isEmpty())
+            return FileOperationExecutor.Order.INPUT;
+
+        switch (outputOrder.trim()) {
+            case Placeholders.INPUT_ORDER_OPTION:
+                return FileOperationExecutor.Order.INPUT;
+
+            case Placeholders.COMPLETION_ORDER_OPTION:
+                return FileOperationExecutor.Order.COMPLETION;
+
+            default:
+                throw new ConfigurationException("Unknown value for property '" + Placeholders.OUTPUT_ORDER_PROPERTY + "'");
+        }
+    }
+
+    private static int loadHeaderReserve(Properties properties)
+            throws ConfigurationException {
+        String headerReserve = properties.getProperty(Placeholders.HEADER_RESERVE_PROPERTY);
+
+        // header reserve property is optional, do not reserve any records as default
+        if (headerReserve == null || headerReserve.trim().isEmpty())
+            return 0;
+
+        try {
+            int reservedRecords = Integer.parseInt(headerReserve.trim());
+            if (reservedRecords < 0)
+                throw new ConfigurationException("Value of property '" + Placeholders.HEADER_RESERVE_PROPERTY + "' cannot be negative number");
+
+            return reservedRecords;
+        } catch (NumberFormatException nfEx) {
+            throw new ConfigurationException("Unknown value for property '" + Placeholders.HEADER_RESERVE_PROPERTY + "'");
+        }
+    }
+
+    private static FileSynchronizer.Mode loadDurability(Properties properties)
+            throws ConfigurationException {
+        String durability = properties.getProperty(Placeholders.DURABILITY_PROPERTY);
+
+        // durability property is optional, leave writing of changes to operating system as default
+        if (durability == null || durability.trim().isEmpty())
+            return FileSynchronizer.Mode.NONE;
+
+        switch (durability.trim()) {
+            case Placeholders.NO_DURABILITY_OPTION:
+                return FileSynchronizer.Mode.NONE;
+
+            case Placeholders.FSYNC_DURABILITY_OPTION:
+                return FileSynchronizer.Mode.FSYNC;
+
+            case Placeholders.GROUP_DURABILITY_OPTION:
+                return FileSynchronizer.Mode.GROUP;
+
+            default:
+                throw new ConfigurationException("Unknown value for property '" + Placeholders.DURABILITY_PROPERTY + "'");
+        }
+    }
+
+    private static int loadGroupCommitSize(Properties properties)
+            throws ConfigurationException {
+        String groupCommitSize = properties.getProperty(Placeholders.GROUP_COMMIT_SIZE_PROPERTY);
+
+        // group size property is optional, synchronize 32 files together as default
+        if (groupCommitSize == null || groupCommitSize.trim().isEmpty())
+            return DEFAULT_GROUP_COMMIT_SIZE;
+
+        try {
+            int filesCount = Integer.parseInt(groupCommitSize.trim());
+            if (filesCount < 1)
+                throw new ConfigurationException("Value of property '" + Placeholders.GROUP_COMMIT_SIZE_PROPERTY + "' must be positive number");
+
+            return filesCount;
+        } catch (NumberFormatException nfEx) {
+            throw new ConfigurationException("Unknown value for property '" + Placeholders.GROUP_COMMIT_SIZE_PROPERTY + "'");
+        }
+    }
+
+    private static String loadHeaderIndexPath(Properties properties) {
+        String headerIndexPath = properties.getProperty(Placeholders.HEADER_INDEX_PROPERTY);
+
+        // header index property is optional, headers are always read from files as default
+        if (headerIndexPath == null || headerIndexPath.trim().isEmpty())
+            return null;
+
+        return headerIndexPath.trim();
+    }
+
+    private static int loadOutputQueueSize(Properties properties)
+            throws ConfigurationException {
+        String outputQueueSize = properties.getProperty(Placeholders.OUTPUT_QUEUE_SIZE_PROPERTY);
+
+        // output queue size property is optional, queue 8192 messages as default
+        if (outputQueueSize == null || outputQueueSize.trim().isEmpty())
+            return DEFAULT_OUTPUT_QUEUE_SIZE;
+
+        try {
+            int messagesCount = Integer.parseInt(outputQueueSize.trim());
+            if (messagesCount < 0)
+                throw new ConfigurationException("Value of property '" + Placeholders.OUTPUT_QUEUE_SIZE_PROPERTY + "' cannot be negative number");
+
+            return messagesCount;
+        } catch (NumberFormatException nfEx) {
+            throw new ConfigurationException("Unknown value for property '" + Placeholders.OUTPUT_QUEUE_SIZE_PROPERTY + "'");
+        }
+    }
+
+    private static LogChannel.OverflowPolicy loadOutputOverflowPolicy(Properties properties)
+            throws ConfigurationException {
+        String overflowPolicy = properties.getProperty(Placeholders.OUTPUT_OVERFLOW_PROPERTY);
+
+        // output overflow property is optional, wait for space in queue as default
+        if (overflowPolicy == null || overflowPolicy.trim().isEmpty())
+            return LogChannel.OverflowPolicy.BLOCK;
+
+        switch (overflowPolicy.trim()) {
+            case Placeholders.BLOCK_OVERFLOW_OPTION:
+                return LogChannel.OverflowPolicy.BLOCK;
+
+            case Placeholders.DROP_INFO_OVERFLOW_OPTION:
+                return LogChannel.OverflowPolicy.DROP_INFO;
+
+            default:
+                throw new ConfigurationException("Unknown value for property '" + Placeholders.OUTPUT_OVERFLOW_PROPERTY + "'");
+        }
+    }
+
+    private static boolean loadPerformanceSummary(Properties properties)
+            throws ConfigurationException {
+        String performanceSummary = properties.getProperty(Placeholders.PERFORMANCE_SUMMARY_PROPERTY);
+
+        // performance summary property is optional, performance is not recorded as default
+        if (performanceSummary == null || performanceSummary.trim().isEmpty())
+            return false;
+
+        switch (performanceSummary.trim()) {
+            case "true":
+                return true;
+
+            case "false":
+                return false;
+
+            default:
+                throw new ConfigurationException("Unknown value for property '" + Placeholders.PERFORMANCE_SUMMARY_PROPERTY + "'");
+        }
+    }
+
+    private static long loadPositiveNumber(Properties properties, String property, long defaultValue)
+            throws ConfigurationException {
+        String value = properties.getProperty(property);
+
+        if (value == null || value.trim().isEmpty())
+            return defaultValue;
+
+        try {
+            long number = Long.parseLong(value.trim());
+            if (number < 1)
+                throw new ConfigurationException("Value of property '" + property + "' must be positive number");
+
+            return number;
+        } catch (NumberFormatException nfEx) {
+            throw new ConfigurationException("Unknown value for property '" + property + "'");
+        }
+    }
+
     private static String[] splitAndTrimString(String string, String delimiter) {
         String[] splittedArray = string.split(delimiter);
         String[] trimmedArray = new String[splittedArray.length];
@@ -6,7 +6,7 @@ import java.io.File;
  * Static class contaning useful constants related to FITS files
  *
  * @author Martin Vrábel
- * @version 1.6
+ * @version 1.8
  */
 public final class Constants {
 
@@ -20,6 +20,22 @@ public final class Constants {
      */
     public static final String FILE_SEPARATOR = File.separator;
 
+    /**
+     * Size of single logical block in FITS file in bytes,
+     * header and data units are always padded to a multiple of it
+     */
+    public static final int FITS_BLOCK_SIZE = 2880;
+
+    /**
+     * Size of single header record (card image) in bytes
+     */
+    public static final int HEADER_CARD_SIZE = 80;
+
+    /**
+     * Number of header records (card images) in single FITS block
+     */
+    public static final int CARDS_PER_BLOCK = FITS_BLOCK_SIZE / HEADER_CARD_SIZE;
+
     /**
      * Maximum length of header record's keyword string
      */
@@ -45,6 +61,12 @@ public final class Constants {
      */
     public static final String KEYWORD_REGEX = "[A-Z0-9_-]+";
 
+    /**
+     * Regular expression for keyword pattern with wildcards <code>*</code>
+     * matching any number of characters and <code>?</code> matching single character
+     */
+    public static final String KEYWORD_PATTERN_REGEX = "[A-Z0-9_*?-]+";
+
     /**
      * Default keyword for Heliocentric Julian Date header record
      */
@@ -10,7 +10,7 @@ import java.nio.file.Paths;
  * Helper class for smoother working with files and their paths
  *
  * @author Martin Vrábel
- * @version 1.1
+ * @version 1.2
  */
 public final class FileUtils {
 
@@ -62,7 +62,8 @@ public final class FileUtils {
     }
 
     /**
-     * Checks whether provided {@link String} contains valid parsable {@link Path}
+     * Checks whether provided {@link String} contains valid parsable {@link Path},
+     * path is only parsed, file system is not accessed
      *
      * @param string    string to check
      * @return          <code>true</code> if provided string contains valid {@link Path},
@@ -73,19 +74,9 @@ public final class FileUtils {
             throw new IllegalArgumentException("string is null");
 
         try {
-            Path path = Paths.get(string);
-
-            if (Files.exists(path)) {
-                // if path exists then it's valid
-                return true;
-            } else {
-                // if doesn't exist try to create it and then delete
-                Files.createFile(Paths.get(string));
-                Files.deleteIfExists(Paths.get(string));
-                return true;
-            }
-        } catch (InvalidPathException
-                | IOException ex) {
+            Paths.get(string);
+            return true;
+        } catch (InvalidPathException ipEx) {
             return false;
         }
     }
@@ -4,7 +4,7 @@ package cz.muni.fi.fits.common.utils;
  * Static class contaning plceholder constants used across the application
  *
  * @author Martin Vrábel
- * @version 1.0
+ * @version 1.10
  */
 public final class Placeholders {
 
@@ -28,5 +28,165 @@ public final class Placeholders {
      */
     public static final String FILE_WRITER_OPTION = "file";
 
+    /**
+     * Placeholder for output writer writing results of files as JSON lines used in configuration file
+     */
+    public static final String JSON_LINES_WRITER_OPTION = "jsonl";
+
+    /**
+     * Placeholder for output writer writing results of files as CSV lines used in configuration file
+     */
+    public static final String CSV_WRITER_OPTION = "csv";
+
+    /**
+     * Placeholder for editing engine property
+     */
+    public static final String ENGINE_PROPERTY = "engine";
+
+    /**
+     * Placeholder for editing engine based on nom.tam.fits library used in configuration file
+     */
+    public static final String NOM_TAM_ENGINE_OPTION = "nomtam";
+
+    /**
+     * Placeholder for editing engine based on memory-mapped files used in configuration file
+     */
+    public static final String MAPPED_ENGINE_OPTION = "mapped";
+
+    /**
+     * Placeholder for number of worker threads property
+     */
+    public static final String THREADS_PROPERTY = "execution.threads";
+
+    /**
+     * Placeholder for number of worker threads equal to number of available processors
+     */
+    public static final String AUTO_THREADS_OPTION = "auto";
+
+    /**
+     * Placeholder for order of results in output property
+     */
+    public static final String OUTPUT_ORDER_PROPERTY = "output.order";
+
+    /**
+     * Placeholder for writing results in order of input files used in configuration file
+     */
+    public static final String INPUT_ORDER_OPTION = "input";
+
+    /**
+     * Placeholder for writing results in order of completion used in configuration file
+     */
+    public static final String COMPLETION_ORDER_OPTION = "completion";
+
+    /**
+     * Placeholder for number of blank header records reserved when header grows property
+     */
+    public static final String HEADER_RESERVE_PROPERTY = "header.reserve";
+
+    /**
+     * Placeholder for durability of written files property
+     */
+    public static final String DURABILITY_PROPERTY = "durability";
+
+    /**
+     * Placeholder for leaving writing of changes to operating system used in configuration file
+     */
+    public static final String NO_DURABILITY_OPTION = "none";
+
+    /**
+     * Placeholder for synchronizing every written file used in configuration file
+     */
+    public static final String FSYNC_DURABILITY_OPTION = "fsync";
+
+    /**
+     * Placeholder for synchronizing written files in groups used in configuration file
+     */
+    public static final String GROUP_DURABILITY_OPTION = "group";
+
+    /**
+     * Placeholder for number of files synchronized together in group durability mode property
+     */
+    public static final String GROUP_COMMIT_SIZE_PROPERTY = "durability.group.size";
+
+    /**
+     * Placeholder for path to file with index of primary header values property
+     */
+    public static final String HEADER_INDEX_PROPERTY = "header.index";
+
+    /**
+     * Placeholder for number of messages waiting to be written to output file property
+     */
+    public static final String OUTPUT_QUEUE_SIZE_PROPERTY = "output.queue.size";
+
+    /**
+     * Placeholder for policy applied when queue of output messages is full property
+     */
+    public static final String OUTPUT_OVERFLOW_PROPERTY = "output.overflow";
+
+    /**
+     * Placeholder for waiting until there is space in queue of output messages used in configuration file
+     */
+    public static final String BLOCK_OVERFLOW_OPTION = "block";
+
+    /**
+     * Placeholder for dropping info messages when queue of output messages is full used in configuration file
+     */
+    public static final String DROP_INFO_OVERFLOW_OPTION = "drop-info";
+
+    /**
+     * Placeholder for writing summary of performance at the end of run property
+     */
+    public static final String PERFORMANCE_SUMMARY_PROPERTY = "performance.summary";
+
+    /**
+     * Placeholder for commandline switch overriding number of worker threads
+     */
+    public static final String THREADS_SWITCH = "-threads=";
+
+    /**
+     * Placeholder for commandline switch overriding order of results in output
+     */
+    public static final String OUTPUT_ORDER_SWITCH = "-order=";
+
+    /**
+     * Placeholder for loopback port on which daemon accepts jobs property
+     */
+    public static final String DAEMON_PORT_PROPERTY = "daemon.port";
+
+    /**
+     * Placeholder for commandline switch starting daemon instead of single run
+     */
+    public static final String DAEMON_SWITCH = "-daemon";
+
+    /**
+     * Placeholder for commandline switch of daemon client stopping running daemon
+     */
+    public static final String DAEMON_STOP_SWITCH = "-daemon-stop";
+
+    /**
+     * Placeholder for time for which watched file must not change to be considered fully written property
+     */
+    public static final String WATCH_STABILITY_PROPERTY = "watch.stability";
+
+    /**
+     * Placeholder for suffix of marker files created next to fully written watched files property
+     */
+    public static final String WATCH_MARKER_PROPERTY = "watch.marker";
+
+    /**
+     * Placeholder for number of watched files waiting for worker threads property
+     */
+    public static final String WATCH_QUEUE_SIZE_PROPERTY = "watch.queue.size";
+
+    /**
+     * Placeholder for time between rescans of watched directory property
+     */
+    public static final String WATCH_RESCAN_PROPERTY = "watch.rescan";
+
+    /**
+     * Placeholder for commandline switch watching input directory for new files instead of single run
+     */
+    public static final String WATCH_SWITCH = "-watch";
+
     private Placeholders() { }
 }
@@ -4,10 +4,12 @@ package cz.muni.fi.fits.common.utils;
  * Utility class for various operation with strings
  *
  * @author Martin Vrábel
- * @version 1.0
+ * @version 1.1
  */
 public final class StringUtils {
 
+    private static final char MAX_ASCII_CHARACTER = '\u007f';
+
     /**
      * Extracts class name of provided {@link Throwable} object without
      * package information
@@ -29,6 +31,24 @@ public final class StringUtils {
             return type;
     }
 
+    /**
+     * Checks whether provided <code>string</code> contains only ASCII characters
+     *
+     * @param string    string to check
+     * @return          <code>true</code> if all characters of <code>string</code>
+     *                  are ASCII characters, <code>false</code> otherwise
+     */
+    public static boolean isAscii(CharSequence string) {
+        if (string == null)
+            throw new IllegalArgumentException("string is null");
+
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) > MAX_ASCII_CHARACTER)
+                return false;
+        }
+
+        return true;
+    }
 
     public StringUtils() { }
 }
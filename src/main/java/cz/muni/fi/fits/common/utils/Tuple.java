@@ -1,12 +1,12 @@
 package cz.muni.fi.fits.common.utils;
 
-import com.google.common.base.Objects;
+import java.util.Objects;
 
 /**
  * Class defining simple object pair
  *
  * @author Martin Vrábel
- * @version 1.0
+ * @version 1.1
  */
 public class Tuple<Type1, Type2> {
 
@@ -42,12 +42,12 @@ public class Tuple<Type1, Type2> {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Tuple<?, ?> tuple = (Tuple<?, ?>) o;
-        return Objects.equal(_first, tuple._first) &&
-                Objects.equal(_second, tuple._second);
+        return Objects.equals(_first, tuple._first) &&
+                Objects.equals(_second, tuple._second);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(_first, _second);
+        return Objects.hash(_first, _second);
     }
 }
@@ -0,0 +1,166 @@
+package cz.muni.fi.fits.daemon;
+
+import cz.muni.fi.fits.ApplicationInitializer;
+import cz.muni.fi.fits.common.exceptions.ConfigurationException;
+import cz.muni.fi.fits.common.loaders.PropertiesLoader;
+import cz.muni.fi.fits.common.utils.Constants;
+import cz.muni.fi.fits.common.utils.Placeholders;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Thin client sending commandline arguments to running {@link DaemonServer}
+ * and printing its messages to standard outputs, client accepts the same
+ * arguments as {@link ApplicationInitializer}. Arguments with paths, i.e. FITS files
+ * argument, script file of SCRIPT operation, output list of FILTER operation and value
+ * of <code>-table=</code> switch, are made absolute, because daemon resolves relative
+ * paths against its own working directory, so paths inside list files
+ * must be absolute or relative to working directory of daemon.
+ * Request is authorized by token read from token file of daemon.
+ * When there is no daemon running, arguments are processed by editor in JVM of client
+ *
+ * @author Martin Vrábel
+ * @version 1.1
+ */
+public final class DaemonClient {
+
+    private static final String PROPERTIES_FILE = "." + Constants.FILE_SEPARATOR + "fits.properties";
+    private static final String TABLE_SWITCH = "-table=";
+
+    // switches which can be placed anywhere among arguments and are not part of operation
+    private static final String[] POSITION_FREE_SWITCHES = {
+            Placeholders.THREADS_SWITCH, Placeholders.OUTPUT_ORDER_SWITCH, "-hdu=", "-depth=",
+            "-recursive", "-include=", "-exclude=", "-all-files" };
+
+    private DaemonClient() { }
+
+    public static void main(String[] args) {
+        if (args == null)
+            args = new String[0];
+
+        try {
+            // port is taken from properties in working directory, if there are any
+            Properties properties = new File(PROPERTIES_FILE).isFile()
+                    ? PropertiesLoader.loadProperties(PROPERTIES_FILE)
+                    : new Properties();
+            int port = DaemonProtocol.loadPort(properties);
+
+            int exitCode;
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                socket.setTcpNoDelay(true);
+                Writer writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), DaemonProtocol.CHARSET));
+                BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), DaemonProtocol.CHARSET));
+
+                String token = DaemonProtocol.readToken(DaemonProtocol.getTokenFile(DaemonProtocol.DEFAULT_TOKEN_DIRECTORY, port));
+                DaemonProtocol.writeRequest(writer, token, resolvePaths(args));
+                exitCode = DaemonProtocol.readResponse(reader, System.out, System.err);
+            } catch (ConnectException cEx) {
+                if (args.length == 1 && args[0].equals(Placeholders.DAEMON_STOP_SWITCH)) {
+                    System.err.println("There is no daemon running on port " + port);
+                    System.exit(DaemonProtocol.EXIT_FAILURE);
+                }
+
+                // there is no daemon running, so edit files in this JVM
+                ApplicationInitializer.main(args);
+                return;
+            }
+
+            if (exitCode != DaemonProtocol.EXIT_SUCCESS)
+                System.exit(exitCode);
+        } catch (ConfigurationException | IOException | IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.exit(DaemonProtocol.EXIT_FAILURE);
+        }
+    }
+
+    /**
+     * Makes arguments with paths absolute, arguments are recognized by their position
+     * in arguments of operation, so keywords and values are never changed.
+     * Patterns of <code>-include=</code> and <code>-exclude=</code> switches
+     * are relative to input directory, so they are kept as well
+     *
+     * @param args  commandline arguments
+     * @return      new array with resolved arguments
+     */
+    static String[] resolvePaths(String[] args) {
+        if (args == null)
+            throw new IllegalArgumentException("args is null");
+
+        String[] resolved = args.clone();
+
+        // positions of arguments of operation without switches placed anywhere
+        List<Integer> positions = new ArrayList<>(args.length);
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].toLowerCase().startsWith(TABLE_SWITCH))
+                resolved[i] = args[i].substring(0, TABLE_SWITCH.length()) + resolvePath(args[i].substring(TABLE_SWITCH.length()).trim());
+            else if (!isPositionFreeSwitch(args[i]))
+                positions.add(i);
+        }
+
+        // watch switch precedes arguments of operation
+        int operationIndex = 0;
+        if (!positions.isEmpty() && args[positions.get(0)].equals(Placeholders.WATCH_SWITCH))
+            operationIndex = 1;
+        if (positions.size() <= operationIndex)
+            return resolved;
+
+        // FITS files argument follows operation and its switches
+        String operation = args[positions.get(operationIndex)].trim().toUpperCase();
+        int filesIndex = operationIndex + 1;
+        while (filesIndex < positions.size() && args[positions.get(filesIndex)].startsWith("-"))
+            filesIndex++;
+        resolveAt(resolved, positions, filesIndex);
+
+        // script file and output list follow FITS files argument
+        if (operation.equals("SCRIPT") || operation.equals("FILTER"))
+            resolveAt(resolved, positions, filesIndex + 1);
+
+        return resolved;
+    }
+
+    private static boolean isPositionFreeSwitch(String arg) {
+        String lowerCaseArg = arg.trim().toLowerCase();
+        for (String positionFreeSwitch : POSITION_FREE_SWITCHES) {
+            if (lowerCaseArg.startsWith(positionFreeSwitch))
+                return true;
+        }
+
+        return false;
+    }
+
+    private static void resolveAt(String[] resolved, List<Integer> positions, int index) {
+        if (index < positions.size())
+            resolved[positions.get(index)] = resolvePath(resolved[positions.get(index)]);
+    }
+
+    private static String resolvePath(String value) {
+        if (value.isEmpty())
+            return value;
+
+        try {
+            // output list does not exist yet, so paths are resolved without checking them
+            Path path = Paths.get(value);
+            if (!path.isAbsolute())
+                return path.toAbsolutePath().normalize().toString();
+        } catch (InvalidPathException ipEx) {
+            // value is not path
+        }
+
+        return value;
+    }
+}
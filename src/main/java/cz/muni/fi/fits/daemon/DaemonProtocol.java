@@ -0,0 +1,349 @@
+package cz.muni.fi.fits.daemon;
+
+import cz.muni.fi.fits.common.exceptions.ConfigurationException;
+import cz.muni.fi.fits.common.utils.Placeholders;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Static class with line based text protocol used between daemon and its clients.
+ * Request starts with header line <code>FHE/1 &lt;n&gt;</code> followed by line
+ * <code>TOKEN &lt;token&gt;</code> and <code>n</code> lines with commandline arguments.
+ * Token is random secret of running daemon written to file readable only by its owner,
+ * so only processes of the same user can send jobs to daemon. Response consists of lines
+ * with info messages prefixed by <code>OUT </code>, lines with errors prefixed
+ * by <code>ERR </code> and the last line <code>EXIT &lt;code&gt;</code>
+ *
+ * @author Martin Vrábel
+ * @version 1.1
+ */
+public final class DaemonProtocol {
+
+    /**
+     * Default loopback port on which daemon accepts jobs
+     */
+    public static final int DEFAULT_PORT = 7460;
+
+    /**
+     * Charset of all lines of protocol
+     */
+    public static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    /**
+     * Exit code of job which was run
+     */
+    public static final int EXIT_SUCCESS = 0;
+
+    /**
+     * Exit code of job which could not be run
+     */
+    public static final int EXIT_FAILURE = 1;
+
+    /**
+     * Default directory with token files of running daemons
+     */
+    public static final Path DEFAULT_TOKEN_DIRECTORY = Paths.get(System.getProperty("user.home"), ".fits-header-editor");
+
+    static final String REQUEST_HEADER = "FHE/1 ";
+    static final String TOKEN_PREFIX = "TOKEN ";
+    static final String OUT_PREFIX = "OUT ";
+    static final String ERR_PREFIX = "ERR ";
+    static final String EXIT_PREFIX = "EXIT ";
+    private static final String LINE_SEPARATOR = "\n";
+    private static final int MAX_ARGUMENTS = 1024;
+    private static final int TOKEN_BYTES = 32;
+
+    private DaemonProtocol() { }
+
+    /**
+     * Loads port of daemon from <code>properties</code>
+     *
+     * @param properties    properties with optional port of daemon
+     * @return              port from properties or {@link #DEFAULT_PORT} when not specified
+     * @throws ConfigurationException when port is not valid port number
+     */
+    public static int loadPort(Properties properties)
+            throws ConfigurationException {
+        if (properties == null)
+            throw new IllegalArgumentException("properties is null");
+
+        String port = properties.getProperty(Placeholders.DAEMON_PORT_PROPERTY);
+
+        // daemon port property is optional
+        if (port == null || port.trim().isEmpty())
+            return DEFAULT_PORT;
+
+        try {
+            int portNumber = Integer.parseInt(port.trim());
+            if (portNumber < 1 || portNumber > 65535)
+                throw new ConfigurationException("Value of property '" + Placeholders.DAEMON_PORT_PROPERTY + "' must be port number");
+
+            return portNumber;
+        } catch (NumberFormatException nfEx) {
+            throw new ConfigurationException("Unknown value for property '" + Placeholders.DAEMON_PORT_PROPERTY + "'");
+        }
+    }
+
+    /**
+     * Gets file with token of daemon listening on specified <code>port</code>
+     *
+     * @param tokenDirectory    directory with token files
+     * @param port              port of daemon
+     * @return                  token file of daemon
+     */
+    public static Path getTokenFile(Path tokenDirectory, int port) {
+        if (tokenDirectory == null)
+            throw new IllegalArgumentException("tokenDirectory is null");
+
+        return tokenDirectory.resolve("daemon-" + port + ".token");
+    }
+
+    /**
+     * Generates new random token and writes it to <code>tokenFile</code>,
+     * which is readable and writable only by its owner on file systems with POSIX permissions
+     *
+     * @param tokenFile     file to which to write token
+     * @return              generated token
+     * @throws IOException when token file cannot be written
+     */
+    public static String createToken(Path tokenFile) throws IOException {
+        if (tokenFile == null)
+            throw new IllegalArgumentException("tokenFile is null");
+
+        byte[] bytes = new byte[TOKEN_BYTES];
+        new SecureRandom().nextBytes(bytes);
+        StringBuilder token = new StringBuilder(2 * TOKEN_BYTES);
+        for (byte b : bytes)
+            token.append(String.format("%02x", b));
+
+        Path directory = tokenFile.toAbsolutePath().getParent();
+        boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+        if (posix) {
+            if (!Files.isDirectory(directory))
+                Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(EnumSet.of(
+                        PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE, PosixFilePermission.OWNER_EXECUTE)));
+
+            // file is created with restricted permissions, so token is never readable by others
+            Set<PosixFilePermission> permissions = EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE);
+            Files.deleteIfExists(tokenFile);
+            Files.createFile(tokenFile, PosixFilePermissions.asFileAttribute(permissions));
+        } else {
+            // directory in home of user is not accessible by others on other platforms
+            Files.createDirectories(directory);
+            Files.deleteIfExists(tokenFile);
+            Files.createFile(tokenFile);
+        }
+
+        Files.write(tokenFile, token.toString().getBytes(CHARSET));
+        return token.toString();
+    }
+
+    /**
+     * Reads token of running daemon from <code>tokenFile</code>
+     *
+     * @param tokenFile     file with token of daemon
+     * @return              token of daemon
+     * @throws IOException when token file does not exist or cannot be read
+     */
+    public static String readToken(Path tokenFile) throws IOException {
+        if (tokenFile == null)
+            throw new IllegalArgumentException("tokenFile is null");
+
+        try {
+            return new String(Files.readAllBytes(tokenFile), CHARSET).trim();
+        } catch (NoSuchFileException nsfEx) {
+            throw new IOException("Token file of daemon '" + tokenFile + "' does not exist", nsfEx);
+        }
+    }
+
+    /**
+     * Writes request with commandline <code>args</code> to <code>writer</code>
+     *
+     * @param writer    writer to which to write request
+     * @param token     token of daemon
+     * @param args      commandline arguments of job
+     * @throws IOException when request cannot be written
+     */
+    public static void writeRequest(Writer writer, String token, String[] args) throws IOException {
+        if (writer == null)
+            throw new IllegalArgumentException("writer is null");
+        if (token == null)
+            throw new IllegalArgumentException("token is null");
+        if (args == null)
+            throw new IllegalArgumentException("args is null");
+
+        for (String arg : args) {
+            if (arg == null)
+                throw new IllegalArgumentException("args contains null argument");
+            if (arg.indexOf('\n') >= 0 || arg.indexOf('\r') >= 0)
+                throw new IllegalArgumentException("Argument '" + arg + "' contains line separator");
+        }
+
+        writer.write(REQUEST_HEADER + args.length + LINE_SEPARATOR);
+        writer.write(TOKEN_PREFIX + token + LINE_SEPARATOR);
+        for (String arg : args)
+            writer.write(arg + LINE_SEPARATOR);
+        writer.flush();
+    }
+
+    /**
+     * Reads request with commandline arguments from <code>reader</code>
+     *
+     * @param reader    reader from which to read request
+     * @param token     token of daemon which request must contain
+     * @return          commandline arguments of job or <code>null</code>
+     *                  when connection is closed before request
+     * @throws IOException when request is in invalid format, does not contain
+     *                     token of daemon or cannot be read
+     */
+    public static String[] readRequest(BufferedReader reader, String token) throws IOException {
+        if (reader == null)
+            throw new IllegalArgumentException("reader is null");
+        if (token == null)
+            throw new IllegalArgumentException("token is null");
+
+        String header = reader.readLine();
+        if (header == null)
+            return null;
+        if (!header.startsWith(REQUEST_HEADER))
+            throw new IOException("Request does not start with '" + REQUEST_HEADER.trim() + "' header");
+
+        int count;
+        try {
+            count = Integer.parseInt(header.substring(REQUEST_HEADER.length()).trim());
+        } catch (NumberFormatException nfEx) {
+            throw new IOException("Request header does not contain number of arguments");
+        }
+        if (count < 0 || count > MAX_ARGUMENTS)
+            throw new IOException("Request contains invalid number of arguments: " + count);
+
+        // tokens are compared in constant time, so token cannot be guessed by timing
+        String tokenLine = reader.readLine();
+        if (tokenLine == null || !tokenLine.startsWith(TOKEN_PREFIX)
+                || !MessageDigest.isEqual(tokenLine.substring(TOKEN_PREFIX.length()).getBytes(CHARSET), token.getBytes(CHARSET)))
+            throw new IOException("Request does not contain valid token of daemon");
+
+        String[] args = new String[count];
+        for (int i = 0; i < count; i++) {
+            args[i] = reader.readLine();
+            if (args[i] == null)
+                throw new IOException("Request ended after " + i + " of " + count + " arguments");
+        }
+
+        return args;
+    }
+
+    /**
+     * Creates stream writing every printed line as response line with specified <code>prefix</code>,
+     * streams created over the same <code>output</code> can be used by multiple threads
+     *
+     * @param output    stream with response to client
+     * @param prefix    prefix of response lines
+     * @return          stream writing response lines
+     */
+    static PrintStream createResponseStream(OutputStream output, String prefix) {
+        return new ResponseStream(output, prefix);
+    }
+
+    /**
+     * Writes the last line of response with <code>exitCode</code> of job
+     *
+     * @param output    stream with response to client
+     * @param exitCode  exit code of job
+     * @throws IOException when line cannot be written
+     */
+    static void writeExitCode(OutputStream output, int exitCode) throws IOException {
+        synchronized (output) {
+            output.write((EXIT_PREFIX + exitCode + LINE_SEPARATOR).getBytes(CHARSET));
+            output.flush();
+        }
+    }
+
+    /**
+     * Reads response of daemon from <code>reader</code>, info messages are printed
+     * to <code>out</code> and errors to <code>err</code>
+     *
+     * @param reader    reader from which to read response
+     * @param out       stream to which to print info messages
+     * @param err       stream to which to print errors
+     * @return          exit code of job
+     * @throws IOException when response is in invalid format or connection
+     *                     is closed before exit code
+     */
+    public static int readResponse(BufferedReader reader, PrintStream out, PrintStream err) throws IOException {
+        if (reader == null)
+            throw new IllegalArgumentException("reader is null");
+        if (out == null)
+            throw new IllegalArgumentException("out is null");
+        if (err == null)
+            throw new IllegalArgumentException("err is null");
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith(OUT_PREFIX)) {
+                out.println(line.substring(OUT_PREFIX.length()));
+            } else if (line.startsWith(ERR_PREFIX)) {
+                err.println(line.substring(ERR_PREFIX.length()));
+            } else if (line.startsWith(EXIT_PREFIX)) {
+                try {
+                    return Integer.parseInt(line.substring(EXIT_PREFIX.length()).trim());
+                } catch (NumberFormatException nfEx) {
+                    throw new IOException("Response contains invalid exit code");
+                }
+            } else {
+                throw new IOException("Response contains unknown line: " + line);
+            }
+        }
+
+        throw new IOException("Daemon closed connection before end of response");
+    }
+
+    private static final class ResponseStream extends PrintStream {
+
+        private final OutputStream _output;
+        private final String _prefix;
+
+        private ResponseStream(OutputStream output, String prefix) {
+            super(output, true);
+            _output = output;
+            _prefix = prefix;
+        }
+
+        @Override
+        public void println(String x) {
+            // multiline messages are split, so every line keeps the prefix
+            StringBuilder lines = new StringBuilder();
+            for (String line : String.valueOf(x).split("\r?\n", -1))
+                lines.append(_prefix).append(line).append(LINE_SEPARATOR);
+
+            byte[] bytes = lines.toString().getBytes(CHARSET);
+            synchronized (_output) {
+                write(bytes, 0, bytes.length);
+                flush();
+            }
+        }
+
+        @Override
+        public void println(Object x) {
+            println(String.valueOf(x));
+        }
+    }
+}
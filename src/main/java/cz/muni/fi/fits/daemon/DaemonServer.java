@@ -0,0 +1,210 @@
+package cz.muni.fi.fits.daemon;
+
+import cz.muni.fi.fits.ApplicationInitializer;
+import cz.muni.fi.fits.EditorFactory;
+import cz.muni.fi.fits.common.Configuration;
+import cz.muni.fi.fits.common.exceptions.ConfigurationException;
+import cz.muni.fi.fits.common.loaders.ConfigurationLoader;
+import cz.muni.fi.fits.common.utils.Placeholders;
+import cz.muni.fi.fits.output.writers.ConsoleOutputWriter;
+import cz.muni.fi.fits.output.writers.OutputWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Daemon keeping single JVM with editing engine and its dependencies alive
+ * and running jobs received from clients over loopback socket,
+ * so every job saves startup of JVM and runs already compiled code.
+ * Only requests with token which daemon wrote to file readable by its owner
+ * are accepted, so jobs cannot be sent by other users of the machine.
+ * Editing engine, file synchronizer and header index are created once
+ * by {@link EditorFactory}, every job is wired by its own factory sharing them,
+ * built from commandline switches of job applied to properties of daemon
+ * and with {@link ConsoleOutputWriter} writing messages back to client.
+ * Jobs are run one after another
+ * in order in which clients connected, files of every job are processed
+ * by number of threads specified in configuration
+ *
+ * @author Martin Vrábel
+ * @version 1.2
+ */
+public class DaemonServer implements Closeable {
+
+    private static final int CONNECTION_BACKLOG = 64;
+
+    private final Properties _properties;
+    private final EditorFactory _engineFactory;
+    private final ServerSocket _serverSocket;
+    private final Path _tokenFile;
+    private final String _token;
+
+    /**
+     * Creates new {@link DaemonServer} listening on specified loopback <code>port</code>
+     * with token written to {@link DaemonProtocol#DEFAULT_TOKEN_DIRECTORY}
+     *
+     * @param properties    properties of daemon, commandline switches of every job
+     *                      are applied to their copy
+     * @param configuration configuration of shared dependencies
+     * @param port          loopback port on which to accept jobs, <code>0</code>
+     *                      for any free port
+     * @throws IOException when socket cannot be opened on port or token cannot be written
+     */
+    public DaemonServer(Properties properties, Configuration configuration, int port) throws IOException {
+        this(properties, configuration, port, DaemonProtocol.DEFAULT_TOKEN_DIRECTORY);
+    }
+
+    /**
+     * Creates new {@link DaemonServer} listening on specified loopback <code>port</code>
+     *
+     * @param properties        properties of daemon, commandline switches of every job
+     *                          are applied to their copy
+     * @param configuration     configuration of shared dependencies
+     * @param port              loopback port on which to accept jobs, <code>0</code>
+     *                          for any free port
+     * @param tokenDirectory    directory to which to write token file of daemon
+     * @throws IOException when socket cannot be opened on port or token cannot be written
+     */
+    public DaemonServer(Properties properties, Configuration configuration, int port, Path tokenDirectory) throws IOException {
+        if (properties == null)
+            throw new IllegalArgumentException("properties is null");
+        if (configuration == null)
+            throw new IllegalArgumentException("configuration is null");
+        if (tokenDirectory == null)
+            throw new IllegalArgumentException("tokenDirectory is null");
+
+        _properties = properties;
+        _engineFactory = new EditorFactory(null, configuration);
+
+        // engine is created before first job is accepted
+        _engineFactory.getEngine();
+        _serverSocket = new ServerSocket(port, CONNECTION_BACKLOG, InetAddress.getLoopbackAddress());
+
+        // token file is named by bound port, so any free port can be used as well
+        _tokenFile = DaemonProtocol.getTokenFile(tokenDirectory, getPort());
+        try {
+            _token = DaemonProtocol.createToken(_tokenFile);
+        } catch (IOException ioEx) {
+            _serverSocket.close();
+            throw new IOException("Token file of daemon '" + _tokenFile + "' cannot be written: " + ioEx.getMessage(), ioEx);
+        }
+    }
+
+    /**
+     * Gets loopback port on which daemon accepts jobs
+     *
+     * @return  port of daemon
+     */
+    public int getPort() {
+        return _serverSocket.getLocalPort();
+    }
+
+    /**
+     * Gets file with token which clients must send with their requests
+     *
+     * @return  token file of daemon
+     */
+    public Path getTokenFile() {
+        return _tokenFile;
+    }
+
+    /**
+     * Accepts and runs jobs until daemon is closed or stopped by client
+     *
+     * @throws IOException when accepting of connections fails
+     */
+    public void serve() throws IOException {
+        while (!_serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = _serverSocket.accept();
+            } catch (SocketException sEx) {
+                // socket is closed when daemon is stopped
+                if (_serverSocket.isClosed())
+                    return;
+                throw sEx;
+            }
+
+            try (Socket client = socket) {
+                handle(client);
+            } catch (IOException ioEx) {
+                // failure of single client does not stop daemon
+                System.err.println("Job of client failed: " + ioEx.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stops accepting of jobs and removes token file, job being run is finished
+     *
+     * @throws IOException when socket cannot be closed or token file cannot be removed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            _serverSocket.close();
+        } finally {
+            Files.deleteIfExists(_tokenFile);
+        }
+    }
+
+    private void handle(Socket socket) throws IOException {
+        socket.setTcpNoDelay(true);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), DaemonProtocol.CHARSET));
+        OutputStream output = new BufferedOutputStream(socket.getOutputStream());
+        PrintStream out = DaemonProtocol.createResponseStream(output, DaemonProtocol.OUT_PREFIX);
+        PrintStream err = DaemonProtocol.createResponseStream(output, DaemonProtocol.ERR_PREFIX);
+
+        String[] args;
+        try {
+            args = DaemonProtocol.readRequest(reader, _token);
+        } catch (IOException ioEx) {
+            err.println(ioEx.getMessage());
+            DaemonProtocol.writeExitCode(output, DaemonProtocol.EXIT_FAILURE);
+            return;
+        }
+
+        // client closed connection without request
+        if (args == null)
+            return;
+
+        if (args.length == 1 && args[0].equals(Placeholders.DAEMON_STOP_SWITCH)) {
+            out.println("Daemon on port " + getPort() + " is stopped");
+            DaemonProtocol.writeExitCode(output, DaemonProtocol.EXIT_SUCCESS);
+            close();
+            return;
+        }
+
+        DaemonProtocol.writeExitCode(output, runJob(args, out, err));
+    }
+
+    private int runJob(String[] args, PrintStream out, PrintStream err) {
+        // commandline switches of job do not change properties of daemon
+        Properties properties = new Properties();
+        properties.putAll(_properties);
+
+        try {
+            String[] operationArgs = ApplicationInitializer.applyCommandlineSwitches(args, properties);
+            Configuration configuration = ConfigurationLoader.loadConfiguration(properties);
+
+            OutputWriter outputWriter = new ConsoleOutputWriter(out, err);
+            new EditorFactory(operationArgs, configuration, _engineFactory, outputWriter, null).getEditor().start();
+            return DaemonProtocol.EXIT_SUCCESS;
+        } catch (ConfigurationException cEx) {
+            err.println(cEx.getMessage());
+            return DaemonProtocol.EXIT_FAILURE;
+        }
+    }
+}
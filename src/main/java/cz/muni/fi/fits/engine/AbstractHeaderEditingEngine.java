@@ -0,0 +1,1783 @@
+package cz.muni.fi.fits.engine;
+
+import cz.muni.fi.fits.common.utils.Constants;
+import cz.muni.fi.fits.common.utils.Tuple;
+import cz.muni.fi.fits.engine.io.FileSynchronizer;
+import cz.muni.fi.fits.engine.io.HeaderBlockScanner;
+import cz.muni.fi.fits.engine.io.HeaderIndex;
+import cz.muni.fi.fits.engine.io.HeaderReserve;
+import cz.muni.fi.fits.engine.models.*;
+import cz.muni.fi.fits.engine.models.converters.DeclinationParamsConverter;
+import cz.muni.fi.fits.engine.models.converters.RightAscensionParamsConverter;
+import cz.muni.fi.fits.engine.models.formatters.NumberFormatter;
+import cz.muni.fi.fits.engine.utils.DateTimeUtils;
+import cz.muni.fi.fits.engine.utils.MandatoryFITSKeywords;
+import cz.muni.fi.fits.engine.utils.NumberUtils;
+import cz.muni.fi.fits.input.models.*;
+import cz.muni.fi.fits.models.ChainValueType;
+import cz.muni.fi.fits.models.ClockCorrectionTable;
+import cz.muni.fi.fits.models.DegreesObject;
+import cz.muni.fi.fits.models.HduSelector;
+import cz.muni.fi.fits.models.TimeObject;
+import nom.tam.fits.*;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Abstract editing engine class implementing {@link HeaderEditingEngine} interface
+ * that performs editing operations over raw card images of selected headers,
+ * records are decoded by external library <b>nom.tam.fits</b>.
+ * Subclasses define how headers are read from FITS file and written back
+ *
+ * @author Martin Vrábel
+ * @version 1.12
+ * @see <a href="http://nom-tam-fits.github.io/nom-tam-fits/">nom.tam.fits - Project pages</a>
+ */
+public abstract class AbstractHeaderEditingEngine implements HeaderEditingEngine {
+
+    static {
+        // global setting of nom.tam.fits library is set only once, before any engine
+        // is created, so engines can be safely used from multiple threads
+        FitsFactory.setLongStringsEnabled(true);
+    }
+
+    // numeric records counting days derived from time records
+    private static final Map<String, List<String>> DERIVED_DAY_COUNT_KEYWORDS = createDerivedDayCountKeywords();
+    private static final String MJD_KEYWORD_PREFIX = "MJD";
+    private static final LocalDateTime MJD_EPOCH = LocalDateTime.of(1858, 11, 17, 0, 0);
+    private static final BigDecimal MJD_TO_JD_OFFSET = new BigDecimal("2400000.5");
+    private static final BigDecimal SECONDS_PER_DAY = BigDecimal.valueOf(ChronoUnit.DAYS.getDuration().getSeconds());
+    private static final int DAY_COUNT_SCALE = 6;
+    private static final String OBSERVATION_TIME_KEYWORD = "DATE-OBS";
+    private static final long NANOS_PER_SECOND = ChronoUnit.SECONDS.getDuration().toNanos();
+
+    private final int _headerReserve;
+    private final FileSynchronizer _fileSynchronizer;
+    private final HeaderIndex _headerIndex;
+
+    /**
+     * Creates new editing engine that reserves specified number
+     * of blank records every time header has to grow, synchronizes
+     * written files with provided <code>fileSynchronizer</code> and keeps
+     * values of primary header records in provided <code>headerIndex</code>
+     *
+     * @param headerReserve     number of blank records to reserve when header grows
+     * @param fileSynchronizer  synchronizer of written files
+     * @param headerIndex       index of primary header values updated after every edit
+     */
+    protected AbstractHeaderEditingEngine(int headerReserve, FileSynchronizer fileSynchronizer, HeaderIndex headerIndex) {
+        if (headerReserve < 0)
+            throw new IllegalArgumentException("headerReserve cannot be negative");
+        if (fileSynchronizer == null)
+            throw new IllegalArgumentException("fileSynchronizer is null");
+        if (headerIndex == null)
+            throw new IllegalArgumentException("headerIndex is null");
+
+        _headerReserve = headerReserve;
+        _fileSynchronizer = fileSynchronizer;
+        _headerIndex = headerIndex;
+    }
+
+    /**
+     * Gets synchronizer that has to be used when writing edited headers to files
+     *
+     * @return  synchronizer of written files
+     */
+    protected FileSynchronizer getFileSynchronizer() {
+        return _fileSynchronizer;
+    }
+
+    /**
+     * Adds new record to FITS header with specified arguments
+     *
+     * @param keyword        keyword of new record to add
+     * @param value          value of new record to add
+     * @param comment        comment of new record to add, insert
+     *                       <code>null</code> when no comment to add to record
+     * @param updateIfExists value indicating whether to update a record
+     *                       if one with the same keyword already exists
+     * @param hduSelector    selector of HDU units in which to edit header
+     * @param fitsFile       FITS file to which add new record
+     * @return {@inheritDoc}
+     */
+    @Override
+    public Result addNewRecord(String keyword, Object value, String comment, boolean updateIfExists, HduSelector hduSelector, File fitsFile) {
+        if (keyword == null)
+            throw new IllegalArgumentException("keyword is null");
+        if (value == null)
+            throw new IllegalArgumentException("value is null");
+        if (fitsFile == null)
+            throw new IllegalArgumentException("fitsFile is null");
+        if (hduSelector == null)
+            throw new IllegalArgumentException("hduSelector is null");
+
+        return editHeader(fitsFile, hduSelector, keyword, header -> addNewRecord(header, keyword, value, comment, updateIfExists));
+    }
+
+    private Result addNewRecord(IndexedHeader header, String keyword, Object value, String comment, boolean updateIfExists)
+            throws FitsException {
+        boolean updated = false;
+
+        // check if keyword is not between mandatory keywords
+        if (MandatoryFITSKeywords.matchesMandatoryKeyword(keyword))
+            return new Result(false, "Record '" + keyword + "' cannot be added to header because it is mandatory keyword.");
+
+        // create new header card based on value type
+        HeaderCard card = createNewHeaderCard(keyword, value, comment);
+
+        if (card == null)
+            return new Result(false, "Unknown type of value object");
+
+        // check if keyword does already exist
+        boolean keywordExists = header.containsKey(keyword);
+
+        if (keywordExists) {
+            if (!updateIfExists)
+                return new Result(false, "Header already contains record with '" + keyword + "' keyword");
+
+            // check for mandatory keyword
+            if (MandatoryFITSKeywords.matchesMandatoryKeyword(keyword)) {
+                return new Result(false, "Record with keyword '" + keyword + "' already exists in header and is mandatory hence it cannot be changed");
+            }
+
+            // update existing header card
+            header.updateLine(keyword, card);
+            updated = true;
+        } else {
+            // insert new card at the end of header
+            header.addLine(card);
+        }
+
+        // return success
+        if (updated)
+            return new Result(true, "Record '" + keyword + "' successfully added to header as update of existing record");
+        else
+            return new Result(true, "Record '" + keyword + "' successfully added to header");
+    }
+
+    /**
+     * Adds new record to FITS header with specified arguments to specific index
+     *
+     * @param index             index where to add new record
+     * @param keyword           keyword of new record to add
+     * @param value             value of new keyword to add
+     * @param comment           comment of new record to add, insert
+     *                          <code>null</code> when no comment to add to record
+     * @param removeOldIfExists value indicating whether to remove old record
+     *                          with the same keyword if it already exists
+     * @param hduSelector       selector of HDU units in which to edit header
+     * @param fitsFile          FITS file to which add new record
+     * @return {@inheritDoc}
+     */
+    @Override
+    public Result addNewRecordToIndex(int index, String keyword, Object value, String comment, boolean removeOldIfExists, HduSelector hduSelector, File fitsFile) {
+        if (index < 0)
+            throw new IllegalArgumentException("invalid index");
+        if (keyword == null)
+            throw new IllegalArgumentException("keyword is null");
+        if (value == null)
+            throw new IllegalArgumentException("value is null");
+        if (fitsFile == null)
+            throw new IllegalArgumentException("fitsFile is null");
+        if (hduSelector == null)
+            throw new IllegalArgumentException("hduSelector is null");
+
+        return editHeader(fitsFile, hduSelector, keyword, header -> addNewRecordToIndex(header, index, keyword, value, comment, removeOldIfExists));
+    }
+
+    private Result addNewRecordToIndex(IndexedHeader header, int index, String keyword, Object value, String comment, boolean removeOldIfExists)
+            throws FitsException {
+        boolean oldRemoved = false;
+        boolean insertedToEnd = false;
+
+        // check if keyword is not between mandatory keywords
+        if (MandatoryFITSKeywords.matchesMandatoryKeyword(keyword))
+            return new Result(false, "Record '" + keyword + "' cannot be inserted to index " + index + " because it is mandatory keyword.");
+
+        // check if keyword does already exist
+        boolean keywordExists = header.containsKey(keyword);
+
+        if (keywordExists) {
+            if (!removeOldIfExists)
+                return new Result(false, "Header already contains record with '" + keyword + "' keyword");
+
+            // remove old header cards
+            header.deleteKey(keyword);
+            oldRemoved = true;
+        }
+
+        // create new header card based on value type
+        HeaderCard card = createNewHeaderCard(keyword, value, comment);
+        if (card == null)
+            return new Result(false, "Unknown type of record's value");
+
+        // check if index is in range of header size
+        if (indexInRangeOfHeaderSize(index, header)) {
+            int position = (index > 1) ? index - 1 : 0;
+
+            // check for mandatory keyword at this index
+            String indexKey = header.getLine(position).getKey();
+            if (MandatoryFITSKeywords.matchesMandatoryKeyword(indexKey)) {
+                return new Result(false, "Record '" + keyword + "' cannot be inserted to index " + index + " because of mandatory keyword '" + indexKey + "'");
+            }
+
+            // insert new card to specified index
+            header.insertLine(position, card);
+        } else {
+            insertedToEnd = true;
+            // insert new card at the end of header
+            header.addLine(card);
+        }
+
+        // return success
+        if (!oldRemoved && !insertedToEnd)
+            return new Result(true, "Record '" + keyword + "' successfully added to header to index " + index);
+        else if (oldRemoved && !insertedToEnd)
+            return new Result(true, "Record '" + keyword + "' successfully added to header to index " + index + " removing the old one");
+        else if (!oldRemoved)
+            return new Result(true, "Record '" + keyword + "' successfully added to the end of header (index was out of range)");
+        else
+            return new Result(true, "Record '" + keyword + "'  successfully added to the end of header (index was out of range) removing the old one");
+    }
+
+    /**
+     * Removes record from FITS header with specified keyword
+     *
+     * @param keyword  keyword of a record to remove
+     * @param hduSelector selector of HDU units in which to edit header
+     * @param fitsFile FITS file from which to remove a record
+     * @return {@inheritDoc}
+     */
+    @Override
+    public Result removeRecordByKeyword(String keyword, HduSelector hduSelector, File fitsFile) {
+        if (keyword == null)
+            throw new IllegalArgumentException("keyword is null");
+        if (fitsFile == null)
+            throw new IllegalArgumentException("fitsFile is null");
+        if (hduSelector == null)
+            throw new IllegalArgumentException("hduSelector is null");
+
+        return editHeader(fitsFile, hduSelector, keyword, header -> removeRecordByKeyword(header, keyword));
+    }
+
+    private Result removeRecordByKeyword(IndexedHeader header, String keyword)
+            throws FitsException {
+        // check if keyword does already exist
+        boolean keywordExists = header.containsKey(keyword);
+
+        if (!keywordExists)
+            return new Result(false, "Header does not contain record with keyword '" + keyword + "'");
+
+        // check for mandatory keyword
+        if (MandatoryFITSKeywords.matchesMandatoryKeyword(keyword)) {
+            return new Result(false, "Record with keyword '" + keyword + "' is mandatory hence it cannot be removed");
+        }
+
+        // remove card with specified keyword
+        header.deleteKey(keyword);
+
+        // return success
+        return new Result(true, "Record '" + keyword + "' successfully removed from header");
+    }
+
+    /**
+     * Removes record from FITS header from specified index
+     *
+     * @param index    index from which to remove a record
+     * @param hduSelector selector of HDU units in which to edit header
+     * @param fitsFile FITS file from which to remove a record
+     * @return {@inheritDoc}
+     */
+    @Override
+    public Result removeRecordFromIndex(int index, HduSelector hduSelector, File fitsFile) {
+        if (index < 0)
+            throw new IllegalArgumentException("invalid index");
+        if (fitsFile == null)
+            throw new IllegalArgumentException("fitsFile is null");
+        if (hduSelector == null)
+            throw new IllegalArgumentException("hduSelector is null");
+
+        return editHeader(fitsFile, hduSelector, null, header -> removeRecordFromIndex(header, index));
+    }
+
+    private Result removeRecordFromIndex(IndexedHeader header, int index)
+            throws FitsException {
+        // check if index is in range of header size
+        if (!indexInRangeOfHeaderSize(index, header))
+            return new Result(false, "Index " + index + " is not in range of header size");
+
+        int position = (index > 1) ? index - 1 : 0;
+
+        // check for mandatory keyword
+        String indexKey = header.getLine(position).getKey();
+        if (MandatoryFITSKeywords.matchesMandatoryKeyword(indexKey))
+            return new Result(false, "Record with keyword '" + indexKey + "' on index " + index + " is mandatory hence it cannot be removed");
+
+        // remove record on the index
+        header.removeLine(position);
+
+        // return success
+        return new Result(true, "Successfully removed from index " + index + " record '" + indexKey + "'");
+    }
+
+    /**
+     * Changes keyword of specified existing record in FITS header to new one
+     *
+     * @param oldKeyword               keyword defining existing record in which to change keyword
+     * @param newKeyword               new keyword to set in record
+     * @param removeValueOfNewIfExists value indicating whether to remove record with new keyword
+     *                                 if it already exists in header
+     * @param hduSelector              selector of HDU units in which to edit header
+     * @param fitsFile                 FITS file in which to change a record
+     * @return {@inheritDoc}
+     */
+    @Override
+    public Result changeKeywordOfRecord(String oldKeyword, String newKeyword, boolean removeValueOfNewIfExists, HduSelector hduSelector, File fitsFile) {
+        if (oldKeyword == null)
+            throw new IllegalArgumentException("oldKeyword is null");
+        if (newKeyword == null)
+            throw new IllegalArgumentException("newKeyword is null");
+        if (fitsFile == null)
+            throw new IllegalArgumentException("fitsFile is null");
+        if (hduSelector == null)
+            throw new IllegalArgumentException("hduSelector is null");
+
+        // old value is found under old keyword, new value under new keyword
+        return editHeader(fitsFile, hduSelector, oldKeyword, newKeyword, header -> changeKeywordOfRecord(header, oldKeyword, newKeyword, removeValueOfNewIfExists));
+    }
+
+    private Result changeKeywordOfRecord(IndexedHeader header, String oldKeyword, String newKeyword, boolean removeValueOfNewIfExists)
+            throws FitsException {
+        boolean valueOfNewRemoved = false;
+
+        // check if old keyword does already exist
+        boolean oldExists = header.containsKey(oldKeyword);
+
+        if (!oldExists)
+            return new Result(false, "Header does not contain record with '" + oldKeyword + "' keyword");
+
+        // check if new keyword does already exist
+        boolean newExists = header.containsKey(newKeyword);
+
+        if (newExists) {
+            if (removeValueOfNewIfExists) {
+                // check for mandatory keyword
+                if (MandatoryFITSKeywords.matchesMandatoryKeyword(newKeyword)) {
+                    return new Result(false, "Header already contains record with '" + newKeyword + "' keyword but it is mandatory hence it cannot be removed");
+                }
+
+                // remove already existing header card
+                header.deleteKey(newKeyword);
+                valueOfNewRemoved = true;
+            } else {
+                return new Result(false, "Header already contains record with '" + newKeyword + "' keyword");
+            }
+        }
+
+        // check for mandatory keyword
+        if (MandatoryFITSKeywords.matchesMandatoryKeyword(oldKeyword))
+            return new Result(false, "Record with keyword '" + oldKeyword + "' is mandatory hence it cannot be changed");
+
+        // get old header card and extract value with corresponding type from it
+        HeaderCard oldCard = header.findCard(oldKeyword);
+        Object value = extractValueWithCorrectType(oldCard);
+
+        // create updated header card
+        HeaderCard newCard = createNewHeaderCard(newKeyword, value, oldCard.getComment());
+        if (newCard == null)
+            return new Result(false, "Unknown type of old record's value");
+
+        // update old header card with new one
+        header.updateLine(oldKeyword, newCard);
+
+        // return success
+        if (!valueOfNewRemoved)
+            return new Result(true, "Keyword '" + oldKeyword + "' successfully changed to '" + newKeyword + "'");
+        else
+            return new Result(true, "Keyword '" + oldKeyword + "' successfully changed to '" + newKeyword + "' removing existing new keyword record");
+    }
+
+    /**
+     * Change value of specified existing record in FIT header to new one
+     *
+     * @param keyword           keyword defining existing record in which to change value
+     * @param newValue          new value to be set in record
+     * @param newComment        new comment to set in record, insert <code>null</code>
+     *                          if want to use the original comment
+     * @param addNewIfNotExists value indicating whether add new record if
+     *                          record with specified keyword does not exist
+     * @param hduSelector       selector of HDU units in which to edit header
+     * @param fitsFile          FITS file in which to change a record
+     * @return {@inheritDoc}
+     */
+    @Override
+    public Result changeValueOfRecord(String keyword, Object newValue, String newComment, boolean addNewIfNotExists, HduSelector hduSelector, File fitsFile) {
+        if (keyword == null)
+            throw new IllegalArgumentException("keyword is null");
+        if (newValue == null)
+            throw new IllegalArgumentException("newValue is null");
+        if (fitsFile == null)
+            throw new IllegalArgumentException("fitsFile is null");
+        if (hduSelector == null)
+            throw new IllegalArgumentException("hduSelector is null");
+
+        return editHeader(fitsFile, hduSelector, keyword, header -> changeValueOfRecord(header, keyword, newValue, newComment, addNewIfNotExists));
+    }
+
+    private Result changeValueOfRecord(IndexedHeader header, String keyword, Object newValue, String newComment, boolean addNewIfNotExists)
+            throws FitsException {
+        boolean newAdded = false;
+
+        // check if keyword does already exist
+        boolean keywordExists = header.containsKey(keyword);
+
+        // if comment is null use the original one
+        if (newComment == null && keywordExists) {
+            HeaderCard existingCard = header.findCard(keyword);
+            newComment = existingCard.getComment();
+        }
+
+        // create new header card based on value type
+        HeaderCard card = createNewHeaderCard(keyword, newValue, newComment);
+        if (card == null)
+            return new Result(false, "Unknown type of value object");
+
+        if (keywordExists) {
+            // check for mandatory keyword
+            if (MandatoryFITSKeywords.matchesMandatoryKeyword(keyword)) {
+                return new Result(false, "Record with keyword '" + keyword + "' is mandatory hence it cannot be changed");
+            }
+
+            // update existing header card
+            header.updateLine(keyword, card);
+        } else {
+            if (!addNewIfNotExists) {
+                return new Result(false, "Header does not contain record with '" + keyword + "' keyword");
+            } else {
+                // insert new card at the end of header
+                header.addLine(card);
+
+                newAdded = true;
+            }
+        }
+
+        // return success
+        if (!newAdded)
+            return new Result(true, "Value of record '" + keyword + "' successfully changed");
+        else
+            return new Result(true, "Value of record '" + keyword + "' successfully added as new record");
+    }
+
+    /**
+     * Chain multiple records into new single record in FITS header by specified arguments
+     *
+     * @param keyword          keyword of new chained record
+     * @param chainParameters  list of parameters containing constant and keyword
+     *                         tuples of {@link ChainValueType} and
+     *                         {@link String} which to chain
+     * @param comment          comment to set in record, insert <code>null</code>
+     *                         if no comment to add
+     * @param updateIfExists   value indicating whether to update value of record
+     *                         with specified keyword if it already exists
+     * @param allowLongstrings value indicating whether allow longstring values in header
+     *                         if chained value is longer than basic limit
+     * @param hduSelector      selector of HDU units in which to edit header
+     * @param fitsFile         FITS file in which to chain records
+     * @return {@inheritDoc}
+     */
+    @Override
+    public Result chainMultipleRecords(String keyword, List<Tuple<ChainValueType, String>> chainParameters, String comment,
+                                       boolean updateIfExists, boolean allowLongstrings, HduSelector hduSelector, File fitsFile) {
+        if (keyword == null)
+            throw new IllegalArgumentException("keyword is null");
+        if (chainParameters == null)
+            throw new IllegalArgumentException("chainParamaters is null");
+        if (fitsFile == null)
+            throw new IllegalArgumentException("fitsFile is null");
+        if (hduSelector == null)
+            throw new IllegalArgumentException("hduSelector is null");
+
+        return editHeader(fitsFile, hduSelector, keyword, header -> chainMultipleRecords(header, keyword, chainParameters, comment, updateIfExists, allowLongstrings));
+    }
+
+    private Result chainMultipleRecords(IndexedHeader header, String keyword, List<Tuple<ChainValueType, String>> chainParameters, String comment, boolean updateIfExists, boolean allowLongstrings)
+            throws FitsException {
+        boolean updated = false;
+
+        // iterate over parameters and create new value
+        String value = "";
+
+        for (Tuple<ChainValueType, String> chainParameter : chainParameters) {
+            switch (chainParameter.getFirst()) {
+                case CONSTANT:
+                    value += chainParameter.getSecond();
+                    break;
+                case KEYWORD:
+                    String key = chainParameter.getSecond();
+                    // check if header contains key
+                    if (!header.containsKey(key))
+                        return new Result(false, "Header does not contain record with '" + key + "' keyword");
+
+                    // add to value
+                    value += header.findCard(key).getValue();
+                    break;
+            }
+        }
+
+        // check for validity of value
+        if (value.isEmpty())
+            return new Result(false, "Value of chained records cannot be empty");
+        if (!allowLongstrings && value.length() > Constants.MAX_STRING_VALUE_LENGTH) {
+            return new Result(false, "Value of chained records is too long");
+        }
+        if (comment != null
+                && !allowLongstrings
+                && value.length() + comment.length() > Constants.MAX_STRING_VALUE_COMMENT_LENGTH) {
+            return new Result(false, "Value along with comment is too long. Try to shorten the comment");
+        }
+
+        HeaderCard card = new HeaderCard(keyword, value, comment);
+
+        // check if keyword does already exist
+        boolean keywordExists = header.containsKey(keyword);
+
+        if (keywordExists) {
+            if (!updateIfExists) {
+                return new Result(false, "Header already contains record with '" + keyword + "' keyword");
+            } else {
+                // check for mandatory keyword
+                if (MandatoryFITSKeywords.matchesMandatoryKeyword(keyword)) {
+                    return new Result(false, "Header already contains record with '" + keyword + "' keyword but it is mandatory hence it cannot be changed");
+                }
+
+                // update header card with new chained value
+                header.updateLine(keyword, card);
+
+                updated = true;
+            }
+        } else {
+            // check if keyword is not between mandatory keywords
+            if (MandatoryFITSKeywords.matchesMandatoryKeyword(keyword))
+                return new Result(false, "Cannot chain into record '" + keyword + "' because it is mandatory keyword.");
+
+            // insert new card at the end of header
+            header.addLine(card);
+        }
+
+        // return success
+        if (!updated)
+            return new Result(true, "Records successfully chained into record '" + keyword + "'");
+        else
+            return new Result(true, "Records successfully chained and updated into record '" + keyword + "'");
+    }
+
+    /**
+     * Shifts time of time record with <code>keyword</code> by amount of time specified by arguments,
+     * numeric records derived from time record are shifted together with it
+     *
+     * @param keyword         keyword of time record in which to shift time
+     * @param yearShift       time shift for years
+     * @param monthShift      time shift for months
+     * @param dayShift        time shift for days
+     * @param hourShift       time shift for hours
+     * @param minuteShift     time shift for minutes
+     * @param secondShift     time shift for seconds
+     * @param nanosecondShift time shift for nanoseconds
+     * @param hduSelector     selector of HDU units in which to edit header
+     * @param fitsFile        FITS file in which to chain records
+     * @return {@inheritDoc}
+     */
+    @Override
+    public Result shiftTimeOfTimeRecord(String keyword, int yearShift, int monthShift, int dayShift,
+                                        int hourShift, int minuteShift, int secondShift, int nanosecondShift, HduSelector hduSelector, File fitsFile) {
+        if (keyword == null)
+            throw new IllegalArgumentException("keyword is null");
+
+        return shiftTimeOfTimeRecords(Collections.singletonList(keyword), yearShift, monthShift, dayShift,
+                hourShift, minuteShift, secondShift, nanosecondShift, hduSelector, fitsFile);
+    }
+
+    /**
+     * Shifts time of all time records with <code>keywords</code> by amount of time
+     * specified by arguments in single edit of header. Keywords may contain wildcards
+     * <code>*</code> and <code>?</code>, such pattern selects all records with matching
+     * keywords that contain date and time values. Records counting days derived
+     * from shifted time record (<code>MJD-OBS</code>, <code>JD</code> and <code>HJD</code>
+     * for <code>DATE-OBS</code>, <code>MJD-BEG</code>, <code>MJD-END</code>
+     * and <code>MJD-AVG</code> for corresponding <code>DATE-*</code> records)
+     * are moved by the same number of days as their time record, so all corrections
+     * already contained in them (e.g. light-time correction of <code>HJD</code>) are kept.
+     * Day counts listed without their time record are shifted by themselves.
+     * When shifting any of records fails, no record is changed
+     *
+     * @param keywords        keywords or keyword patterns of time records in which to shift time
+     * @param yearShift       time shift for years
+     * @param monthShift      time shift for months
+     * @param dayShift        time shift for days
+     * @param hourShift       time shift for hours
+     * @param minuteShift     time shift for minutes
+     * @param secondShift     time shift for seconds
+     * @param nanosecondShift time shift for nanoseconds
+     * @param hduSelector     selector of HDU units in which to edit header
+     * @param fitsFile        FITS file in which to shift time records
+     * @return {@inheritDoc}
+     */
+    @Override
+    public Result shiftTimeOfTimeRecords(List<String> keywords, int yearShift, int monthShift, int dayShift,
+                                         int hourShift, int minuteShift, int secondShift, int nanosecondShift, HduSelector hduSelector, File fitsFile) {
+        if (keywords == null)
+            throw new IllegalArgumentException("keywords is null");
+        if (keywords.isEmpty())
+            throw new IllegalArgumentException("keywords is empty");
+        if (keywords.contains(null))
+            throw new IllegalArgumentException("keywords contains null keyword");
+        if (fitsFile == null)
+            throw new IllegalArgumentException("fitsFiles is null");
+        if (hduSelector == null)
+            throw new IllegalArgumentException("hduSelector is null");
+
+        return editHeader(fitsFile, hduSelector, keywords.get(0), header -> shiftTimeOfTimeRecords(header, keywords, yearShift, monthShift, dayShift, hourShift, minuteShift, secondShift, nanosecondShift));
+    }
+
+    /**
+     * Shifts time of all time records with <code>keywords</code> by clock correction
+     * interpolated from <code>correctionTable</code> for time of observation
+     * in <code>DATE-OBS</code> record of edited header, so every file is corrected
+     * by its own shift. Records are selected and shifted the same way as by
+     * {@link #shiftTimeOfTimeRecords(List, int, int, int, int, int, int, int, HduSelector, File)}
+     *
+     * @param keywords          keywords or keyword patterns of time records in which to shift time
+     * @param correctionTable   table of clock corrections
+     * @param hduSelector       selector of HDU units in which to edit header
+     * @param fitsFile          FITS file in which to shift time records
+     * @return {@inheritDoc}
+     */
+    @Override
+    public Result shiftTimeOfTimeRecords(List<String> keywords, ClockCorrectionTable correctionTable, HduSelector hduSelector, File fitsFile) {
+        if (keywords == null)
+            throw new IllegalArgumentException("keywords is null");
+        if (keywords.isEmpty())
+            throw new IllegalArgumentException("keywords is empty");
+        if (keywords.contains(null))
+            throw new IllegalArgumentException("keywords contains null keyword");
+        if (correctionTable == null)
+            throw new IllegalArgumentException("correctionTable is null");
+        if (fitsFile == null)
+            throw new IllegalArgumentException("fitsFiles is null");
+        if (hduSelector == null)
+            throw new IllegalArgumentException("hduSelector is null");
+
+        return editHeader(fitsFile, hduSelector, keywords.get(0), header -> shiftTimeOfTimeRecords(header, keywords, correctionTable));
+    }
+
+    private Result shiftTimeOfTimeRecords(IndexedHeader header, List<String> keywords, ClockCorrectionTable correctionTable)
+            throws FitsException {
+        // correction is interpolated for time of observation in this header
+        HeaderCard observationCard = header.findCard(OBSERVATION_TIME_KEYWORD);
+        if (observationCard == null)
+            return new Result(false, "Header does not contain record with keyword '" + OBSERVATION_TIME_KEYWORD + "' needed to interpolate clock correction");
+
+        LocalDateTime observationTime;
+        DateTimeFormatter formatter = DateTimeUtils.DateTimeParser.tryGetDateTimeFormatter(observationCard.getValue());
+        if (formatter != null) {
+            observationTime = DateTimeUtils.DateTimeParser.parseLocalDateTime(observationCard.getValue(), formatter);
+        } else {
+            formatter = DateTimeUtils.DateTimeParser.tryGetDateFormatter(observationCard.getValue());
+            if (formatter == null)
+                return new Result(false, "Record with keyword '" + OBSERVATION_TIME_KEYWORD + "' does not contain parsable DateTime value");
+
+            observationTime = DateTimeUtils.DateTimeParser.parseLocalDate(observationCard.getValue(), formatter).atStartOfDay();
+        }
+
+        int secondShift;
+        int nanosecondShift;
+        try {
+            if (!correctionTable.covers(observationTime))
+                return new Result(false, "Time '" + observationCard.getValue() + "' of record '" + OBSERVATION_TIME_KEYWORD + "' is not covered by clock correction table");
+
+            long correction = correctionTable.getCorrectionNanos(observationTime);
+            secondShift = Math.toIntExact(correction / NANOS_PER_SECOND);
+            nanosecondShift = (int) (correction % NANOS_PER_SECOND);
+        } catch (ArithmeticException aEx) {
+            return new Result(false, "Error interpolating clock correction for time '" + observationCard.getValue() + "': " + aEx.getMessage());
+        }
+
+        return shiftTimeOfTimeRecords(header, keywords, 0, 0, 0, 0, 0, secondShift, nanosecondShift);
+    }
+
+    private Result shiftTimeOfTimeRecords(IndexedHeader header, List<String> keywords, int yearShift, int monthShift, int dayShift, int hourShift, int minuteShift, int secondShift, int nanosecondShift)
+            throws FitsException {
+        // resolve keyword patterns to keywords of existing time records
+        Set<String> shiftedKeywords = new LinkedHashSet<>();
+        for (String keyword : keywords) {
+            if (!isKeywordPattern(keyword)) {
+                shiftedKeywords.add(keyword);
+                continue;
+            }
+
+            boolean matched = false;
+            for (String matchingKeyword : header.findKeywords(keyword)) {
+                if (isDayCountKeyword(matchingKeyword) || containsDateTimeValue(header.findCard(matchingKeyword))) {
+                    shiftedKeywords.add(matchingKeyword);
+                    matched = true;
+                }
+            }
+
+            if (!matched)
+                return new Result(false, "Header does not contain any time record with keyword matching '" + keyword + "'");
+        }
+
+        List<String> messages = new ArrayList<>();
+        for (String keyword : shiftedKeywords) {
+            Result result;
+            if (isDayCountKeyword(keyword)) {
+                // day count is shifted together with its time record when both are shifted
+                String timeKeyword = timeKeywordOf(keyword);
+                if (timeKeyword != null && shiftedKeywords.contains(timeKeyword))
+                    continue;
+
+                result = shiftDayCountRecord(header, keyword, yearShift, monthShift, dayShift, hourShift, minuteShift, secondShift, nanosecondShift);
+            } else {
+                result = shiftTimeOfTimeRecord(header, keyword, yearShift, monthShift, dayShift, hourShift, minuteShift, secondShift, nanosecondShift);
+            }
+
+            if (!result.isSuccess())
+                return result;
+            messages.add(result.getMessage());
+        }
+
+        // return success
+        return new Result(true, String.join("; ", messages));
+    }
+
+    private Result shiftTimeOfTimeRecord(IndexedHeader header, String keyword, int yearShift, int monthShift, int dayShift, int hourShift, int minuteShift, int secondShift, int nanosecondShift)
+            throws FitsException {
+        // check if keyword does already exist
+        boolean keywordExists = header.containsKey(keyword);
+
+        if (!keywordExists)
+            return new Result(false, "Header does not contain record with keyword '" + keyword + "'");
+
+        // get header card with keyword
+        HeaderCard oldCard = header.findCard(keyword);
+
+        // try to parse LocalDateTime value
+        DateTimeFormatter formatter = DateTimeUtils.DateTimeParser.tryGetDateTimeFormatter(oldCard.getValue());
+        DateTimeUtils.DateTimeType recordType = DateTimeUtils.DateTimeType.DATETIME;
+        // try to parse LocalDate value
+        if (formatter == null) {
+            formatter = DateTimeUtils.DateTimeParser.tryGetDateFormatter(oldCard.getValue());
+            recordType = DateTimeUtils.DateTimeType.DATE;
+        }
+        // try to parse LocalTime value
+        if (formatter == null) {
+            formatter = DateTimeUtils.DateTimeParser.tryGetTimeFormatter(oldCard.getValue());
+            recordType = DateTimeUtils.DateTimeType.TIME;
+        }
+
+        // cannot parse DateTime value
+        if (formatter == null)
+            return new Result(false, "Record with keyword '" + keyword + "' does not contain parsable DateTime value");
+
+        HeaderCard newCard;
+        // time elapsed between old and new value, derived day counts are moved by it
+        Duration elapsedTime = null;
+        switch (recordType) {
+            case DATETIME:
+                // parse LocalDateTime value
+                LocalDateTime parsedDateTime = DateTimeUtils.DateTimeParser.parseLocalDateTime(oldCard.getValue(), formatter);
+                try {
+                    // shift value
+                    LocalDateTime newDateTime = shiftDateTime(parsedDateTime, yearShift, monthShift, dayShift, hourShift, minuteShift, secondShift, nanosecondShift);
+                    elapsedTime = Duration.between(parsedDateTime, newDateTime);
+
+                    // create updated header card
+                    newCard = new HeaderCard(keyword, newDateTime.toString(), oldCard.getComment());
+                } catch (DateTimeException | ArithmeticException ex) {
+                    return new Result(false, "Error shifting time for record '" + keyword + "': " + ex.getMessage());
+                }
+                break;
+
+            case DATE:
+                // parse LocalDate value
+                LocalDate parsedDate = DateTimeUtils.DateTimeParser.parseLocalDate(oldCard.getValue(), formatter);
+                try {
+                    // shift value
+                    LocalDate newDate = parsedDate
+                            .plus(yearShift, ChronoUnit.YEARS)
+                            .plus(monthShift, ChronoUnit.MONTHS)
+                            .plus(dayShift, ChronoUnit.DAYS);
+                    elapsedTime = Duration.between(parsedDate.atStartOfDay(), newDate.atStartOfDay());
+
+                    // create updated header card
+                    newCard = new HeaderCard(keyword, newDate.toString(), oldCard.getComment());
+                } catch (DateTimeException | ArithmeticException ex) {
+                    return new Result(false, "Error shifting time for record '" + keyword + "': " + ex.getMessage());
+                }
+                break;
+
+            case TIME:
+                // parse LocalTime value
+                LocalTime parsedTime = DateTimeUtils.DateTimeParser.parseLocalTime(oldCard.getValue(), formatter);
+                try {
+                    // shift value
+                    LocalTime newTime = parsedTime
+                            .plus(hourShift, ChronoUnit.HOURS)
+                            .plus(minuteShift, ChronoUnit.MINUTES)
+                            .plus(secondShift, ChronoUnit.SECONDS)
+                            .plus(nanosecondShift, ChronoUnit.NANOS);
+
+                    // create updated header card
+                    newCard = new HeaderCard(keyword, newTime.toString(), oldCard.getComment());
+                } catch (DateTimeException | ArithmeticException ex) {
+                    return new Result(false, "Error shifting time for record '" + keyword + "': " + ex.getMessage());
+                }
+                break;
+
+            default:
+                return new Result(false, "Record with keyword '" + keyword + "' does not contain parsable DateTime value");
+        }
+
+        // check for mandatory keyword
+        if (MandatoryFITSKeywords.matchesMandatoryKeyword(keyword)) {
+            return new Result(false, "Header contains record with '" + keyword + "' keyword but it is mandatory hence it cannot be changed");
+        }
+
+        // update record in header
+        header.updateLine(keyword, newCard);
+        String message = "'" + keyword + "' record successfully changed from '"
+                + oldCard.getValue() + "' to '"
+                + newCard.getValue() + "'";
+
+        // move day counts derived from time record by the same time
+        List<String> dayCountKeywords = DERIVED_DAY_COUNT_KEYWORDS.get(keyword);
+        if (elapsedTime != null && dayCountKeywords != null) {
+            for (String dayCountKeyword : dayCountKeywords) {
+                if (!header.containsKey(dayCountKeyword))
+                    continue;
+
+                Result result = moveDayCountRecord(header, dayCountKeyword, elapsedTime);
+                if (!result.isSuccess())
+                    return result;
+                message += "; " + result.getMessage();
+            }
+        }
+
+        // return success
+        return new Result(true, message);
+    }
+
+    private Result shiftDayCountRecord(IndexedHeader header, String keyword, int yearShift, int monthShift, int dayShift, int hourShift, int minuteShift, int secondShift, int nanosecondShift)
+            throws FitsException {
+        // check if keyword does already exist
+        if (!header.containsKey(keyword))
+            return new Result(false, "Header does not contain record with keyword '" + keyword + "'");
+
+        BigDecimal dayCount = parseDayCount(header.findCard(keyword).getValue());
+        if (dayCount == null)
+            return new Result(false, "Record with keyword '" + keyword + "' does not contain numeric day count");
+
+        // day count is converted to time, so it is shifted by calendar units like time records
+        BigDecimal modifiedJulianDate = keyword.startsWith(MJD_KEYWORD_PREFIX)
+                ? dayCount
+                : dayCount.subtract(MJD_TO_JD_OFFSET);
+        try {
+            BigDecimal wholeDays = modifiedJulianDate.setScale(0, RoundingMode.FLOOR);
+            LocalDateTime dateTime = MJD_EPOCH
+                    .plusDays(wholeDays.longValueExact())
+                    .plusNanos(modifiedJulianDate.subtract(wholeDays).multiply(SECONDS_PER_DAY)
+                            .movePointRight(9).setScale(0, RoundingMode.HALF_UP).longValueExact());
+            LocalDateTime shiftedDateTime = shiftDateTime(dateTime, yearShift, monthShift, dayShift, hourShift, minuteShift, secondShift, nanosecondShift);
+
+            return moveDayCountRecord(header, keyword, Duration.between(dateTime, shiftedDateTime));
+        } catch (DateTimeException | ArithmeticException ex) {
+            return new Result(false, "Error shifting time for record '" + keyword + "': " + ex.getMessage());
+        }
+    }
+
+    private Result moveDayCountRecord(IndexedHeader header, String keyword, Duration elapsedTime)
+            throws FitsException {
+        HeaderCard oldCard = header.findCard(keyword);
+        BigDecimal oldValue = parseDayCount(oldCard.getValue());
+        if (oldValue == null)
+            return new Result(false, "Record with keyword '" + keyword + "' does not contain numeric day count");
+
+        // precision of original value is kept, but never lower than precision of computed Julian Dates
+        int scale = Math.max(oldValue.scale(), DAY_COUNT_SCALE);
+        BigDecimal elapsedDays = BigDecimal.valueOf(elapsedTime.getSeconds())
+                .add(BigDecimal.valueOf(elapsedTime.getNano(), 9))
+                .divide(SECONDS_PER_DAY, scale, RoundingMode.HALF_UP);
+        BigDecimal newValue = oldValue.add(elapsedDays).setScale(scale, RoundingMode.HALF_UP);
+
+        // update record in header
+        HeaderCard newCard = createNewHeaderCard(keyword, newValue, oldCard.getComment());
+        header.updateLine(keyword, newCard);
+
+        return new Result(true, "'" + keyword + "' record successfully changed from '"
+                + oldCard.getValue() + "' to '"
+                + newCard.getValue() + "'");
+    }
+
+    private static LocalDateTime shiftDateTime(LocalDateTime dateTime, int yearShift, int monthShift, int dayShift, int hourShift, int minuteShift, int secondShift, int nanosecondShift) {
+        return dateTime
+                .plus(yearShift, ChronoUnit.YEARS)
+                .plus(monthShift, ChronoUnit.MONTHS)
+                .plus(dayShift, ChronoUnit.DAYS)
+                .plus(hourShift, ChronoUnit.HOURS)
+                .plus(minuteShift, ChronoUnit.MINUTES)
+                .plus(secondShift, ChronoUnit.SECONDS)
+                .plus(nanosecondShift, ChronoUnit.NANOS);
+    }
+
+    private static boolean isKeywordPattern(String keyword) {
+        return keyword.indexOf('*') >= 0 || keyword.indexOf('?') >= 0;
+    }
+
+    private static boolean containsDateTimeValue(HeaderCard card) {
+        String value = card.getValue();
+        return DateTimeUtils.DateTimeParser.tryGetDateTimeFormatter(value) != null
+                || DateTimeUtils.DateTimeParser.tryGetDateFormatter(value) != null
+                || DateTimeUtils.DateTimeParser.tryGetTimeFormatter(value) != null;
+    }
+
+    private static boolean isDayCountKeyword(String keyword) {
+        return timeKeywordOf(keyword) != null;
+    }
+
+    private static String timeKeywordOf(String dayCountKeyword) {
+        for (Map.Entry<String, List<String>> dayCountKeywords : DERIVED_DAY_COUNT_KEYWORDS.entrySet()) {
+            if (dayCountKeywords.getValue().contains(dayCountKeyword))
+                return dayCountKeywords.getKey();
+        }
+
+        return null;
+    }
+
+    private static BigDecimal parseDayCount(String value) {
+        if (value == null)
+            return null;
+
+        try {
+            // exponent of FITS floating point values can be marked by 'D'
+            return new BigDecimal(value.trim().replace('D', 'E'));
+        } catch (NumberFormatException nfEx) {
+            return null;
+        }
+    }
+
+    /**
+     * Computes Julian Date from provided datetime and exposure parameters
+     * and saves or updates (if record already exists) value to corresponding
+     * record in FITS file header
+     *
+     * @param datetime {@link String} value as keyword of datetime record
+     *                 or {@link java.time.LocalDateTime} as value of datetime
+     * @param exposure {@link String} value as keyword of exposure record
+     *                 or {@link Double} as value of exposure in seconds
+     * @param comment  comment of JD record, insert
+     *                 <code>null</code> when no comment to add
+     * @param hduSelector selector of HDU units in which to edit header
+     * @param fitsFile FITS file in which to chain records
+     * @return {@inheritDoc}
+     */
+    @Override
+    public Result computeJulianDate(Object datetime, Object exposure, String comment, HduSelector hduSelector, File fitsFile) {
+        if (datetime == null)
+            throw new IllegalArgumentException("datetime is null");
+        if (exposure == null)
+            throw new IllegalArgumentException("exposure is null");
+        if (fitsFile == null)
+            throw new IllegalArgumentException("fitsFile is null");
+        if (hduSelector == null)
+            throw new IllegalArgumentException("hduSelector is null");
+
+        return editHeader(fitsFile, hduSelector, Constants.DEFAULT_JD_KEYWORD, header -> computeJulianDate(header, datetime, exposure, comment));
+    }
+
+    private Result computeJulianDate(IndexedHeader header, Object datetime, Object exposure, String comment)
+            throws FitsException {
+        boolean jdUpdated = false;
+
+        LocalDateTime datetimeValue;
+        double exposureValue;
+
+        // load datetime value
+        if (datetime instanceof LocalDateTime) {
+            datetimeValue = (LocalDateTime) datetime;
+        } else if (datetime instanceof String) {
+            // get value from FITS file header
+            String datetimeKeyword = (String) datetime;
+
+            if (!header.containsKey(datetimeKeyword))
+                return new Result(false, "Header does not contain DateTime record with keyword '" + datetimeKeyword + "'");
+
+            HeaderCard datetimeCard = header.findCard(datetimeKeyword);
+
+            // parse LocalDateTime value from record
+            datetimeValue = DateTimeUtils.DateTimeParser.parseLocalDateTime(datetimeCard.getValue());
+            if (datetimeValue == null)
+                return new Result(false, "Record with keyword '" + datetimeKeyword + "' does not contain valid DateTime value");
+        } else {
+            return new Result(false, "Unknown type of DateTime object");
+        }
+
+        // load exposure value
+        if (exposure instanceof Double) {
+            exposureValue = (double) exposure;
+        } else if (exposure instanceof String) {
+            // get value from FITS file header
+            String exposureKeyword = (String) exposure;
+
+            if (!header.containsKey(exposureKeyword))
+                return new Result(false, "Header does not contain Exposure record with keyword '" + exposureKeyword + "'");
+
+            HeaderCard exposureCard = header.findCard(exposureKeyword);
+
+            // get Double value from record
+            exposureValue = exposureCard.getValue(Double.class, Double.NaN);
+            if (Double.isNaN(exposureValue))
+                return new Result(false, "Record with keyword '" + exposureKeyword + "' does not contain valid Double value");
+        } else {
+            return new Result(false, "Unknown type of Exposure object");
+        }
+
+        // move datetime to center of exposure time
+        double nanoseconds = exposureValue * 1000 * 1000 * 1000; // for greater precision
+        datetimeValue = datetimeValue.plusNanos(Double.valueOf(nanoseconds).longValue());
+
+        // compute Julian Date
+        double julianDateDouble = JulianDate.computeJulianDate(datetimeValue);
+        // convert to decimal for precision
+        BigDecimal julianDate = NumberUtils.createJDDecimal(julianDateDouble);
+
+        HeaderCard jdCard = new HeaderCard(Constants.DEFAULT_JD_KEYWORD, julianDate, comment);
+
+        // check for mandatory keyword
+        if (MandatoryFITSKeywords.matchesMandatoryKeyword(Constants.DEFAULT_JD_KEYWORD)) {
+            return new Result(false, "Header already contains record with '" + Constants.DEFAULT_JD_KEYWORD + "' keyword but it is mandatory hence it cannot be changed");
+        }
+
+        if (header.containsKey(Constants.DEFAULT_JD_KEYWORD)) {
+            // update existing header card
+            header.updateLine(Constants.DEFAULT_JD_KEYWORD, jdCard);
+            jdUpdated = true;
+        } else {
+            // insert card at the end of header
+            header.addLine(jdCard);
+        }
+
+        // return success
+        if (!jdUpdated)
+            return new Result(true, "Julian Date successfully saved to 'JD' record");
+        else
+            return new Result(true, "Julian Date successfully updated in 'JD' record");
+    }
+
+    /**
+     * Computes Heliocentric Julian Date, saves or updates (if record already exists)
+     * the value to corresponding record in header, saves right ascension and declination values
+     * to FITS file header (if provided as values, otherwise does not save)
+     *
+     * @param datetime       {@link String} value as keyword of datetime record
+     *                       or {@link java.time.LocalDateTime} as value of datetime
+     * @param exposure       {@link String} value as keyword of exposure record
+     *                       or {@link Double} as value of exposure in seconds
+     * @param rightAscension {@link String} value as keyword of right ascension record,
+     *                       {@link cz.muni.fi.fits.models.TimeObject} as right ascension value parameters
+     *                       or {@link Double} or {@link java.math.BigDecimal} value of right ascension
+     * @param declination    {@link String} value as keyword of declination record,
+     *                       {@link cz.muni.fi.fits.models.DegreesObject} as declination value parameters
+     *                       or {@link Double} or {@link java.math.BigDecimal} as value of declination
+     * @param comment        comment of HJD record, insert
+     *                       <code>null</code> when no comment to add
+     * @param hduSelector    selector of HDU units in which to edit header
+     * @param fitsFile       FITS file in which to chain records
+     * @return {@inheritDoc}
+     */
+    @Override
+    public Result computeHeliocentricJulianDate(Object datetime, Object exposure, Object rightAscension, Object declination, String comment, HduSelector hduSelector, File fitsFile) {
+        if (datetime == null)
+            throw new IllegalArgumentException("datetime is null");
+        if (exposure == null)
+            throw new IllegalArgumentException("exposure is null");
+        if (rightAscension == null)
+            throw new IllegalArgumentException("rightAscension is null");
+        if (declination == null)
+            throw new IllegalArgumentException("declination is null");
+        if (fitsFile == null)
+            throw new IllegalArgumentException("fitsFile is null");
+        if (hduSelector == null)
+            throw new IllegalArgumentException("hduSelector is null");
+
+        return editHeader(fitsFile, hduSelector, Constants.DEFAULT_HJD_KEYWORD, header -> computeHeliocentricJulianDate(header, datetime, exposure, rightAscension, declination, comment));
+    }
+
+    private Result computeHeliocentricJulianDate(IndexedHeader header, Object datetime, Object exposure, Object rightAscension, Object declination, String comment)
+            throws FitsException {
+        boolean hjdUpdated = false;
+
+        boolean saveRightAscension = true;
+        boolean saveDeclination = true;
+
+        LocalDateTime datetimeValue;
+        double exposureValue;
+        double rightAscensionValue;
+        double declinationValue;
+
+        // load datetime value
+        if (datetime instanceof LocalDateTime) {
+            datetimeValue = (LocalDateTime) datetime;
+        } else if (datetime instanceof String) {
+            // get value from FITS file header
+            String datetimeKeyword = (String) datetime;
+
+            if (!header.containsKey(datetimeKeyword))
+                return new Result(false, "Header does not contain DateTime record with keyword '" + datetimeKeyword + "'");
+
+            HeaderCard datetimeCard = header.findCard(datetimeKeyword);
+
+            // parse LocalDateTime value from record
+            datetimeValue = DateTimeUtils.DateTimeParser.parseLocalDateTime(datetimeCard.getValue());
+            if (datetimeValue == null)
+                return new Result(false, "Record with keyword '" + datetimeKeyword + "' does not contain valid DateTime value");
+        } else {
+            return new Result(false, "Unknown type of DateTime object");
+        }
+
+        // load exposure value
+        if (exposure instanceof Double) {
+            exposureValue = (double) exposure;
+        } else if (exposure instanceof String) {
+            // get value from FITS file header
+            String exposureKeyword = (String) exposure;
+
+            if (!header.containsKey(exposureKeyword))
+                return new Result(false, "Header does not contain Exposure record with keyword '" + exposureKeyword + "'");
+
+            HeaderCard exposureCard = header.findCard(exposureKeyword);
+
+            // get Double value from record
+            exposureValue = exposureCard.getValue(Double.class, Double.NaN);
+            if (Double.isNaN(exposureValue))
+                return new Result(false, "Record with keyword '" + exposureKeyword + "' does not contain valid Double value");
+        } else {
+            return new Result(false, "Unknown type of Exposure object");
+        }
+
+        // load right ascension value
+        if (rightAscension instanceof Double) {
+            // value is double
+            rightAscensionValue = (double) rightAscension;
+        } else if (rightAscension instanceof BigDecimal) {
+            // value is BigDecimal
+            double value = ((BigDecimal) rightAscension).doubleValue();
+
+            if (Double.isFinite(value))
+                rightAscensionValue = value;
+            else
+                return new Result(false, "Right Ascension value is too big");
+
+        } else if (rightAscension instanceof TimeObject) {
+            // value is TimeObject
+            rightAscensionValue = RightAscension.computeRightAscension((TimeObject) rightAscension);
+        } else if (rightAscension instanceof String) {
+            // value is String keyword
+            saveRightAscension = false;
+
+            // get value from FITS file header
+            String rightAscensionKeyword = (String) rightAscension;
+
+            if (!header.containsKey(rightAscensionKeyword))
+                return new Result(false, "Header does not contain Right Ascension record with keyword '" + rightAscensionKeyword + "'");
+
+            HeaderCard rightAscensionCard = header.findCard(rightAscensionKeyword);
+
+            // parse right ascension from record
+            if (rightAscensionCard.valueType().equals(Double.class)) {
+                // double value
+                rightAscensionValue = rightAscensionCard.getValue(Double.class, Double.NaN);
+            } else if (rightAscensionCard.getValue().trim().split(":").length == 3) {
+                // full time value
+                String[] values = rightAscensionCard.getValue().trim().split(":");
+                try {
+                    rightAscensionValue = RightAscension.computeRightAscension(
+                            Double.parseDouble(values[0].trim()),
+                            Double.parseDouble(values[1].trim()),
+                            Double.parseDouble(values[2].trim()));
+                } catch (NumberFormatException nfEx) {
+                    return new Result(false, "Value of Right Ascension record '" + rightAscensionKeyword + "' is in invalid format");
+                }
+            } else {
+                return new Result(false, "Record with keyword '" + rightAscensionKeyword + "' does not contain valid Right Ascension value");
+            }
+        } else {
+            return new Result(false, "Unknown type of Right Ascension object");
+        }
+
+        // load declination value
+        if (declination instanceof Double) {
+            // value is Double
+            declinationValue = (double) declination;
+        } else if (declination instanceof BigDecimal) {
+            // value is BigDecimal
+            double value = ((BigDecimal) declination).doubleValue();
+
+            if (Double.isFinite(value))
+                declinationValue = value;
+            else
+                return new Result(false, "Declination value is too big");
+
+        } else if (declination instanceof DegreesObject) {
+            // value is DegreesObject
+            declinationValue = Declination.computeDeclination((DegreesObject) declination);
+        } else if (declination instanceof String) {
+            // value is String keyword
+            saveDeclination = false;
+
+            // get value from FITS file header
+            String declinationKeyword = (String) declination;
+
+            if (!header.containsKey(declinationKeyword))
+                return new Result(false, "Header does not contain Declination record with keyword '" + declinationKeyword + "'");
+
+            HeaderCard declinationCard = header.findCard(declinationKeyword);
+
+            // parse declination from record
+            if (declinationCard.valueType().equals(Double.class)) {
+                // double value
+                declinationValue = declinationCard.getValue(Double.class, Double.NaN);
+            } else if (declinationCard.getValue().trim().split(":").length == 3) {
+                // full degrees value
+                String[] values = declinationCard.getValue().trim().split(":");
+                try {
+                    declinationValue = Declination.computeDeclination(
+                            Double.parseDouble(values[0].trim()),
+                            Double.parseDouble(values[1].trim()),
+                            Double.parseDouble(values[2].trim()));
+                } catch (NumberFormatException nfEx) {
+                    return new Result(false, "Value of Declination record '" + declinationKeyword + "' is in invalid format");
+                }
+            } else {
+                return new Result(false, "Record with keyword '" + declinationKeyword + "' does not contain valid Declination value");
+            }
+        } else {
+            return new Result(false, "Unknown type of Declination object");
+        }
+
+        // move datetime to center of exposure time
+        double nanoseconds = exposureValue * 1000 * 1000 * 1000; // for greater precision
+        datetimeValue = datetimeValue.plusNanos(Double.valueOf(nanoseconds).longValue());
+
+        // compute Heliocentric Julian Date
+        double julianDate = JulianDate.computeJulianDate(datetimeValue);
+        double heliocentricJulianDate = HeliocentricJulianDate.computeHeliocentricJulianDate(julianDate, rightAscensionValue, declinationValue);
+
+        HeaderCard hjdCard = new HeaderCard(Constants.DEFAULT_HJD_KEYWORD, heliocentricJulianDate, comment);
+
+        // check for mandatory keyword
+        if (MandatoryFITSKeywords.matchesMandatoryKeyword(Constants.DEFAULT_HJD_KEYWORD))
+            return new Result(false, "Header already contains record with '" + Constants.DEFAULT_HJD_KEYWORD + "' keyword but it is mandatory hence it cannot be changed");
+
+        if (!header.containsKey(Constants.DEFAULT_HJD_KEYWORD)) {
+            // save card to the end of header as new record
+            header.addLine(hjdCard);
+        } else {
+            // update existing record in header
+            header.updateLine(Constants.DEFAULT_HJD_KEYWORD, hjdCard);
+            hjdUpdated = true;
+        }
+
+        if (saveRightAscension) {
+            HeaderCard raCard;
+
+            if (rightAscension instanceof TimeObject) {
+                // save in full time format -> hh:mm:ss.SSS
+                String raValue = convertAndFormat((TimeObject) rightAscension);
+
+                raCard = new HeaderCard(Constants.DEFAULT_RA_KEYWORD, raValue, Constants.DEFAULT_RA_COMMENT);
+            } else {
+                // save as number
+                raCard = new HeaderCard(Constants.DEFAULT_RA_KEYWORD, rightAscensionValue, Constants.DEFAULT_RA_COMMENT);
+            }
+
+            // check for mandatory keyword
+            if (MandatoryFITSKeywords.matchesMandatoryKeyword(Constants.DEFAULT_RA_KEYWORD)) {
+                return new Result(false, "Header already contains record with '" + Constants.DEFAULT_RA_KEYWORD + "' keyword but it is mandatory hence it cannot be changed");
+            }
+
+            // save/update right ascension to header
+            if (header.containsKey(Constants.DEFAULT_RA_KEYWORD))
+                header.updateLine(Constants.DEFAULT_RA_KEYWORD, raCard);
+            else {
+                header.addLine(raCard);
+            }
+        }
+
+        if (saveDeclination) {
+            HeaderCard decCard;
+
+            if (declination instanceof DegreesObject) {
+                // save in full degrees format -> hh:mm:ss.SSS
+                String decValue = convertAndFormat((DegreesObject) declination);
+
+                decCard = new HeaderCard(Constants.DEFAULT_DEC_KEYWORD, decValue, Constants.DEFAULT_DEC_COMMENT);
+            } else {
+                // save as number
+                decCard = new HeaderCard(Constants.DEFAULT_DEC_KEYWORD, declinationValue, Constants.DEFAULT_DEC_COMMENT);
+            }
+
+            // check for mandatory keyword
+            if (MandatoryFITSKeywords.matchesMandatoryKeyword(Constants.DEFAULT_DEC_KEYWORD)) {
+                return new Result(false, "Header already contains record with '" + Constants.DEFAULT_DEC_KEYWORD + "' keyword but it is mandatory hence it cannot be changed");
+            }
+
+            // save/update declination to header
+            if (header.containsKey(Constants.DEFAULT_DEC_KEYWORD))
+                header.updateLine(Constants.DEFAULT_DEC_KEYWORD, decCard);
+            else {
+                header.addLine(decCard);
+            }
+        }
+
+        // return success
+        if (!hjdUpdated)
+            return new Result(true, "Heliocentric Julian Date successfully saved to 'HJD' record");
+        else
+            return new Result(true, "Heliocentric Julian Date successfully updated in 'HJD' record");
+    }
+
+
+    private static Map<String, List<String>> createDerivedDayCountKeywords() {
+        Map<String, List<String>> dayCountKeywords = new LinkedHashMap<>();
+        dayCountKeywords.put(OBSERVATION_TIME_KEYWORD, Arrays.asList("MJD-OBS", Constants.DEFAULT_JD_KEYWORD, Constants.DEFAULT_HJD_KEYWORD));
+        dayCountKeywords.put("DATE-BEG", Collections.singletonList("MJD-BEG"));
+        dayCountKeywords.put("DATE-END", Collections.singletonList("MJD-END"));
+        dayCountKeywords.put("DATE-AVG", Collections.singletonList("MJD-AVG"));
+
+        return Collections.unmodifiableMap(dayCountKeywords);
+    }
+
+    private HeaderCard createNewHeaderCard(String keyword, Object value, String comment)
+            throws HeaderCardException {
+        if (value instanceof Integer) {
+            return new HeaderCard(keyword, (Integer) value, comment);
+        } else if (value instanceof Long) {
+            return new HeaderCard(keyword, (Long) value, comment);
+        } else if (value instanceof Double) {
+            return new HeaderCard(keyword, (Double) value, comment);
+        } else if (value instanceof Boolean) {
+            return new HeaderCard(keyword, (Boolean) value, comment);
+        } else if (value instanceof String) {
+            return new HeaderCard(keyword, (String) value, comment);
+        } else if (value instanceof BigInteger) {
+            return new HeaderCard(keyword, (BigInteger) value, comment);
+        } else if (value instanceof BigDecimal) {
+            return new HeaderCard(keyword, (BigDecimal) value, comment);
+        } else {
+            return null;
+        }
+    }
+
+    private Object extractValueWithCorrectType(HeaderCard headerCard) {
+        if (headerCard.valueType() == Double.class)
+            return headerCard.getValue(Double.class, null);
+
+        if (headerCard.valueType() == Boolean.class)
+            return headerCard.getValue(Boolean.class, null);
+
+        if (headerCard.valueType() == Integer.class)
+            return headerCard.getValue(Integer.class, null);
+
+        if (headerCard.valueType() == Long.class)
+            return headerCard.getValue(Long.class, null);
+
+        if (headerCard.valueType() == BigInteger.class)
+            return headerCard.getValue(BigInteger.class, null);
+
+        if (headerCard.valueType() == BigDecimal.class)
+            return headerCard.getValue(BigDecimal.class, null);
+
+        return headerCard.getValue();
+
+    }
+
+    /**
+     * Executes all <code>operations</code> in specified order over single parsed header
+     * and writes the header back to FITS file only once. When any of operations fails,
+     * no changes are written to file
+     *
+     * @param operations    ordered list of input data of operations to execute
+     * @param hduSelector   selector of HDU units in which to edit header
+     * @param fitsFile      FITS file in which to execute operations
+     * @return              {@link Result} object with results of this operation
+     */
+    @Override
+    public Result executeOperations(List<InputData> operations, HduSelector hduSelector, File fitsFile) {
+        if (operations == null)
+            throw new IllegalArgumentException("operations is null");
+        if (fitsFile == null)
+            throw new IllegalArgumentException("fitsFile is null");
+        if (hduSelector == null)
+            throw new IllegalArgumentException("hduSelector is null");
+
+        // reserve requested by any of operations is applied when header is written
+        int requiredReserve = 0;
+        for (InputData operation : operations) {
+            if (operation instanceof ReserveInputData)
+                requiredReserve = Math.max(requiredReserve, ((ReserveInputData) operation).getRecords());
+        }
+
+        return editHeader(fitsFile, hduSelector, null, null, header -> executeOperations(header, operations), requiredReserve);
+    }
+
+    private Result executeOperations(IndexedHeader header, List<InputData> operations)
+            throws FitsException {
+        StringBuilder message = new StringBuilder();
+
+        int operationNumber = 0;
+        for (InputData operation : operations) {
+            operationNumber++;
+            Result result = executeOperation(header, operation);
+
+            // edited header is not written to file, so all changes are rolled back
+            if (!result.isSuccess())
+                return new Result(false, "Operation " + operationNumber + " failed, no changes were written: " + result.getMessage());
+
+            if (message.length() > 0)
+                message.append("; ");
+            message.append(result.getMessage());
+        }
+
+        return new Result(true, message.toString());
+    }
+
+    private Result executeOperation(IndexedHeader header, InputData operation)
+            throws FitsException {
+        switch (operation.getOperationType()) {
+            case ADD_NEW_RECORD_TO_END:
+                AddNewRecordInputData anrid = (AddNewRecordInputData) operation;
+                return addNewRecord(header, anrid.getKeyword(), anrid.getValue(), anrid.getComment(), anrid.updateIfExists());
+
+            case ADD_NEW_RECORD_TO_INDEX:
+                AddNewToIndexInputData antiid = (AddNewToIndexInputData) operation;
+                return addNewRecordToIndex(header, antiid.getIndex(), antiid.getKeyword(), antiid.getValue(), antiid.getComment(), antiid.removeOldIfExists());
+
+            case REMOVE_RECORD_BY_KEYWORD:
+                RemoveByKeywordInputData rbkid = (RemoveByKeywordInputData) operation;
+                return removeRecordByKeyword(header, rbkid.getKeyword());
+
+            case REMOVE_RECORD_FROM_INDEX:
+                RemoveFromIndexInputData rfiid = (RemoveFromIndexInputData) operation;
+                return removeRecordFromIndex(header, rfiid.getIndex());
+
+            case CHANGE_KEYWORD:
+                ChangeKeywordInputData ckid = (ChangeKeywordInputData) operation;
+                return changeKeywordOfRecord(header, ckid.getOldKeyword(), ckid.getNewKeyword(), ckid.removeValueOfNewIfExists());
+
+            case CHANGE_VALUE_BY_KEYWORD:
+                ChangeValueByKeywordInputData cvbkid = (ChangeValueByKeywordInputData) operation;
+                return changeValueOfRecord(header, cvbkid.getKeyword(), cvbkid.getValue(), cvbkid.getComment(), cvbkid.addNewIfNotExists());
+
+            case CHAIN_RECORDS:
+                ChainRecordsInputData crid = (ChainRecordsInputData) operation;
+                return chainMultipleRecords(header, crid.getKeyword(), crid.getChainValues(), crid.getComment(), crid.updateIfExists(), crid.longstringsAllowed());
+
+            case SHIFT_TIME:
+                ShiftTimeInputData stid = (ShiftTimeInputData) operation;
+                if (stid.getCorrectionTable() != null)
+                    return shiftTimeOfTimeRecords(header, stid.getKeywords(), stid.getCorrectionTable());
+                return shiftTimeOfTimeRecords(header, stid.getKeywords(), stid.getYearShift(), stid.getMonthShift(), stid.getDayShift(),
+                        stid.getHourShift(), stid.getMinuteShift(), stid.getSecondShift(), stid.getNanosecondShift());
+
+            case COMPUTE_JD:
+                ComputeJDInputData cjdid = (ComputeJDInputData) operation;
+                return computeJulianDate(header, cjdid.getDatetime(), cjdid.getExposure(), cjdid.getComment());
+
+            case COMPUTE_HJD:
+                ComputeHJDInputData chjdid = (ComputeHJDInputData) operation;
+                return computeHeliocentricJulianDate(header, chjdid.getDatetime(), chjdid.getExposure(),
+                        chjdid.getRightAscension(), chjdid.getDeclination(), chjdid.getComment());
+
+            case RESERVE_HEADER_SPACE:
+                ReserveInputData rid = (ReserveInputData) operation;
+                return new Result(true, "Reserve of " + rid.getRecords() + " records requested");
+
+            default:
+                return new Result(false, "Operation " + operation.getOperationType() + " cannot be executed over header");
+        }
+    }
+
+    /**
+     * Reserves at least specified number of blank records before <code>END</code> card
+     * in header of FITS file. Header grows by whole blocks only when free space
+     * in its current blocks is not sufficient
+     *
+     * @param records   minimal number of blank records to reserve in header
+     * @param hduSelector selector of HDU units in which to edit header
+     * @param fitsFile  FITS file in which to reserve header space
+     * @return          {@link Result} object with results of this operation
+     */
+    @Override
+    public Result reserveHeaderSpace(int records, HduSelector hduSelector, File fitsFile) {
+        if (records < 0)
+            throw new IllegalArgumentException("records cannot be negative");
+        if (fitsFile == null)
+            throw new IllegalArgumentException("fitsFile is null");
+        if (hduSelector == null)
+            throw new IllegalArgumentException("hduSelector is null");
+
+        // header itself is not changed, reserve is applied when header is written
+        return editHeader(fitsFile, hduSelector, null, null, header -> new Result(true, "Header space reserved"), records);
+    }
+
+    /**
+     * Opens headers of HDU units of specified <code>fitsFile</code> selected
+     * by <code>hduSelector</code> for editing, data units of HDU units
+     * are skipped without reading them
+     *
+     * @param fitsFile      FITS file which headers to open
+     * @param hduSelector   selector of HDU units which headers to open
+     * @return              {@link EditedFile} object with opened headers
+     * @throws FitsException when file is not valid FITS file
+     * @throws IOException  when some error occurs during reading the file
+     */
+    protected abstract EditedFile openFile(File fitsFile, HduSelector hduSelector) throws FitsException, IOException;
+
+    private Result editHeader(File fitsFile, HduSelector hduSelector, String keyword, HeaderEdit edit) {
+        return editHeader(fitsFile, hduSelector, keyword, keyword, edit, 0);
+    }
+
+    private Result editHeader(File fitsFile, HduSelector hduSelector, String oldKeyword, String keyword, HeaderEdit edit) {
+        return editHeader(fitsFile, hduSelector, oldKeyword, keyword, edit, 0);
+    }
+
+    private Result editHeader(File fitsFile, HduSelector hduSelector, String oldKeyword, String keyword,
+                              HeaderEdit edit, int requiredReserve) {
+        long openStart = System.nanoTime();
+        try (EditedFile editedFile = openFile(fitsFile, hduSelector)) {
+            List<EditedHeader> editedHeaders = editedFile.getHeaders();
+            if (editedHeaders.isEmpty())
+                return new Result(false, "File does not contain " + hduSelector);
+
+            long editStart = System.nanoTime();
+            long openNanos = editStart - openStart;
+            long bytesRead = 0;
+            for (EditedHeader editedHeader : editedHeaders)
+                bytesRead += editedHeader.getHeaderLength();
+
+            // every header is indexed by keywords once for all its operations
+            List<IndexedHeader> indexedHeaders = new ArrayList<>(editedHeaders.size());
+            for (EditedHeader editedHeader : editedHeaders)
+                indexedHeaders.add(new IndexedHeader(editedHeader.getHeaderBytes()));
+
+            // details describe edited record in the first selected header
+            IndexedHeader firstHeader = indexedHeaders.get(0);
+            String oldValue = findValue(firstHeader, oldKeyword);
+
+            SortedMap<Long, byte[]> headersBytes = new TreeMap<>();
+            List<String> messages = new ArrayList<>(editedHeaders.size());
+
+            for (int i = 0; i < editedHeaders.size(); i++) {
+                EditedHeader editedHeader = editedHeaders.get(i);
+                Result result = edit.apply(indexedHeaders.get(i));
+
+                // write changes only when operation succeeded in all selected headers
+                if (!result.isSuccess()) {
+                    ResultDetails details = new ResultDetails(keyword, oldValue, oldValue, bytesRead, 0,
+                            openNanos, System.nanoTime() - editStart, 0);
+                    return new Result(false, describeResult(hduSelector, editedHeader, result.getMessage()), details);
+                }
+
+                // fit header into its original blocks using reserved blank records
+                byte[] originalBytes = editedHeader.getHeaderBytes();
+                byte[] headerBytes = HeaderReserve.fitHeader(indexedHeaders.get(i).serialize(),
+                        editedHeader.getHeaderLength(), HeaderReserve.countCardsToEnd(originalBytes),
+                        requiredReserve, _headerReserve);
+                headersBytes.put(editedHeader.getHeaderOffset(), headerBytes);
+
+                // reserve is reported only when it is configured, requested or reserved earlier
+                String message = result.getMessage();
+                if (_headerReserve > 0 || requiredReserve > 0 || HeaderReserve.countReservedCards(originalBytes) > 0)
+                    message += " (header reserve: " + HeaderReserve.countReservedCards(headerBytes) + " records)";
+
+                messages.add(describeResult(hduSelector, editedHeader, message));
+            }
+
+            // all selected headers are written at once
+            long writeStart = System.nanoTime();
+            long bytesWritten = editedFile.write(headersBytes);
+            updateHeaderIndex(fitsFile, editedHeaders, headersBytes);
+            long writeNanos = System.nanoTime() - writeStart;
+
+            ResultDetails details = new ResultDetails(keyword, oldValue, findValue(firstHeader, keyword),
+                    bytesRead, bytesWritten, openNanos, writeStart - editStart, writeNanos);
+            return new Result(true, String.join("; ", messages), details);
+        } catch (FitsException | IOException ex) {
+            return new Result(false, "Error in editing engine: " + ex.getMessage());
+        }
+    }
+
+    private static String findValue(IndexedHeader header, String keyword) throws FitsException {
+        if (keyword == null)
+            return null;
+
+        HeaderCard card = header.findCard(keyword);
+        return card != null ? card.getValue() : null;
+    }
+
+    private void updateHeaderIndex(File fitsFile, List<EditedHeader> editedHeaders, SortedMap<Long, byte[]> headersBytes) {
+        if (!_headerIndex.isEnabled())
+            return;
+
+        // edits of extension headers leave entry stale, it is refreshed when used next time
+        EditedHeader primaryHeader = editedHeaders.get(0);
+        if (primaryHeader.getIndex() != HduSelector.PRIMARY_INDEX)
+            return;
+
+        // replacement of file postponed to group synchronization changes the file later
+        boolean replacementPostponed = false;
+        if (_fileSynchronizer.getMode() == FileSynchronizer.Mode.GROUP) {
+            for (EditedHeader editedHeader : editedHeaders) {
+                if (headersBytes.get(editedHeader.getHeaderOffset()).length != editedHeader.getHeaderLength())
+                    replacementPostponed = true;
+            }
+        }
+
+        if (replacementPostponed)
+            _headerIndex.remove(fitsFile);
+        else
+            _headerIndex.update(fitsFile, HeaderBlockScanner.parseValues(headersBytes.get(primaryHeader.getHeaderOffset())));
+    }
+
+    private String describeResult(HduSelector hduSelector, EditedHeader editedHeader, String message) {
+        // results of primary header keep their original form
+        if (hduSelector.isPrimaryOnly())
+            return message;
+
+        return "HDU " + editedHeader.getIndex() + ": " + message;
+    }
+
+    private boolean indexInRangeOfHeaderSize(int index, IndexedHeader header) {
+        return index <= header.getNumberOfCards() - 1;
+    }
+
+    private String convertAndFormat(DegreesObject degreesObject) {
+        // convert parameters to base form
+        DeclinationParamsConverter converter = new DeclinationParamsConverter(
+                degreesObject.getDegrees(),
+                degreesObject.getMinutes(),
+                degreesObject.getSeconds());
+
+        return NumberFormatter.format(converter.getDegrees(), 2, 2) + ":"
+                + NumberFormatter.format(converter.getMinutes(), 2, 2) + ":"
+                + NumberFormatter.format(converter.getSeconds(), 2, 3);
+    }
+
+    private String convertAndFormat(TimeObject timeObject) {
+        // convert parameters to base form
+        RightAscensionParamsConverter converter = new RightAscensionParamsConverter(
+                timeObject.getHours(),
+                timeObject.getMinutes(),
+                timeObject.getSeconds());
+
+        return NumberFormatter.format(converter.getHours(), 2, 2) + ":"
+                + NumberFormatter.format(converter.getMinutes(), 2, 2) + ":"
+                + NumberFormatter.format(converter.getSeconds(), 2, 3);
+    }
+
+    /**
+     * FITS file opened for editing with headers of selected HDU units
+     * that knows how to write edited headers back to the file
+     */
+    protected abstract static class EditedFile implements Closeable {
+
+        private final List<EditedHeader> _headers;
+
+        /**
+         * Creates new {@link EditedFile} object
+         *
+         * @param headers   headers of selected HDU units in order of their position in file
+         */
+        protected EditedFile(List<EditedHeader> headers) {
+            _headers = Collections.unmodifiableList(headers);
+        }
+
+        public List<EditedHeader> getHeaders() {
+            return _headers;
+        }
+
+        /**
+         * Writes serialized edited headers back to FITS file
+         *
+         * @param headersBytes  serialized headers padded to the whole blocks
+         *                      mapped by offsets of original headers in file
+         * @return              number of bytes written to file
+         * @throws FitsException when headers cannot be written
+         * @throws IOException  when some error occurs during writing to file
+         */
+        protected abstract long write(SortedMap<Long, byte[]> headersBytes) throws FitsException, IOException;
+    }
+
+    /**
+     * Header of single HDU unit opened for editing
+     */
+    protected static final class EditedHeader {
+
+        private final byte[] _headerBytes;
+        private final int _index;
+        private final long _headerOffset;
+        private final long _headerLength;
+
+        /**
+         * Creates new {@link EditedHeader} object
+         *
+         * @param headerBytes   card images of the original header including <code>END</code> card
+         * @param index         index of HDU unit in file
+         * @param headerOffset  offset of the original header in file in bytes
+         * @param headerLength  length of the original header in file in bytes
+         */
+        protected EditedHeader(byte[] headerBytes, int index, long headerOffset, long headerLength) {
+            if (headerBytes == null)
+                throw new IllegalArgumentException("headerBytes is null");
+
+            _headerBytes = headerBytes;
+            _index = index;
+            _headerOffset = headerOffset;
+            _headerLength = headerLength;
+        }
+
+        public byte[] getHeaderBytes() {
+            return _headerBytes;
+        }
+
+        public int getIndex() {
+            return _index;
+        }
+
+        public long getHeaderOffset() {
+            return _headerOffset;
+        }
+
+        public long getHeaderLength() {
+            return _headerLength;
+        }
+    }
+
+    @FunctionalInterface
+    private interface HeaderEdit {
+        Result apply(IndexedHeader header) throws FitsException;
+    }
+}
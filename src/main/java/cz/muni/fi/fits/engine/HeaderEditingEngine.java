@@ -1,7 +1,10 @@
 package cz.muni.fi.fits.engine;
 
 import cz.muni.fi.fits.engine.models.Result;
+import cz.muni.fi.fits.input.models.InputData;
 import cz.muni.fi.fits.models.ChainValueType;
+import cz.muni.fi.fits.models.ClockCorrectionTable;
+import cz.muni.fi.fits.models.HduSelector;
 import cz.muni.fi.fits.common.utils.Tuple;
 
 import java.io.File;
@@ -12,7 +15,7 @@ import java.util.List;
  * over FITS files
  *
  * @author Martin Vrábel
- * @version 1.3.5
+ * @version 1.9
  */
 public interface HeaderEditingEngine {
 
@@ -25,13 +28,48 @@ public interface HeaderEditingEngine {
      *                          <code>null</code> when no comment to add to record
      * @param updateIfExists    value indicating whether to update a record
      *                          if one with the same keyword already exists
+     * @param hduSelector       selector of HDU units in which to edit header
      * @param fitsFile          FITS file to which add new record
      * @return                  {@link Result} object with results of this operation
      */
-    Result addNewRecord(String keyword, Object value, String comment, boolean updateIfExists, File fitsFile);
+    Result addNewRecord(String keyword, Object value, String comment, boolean updateIfExists, HduSelector hduSelector, File fitsFile);
+
+    /**
+     * Adds new record to FITS header with specified arguments
+     * in header of primary HDU unit
+     *
+     * @param keyword           keyword of new record to add
+     * @param value             value of new record to add
+     * @param comment           comment of new record to add, insert
+     *                          <code>null</code> when no comment to add to record
+     * @param updateIfExists    value indicating whether to update a record
+     *                          if one with the same keyword already exists
+     * @param fitsFile          FITS file to which add new record
+     * @return                  {@link Result} object with results of this operation
+     */
+    default Result addNewRecord(String keyword, Object value, String comment, boolean updateIfExists, File fitsFile) {
+        return addNewRecord(keyword, value, comment, updateIfExists, HduSelector.primary(), fitsFile);
+    }
+
+    /**
+     * Adds new record to FITS header with specified arguments to specific <code>index</code>
+     *
+     * @param index             index where to add new record
+     * @param keyword           keyword of new record to add
+     * @param value             value of new keyword to add
+     * @param comment           comment of new record to add, insert
+     *                          <code>null</code> when no comment to add to record
+     * @param removeOldIfExists value indicating whether to remove old record
+     *                          with the same keyword if it already exists
+     * @param hduSelector       selector of HDU units in which to edit header
+     * @param fitsFile          FITS file to which add new record
+     * @return                  {@link Result} object with results of this operation
+     */
+    Result addNewRecordToIndex(int index, String keyword, Object value, String comment, boolean removeOldIfExists, HduSelector hduSelector, File fitsFile);
 
     /**
      * Adds new record to FITS header with specified arguments to specific <code>index</code>
+     * in header of primary HDU unit
      *
      * @param index             index where to add new record
      * @param keyword           keyword of new record to add
@@ -43,25 +81,53 @@ public interface HeaderEditingEngine {
      * @param fitsFile          FITS file to which add new record
      * @return                  {@link Result} object with results of this operation
      */
-    Result addNewRecordToIndex(int index, String keyword, Object value, String comment, boolean removeOldIfExists, File fitsFile);
+    default Result addNewRecordToIndex(int index, String keyword, Object value, String comment, boolean removeOldIfExists, File fitsFile) {
+        return addNewRecordToIndex(index, keyword, value, comment, removeOldIfExists, HduSelector.primary(), fitsFile);
+    }
 
     /**
      * Removes record from FITS header with specified <code>keyword</code>
      *
+     * @param keyword      keyword of a record to remove
+     * @param hduSelector  selector of HDU units in which to edit header
+     * @param fitsFile     FITS file from which to remove a record
+     * @return             {@link Result} object with results of this operation
+     */
+    Result removeRecordByKeyword(String keyword, HduSelector hduSelector, File fitsFile);
+
+    /**
+     * Removes record from FITS header with specified <code>keyword</code>
+     * in header of primary HDU unit
+     *
      * @param keyword   keyword of a record to remove
      * @param fitsFile  FITS file from which to remove a record
      * @return          {@link Result} object with results of this operation
      */
-    Result removeRecordByKeyword(String keyword, File fitsFile);
+    default Result removeRecordByKeyword(String keyword, File fitsFile) {
+        return removeRecordByKeyword(keyword, HduSelector.primary(), fitsFile);
+    }
+
+    /**
+     * Removes record from FITS header from specified <code>index</code>
+     *
+     * @param index        index from which to remove a record
+     * @param hduSelector  selector of HDU units in which to edit header
+     * @param fitsFile     FITS file from which to remove a record
+     * @return             {@link Result} object with results of this operation
+     */
+    Result removeRecordFromIndex(int index, HduSelector hduSelector, File fitsFile);
 
     /**
      * Removes record from FITS header from specified <code>index</code>
+     * in header of primary HDU unit
      *
      * @param index     index from which to remove a record
      * @param fitsFile  FITS file from which to remove a record
      * @return          {@link Result} object with results of this operation
      */
-    Result removeRecordFromIndex(int index, File fitsFile);
+    default Result removeRecordFromIndex(int index, File fitsFile) {
+        return removeRecordFromIndex(index, HduSelector.primary(), fitsFile);
+    }
 
     /**
      * Changes keyword of specified existing record in FITS header to new one
@@ -70,13 +136,45 @@ public interface HeaderEditingEngine {
      * @param newKeyword                new keyword to set in record
      * @param removeValueOfNewIfExists  value indicating whether to remove record with new keyword
      *                                  if it already exists in header
+     * @param hduSelector               selector of HDU units in which to edit header
      * @param fitsFile                  FITS file in which to change a record
      * @return                          {@link Result} object with results of this operation
      */
-    Result changeKeywordOfRecord(String oldKeyword, String newKeyword, boolean removeValueOfNewIfExists, File fitsFile);
+    Result changeKeywordOfRecord(String oldKeyword, String newKeyword, boolean removeValueOfNewIfExists, HduSelector hduSelector, File fitsFile);
+
+    /**
+     * Changes keyword of specified existing record in FITS header to new one
+     * in header of primary HDU unit
+     *
+     * @param oldKeyword                keyword defining existing record in which to change keyword
+     * @param newKeyword                new keyword to set in record
+     * @param removeValueOfNewIfExists  value indicating whether to remove record with new keyword
+     *                                  if it already exists in header
+     * @param fitsFile                  FITS file in which to change a record
+     * @return                          {@link Result} object with results of this operation
+     */
+    default Result changeKeywordOfRecord(String oldKeyword, String newKeyword, boolean removeValueOfNewIfExists, File fitsFile) {
+        return changeKeywordOfRecord(oldKeyword, newKeyword, removeValueOfNewIfExists, HduSelector.primary(), fitsFile);
+    }
+
+    /**
+     * Change value of specified existing record in FITS header to new one
+     *
+     * @param keyword           keyword defining existing record in which to change value
+     * @param newValue          new value to be set in record
+     * @param newComment        new comment to set in record, insert <code>null</code>
+     *                          if want to use the original comment
+     * @param addNewIfNotExists value indicating whether add new record if
+     *                          record with specified keyword does not exist
+     * @param hduSelector       selector of HDU units in which to edit header
+     * @param fitsFile          FITS file in which to change a record
+     * @return                  {@link Result} object with results of this operation
+     */
+    Result changeValueOfRecord(String keyword, Object newValue, String newComment, boolean addNewIfNotExists, HduSelector hduSelector, File fitsFile);
 
     /**
      * Change value of specified existing record in FITS header to new one
+     * in header of primary HDU unit
      *
      * @param keyword           keyword defining existing record in which to change value
      * @param newValue          new value to be set in record
@@ -87,7 +185,9 @@ public interface HeaderEditingEngine {
      * @param fitsFile          FITS file in which to change a record
      * @return                  {@link Result} object with results of this operation
      */
-    Result changeValueOfRecord(String keyword, Object newValue, String newComment, boolean addNewIfNotExists, File fitsFile);
+    default Result changeValueOfRecord(String keyword, Object newValue, String newComment, boolean addNewIfNotExists, File fitsFile) {
+        return changeValueOfRecord(keyword, newValue, newComment, addNewIfNotExists, HduSelector.primary(), fitsFile);
+    }
 
     /**
      * Chain multiple records into new single record in FITS header by specified arguments
@@ -102,11 +202,34 @@ public interface HeaderEditingEngine {
      *                                  with specified keyword if it already exists
      * @param allowLongstrings          value indicating whether allow longstring values in header
      *                                  if chained value is longer than basic limit
+     * @param hduSelector               selector of HDU units in which to edit header
      * @param fitsFile                  FITS file in which to chain records
      * @return                          {@link Result} object with results of this operation
      */
     Result chainMultipleRecords(String keyword, List<Tuple<ChainValueType, String>> chainParameters, String comment,
-                                boolean updateIfExists, boolean allowLongstrings, File fitsFile);
+                                boolean updateIfExists, boolean allowLongstrings, HduSelector hduSelector, File fitsFile);
+
+    /**
+     * Chain multiple records into new single record in FITS header by specified arguments
+     * in header of primary HDU unit
+     *
+     * @param keyword                   keyword of new chained record
+     * @param chainParameters           list of parameters containing constant and keyword
+     *                                  tuples of {@link ChainValueType} and
+     *                                  {@link String} which to chain
+     * @param comment                   comment to set in record, insert <code>null</code>
+     *                                  if no comment to add
+     * @param updateIfExists            value indicating whether to update value of record
+     *                                  with specified keyword if it already exists
+     * @param allowLongstrings          value indicating whether allow longstring values in header
+     *                                  if chained value is longer than basic limit
+     * @param fitsFile                  FITS file in which to chain records
+     * @return                          {@link Result} object with results of this operation
+     */
+    default Result chainMultipleRecords(String keyword, List<Tuple<ChainValueType, String>> chainParameters, String comment,
+                                        boolean updateIfExists, boolean allowLongstrings, File fitsFile) {
+        return chainMultipleRecords(keyword, chainParameters, comment, updateIfExists, allowLongstrings, HduSelector.primary(), fitsFile);
+    }
 
     /**
      * Shifts time of time record with <code>keyword</code> by amount of time specified by arguments
@@ -119,16 +242,122 @@ public interface HeaderEditingEngine {
      * @param minuteShift       time shift for minutes
      * @param secondShift       time shift for seconds
      * @param nanosecondShift   time shift for nanoseconds
+     * @param hduSelector       selector of HDU units in which to edit header
      * @param fitsFile          FITS file in which to chain records
      * @return                  {@link Result} object with results of this operation
      */
     Result shiftTimeOfTimeRecord(String keyword, int yearShift, int monthShift, int dayShift,
-                                 int hourShift, int minuteShift, int secondShift, int nanosecondShift, File fitsFile);
+                                 int hourShift, int minuteShift, int secondShift, int nanosecondShift, HduSelector hduSelector, File fitsFile);
+
+    /**
+     * Shifts time of time record with <code>keyword</code> by amount of time specified by arguments
+     * in header of primary HDU unit
+     *
+     * @param keyword           keyword of time record in which to shift time
+     * @param yearShift         time shift for years
+     * @param monthShift        time shift for months
+     * @param dayShift          time shift for days
+     * @param hourShift         time shift for hours
+     * @param minuteShift       time shift for minutes
+     * @param secondShift       time shift for seconds
+     * @param nanosecondShift   time shift for nanoseconds
+     * @param fitsFile          FITS file in which to chain records
+     * @return                  {@link Result} object with results of this operation
+     */
+    default Result shiftTimeOfTimeRecord(String keyword, int yearShift, int monthShift, int dayShift,
+                                         int hourShift, int minuteShift, int secondShift, int nanosecondShift, File fitsFile) {
+        return shiftTimeOfTimeRecord(keyword, yearShift, monthShift, dayShift, hourShift, minuteShift, secondShift, nanosecondShift, HduSelector.primary(), fitsFile);
+    }
+
+    /**
+     * Shifts time of all time records with <code>keywords</code> by amount of time
+     * specified by arguments in single edit of header, keywords may contain
+     * wildcards <code>*</code> and <code>?</code>. Numeric records counting days
+     * derived from shifted time records are kept consistent with them
+     *
+     * @param keywords          keywords or keyword patterns of time records in which to shift time
+     * @param yearShift         time shift for years
+     * @param monthShift        time shift for months
+     * @param dayShift          time shift for days
+     * @param hourShift         time shift for hours
+     * @param minuteShift       time shift for minutes
+     * @param secondShift       time shift for seconds
+     * @param nanosecondShift   time shift for nanoseconds
+     * @param hduSelector       selector of HDU units in which to edit header
+     * @param fitsFile          FITS file in which to shift time records
+     * @return                  {@link Result} object with results of this operation
+     */
+    Result shiftTimeOfTimeRecords(List<String> keywords, int yearShift, int monthShift, int dayShift,
+                                  int hourShift, int minuteShift, int secondShift, int nanosecondShift, HduSelector hduSelector, File fitsFile);
+
+    /**
+     * Shifts time of all time records with <code>keywords</code> by amount of time
+     * specified by arguments in header of primary HDU unit
+     *
+     * @param keywords          keywords or keyword patterns of time records in which to shift time
+     * @param yearShift         time shift for years
+     * @param monthShift        time shift for months
+     * @param dayShift          time shift for days
+     * @param hourShift         time shift for hours
+     * @param minuteShift       time shift for minutes
+     * @param secondShift       time shift for seconds
+     * @param nanosecondShift   time shift for nanoseconds
+     * @param fitsFile          FITS file in which to shift time records
+     * @return                  {@link Result} object with results of this operation
+     */
+    default Result shiftTimeOfTimeRecords(List<String> keywords, int yearShift, int monthShift, int dayShift,
+                                          int hourShift, int minuteShift, int secondShift, int nanosecondShift, File fitsFile) {
+        return shiftTimeOfTimeRecords(keywords, yearShift, monthShift, dayShift, hourShift, minuteShift, secondShift, nanosecondShift, HduSelector.primary(), fitsFile);
+    }
+
+    /**
+     * Shifts time of all time records with <code>keywords</code> by clock correction
+     * interpolated from <code>correctionTable</code> for time of observation
+     * in <code>DATE-OBS</code> record of header, keywords may contain
+     * wildcards <code>*</code> and <code>?</code>
+     *
+     * @param keywords          keywords or keyword patterns of time records in which to shift time
+     * @param correctionTable   table of clock corrections
+     * @param hduSelector       selector of HDU units in which to edit header
+     * @param fitsFile          FITS file in which to shift time records
+     * @return                  {@link Result} object with results of this operation
+     */
+    Result shiftTimeOfTimeRecords(List<String> keywords, ClockCorrectionTable correctionTable, HduSelector hduSelector, File fitsFile);
+
+    /**
+     * Shifts time of all time records with <code>keywords</code> by clock correction
+     * interpolated from <code>correctionTable</code> in header of primary HDU unit
+     *
+     * @param keywords          keywords or keyword patterns of time records in which to shift time
+     * @param correctionTable   table of clock corrections
+     * @param fitsFile          FITS file in which to shift time records
+     * @return                  {@link Result} object with results of this operation
+     */
+    default Result shiftTimeOfTimeRecords(List<String> keywords, ClockCorrectionTable correctionTable, File fitsFile) {
+        return shiftTimeOfTimeRecords(keywords, correctionTable, HduSelector.primary(), fitsFile);
+    }
 
     /**
      * Computes Julian Date from provided datetime and exposure parameters
      * and saves/updates value to <code>JD</code> keyword to FITS file header
      *
+     * @param datetime     {@link String} value as keyword of datetime record
+     *                     or {@link java.time.LocalDateTime} as value of datetime
+     * @param exposure     {@link String} value as keyword of exposure record
+     *                     or {@link Double} as value of exposure in seconds
+     * @param comment      comment of JD record, insert
+     *                     <code>null</code> when no comment to add
+     * @param hduSelector  selector of HDU units in which to edit header
+     * @param fitsFile     FITS file in which to chain records
+     * @return             {@link Result} object with results of this operation
+     */
+    Result computeJulianDate(Object datetime, Object exposure, String comment, HduSelector hduSelector, File fitsFile);
+
+    /**
+     * Computes Julian Date from provided datetime and exposure parameters
+     * in header of primary HDU unit
+     * and saves/updates value to <code>JD</code> keyword to FITS file header
+     *
      * @param datetime  {@link String} value as keyword of datetime record
      *                  or {@link java.time.LocalDateTime} as value of datetime
      * @param exposure  {@link String} value as keyword of exposure record
@@ -138,7 +367,9 @@ public interface HeaderEditingEngine {
      * @param fitsFile  FITS file in which to chain records
      * @return          {@link Result} object with results of this operation
      */
-    Result computeJulianDate(Object datetime, Object exposure, String comment, File fitsFile);
+    default Result computeJulianDate(Object datetime, Object exposure, String comment, File fitsFile) {
+        return computeJulianDate(datetime, exposure, comment, HduSelector.primary(), fitsFile);
+    }
 
     /**
      * Computes Heliocentric Julian Date, saves/updates the value to <code>HJD</code> keyword,
@@ -157,8 +388,94 @@ public interface HeaderEditingEngine {
      *                              or {@link Double} or {@link java.math.BigDecimal} as value of declination
      * @param comment               comment of HJD record, insert
      *                              <code>null</code> when no comment to add
+     * @param hduSelector           selector of HDU units in which to edit header
      * @param fitsFile              FITS file in which to chain records
      * @return                      {@link Result} object with results of this operation
      */
-    Result computeHeliocentricJulianDate(Object datetime, Object exposure, Object rightAscension, Object declination, String comment, File fitsFile);
+    Result computeHeliocentricJulianDate(Object datetime, Object exposure, Object rightAscension, Object declination, String comment, HduSelector hduSelector, File fitsFile);
+
+    /**
+     * Computes Heliocentric Julian Date, saves/updates the value to <code>HJD</code> keyword,
+     * in header of primary HDU unit
+     * saves right ascension to <code>RA</code> keyword and declination do <code>DEC</code>
+     * keyword to FITS file header
+     *
+     * @param datetime              {@link String} value as keyword of datetime record
+     *                              or {@link java.time.LocalDateTime} as value of datetime
+     * @param exposure              {@link String} value as keyword of exposure record
+     *                              or {@link Double} as value of exposure in seconds
+     * @param rightAscension        {@link String} value as keyword of right ascension record,
+     *                              {@link cz.muni.fi.fits.models.TimeObject} as right ascension value parameters
+     *                              or {@link Double} or {@link java.math.BigDecimal} value of right ascension
+     * @param declination           {@link String} value as keyword of declination record,
+     *                              {@link cz.muni.fi.fits.models.DegreesObject} as declination value parameters
+     *                              or {@link Double} or {@link java.math.BigDecimal} as value of declination
+     * @param comment               comment of HJD record, insert
+     *                              <code>null</code> when no comment to add
+     * @param fitsFile              FITS file in which to chain records
+     * @return                      {@link Result} object with results of this operation
+     */
+    default Result computeHeliocentricJulianDate(Object datetime, Object exposure, Object rightAscension, Object declination, String comment, File fitsFile) {
+        return computeHeliocentricJulianDate(datetime, exposure, rightAscension, declination, comment, HduSelector.primary(), fitsFile);
+    }
+
+    /**
+     * Executes all <code>operations</code> in specified order over single parsed header
+     * and writes the header back to FITS file only once. When any of operations fails,
+     * no changes are written to file
+     *
+     * @param operations    ordered list of input data of operations to execute
+     * @param hduSelector   selector of HDU units in which to edit header
+     * @param fitsFile      FITS file in which to execute operations
+     * @return              {@link Result} object with results of this operation
+     */
+    Result executeOperations(List<InputData> operations, HduSelector hduSelector, File fitsFile);
+
+    /**
+     * Executes all <code>operations</code> in specified order over single parsed header
+     * in header of primary HDU unit
+     * and writes the header back to FITS file only once. When any of operations fails,
+     * no changes are written to file
+     *
+     * @param operations    ordered list of input data of operations to execute
+     * @param fitsFile      FITS file in which to execute operations
+     * @return              {@link Result} object with results of this operation
+     */
+    default Result executeOperations(List<InputData> operations, File fitsFile) {
+        return executeOperations(operations, HduSelector.primary(), fitsFile);
+    }
+
+    /**
+     * Reserves at least specified number of blank records before <code>END</code> card
+     * in header of FITS file, so that future additions of records consume
+     * the reserve in place and data unit does not have to be moved
+     *
+     * @param records      minimal number of blank records to reserve in header
+     * @param hduSelector  selector of HDU units in which to edit header
+     * @param fitsFile     FITS file in which to reserve header space
+     * @return             {@link Result} object with results of this operation
+     */
+    Result reserveHeaderSpace(int records, HduSelector hduSelector, File fitsFile);
+
+    /**
+     * Reserves at least specified number of blank records before <code>END</code> card
+     * in header of primary HDU unit
+     * in header of FITS file, so that future additions of records consume
+     * the reserve in place and data unit does not have to be moved
+     *
+     * @param records   minimal number of blank records to reserve in header
+     * @param fitsFile  FITS file in which to reserve header space
+     * @return          {@link Result} object with results of this operation
+     */
+    default Result reserveHeaderSpace(int records, File fitsFile) {
+        return reserveHeaderSpace(records, HduSelector.primary(), fitsFile);
+    }
+
+    /**
+     * Enum with types of {@link HeaderEditingEngine}
+     */
+    enum Type {
+        NOM_TAM,
+        MAPPED
+    }
 }
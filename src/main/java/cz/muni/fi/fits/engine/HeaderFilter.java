@@ -0,0 +1,101 @@
+package cz.muni.fi.fits.engine;
+
+import cz.muni.fi.fits.engine.io.HeaderBlockScanner;
+import cz.muni.fi.fits.engine.io.HeaderIndex;
+import cz.muni.fi.fits.models.HeaderPredicate;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Class selecting FITS files by values of records in their primary header.
+ * Only header blocks are read and reading stops as soon as all records
+ * needed by predicates are found or <code>END</code> card is reached.
+ * When {@link HeaderIndex} is enabled, values are taken from the index
+ * and files are opened only when their entries are missing or stale.
+ * Filter holds no state of checked files, so single instance can check
+ * different files from multiple threads
+ *
+ * @author Martin Vrábel
+ * @version 1.1
+ */
+public class HeaderFilter {
+
+    private static final long PRIMARY_HEADER_OFFSET = 0;
+
+    private final List<HeaderPredicate> _predicates;
+    private final Set<String> _keywords;
+    private final HeaderIndex _headerIndex;
+
+    /**
+     * Creates new {@link HeaderFilter} with specified <code>predicates</code>
+     *
+     * @param predicates    conditions that header of file must satisfy all at once
+     */
+    public HeaderFilter(List<HeaderPredicate> predicates) {
+        this(predicates, new HeaderIndex());
+    }
+
+    /**
+     * Creates new {@link HeaderFilter} with specified <code>predicates</code>
+     * that looks up values of records in provided <code>headerIndex</code> first
+     *
+     * @param predicates    conditions that header of file must satisfy all at once
+     * @param headerIndex   index of primary header values, refreshed when its entry is missing or stale
+     */
+    public HeaderFilter(List<HeaderPredicate> predicates, HeaderIndex headerIndex) {
+        if (predicates == null)
+            throw new IllegalArgumentException("predicates is null");
+        if (headerIndex == null)
+            throw new IllegalArgumentException("headerIndex is null");
+
+        _predicates = Collections.unmodifiableList(new ArrayList<>(predicates));
+        _headerIndex = headerIndex;
+        _keywords = new HashSet<>();
+        for (HeaderPredicate predicate : _predicates)
+            _keywords.add(predicate.getKeyword());
+    }
+
+    public List<HeaderPredicate> getPredicates() {
+        return _predicates;
+    }
+
+    /**
+     * Checks whether primary header of <code>fitsFile</code> satisfies all predicates
+     *
+     * @param fitsFile      FITS file to check
+     * @return              <code>true</code> if header satisfies all predicates,
+     *                      <code>false</code> otherwise
+     * @throws IOException  when some error occurs during reading the file
+     */
+    public boolean matches(File fitsFile) throws IOException {
+        if (fitsFile == null)
+            throw new IllegalArgumentException("fitsFile is null");
+
+        Map<String, String> values = _headerIndex.getValues(fitsFile);
+        if (values == null)
+            values = readValues(fitsFile);
+
+        for (HeaderPredicate predicate : _predicates) {
+            if (!predicate.test(values.get(predicate.getKeyword())))
+                return false;
+        }
+
+        return true;
+    }
+
+    private Map<String, String> readValues(File fitsFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(fitsFile.toPath(), StandardOpenOption.READ)) {
+            if (!_headerIndex.isEnabled())
+                return HeaderBlockScanner.scanValues(channel, PRIMARY_HEADER_OFFSET, _keywords);
+
+            // whole header is indexed, so that later filters with other keywords can use the entry
+            Map<String, String> values = HeaderBlockScanner.scanAllValues(channel, PRIMARY_HEADER_OFFSET);
+            _headerIndex.update(fitsFile, values);
+            return values;
+        }
+    }
+}
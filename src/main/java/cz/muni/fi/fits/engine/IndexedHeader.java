@@ -0,0 +1,418 @@
+package cz.muni.fi.fits.engine;
+
+import cz.muni.fi.fits.common.utils.Constants;
+import cz.muni.fi.fits.engine.io.HeaderBlockWriter;
+import cz.muni.fi.fits.engine.utils.KeywordIndex;
+import nom.tam.fits.FitsException;
+import nom.tam.fits.HeaderCard;
+import nom.tam.util.BufferedDataInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Header opened for editing that keeps raw card images of its records.
+ * Record is decoded into {@link HeaderCard} by library <b>nom.tam.fits</b>
+ * only when some operation reads it, records that are not replaced by operations
+ * are written back byte for byte, so their formatting never changes and headers
+ * do not have to be parsed as a whole. Long string records continued by
+ * <code>CONTINUE</code> cards form single record, <code>CONTINUE</code> card
+ * that does not follow string value ending with <code>&amp;</code> is kept
+ * as record of its own. Records are found by keyword
+ * through {@link KeywordIndex} of keywords packed straight from card images,
+ * index is built once, when the header is accessed by keyword for the first time
+ * and updated by every inserted and removed record.
+ * Keyword operations address the first record with the keyword,
+ * keywords of records can be also searched by patterns with wildcards
+ *
+ * @author Martin Vrábel
+ * @version 1.3
+ */
+final class IndexedHeader {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final String CONTINUE_KEYWORD = "CONTINUE";
+    private static final long CONTINUE_KEY = KeywordIndex.pack(CONTINUE_KEYWORD);
+    private static final long HIERARCH_KEY = KeywordIndex.pack("HIERARCH");
+    private static final byte BLANK_SPACE = ' ';
+    private static final byte QUOTE = '\'';
+    private static final byte CONTINUATION_MARK = '&';
+    private static final byte VALUE_INDICATOR = '=';
+    private static final int KEYWORD_LENGTH = 8;
+    private static final int NEW_RECORD = -1;
+
+    private final byte[] _images;
+    private final int _endOffset;
+
+    // records are stored in parallel arrays, so raw records allocate no objects
+    private int[] _offsets;
+    private int[] _lengths;
+    private long[] _keys;
+    private HeaderCard[] _cards;
+    private int _size;
+
+    private KeywordIndex _index;
+
+    /**
+     * Creates new {@link IndexedHeader} over card images of serialized <code>header</code>
+     *
+     * @param header    serialized header including <code>END</code> card
+     * @throws FitsException when header does not contain <code>END</code> card
+     */
+    IndexedHeader(byte[] header) throws FitsException {
+        if (header == null)
+            throw new IllegalArgumentException("header is null");
+
+        _images = header;
+        _offsets = new int[INITIAL_CAPACITY];
+        _lengths = new int[INITIAL_CAPACITY];
+        _keys = new long[INITIAL_CAPACITY];
+        _cards = new HeaderCard[INITIAL_CAPACITY];
+
+        int endOffset = -1;
+        for (int offset = 0; offset + Constants.HEADER_CARD_SIZE <= header.length; offset += Constants.HEADER_CARD_SIZE) {
+            if (HeaderBlockWriter.isEndCard(header, offset)) {
+                endOffset = offset;
+                break;
+            }
+
+            long key = KeywordIndex.pack(header, offset);
+            if (key == CONTINUE_KEY && _size > 0 && isContinued(_size - 1)) {
+                // continuation of long string belongs to the preceding record
+                _lengths[_size - 1] += Constants.HEADER_CARD_SIZE;
+                continue;
+            }
+
+            ensureCapacity(_size + 1);
+            _offsets[_size] = offset;
+            _lengths[_size] = Constants.HEADER_CARD_SIZE;
+            _keys[_size] = key;
+            _size++;
+        }
+
+        if (endOffset < 0)
+            throw new FitsException("Header does not contain END card");
+        _endOffset = endOffset;
+    }
+
+    int getNumberOfCards() {
+        return _size;
+    }
+
+    boolean containsKey(String keyword) throws FitsException {
+        return findPosition(keyword) != KeywordIndex.NOT_FOUND;
+    }
+
+    HeaderCard findCard(String keyword) throws FitsException {
+        int position = findPosition(keyword);
+        return position != KeywordIndex.NOT_FOUND ? getLine(position) : null;
+    }
+
+    /**
+     * Finds distinct keywords of records matching keyword <code>pattern</code>
+     * with wildcards <code>*</code> matching any number of characters
+     * and <code>?</code> matching single character. Keywords are unpacked
+     * from index keys, so only records with long keywords are decoded
+     *
+     * @param pattern   keyword pattern to match
+     * @return          matching keywords in order of their first records
+     * @throws FitsException when records cannot be decoded
+     */
+    List<String> findKeywords(String pattern) throws FitsException {
+        if (pattern == null)
+            throw new IllegalArgumentException("pattern is null");
+
+        Pattern keywordPattern = compileKeywordPattern(pattern);
+        Set<String> keywords = new LinkedHashSet<>();
+        for (int i = 0; i < _size; i++) {
+            String keyword = _keys[i] == KeywordIndex.NOT_INDEXED || _keys[i] == HIERARCH_KEY
+                    ? keyOf(getLine(i))
+                    : KeywordIndex.unpack(_keys[i]);
+            if (keywordPattern.matcher(keyword).matches())
+                keywords.add(keyword);
+        }
+
+        return new ArrayList<>(keywords);
+    }
+
+    /**
+     * Gets record on specified <code>position</code>, raw record is decoded
+     * and decoded record is kept for following reads
+     *
+     * @param position  zero-based position of record
+     * @return          record on position
+     * @throws FitsException when raw record cannot be decoded
+     */
+    HeaderCard getLine(int position) throws FitsException {
+        if (position < 0 || position >= _size)
+            throw new IllegalArgumentException("position is out of range");
+
+        HeaderCard card = _cards[position];
+        if (card == null) {
+            try {
+                card = new HeaderCard(new BufferedDataInputStream(
+                        new ByteArrayInputStream(_images, _offsets[position], _lengths[position])));
+            } catch (IOException ioEx) {
+                throw new FitsException("Record on position " + position + " cannot be decoded", ioEx);
+            }
+            _cards[position] = card;
+        }
+
+        return card;
+    }
+
+    /**
+     * Adds new record after the last record of header
+     *
+     * @param card  record to add
+     */
+    void addLine(HeaderCard card) {
+        insertLine(_size, card);
+    }
+
+    /**
+     * Inserts new record to specified <code>position</code>
+     *
+     * @param position  zero-based position of inserted record
+     * @param card      record to insert
+     */
+    void insertLine(int position, HeaderCard card) {
+        if (position < 0 || position > _size)
+            throw new IllegalArgumentException("position is out of range");
+        if (card == null)
+            throw new IllegalArgumentException("card is null");
+
+        long key = KeywordIndex.pack(keyOf(card));
+        if (_index != null)
+            _index.insert(key, position);
+
+        ensureCapacity(_size + 1);
+        int moved = _size - position;
+        System.arraycopy(_offsets, position, _offsets, position + 1, moved);
+        System.arraycopy(_lengths, position, _lengths, position + 1, moved);
+        System.arraycopy(_keys, position, _keys, position + 1, moved);
+        System.arraycopy(_cards, position, _cards, position + 1, moved);
+
+        _offsets[position] = NEW_RECORD;
+        _lengths[position] = 0;
+        _keys[position] = key;
+        _cards[position] = card;
+        _size++;
+    }
+
+    /**
+     * Removes record from specified <code>position</code>
+     *
+     * @param position  zero-based position of record to remove
+     */
+    void removeLine(int position) {
+        if (position < 0 || position >= _size)
+            throw new IllegalArgumentException("position is out of range");
+
+        if (_index != null)
+            _index.remove(_keys[position], position);
+
+        int moved = _size - position - 1;
+        System.arraycopy(_offsets, position + 1, _offsets, position, moved);
+        System.arraycopy(_lengths, position + 1, _lengths, position, moved);
+        System.arraycopy(_keys, position + 1, _keys, position, moved);
+        System.arraycopy(_cards, position + 1, _cards, position, moved);
+
+        _size--;
+        _cards[_size] = null;
+    }
+
+    /**
+     * Removes the first record with specified <code>keyword</code>
+     *
+     * @param keyword   keyword of record to remove
+     * @throws FitsException when records cannot be decoded
+     */
+    void deleteKey(String keyword) throws FitsException {
+        int position = findPosition(keyword);
+        if (position != KeywordIndex.NOT_FOUND)
+            removeLine(position);
+    }
+
+    /**
+     * Replaces the first record with specified <code>keyword</code> by provided
+     * <code>card</code> keeping its position, card is added after the last record
+     * when there is no record with keyword
+     *
+     * @param keyword   keyword of record to replace
+     * @param card      new record
+     * @throws FitsException when records cannot be decoded
+     */
+    void updateLine(String keyword, HeaderCard card) throws FitsException {
+        int position = findPosition(keyword);
+        if (position == KeywordIndex.NOT_FOUND) {
+            addLine(card);
+            return;
+        }
+
+        removeLine(position);
+        insertLine(position, card);
+    }
+
+    /**
+     * Serializes header into card images, raw records are copied
+     * byte for byte and only new records are formatted
+     *
+     * @return  serialized header including <code>END</code> card
+     *          padded to the whole blocks
+     */
+    byte[] serialize() {
+        byte[] header = new byte[(_size + 1) * Constants.HEADER_CARD_SIZE];
+        int length = 0;
+
+        for (int i = 0; i < _size; i++) {
+            byte[] image;
+            int offset;
+            int imageLength;
+            if (_offsets[i] != NEW_RECORD) {
+                image = _images;
+                offset = _offsets[i];
+                imageLength = _lengths[i];
+            } else {
+                image = formatCard(_cards[i]);
+                offset = 0;
+                imageLength = image.length;
+            }
+
+            if (length + imageLength + Constants.HEADER_CARD_SIZE > header.length)
+                header = Arrays.copyOf(header, Math.max(header.length * 2, length + imageLength + Constants.HEADER_CARD_SIZE));
+            System.arraycopy(image, offset, header, length, imageLength);
+            length += imageLength;
+        }
+
+        System.arraycopy(_images, _endOffset, header, length, Constants.HEADER_CARD_SIZE);
+        length += Constants.HEADER_CARD_SIZE;
+
+        return HeaderBlockWriter.padToBlocks(Arrays.copyOf(header, length));
+    }
+
+    private int findPosition(String keyword) throws FitsException {
+        long key = KeywordIndex.pack(keyword);
+        if (key != KeywordIndex.NOT_INDEXED)
+            return index().first(key);
+
+        // keywords too long to be indexed are compared with decoded records
+        for (int i = 0; i < _size; i++) {
+            if (_keys[i] == KeywordIndex.NOT_INDEXED || _keys[i] == HIERARCH_KEY) {
+                if (keyword.equals(getLine(i).getKey()))
+                    return i;
+            }
+        }
+
+        return KeywordIndex.NOT_FOUND;
+    }
+
+    private KeywordIndex index() {
+        if (_index == null) {
+            KeywordIndex index = new KeywordIndex();
+            for (int i = 0; i < _size; i++)
+                index.insert(_keys[i], i);
+
+            _index = index;
+        }
+
+        return _index;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= _offsets.length)
+            return;
+
+        int newCapacity = Math.max(capacity, _offsets.length * 2);
+        _offsets = Arrays.copyOf(_offsets, newCapacity);
+        _lengths = Arrays.copyOf(_lengths, newCapacity);
+        _keys = Arrays.copyOf(_keys, newCapacity);
+        _cards = Arrays.copyOf(_cards, newCapacity);
+    }
+
+    private boolean isContinued(int position) {
+        // only the last card of record can be continued
+        int lastCard = _offsets[position] + _lengths[position] - Constants.HEADER_CARD_SIZE;
+        long key = _lengths[position] > Constants.HEADER_CARD_SIZE ? CONTINUE_KEY : _keys[position];
+
+        return endsWithContinuedString(_images, lastCard, key);
+    }
+
+    private static boolean endsWithContinuedString(byte[] images, int offset, long key) {
+        int end = offset + Constants.HEADER_CARD_SIZE;
+        int position = offset + KEYWORD_LENGTH;
+
+        // value of CONTINUE card follows keyword, other cards need value indicator
+        if (key == HIERARCH_KEY) {
+            while (position < end && images[position] != VALUE_INDICATOR)
+                position++;
+            position++;
+        } else if (key != CONTINUE_KEY) {
+            if (images[position] != VALUE_INDICATOR)
+                return false;
+            position++;
+        }
+
+        while (position < end && images[position] == BLANK_SPACE)
+            position++;
+        if (position >= end || images[position] != QUOTE)
+            return false;
+
+        // quotes inside string are doubled
+        int valueStart = ++position;
+        while (position < end) {
+            if (images[position] == QUOTE) {
+                if (position + 1 < end && images[position + 1] == QUOTE) {
+                    position += 2;
+                    continue;
+                }
+                return position > valueStart && images[position - 1] == CONTINUATION_MARK;
+            }
+            position++;
+        }
+
+        // string without closing quote
+        return false;
+    }
+
+    private static byte[] formatCard(HeaderCard card) {
+        byte[] formatted = card.toString().getBytes(StandardCharsets.US_ASCII);
+
+        // formatted long string may span several cards, last one is padded by spaces
+        int cards = Math.max(1, (formatted.length + Constants.HEADER_CARD_SIZE - 1) / Constants.HEADER_CARD_SIZE);
+        if (formatted.length == cards * Constants.HEADER_CARD_SIZE)
+            return formatted;
+
+        byte[] image = Arrays.copyOf(formatted, cards * Constants.HEADER_CARD_SIZE);
+        Arrays.fill(image, formatted.length, image.length, BLANK_SPACE);
+        return image;
+    }
+
+    private static Pattern compileKeywordPattern(String pattern) {
+        StringBuilder regex = new StringBuilder();
+        int literalStart = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c != '*' && c != '?')
+                continue;
+
+            if (i > literalStart)
+                regex.append(Pattern.quote(pattern.substring(literalStart, i)));
+            regex.append(c == '*' ? ".*" : ".");
+            literalStart = i + 1;
+        }
+        if (literalStart < pattern.length())
+            regex.append(Pattern.quote(pattern.substring(literalStart)));
+
+        return Pattern.compile(regex.toString());
+    }
+
+    private static String keyOf(HeaderCard card) {
+        // blank records may have no key
+        String key = card.getKey();
+        return key != null ? key : "";
+    }
+}
@@ -0,0 +1,171 @@
+package cz.muni.fi.fits.engine;
+
+import cz.muni.fi.fits.engine.io.FileSynchronizer;
+import cz.muni.fi.fits.engine.io.HeaderBlockScanner;
+import cz.muni.fi.fits.engine.io.HeaderBlockWriter;
+import cz.muni.fi.fits.engine.io.HeaderIndex;
+import cz.muni.fi.fits.models.HduSelector;
+import nom.tam.fits.FitsException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * Editing engine class extending {@link AbstractHeaderEditingEngine} class
+ * that reads FITS header from read-only memory-mapped region of the file
+ * and never touches data units. Extent of every HDU unit is computed
+ * from mandatory keywords of its header, so data units are jumped over
+ * when looking for headers of selected HDU units. Edited headers are written
+ * back in place, when some header changes its number of blocks file is replaced
+ * by a copy with data units transferred channel to channel.
+ * Headers are never parsed as a whole, only records touched by operations are decoded
+ *
+ * @author Martin Vrábel
+ * @version 1.8
+ */
+public class MappedFitsEditingEngine extends AbstractHeaderEditingEngine {
+
+    private static final long PRIMARY_HEADER_OFFSET = 0;
+    private static final String EXTNAME_KEYWORD = "EXTNAME";
+    private static final String EXTVER_KEYWORD = "EXTVER";
+
+    /**
+     * Creates new {@link MappedFitsEditingEngine} that does not reserve
+     * any blank records when header grows
+     */
+    public MappedFitsEditingEngine() {
+        this(0);
+    }
+
+    /**
+     * Creates new {@link MappedFitsEditingEngine} that reserves specified
+     * number of blank records every time header has to grow
+     *
+     * @param headerReserve number of blank records to reserve when header grows
+     */
+    public MappedFitsEditingEngine(int headerReserve) {
+        this(headerReserve, new FileSynchronizer(FileSynchronizer.Mode.NONE));
+    }
+
+    /**
+     * Creates new {@link MappedFitsEditingEngine} that reserves specified
+     * number of blank records every time header has to grow and synchronizes
+     * written files with provided <code>fileSynchronizer</code>
+     *
+     * @param headerReserve     number of blank records to reserve when header grows
+     * @param fileSynchronizer  synchronizer of written files
+     */
+    public MappedFitsEditingEngine(int headerReserve, FileSynchronizer fileSynchronizer) {
+        this(headerReserve, fileSynchronizer, new HeaderIndex());
+    }
+
+    /**
+     * Creates new {@link MappedFitsEditingEngine} that reserves specified
+     * number of blank records every time header has to grow, synchronizes
+     * written files with provided <code>fileSynchronizer</code> and keeps
+     * values of edited primary headers in provided <code>headerIndex</code>
+     *
+     * @param headerReserve     number of blank records to reserve when header grows
+     * @param fileSynchronizer  synchronizer of written files
+     * @param headerIndex       index of primary header values
+     */
+    public MappedFitsEditingEngine(int headerReserve, FileSynchronizer fileSynchronizer, HeaderIndex headerIndex) {
+        super(headerReserve, fileSynchronizer, headerIndex);
+    }
+
+    @Override
+    protected EditedFile openFile(File fitsFile, HduSelector hduSelector) throws FitsException, IOException {
+        List<EditedHeader> headers = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(fitsFile.toPath(), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long headerOffset = PRIMARY_HEADER_OFFSET;
+
+            for (int index = HduSelector.PRIMARY_INDEX; headerOffset < fileSize; index++) {
+                boolean primary = index == HduSelector.PRIMARY_INDEX;
+
+                long headerLength = HeaderBlockScanner.scanHeaderLength(channel, headerOffset);
+                if (headerLength == HeaderBlockScanner.NOT_FOUND) {
+                    if (primary)
+                        throw new FitsException("File does not contain complete FITS header");
+                    // special records following the last HDU unit are not headers
+                    break;
+                }
+
+                byte[] headerBytes = HeaderBlockScanner.readHeaderBlocks(channel, headerOffset, headerLength);
+                if (primary && !HeaderBlockScanner.isPrimaryHeader(headerBytes))
+                    throw new FitsException("File does not start with SIMPLE keyword");
+                if (!primary && !HeaderBlockScanner.isExtensionHeader(headerBytes))
+                    break;
+
+                // check that the whole HDU unit is present in file
+                long dataSize;
+                try {
+                    dataSize = HeaderBlockScanner.computeDataSize(headerBytes);
+                } catch (IllegalArgumentException iaEx) {
+                    throw new FitsException("Invalid header of HDU unit " + index + ": " + iaEx.getMessage());
+                }
+
+                if (headerOffset + headerLength + dataSize > fileSize)
+                    throw new FitsException("Data unit of HDU unit " + index + " is truncated");
+
+                String extname = HeaderBlockScanner.findStringValue(headerBytes, EXTNAME_KEYWORD);
+                // header is kept in card images, records are decoded only when edited
+                if (hduSelector.matches(index, extname, findExtver(headerBytes)))
+                    headers.add(new EditedHeader(headerBytes, index, headerOffset, headerLength));
+
+                // no need to scan HDU units that cannot be selected
+                if (!hduSelector.canMatchAfter(index))
+                    break;
+
+                // jump over data unit to the next header
+                headerOffset += headerLength + dataSize;
+            }
+        }
+
+        return new MappedEditedFile(headers, fitsFile, getFileSynchronizer());
+    }
+
+    private static int findExtver(byte[] headerBytes) {
+        String extver = HeaderBlockScanner.findStringValue(headerBytes, EXTVER_KEYWORD);
+        if (extver == null)
+            return HduSelector.DEFAULT_EXTVER;
+
+        try {
+            return Integer.parseInt(extver);
+        } catch (NumberFormatException nfEx) {
+            return HduSelector.DEFAULT_EXTVER;
+        }
+    }
+
+    private static final class MappedEditedFile extends EditedFile {
+
+        private final File _fitsFile;
+        private final FileSynchronizer _fileSynchronizer;
+
+        MappedEditedFile(List<EditedHeader> headers, File fitsFile, FileSynchronizer fileSynchronizer) {
+            super(headers);
+            _fitsFile = fitsFile;
+            _fileSynchronizer = fileSynchronizer;
+        }
+
+        @Override
+        protected long write(SortedMap<Long, byte[]> headersBytes) throws FitsException, IOException {
+            long bytesWritten = HeaderBlockWriter.writeReplaced(_fitsFile, headersBytes, _fileSynchronizer);
+            if (bytesWritten == HeaderBlockWriter.NOT_WRITTEN)
+                throw new FitsException("Original header of file is not complete");
+
+            return bytesWritten;
+        }
+
+        @Override
+        public void close() {
+            // headers are read completely on opening, nothing to release
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package cz.muni.fi.fits.engine.io;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class deciding when changes written to FITS files are forced to storage device.
+ * Files edited in place are synchronized after writing, replacement files are
+ * synchronized before they atomically replace the original files and directory
+ * entries are synchronized after the replacement. In group mode, synchronization
+ * of completed files is postponed and done in single batch for multiple files,
+ * replacements of original files are postponed until their batch is synchronized,
+ * so that the original file is never replaced by file that is not on storage device yet.
+ * Failure of batch is remembered for every file of the batch, so that results of files
+ * can be reported only after their batch is synchronized.
+ * Only replacement of file is atomic, file edited in place can be left partially
+ * written when program is interrupted. Replacement files are hidden files next to
+ * the original files, replacements left by interrupted runs are removed when
+ * the first replacement is created in their directory
+ *
+ * @author Martin Vrábel
+ * @version 1.3
+ */
+public class FileSynchronizer {
+
+    private static final String REPLACEMENT_FILE_PREFIX = ".";
+    private static final String REPLACEMENT_FILE_SUFFIX = ".replacement";
+
+    // replacements created by all synchronizers that are not moved or deleted yet
+    private static final Set<Path> ACTIVE_REPLACEMENTS = ConcurrentHashMap.newKeySet();
+    private static final Object REPLACEMENTS_LOCK = new Object();
+
+    private final Mode _mode;
+    private final int _groupSize;
+
+    private final Object _lock = new Object();
+    private final Set<Path> _pendingFiles = new LinkedHashSet<>();
+    private final Map<Path, Path> _pendingReplacements = new LinkedHashMap<>();
+    // original files with changes waiting for their batch and files of failed batches
+    private final Set<Path> _pendingTargets = new HashSet<>();
+    private final Map<Path, IOException> _failedTargets = new HashMap<>();
+    private final Set<Path> _cleanedDirectories = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates new {@link FileSynchronizer} with specified <code>mode</code>,
+     * in group mode every completed file is synchronized immediately
+     *
+     * @param mode  mode of synchronization
+     */
+    public FileSynchronizer(Mode mode) {
+        this(mode, 1);
+    }
+
+    /**
+     * Creates new {@link FileSynchronizer} with specified <code>mode</code>
+     *
+     * @param mode      mode of synchronization
+     * @param groupSize number of completed files synchronized in single batch in group mode
+     */
+    public FileSynchronizer(Mode mode, int groupSize) {
+        if (mode == null)
+            throw new IllegalArgumentException("mode is null");
+        if (groupSize < 1)
+            throw new IllegalArgumentException("groupSize must be positive number");
+
+        _mode = mode;
+        _groupSize = groupSize;
+    }
+
+    public Mode getMode() {
+        return _mode;
+    }
+
+    public int getGroupSize() {
+        return _groupSize;
+    }
+
+    /**
+     * Handles file which was changed in place through provided <code>channel</code>,
+     * must be called before the channel is closed
+     *
+     * @param file          changed file
+     * @param channel       open channel through which file was changed
+     * @throws IOException  when some error occurs during synchronizing the file
+     */
+    public void fileWritten(Path file, FileChannel channel)
+            throws IOException {
+        if (file == null)
+            throw new IllegalArgumentException("file is null");
+        if (channel == null)
+            throw new IllegalArgumentException("channel is null");
+
+        switch (_mode) {
+            case FSYNC:
+                channel.force(false);
+                break;
+
+            case GROUP:
+                synchronized (_lock) {
+                    _pendingFiles.add(file);
+                    _pendingTargets.add(normalize(file));
+                    commitIfFull();
+                }
+                break;
+
+            default:
+                // changes are left to operating system
+        }
+    }
+
+    /**
+     * Determines whether <code>file</code> is replacement file created by {@link #createReplacement(Path)}
+     *
+     * @param file  file to check
+     * @return      <code>true</code> if file is replacement of some other file,
+     *              <code>false</code> otherwise
+     */
+    public static boolean isReplacementFile(Path file) {
+        if (file == null)
+            throw new IllegalArgumentException("file is null");
+
+        Path fileName = file.getFileName();
+        if (fileName == null)
+            return false;
+
+        String name = fileName.toString();
+        return name.startsWith(REPLACEMENT_FILE_PREFIX) && name.endsWith(REPLACEMENT_FILE_SUFFIX);
+    }
+
+    /**
+     * Creates empty replacement file next to <code>target</code> file,
+     * replacements left in the same directory by interrupted runs are removed first
+     *
+     * @param target        file that will be replaced
+     * @return              new replacement file
+     * @throws IOException  when replacement file cannot be created
+     */
+    public Path createReplacement(Path target)
+            throws IOException {
+        if (target == null)
+            throw new IllegalArgumentException("target is null");
+
+        Path absoluteTarget = target.toAbsolutePath();
+        Path directory = absoluteTarget.getParent();
+
+        synchronized (REPLACEMENTS_LOCK) {
+            if (_cleanedDirectories.add(directory))
+                removeLeftoverReplacements(directory);
+
+            // replacement must be on the same file system, so it can be atomically renamed
+            Path replacement = Files.createTempFile(directory,
+                    REPLACEMENT_FILE_PREFIX + absoluteTarget.getFileName() + ".", REPLACEMENT_FILE_SUFFIX);
+            ACTIVE_REPLACEMENTS.add(replacement);
+            return replacement;
+        }
+    }
+
+    /**
+     * Deletes <code>replacement</code> file that will not replace its target
+     *
+     * @param replacement   replacement file to delete
+     * @throws IOException  when replacement file cannot be deleted
+     */
+    public void discardReplacement(Path replacement)
+            throws IOException {
+        if (replacement == null)
+            throw new IllegalArgumentException("replacement is null");
+
+        synchronized (_lock) {
+            _pendingFiles.remove(replacement);
+            Path target = _pendingReplacements.remove(replacement);
+            if (target != null)
+                _pendingTargets.remove(normalize(target));
+        }
+
+        try {
+            Files.deleteIfExists(replacement);
+        } finally {
+            ACTIVE_REPLACEMENTS.remove(replacement);
+        }
+    }
+
+    /**
+     * Replaces <code>target</code> file with completely written and closed <code>replacement</code> file.
+     * In group mode, replacement is postponed until its batch is synchronized
+     *
+     * @param replacement   file to replace the target with
+     * @param target        file to replace
+     * @throws IOException  when some error occurs during synchronizing or replacing the file
+     */
+    public void replaceFile(Path replacement, Path target)
+            throws IOException {
+        if (replacement == null)
+            throw new IllegalArgumentException("replacement is null");
+        if (target == null)
+            throw new IllegalArgumentException("target is null");
+
+        switch (_mode) {
+            case FSYNC:
+                forceFile(replacement);
+                moveAtomically(replacement, target);
+                ACTIVE_REPLACEMENTS.remove(replacement);
+                forceDirectory(target.toAbsolutePath().getParent());
+                break;
+
+            case GROUP:
+                synchronized (_lock) {
+                    _pendingFiles.add(replacement);
+                    _pendingReplacements.put(replacement, target);
+                    _pendingTargets.add(normalize(target));
+                    commitIfFull();
+                }
+                break;
+
+            default:
+                moveAtomically(replacement, target);
+                ACTIVE_REPLACEMENTS.remove(replacement);
+        }
+    }
+
+    /**
+     * Determines whether changes of <code>file</code> wait in group mode
+     * for synchronization of their batch
+     *
+     * @param file  changed original file
+     * @return      <code>true</code> if changes of file are not synchronized yet,
+     *              <code>false</code> otherwise
+     */
+    public boolean isPending(Path file) {
+        if (file == null)
+            throw new IllegalArgumentException("file is null");
+
+        synchronized (_lock) {
+            return _pendingTargets.contains(normalize(file));
+        }
+    }
+
+    /**
+     * Returns and forgets failure of batch which contained changes of <code>file</code>
+     *
+     * @param file  changed original file
+     * @return      exception which failed batch with changes of file,
+     *              <code>null</code> when changes of file were not in failed batch
+     */
+    public IOException takeFailure(Path file) {
+        if (file == null)
+            throw new IllegalArgumentException("file is null");
+
+        synchronized (_lock) {
+            return _failedTargets.remove(normalize(file));
+        }
+    }
+
+    /**
+     * Synchronizes all postponed files in single batch, replaces original files
+     * with postponed replacements and synchronizes their directory entries.
+     * Does nothing when mode is not group mode or there are no postponed files
+     *
+     * @throws IOException  when some error occurs during synchronizing or replacing the files
+     */
+    public void commit() throws IOException {
+        synchronized (_lock) {
+            if (_pendingFiles.isEmpty())
+                return;
+
+            int groupSize = _pendingFiles.size();
+            try {
+                for (Path file : _pendingFiles)
+                    forceFile(file);
+
+                // directory with multiple replaced files is synchronized only once
+                Set<Path> directories = new LinkedHashSet<>();
+                Iterator<Map.Entry<Path, Path>> replacements = _pendingReplacements.entrySet().iterator();
+                while (replacements.hasNext()) {
+                    Map.Entry<Path, Path> replacement = replacements.next();
+                    moveAtomically(replacement.getKey(), replacement.getValue());
+                    ACTIVE_REPLACEMENTS.remove(replacement.getKey());
+                    directories.add(replacement.getValue().toAbsolutePath().getParent());
+                    replacements.remove();
+                }
+
+                for (Path directory : directories)
+                    forceDirectory(directory);
+            } catch (IOException ioEx) {
+                IOException groupEx = new IOException("Synchronization of group of " + groupSize + " files failed: " + ioEx.getMessage(), ioEx);
+                for (Path target : _pendingTargets)
+                    _failedTargets.put(target, groupEx);
+                throw groupEx;
+            } finally {
+                // replacements that were not moved are discarded, original files stay untouched
+                for (Path replacement : _pendingReplacements.keySet()) {
+                    Files.deleteIfExists(replacement);
+                    ACTIVE_REPLACEMENTS.remove(replacement);
+                }
+
+                _pendingFiles.clear();
+                _pendingReplacements.clear();
+                _pendingTargets.clear();
+            }
+        }
+    }
+
+    private void commitIfFull() throws IOException {
+        if (_pendingFiles.size() >= _groupSize)
+            commit();
+    }
+
+    private static void removeLeftoverReplacements(Path directory) {
+        try (DirectoryStream<Path> replacements = Files.newDirectoryStream(directory, FileSynchronizer::isReplacementFile)) {
+            for (Path replacement : replacements) {
+                // replacements of running edits are kept
+                if (!ACTIVE_REPLACEMENTS.contains(replacement))
+                    Files.deleteIfExists(replacement);
+            }
+        } catch (IOException ioEx) {
+            // leftovers are skipped by discovery of files, they are removed next time
+        }
+    }
+
+    private static Path normalize(Path file) {
+        return file.toAbsolutePath().normalize();
+    }
+
+    private static void moveAtomically(Path source, Path target)
+            throws IOException {
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void forceFile(Path file)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(false);
+        }
+    }
+
+    private static void forceDirectory(Path directory)
+            throws IOException {
+        if (directory == null)
+            return;
+
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (AccessDeniedException | UnsupportedOperationException ex) {
+            // some platforms do not allow to open directories, rename is then durable by itself
+            return;
+        }
+
+        // failed synchronization of opened directory is reported like failure of file
+        try {
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Enum with modes of synchronization of written files
+     */
+    public enum Mode {
+        /**
+         * Writing of changes is left to operating system
+         */
+        NONE,
+
+        /**
+         * Every file is synchronized right after it is written
+         */
+        FSYNC,
+
+        /**
+         * Multiple completed files are synchronized in single batch
+         */
+        GROUP
+    }
+}
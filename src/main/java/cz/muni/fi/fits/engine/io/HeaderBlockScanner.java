@@ -0,0 +1,398 @@
+package cz.muni.fi.fits.engine.io;
+
+import cz.muni.fi.fits.common.utils.Constants;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Helper class for reading FITS headers directly from memory-mapped
+ * file regions. Header is scanned card by card up to the <code>END</code> card
+ * and size of the data unit is computed from mandatory keywords,
+ * so the data unit itself is never read and headers of extension HDU units
+ * can be found by jumping over data units. Values of selected records
+ * can be scanned block by block, stopping as soon as all of them are found,
+ * or values of all records can be collected for indexing
+ *
+ * @author Martin Vrábel
+ * @version 1.3
+ */
+public final class HeaderBlockScanner {
+
+    /**
+     * Value returned from scanning methods when header is not complete
+     */
+    public static final long NOT_FOUND = -1;
+
+    private static final int BLOCKS_PER_WINDOW = 16;
+    private static final int KEYWORD_LENGTH = 8;
+    private static final int VALUE_INDICATOR_OFFSET = 8;
+    private static final int VALUE_OFFSET = 10;
+
+    /**
+     * Scans header that starts at <code>headerOffset</code> in memory-mapped
+     * windows of the file and finds the end of its last block
+     *
+     * @param channel       channel of FITS file to scan
+     * @param headerOffset  offset of the header in file in bytes
+     * @return              length of the header in bytes including padding,
+     *                      or {@link #NOT_FOUND} when file ends before <code>END</code> card
+     * @throws IOException  when some error occurs during mapping the file
+     */
+    public static long scanHeaderLength(FileChannel channel, long headerOffset)
+            throws IOException {
+        if (channel == null)
+            throw new IllegalArgumentException("channel is null");
+        if (headerOffset < 0 || headerOffset % Constants.FITS_BLOCK_SIZE != 0)
+            throw new IllegalArgumentException("invalid headerOffset");
+
+        long fileSize = channel.size();
+        long windowStart = headerOffset;
+
+        while (fileSize - windowStart >= Constants.FITS_BLOCK_SIZE) {
+            long availableBlocks = (fileSize - windowStart) / Constants.FITS_BLOCK_SIZE;
+            int windowLength = (int) Math.min(availableBlocks, BLOCKS_PER_WINDOW) * Constants.FITS_BLOCK_SIZE;
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLength);
+
+            // look for END card in mapped window
+            for (int cardOffset = 0; cardOffset < windowLength; cardOffset += Constants.HEADER_CARD_SIZE) {
+                if (isEndCard(window, cardOffset)) {
+                    int blockEnd = (cardOffset / Constants.FITS_BLOCK_SIZE + 1) * Constants.FITS_BLOCK_SIZE;
+                    return windowStart + blockEnd - headerOffset;
+                }
+            }
+
+            windowStart += windowLength;
+        }
+
+        return NOT_FOUND;
+    }
+
+    /**
+     * Scans header that starts at <code>headerOffset</code> block by block
+     * for values of records with specified <code>keywords</code>. Scanning stops
+     * as soon as values of all keywords are found or <code>END</code> card is reached,
+     * so the rest of the header and the data unit are never read
+     *
+     * @param channel       channel of FITS file to scan
+     * @param headerOffset  offset of the header in file in bytes
+     * @param keywords      keywords of records which values to find
+     * @return              map with values of found records by their keywords,
+     *                      keywords of records not present in header are left out
+     * @throws IOException  when some error occurs during reading the file
+     */
+    public static Map<String, String> scanValues(FileChannel channel, long headerOffset, Set<String> keywords)
+            throws IOException {
+        if (channel == null)
+            throw new IllegalArgumentException("channel is null");
+        if (headerOffset < 0 || headerOffset % Constants.FITS_BLOCK_SIZE != 0)
+            throw new IllegalArgumentException("invalid headerOffset");
+        if (keywords == null)
+            throw new IllegalArgumentException("keywords is null");
+
+        return scanValues(channel, headerOffset, keywords, false);
+    }
+
+    /**
+     * Scans header that starts at <code>headerOffset</code> block by block
+     * for values of all records up to <code>END</code> card, the data unit is never read
+     *
+     * @param channel       channel of FITS file to scan
+     * @param headerOffset  offset of the header in file in bytes
+     * @return              map with values of records by their keywords in order
+     *                      of records in header, only first record with each keyword is kept
+     * @throws IOException  when some error occurs during reading the file
+     */
+    public static Map<String, String> scanAllValues(FileChannel channel, long headerOffset)
+            throws IOException {
+        if (channel == null)
+            throw new IllegalArgumentException("channel is null");
+        if (headerOffset < 0 || headerOffset % Constants.FITS_BLOCK_SIZE != 0)
+            throw new IllegalArgumentException("invalid headerOffset");
+
+        return scanValues(channel, headerOffset, Collections.<String>emptySet(), true);
+    }
+
+    /**
+     * Parses values of all records in serialized <code>header</code> up to <code>END</code> card
+     *
+     * @param header    serialized header including <code>END</code> card
+     * @return          map with values of records by their keywords in order
+     *                  of records in header, only first record with each keyword is kept
+     */
+    public static Map<String, String> parseValues(byte[] header) {
+        if (header == null)
+            throw new IllegalArgumentException("header is null");
+
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int cardOffset = 0; cardOffset + Constants.HEADER_CARD_SIZE <= header.length; cardOffset += Constants.HEADER_CARD_SIZE) {
+            if (isEndCard(header, cardOffset))
+                break;
+
+            addValue(values, header, cardOffset);
+        }
+
+        return values;
+    }
+
+    /**
+     * Reads header blocks of specified <code>headerLength</code>
+     * from memory-mapped region of the file
+     *
+     * @param channel       channel of FITS file to read from
+     * @param headerOffset  offset of the header in file in bytes
+     * @param headerLength  length of the header in bytes
+     * @return              bytes of all header blocks
+     * @throws IOException  when some error occurs during mapping the file
+     */
+    public static byte[] readHeaderBlocks(FileChannel channel, long headerOffset, long headerLength)
+            throws IOException {
+        if (channel == null)
+            throw new IllegalArgumentException("channel is null");
+        if (headerLength < 0 || headerLength > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("invalid headerLength");
+
+        byte[] header = new byte[(int) headerLength];
+        channel.map(FileChannel.MapMode.READ_ONLY, headerOffset, headerLength).get(header);
+
+        return header;
+    }
+
+    /**
+     * Computes size of the data unit described by provided <code>header</code>
+     * from values of <code>BITPIX</code>, <code>NAXISn</code>, <code>PCOUNT</code>
+     * and <code>GCOUNT</code> keywords, including padding to the whole block
+     *
+     * @param header    serialized header including <code>END</code> card
+     * @return          size of the data unit in bytes
+     * @throws IllegalArgumentException when mandatory keywords are missing or have invalid values
+     */
+    public static long computeDataSize(byte[] header) {
+        if (header == null)
+            throw new IllegalArgumentException("header is null");
+
+        long bitpix = findIntegerValue(header, "BITPIX");
+        long naxis = findIntegerValue(header, "NAXIS");
+        if (bitpix == NOT_FOUND || naxis == NOT_FOUND)
+            throw new IllegalArgumentException("header does not contain BITPIX or NAXIS keyword");
+        if (naxis == 0)
+            return 0;
+
+        // random groups have NAXIS1 = 0 which is left out of the product
+        boolean randomGroups = isTrue(header, "GROUPS");
+        long elements = 1;
+        for (int axis = randomGroups ? 2 : 1; axis <= naxis; axis++) {
+            long axisLength = findIntegerValue(header, "NAXIS" + axis);
+            if (axisLength == NOT_FOUND)
+                throw new IllegalArgumentException("header does not contain NAXIS" + axis + " keyword");
+            elements *= axisLength;
+        }
+
+        long pcount = findIntegerValue(header, "PCOUNT");
+        long gcount = findIntegerValue(header, "GCOUNT");
+        if (pcount == NOT_FOUND)
+            pcount = 0;
+        if (gcount == NOT_FOUND)
+            gcount = 1;
+
+        long dataSize = Math.abs(bitpix) / 8 * gcount * (pcount + elements);
+        long remainder = dataSize % Constants.FITS_BLOCK_SIZE;
+
+        return remainder == 0 ? dataSize : dataSize + Constants.FITS_BLOCK_SIZE - remainder;
+    }
+
+    /**
+     * Checks whether first card of provided <code>header</code> is <code>SIMPLE</code> card
+     * that starts primary header
+     *
+     * @param header    serialized header
+     * @return          <code>true</code> if header starts with <code>SIMPLE</code> card,
+     *                  <code>false</code> otherwise
+     */
+    public static boolean isPrimaryHeader(byte[] header) {
+        return header != null
+                && header.length >= Constants.HEADER_CARD_SIZE
+                && keywordEquals(header, 0, "SIMPLE");
+    }
+
+    /**
+     * Checks whether first card of provided <code>header</code> is <code>XTENSION</code> card
+     * that starts header of extension HDU unit
+     *
+     * @param header    serialized header
+     * @return          <code>true</code> if header starts with <code>XTENSION</code> card,
+     *                  <code>false</code> otherwise
+     */
+    public static boolean isExtensionHeader(byte[] header) {
+        return header != null
+                && header.length >= Constants.HEADER_CARD_SIZE
+                && keywordEquals(header, 0, "XTENSION");
+    }
+
+    /**
+     * Finds value of the first record with specified <code>keyword</code>
+     * in serialized <code>header</code>. String values are returned without
+     * enclosing quotes and trailing spaces, comments are left out
+     *
+     * @param header    serialized header including <code>END</code> card
+     * @param keyword   keyword of record which value to find
+     * @return          value of the record, or <code>null</code> when
+     *                  header does not contain record with value and such keyword
+     */
+    public static String findStringValue(byte[] header, String keyword) {
+        if (header == null)
+            throw new IllegalArgumentException("header is null");
+        if (keyword == null)
+            throw new IllegalArgumentException("keyword is null");
+
+        return findValue(header, keyword);
+    }
+
+    private static Map<String, String> scanValues(FileChannel channel, long headerOffset, Set<String> keywords, boolean allKeywords)
+            throws IOException {
+        Map<String, String> values = new LinkedHashMap<>();
+        ByteBuffer buffer = ByteBuffer.allocate(Constants.FITS_BLOCK_SIZE);
+        byte[] block = buffer.array();
+
+        for (long blockStart = headerOffset; allKeywords || values.size() < keywords.size(); blockStart += Constants.FITS_BLOCK_SIZE) {
+            // read whole block, incomplete block cannot contain valid header
+            buffer.clear();
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, blockStart + buffer.position()) < 0)
+                    return values;
+            }
+
+            for (int cardOffset = 0; cardOffset < Constants.FITS_BLOCK_SIZE; cardOffset += Constants.HEADER_CARD_SIZE) {
+                if (isEndCard(block, cardOffset))
+                    return values;
+
+                if (allKeywords)
+                    addValue(values, block, cardOffset);
+                else {
+                    String keyword = new String(block, cardOffset, KEYWORD_LENGTH, StandardCharsets.US_ASCII).trim();
+                    if (keywords.contains(keyword) && !values.containsKey(keyword) && hasValue(block, cardOffset))
+                        values.put(keyword, parseValue(block, cardOffset));
+                }
+            }
+        }
+
+        return values;
+    }
+
+    private static void addValue(Map<String, String> values, byte[] header, int cardOffset) {
+        if (!hasValue(header, cardOffset))
+            return;
+
+        String keyword = new String(header, cardOffset, KEYWORD_LENGTH, StandardCharsets.US_ASCII).trim();
+        if (!keyword.isEmpty() && !values.containsKey(keyword))
+            values.put(keyword, parseValue(header, cardOffset));
+    }
+
+    private static long findIntegerValue(byte[] header, String keyword) {
+        String value = findValue(header, keyword);
+        if (value == null)
+            return NOT_FOUND;
+
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException nfEx) {
+            throw new IllegalArgumentException("value of " + keyword + " keyword is not an integer");
+        }
+    }
+
+    private static boolean isTrue(byte[] header, String keyword) {
+        return "T".equals(findValue(header, keyword));
+    }
+
+    private static String findValue(byte[] header, String keyword) {
+        for (int cardOffset = 0; cardOffset + Constants.HEADER_CARD_SIZE <= header.length; cardOffset += Constants.HEADER_CARD_SIZE) {
+            if (isEndCard(header, cardOffset))
+                return null;
+            if (keywordEquals(header, cardOffset, keyword) && hasValue(header, cardOffset))
+                return parseValue(header, cardOffset);
+        }
+
+        return null;
+    }
+
+    private static boolean hasValue(byte[] header, int cardOffset) {
+        return header[cardOffset + VALUE_INDICATOR_OFFSET] == '=';
+    }
+
+    private static String parseValue(byte[] header, int cardOffset) {
+        String value = new String(header, cardOffset + VALUE_OFFSET,
+                Constants.HEADER_CARD_SIZE - VALUE_OFFSET, StandardCharsets.US_ASCII).trim();
+        if (value.startsWith("'"))
+            return parseStringValue(value);
+
+        int commentStart = value.indexOf('/');
+        if (commentStart >= 0)
+            value = value.substring(0, commentStart);
+
+        return value.trim();
+    }
+
+    private static String parseStringValue(String value) {
+        StringBuilder parsed = new StringBuilder();
+
+        // two successive quotes stand for single quote inside the string
+        for (int i = 1; i < value.length(); i++) {
+            char character = value.charAt(i);
+            if (character == '\'') {
+                if (i + 1 < value.length() && value.charAt(i + 1) == '\'') {
+                    parsed.append(character);
+                    i++;
+                    continue;
+                }
+                break;
+            }
+            parsed.append(character);
+        }
+
+        // trailing spaces in string values are not significant
+        int end = parsed.length();
+        while (end > 0 && parsed.charAt(end - 1) == ' ')
+            end--;
+
+        return parsed.substring(0, end);
+    }
+
+    private static boolean keywordEquals(byte[] header, int cardOffset, String keyword) {
+        for (int i = 0; i < KEYWORD_LENGTH; i++) {
+            byte expected = i < keyword.length() ? (byte) keyword.charAt(i) : (byte) ' ';
+            if (header[cardOffset + i] != expected)
+                return false;
+        }
+
+        return true;
+    }
+
+    private static boolean isEndCard(MappedByteBuffer window, int cardOffset) {
+        return window.get(cardOffset) == 'E'
+                && window.get(cardOffset + 1) == 'N'
+                && window.get(cardOffset + 2) == 'D'
+                && isBlank(window, cardOffset + 3, KEYWORD_LENGTH - 3);
+    }
+
+    private static boolean isBlank(MappedByteBuffer window, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (window.get(i) != ' ')
+                return false;
+        }
+
+        return true;
+    }
+
+    private static boolean isEndCard(byte[] header, int cardOffset) {
+        return HeaderBlockWriter.isEndCard(header, cardOffset);
+    }
+
+    private HeaderBlockScanner() { }
+}
@@ -0,0 +1,334 @@
+package cz.muni.fi.fits.engine.io;
+
+import cz.muni.fi.fits.common.utils.Constants;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Helper class for writing edited FITS headers back to file
+ * without rewriting the data unit that follows the header.
+ * Header is written with positional NIO writes directly to its original
+ * blocks, but only when it still occupies the same number of blocks.
+ * Otherwise the file is replaced by a copy with the new header, where the data unit
+ * is transferred between channels without passing through Java heap buffers.
+ * Durability of replaced files is controlled by provided {@link FileSynchronizer}
+ *
+ * @author Martin Vrábel
+ * @version 1.6
+ */
+public final class HeaderBlockWriter {
+
+    /**
+     * Value returned from write methods when the original header is not complete
+     */
+    public static final long NOT_WRITTEN = -1;
+
+    private static final byte[] END_CARD_KEYWORD = { 'E', 'N', 'D', ' ', ' ', ' ', ' ', ' ' };
+    private static final byte BLANK_SPACE = ' ';
+
+    /**
+     * Writes serialized <code>newHeader</code> to <code>fitsFile</code> in place
+     * of the original header that starts at <code>headerOffset</code>. When the header
+     * occupies different number of blocks than the original one, the new header
+     * is written to temporary file next to the original one, rest of the file
+     * is transferred after it channel to channel and temporary file then atomically
+     * replaces the original file, so the original file is never left half-written
+     *
+     * @param fitsFile      FITS file in which to write the header
+     * @param headerOffset  offset of the header in file in bytes
+     * @param newHeader     serialized header including <code>END</code> card,
+     *                      padding to the whole block is added if missing
+     * @return              number of bytes written to file, or {@link #NOT_WRITTEN}
+     *                      when original header is not complete
+     * @throws IOException  when some error occurs during reading, writing or replacing the file
+     */
+    public static long writeReplaced(File fitsFile, long headerOffset, byte[] newHeader)
+            throws IOException {
+        return writeReplaced(fitsFile, headerOffset, newHeader, new FileSynchronizer(FileSynchronizer.Mode.NONE));
+    }
+
+    /**
+     * Writes serialized <code>newHeader</code> to <code>fitsFile</code> in the same way
+     * as {@link #writeReplaced(File, long, byte[])} and lets <code>synchronizer</code>
+     * force the changes to storage device and replace the original file
+     *
+     * @param fitsFile      FITS file in which to write the header
+     * @param headerOffset  offset of the header in file in bytes
+     * @param newHeader     serialized header including <code>END</code> card,
+     *                      padding to the whole block is added if missing
+     * @param synchronizer  synchronizer of written files
+     * @return              number of bytes written to file, or {@link #NOT_WRITTEN}
+     *                      when original header is not complete
+     * @throws IOException  when some error occurs during reading, writing or replacing the file
+     */
+    public static long writeReplaced(File fitsFile, long headerOffset, byte[] newHeader, FileSynchronizer synchronizer)
+            throws IOException {
+        if (headerOffset < 0 || headerOffset % Constants.FITS_BLOCK_SIZE != 0)
+            throw new IllegalArgumentException("invalid headerOffset");
+        if (newHeader == null)
+            throw new IllegalArgumentException("newHeader is null");
+
+        SortedMap<Long, byte[]> newHeaders = new TreeMap<>();
+        newHeaders.put(headerOffset, newHeader);
+
+        return writeReplaced(fitsFile, newHeaders, synchronizer);
+    }
+
+    /**
+     * Writes multiple serialized headers to <code>fitsFile</code> in place of the original
+     * headers that start at offsets used as keys of <code>newHeaders</code> map. When all headers
+     * occupy the same number of blocks as the original ones, only changed card images are
+     * written in place, otherwise single replacement file is assembled from new headers
+     * and parts of the original file between them transferred channel to channel.
+     * Only replacement of file is atomic, when writing in place is interrupted,
+     * some headers can be left with new cards and some with the original ones
+     *
+     * @param fitsFile      FITS file in which to write the headers
+     * @param newHeaders    map of offsets of the original headers in file to serialized headers
+     *                      including <code>END</code> card, padding to the whole block is added if missing
+     * @param synchronizer  synchronizer of written files
+     * @return              number of bytes written to file, or {@link #NOT_WRITTEN}
+     *                      when some of the original headers is not complete
+     * @throws IOException  when some error occurs during reading, writing or replacing the file
+     */
+    public static long writeReplaced(File fitsFile, SortedMap<Long, byte[]> newHeaders, FileSynchronizer synchronizer)
+            throws IOException {
+        if (fitsFile == null)
+            throw new IllegalArgumentException("fitsFile is null");
+        if (newHeaders == null)
+            throw new IllegalArgumentException("newHeaders is null");
+        if (synchronizer == null)
+            throw new IllegalArgumentException("synchronizer is null");
+
+        SortedMap<Long, byte[]> paddedHeaders = new TreeMap<>();
+        SortedMap<Long, Long> oldHeaderLengths = new TreeMap<>();
+        boolean sameBlocks = true;
+
+        try (FileChannel channel = FileChannel.open(fitsFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            List<byte[]> oldHeaders = new ArrayList<>(newHeaders.size());
+            for (Map.Entry<Long, byte[]> newHeader : newHeaders.entrySet()) {
+                long headerOffset = newHeader.getKey();
+                if (headerOffset < 0 || headerOffset % Constants.FITS_BLOCK_SIZE != 0)
+                    throw new IllegalArgumentException("invalid headerOffset");
+
+                byte[] oldHeader = readHeaderBlocks(channel, headerOffset);
+                if (oldHeader == null)
+                    return NOT_WRITTEN;
+
+                byte[] paddedHeader = padToBlocks(newHeader.getValue());
+                sameBlocks &= oldHeader.length == paddedHeader.length;
+                oldHeaders.add(oldHeader);
+                paddedHeaders.put(headerOffset, paddedHeader);
+                oldHeaderLengths.put(headerOffset, (long) oldHeader.length);
+            }
+
+            if (sameBlocks) {
+                long bytesWritten = 0;
+                int header = 0;
+                for (Map.Entry<Long, byte[]> paddedHeader : paddedHeaders.entrySet())
+                    bytesWritten += writeChangedCards(channel, paddedHeader.getKey(), oldHeaders.get(header++), paddedHeader.getValue());
+
+                if (bytesWritten > 0)
+                    synchronizer.fileWritten(fitsFile.toPath(), channel);
+
+                return bytesWritten;
+            }
+        }
+
+        return writeReplacement(fitsFile.toPath().toAbsolutePath(), paddedHeaders, oldHeaderLengths, synchronizer);
+    }
+
+    /**
+     * Reads header blocks starting at <code>headerOffset</code> up to
+     * the block containing <code>END</code> card
+     *
+     * @param channel       channel of FITS file to read from
+     * @param headerOffset  offset of the header in file in bytes
+     * @return              bytes of all header blocks, or <code>null</code>
+     *                      when file ends before <code>END</code> card is found
+     * @throws IOException  when some error occurs during reading the file
+     */
+    public static byte[] readHeaderBlocks(FileChannel channel, long headerOffset)
+            throws IOException {
+        if (channel == null)
+            throw new IllegalArgumentException("channel is null");
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream(Constants.FITS_BLOCK_SIZE);
+        ByteBuffer block = ByteBuffer.allocate(Constants.FITS_BLOCK_SIZE);
+        long position = headerOffset;
+
+        while (true) {
+            block.clear();
+            while (block.hasRemaining()) {
+                if (channel.read(block, position + block.position()) < 0)
+                    return null;
+            }
+
+            header.write(block.array(), 0, Constants.FITS_BLOCK_SIZE);
+            position += Constants.FITS_BLOCK_SIZE;
+
+            // look for END card in this block
+            for (int card = 0; card < Constants.CARDS_PER_BLOCK; card++) {
+                if (isEndCard(block.array(), card * Constants.HEADER_CARD_SIZE))
+                    return header.toByteArray();
+            }
+        }
+    }
+
+    /**
+     * Pads provided serialized <code>header</code> with blank spaces
+     * to the multiple of FITS block size
+     *
+     * @param header    serialized header to pad
+     * @return          padded header, or the same array if no padding is needed
+     */
+    public static byte[] padToBlocks(byte[] header) {
+        if (header == null)
+            throw new IllegalArgumentException("header is null");
+
+        int remainder = header.length % Constants.FITS_BLOCK_SIZE;
+        if (remainder == 0 && header.length > 0)
+            return header;
+
+        byte[] padded = new byte[header.length + Constants.FITS_BLOCK_SIZE - remainder];
+        System.arraycopy(header, 0, padded, 0, header.length);
+        for (int i = header.length; i < padded.length; i++)
+            padded[i] = BLANK_SPACE;
+
+        return padded;
+    }
+
+    /**
+     * Checks whether card image starting at <code>offset</code> in <code>bytes</code>
+     * is the <code>END</code> card
+     *
+     * @param bytes     array with card images
+     * @param offset    offset of card image in array
+     * @return          <code>true</code> if card is <code>END</code> card,
+     *                  <code>false</code> otherwise
+     */
+    public static boolean isEndCard(byte[] bytes, int offset) {
+        for (int i = 0; i < END_CARD_KEYWORD.length; i++) {
+            if (bytes[offset + i] != END_CARD_KEYWORD[i])
+                return false;
+        }
+
+        return true;
+    }
+
+    private static long writeChangedCards(FileChannel channel, long headerOffset, byte[] oldHeader, byte[] newHeader)
+            throws IOException {
+        // header must occupy the same number of blocks, otherwise data unit moves
+        if (oldHeader.length != newHeader.length)
+            return NOT_WRITTEN;
+
+        long bytesWritten = 0;
+        int cardsCount = newHeader.length / Constants.HEADER_CARD_SIZE;
+        int card = 0;
+
+        while (card < cardsCount) {
+            if (cardEquals(oldHeader, newHeader, card)) {
+                card++;
+                continue;
+            }
+
+            // join consecutive changed cards into single write
+            int firstChanged = card;
+            while (card < cardsCount && !cardEquals(oldHeader, newHeader, card))
+                card++;
+
+            int offset = firstChanged * Constants.HEADER_CARD_SIZE;
+            int length = (card - firstChanged) * Constants.HEADER_CARD_SIZE;
+            ByteBuffer changed = ByteBuffer.wrap(newHeader, offset, length);
+            while (changed.hasRemaining())
+                channel.write(changed, headerOffset + changed.position());
+
+            bytesWritten += length;
+        }
+
+        return bytesWritten;
+    }
+
+    private static long writeReplacement(Path fitsFile, SortedMap<Long, byte[]> newHeaders,
+                                         SortedMap<Long, Long> oldHeaderLengths, FileSynchronizer synchronizer)
+            throws IOException {
+        Path replacement = synchronizer.createReplacement(fitsFile);
+
+        try {
+            long bytesWritten = 0;
+            try (FileChannel source = FileChannel.open(fitsFile, StandardOpenOption.READ);
+                 FileChannel target = FileChannel.open(replacement, StandardOpenOption.WRITE)) {
+                long position = 0;
+                for (Map.Entry<Long, byte[]> newHeader : newHeaders.entrySet()) {
+                    // everything before the header, e.g. preceding HDU units
+                    long headerOffset = newHeader.getKey();
+                    transferFully(source, position, headerOffset - position, target);
+                    bytesWritten += headerOffset - position;
+
+                    ByteBuffer header = ByteBuffer.wrap(newHeader.getValue());
+                    while (header.hasRemaining())
+                        target.write(header);
+
+                    bytesWritten += newHeader.getValue().length;
+                    position = headerOffset + oldHeaderLengths.get(headerOffset);
+                }
+
+                long tailLength = source.size() - position;
+                transferFully(source, position, tailLength, target);
+                bytesWritten += tailLength;
+            }
+
+            copyPermissions(fitsFile, replacement);
+            synchronizer.replaceFile(replacement, fitsFile);
+
+            return bytesWritten;
+        } catch (IOException ioEx) {
+            synchronizer.discardReplacement(replacement);
+            throw ioEx;
+        }
+    }
+
+    private static void transferFully(FileChannel source, long position, long length, FileChannel target)
+            throws IOException {
+        long transferred = 0;
+
+        // single transfer can move less bytes than requested
+        while (transferred < length) {
+            long count = source.transferTo(position + transferred, length - transferred, target);
+            if (count <= 0)
+                throw new IOException("Unexpected end of file");
+
+            transferred += count;
+        }
+    }
+
+    private static void copyPermissions(Path original, Path replacement)
+            throws IOException {
+        // temporary files are created accessible only by owner
+        try {
+            Files.setPosixFilePermissions(replacement, Files.getPosixFilePermissions(original));
+        } catch (UnsupportedOperationException uoEx) {
+            // file system does not support POSIX permissions, keep defaults
+        }
+    }
+
+    private static boolean cardEquals(byte[] oldHeader, byte[] newHeader, int card) {
+        int start = card * Constants.HEADER_CARD_SIZE;
+        for (int i = start; i < start + Constants.HEADER_CARD_SIZE; i++) {
+            if (oldHeader[i] != newHeader[i])
+                return false;
+        }
+
+        return true;
+    }
+
+    private HeaderBlockWriter() { }
+}
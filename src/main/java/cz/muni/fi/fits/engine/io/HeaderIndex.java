@@ -0,0 +1,423 @@
+package cz.muni.fi.fits.engine.io;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class holding persistent index of values of primary header records
+ * of FITS files, so that files can be selected without opening them.
+ * Entries are keyed by absolute path of file and are valid only while size
+ * and last modification time of the file equal to the stored ones, stale entries
+ * are detected on lookup and have to be refreshed by caller. Index file is
+ * memory-mapped when first used, only paths and attributes of files
+ * are read on loading, values of records are decoded from mapped region
+ * when entry is requested for the first time. Index that cannot be read
+ * is ignored and rebuilt. Index without path to its file is disabled
+ * and does not hold any entries
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class HeaderIndex {
+
+    private static final byte[] MAGIC = "FHEINDEX".getBytes(StandardCharsets.US_ASCII);
+    private static final int FORMAT_VERSION = 1;
+    private static final int INDEX_HEADER_SIZE = MAGIC.length + Integer.BYTES;
+    private static final int MAX_UNSIGNED_SHORT = 0xFFFF;
+    private static final int MAX_UNSIGNED_BYTE = 0xFF;
+
+    private final Path _indexFile;
+    private final ConcurrentMap<String, Entry> _entries = new ConcurrentHashMap<>();
+    private final Object _lock = new Object();
+
+    private volatile boolean _loaded;
+    private volatile boolean _changed;
+
+    /**
+     * Creates new disabled {@link HeaderIndex} that does not hold any entries
+     */
+    public HeaderIndex() {
+        this(null);
+    }
+
+    /**
+     * Creates new {@link HeaderIndex} stored in specified <code>indexFile</code>,
+     * index file is read when index is used for the first time
+     *
+     * @param indexFile path to index file, insert <code>null</code> to disable index
+     */
+    public HeaderIndex(Path indexFile) {
+        _indexFile = indexFile != null ? indexFile.toAbsolutePath().normalize() : null;
+    }
+
+    public Path getIndexFile() {
+        return _indexFile;
+    }
+
+    /**
+     * Checks whether this index is backed by index file
+     *
+     * @return  <code>true</code> if index is enabled, <code>false</code> otherwise
+     */
+    public boolean isEnabled() {
+        return _indexFile != null;
+    }
+
+    /**
+     * Gets number of entries in index, including stale ones
+     *
+     * @return  number of entries in index
+     */
+    public int size() {
+        if (!isEnabled())
+            return 0;
+
+        ensureLoaded();
+        return _entries.size();
+    }
+
+    /**
+     * Gets indexed values of primary header records of <code>fitsFile</code>
+     *
+     * @param fitsFile  FITS file which values to get
+     * @return          unmodifiable map with values of records by their keywords,
+     *                  or <code>null</code> when index does not contain valid entry of the file
+     */
+    public Map<String, String> getValues(File fitsFile) {
+        if (fitsFile == null)
+            throw new IllegalArgumentException("fitsFile is null");
+        if (!isEnabled())
+            return null;
+
+        ensureLoaded();
+        Entry entry = _entries.get(toKey(fitsFile));
+        if (entry == null)
+            return null;
+
+        // entry is stale when file was changed after it was indexed
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(fitsFile.toPath(), BasicFileAttributes.class);
+            if (attributes.size() != entry._size || toLastModified(attributes) != entry._lastModified)
+                return null;
+        } catch (IOException ioEx) {
+            return null;
+        }
+
+        try {
+            return entry.getValues();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException ex) {
+            // damaged entry is treated as missing and is replaced on refresh
+            return null;
+        }
+    }
+
+    /**
+     * Stores values of primary header records of <code>fitsFile</code> together
+     * with current size and last modification time of the file. Entry of file
+     * which attributes cannot be read is removed from index
+     *
+     * @param fitsFile  indexed FITS file
+     * @param values    values of primary header records by their keywords
+     */
+    public void update(File fitsFile, Map<String, String> values) {
+        if (fitsFile == null)
+            throw new IllegalArgumentException("fitsFile is null");
+        if (values == null)
+            throw new IllegalArgumentException("values is null");
+        if (!isEnabled())
+            return;
+
+        ensureLoaded();
+        String key = toKey(fitsFile);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(fitsFile.toPath(), BasicFileAttributes.class);
+            _entries.put(key, new Entry(attributes.size(), toLastModified(attributes),
+                    Collections.unmodifiableMap(new LinkedHashMap<>(values))));
+        } catch (IOException ioEx) {
+            _entries.remove(key);
+        }
+
+        _changed = true;
+    }
+
+    /**
+     * Removes entry of <code>fitsFile</code> from index
+     *
+     * @param fitsFile  FITS file which entry to remove
+     */
+    public void remove(File fitsFile) {
+        if (fitsFile == null)
+            throw new IllegalArgumentException("fitsFile is null");
+        if (!isEnabled())
+            return;
+
+        ensureLoaded();
+        if (_entries.remove(toKey(fitsFile)) != null)
+            _changed = true;
+    }
+
+    /**
+     * Writes index to its index file when it was changed since it was loaded
+     * or last saved. Index is written to temporary file first which then
+     * atomically replaces the original index file
+     *
+     * @throws IOException  when some error occurs during writing the index file
+     */
+    public void save() throws IOException {
+        if (!isEnabled() || !_changed)
+            return;
+
+        synchronized (_lock) {
+            // changes made while writing are kept for the next save
+            _changed = false;
+
+            Path directory = _indexFile.getParent();
+            if (directory != null)
+                Files.createDirectories(directory);
+
+            Path temporaryFile = Files.createTempFile(directory, _indexFile.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream output = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                    output.write(MAGIC);
+                    output.writeInt(FORMAT_VERSION);
+
+                    for (Map.Entry<String, Entry> entry : _entries.entrySet()) {
+                        byte[] entryBytes = encodeEntry(entry.getKey(), entry.getValue());
+                        if (entryBytes == null)
+                            continue;
+
+                        output.writeInt(entryBytes.length);
+                        output.write(entryBytes);
+                    }
+                }
+
+                Files.move(temporaryFile, _indexFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException ioEx) {
+                _changed = true;
+                throw ioEx;
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        if (_loaded)
+            return;
+
+        synchronized (_lock) {
+            if (_loaded)
+                return;
+
+            try {
+                if (Files.isRegularFile(_indexFile))
+                    load();
+            } catch (IOException | RuntimeException ex) {
+                // unreadable index is discarded and rebuilt from scanned headers
+                _entries.clear();
+            }
+            _loaded = true;
+        }
+    }
+
+    private void load() throws IOException {
+        try (FileChannel channel = FileChannel.open(_indexFile, StandardOpenOption.READ)) {
+            long indexSize = channel.size();
+            if (indexSize < INDEX_HEADER_SIZE)
+                return;
+
+            ByteBuffer indexHeader = channel.map(FileChannel.MapMode.READ_ONLY, 0, INDEX_HEADER_SIZE);
+            byte[] magic = new byte[MAGIC.length];
+            indexHeader.get(magic);
+            if (!Arrays.equals(magic, MAGIC) || indexHeader.getInt() != FORMAT_VERSION)
+                return;
+
+            // index is mapped in segments ending on entry boundaries, so mapping limit is never exceeded
+            long segmentStart = INDEX_HEADER_SIZE;
+            while (segmentStart < indexSize) {
+                int segmentLength = (int) Math.min(indexSize - segmentStart, Integer.MAX_VALUE);
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, segmentStart, segmentLength);
+
+                int entryStart = 0;
+                while (entryStart + Integer.BYTES <= segmentLength) {
+                    int entryLength = segment.getInt(entryStart);
+                    if (entryLength <= 0)
+                        throw new IOException("Index file is corrupted");
+                    if ((long) entryStart + Integer.BYTES + entryLength > segmentLength)
+                        break;
+
+                    readEntry(segment, entryStart + Integer.BYTES, entryLength);
+                    entryStart += Integer.BYTES + entryLength;
+                }
+
+                if (entryStart == 0)
+                    throw new IOException("Index file is truncated");
+                segmentStart += entryStart;
+            }
+        }
+    }
+
+    private void readEntry(ByteBuffer segment, int entryOffset, int entryLength) {
+        int position = entryOffset;
+
+        int pathLength = segment.getShort(position) & MAX_UNSIGNED_SHORT;
+        position += Short.BYTES;
+        String path = decodeString(segment, position, pathLength, StandardCharsets.UTF_8);
+        position += pathLength;
+
+        long size = segment.getLong(position);
+        position += Long.BYTES;
+        long lastModified = segment.getLong(position);
+        position += Long.BYTES;
+
+        if (position > entryOffset + entryLength)
+            throw new IllegalArgumentException("entry is corrupted");
+
+        _entries.put(path, new Entry(size, lastModified, segment, position, entryOffset + entryLength - position));
+    }
+
+    private static byte[] encodeEntry(String path, Entry entry) throws IOException {
+        byte[] pathBytes = path.getBytes(StandardCharsets.UTF_8);
+        if (pathBytes.length > MAX_UNSIGNED_SHORT)
+            return null;
+
+        byte[] valuesBytes = entry.getValuesBytes();
+        if (valuesBytes == null)
+            return null;
+
+        ByteArrayOutputStream entryBytes = new ByteArrayOutputStream(pathBytes.length + valuesBytes.length + 2 * Long.BYTES + Short.BYTES);
+        DataOutputStream output = new DataOutputStream(entryBytes);
+        output.writeShort(pathBytes.length);
+        output.write(pathBytes);
+        output.writeLong(entry._size);
+        output.writeLong(entry._lastModified);
+        output.write(valuesBytes);
+        output.flush();
+
+        return entryBytes.toByteArray();
+    }
+
+    private static String decodeString(ByteBuffer buffer, int offset, int length, Charset charset) {
+        byte[] bytes = new byte[length];
+        ByteBuffer source = buffer.duplicate();
+        source.position(offset);
+        source.get(bytes);
+
+        return new String(bytes, charset);
+    }
+
+    private static String toKey(File fitsFile) {
+        return fitsFile.toPath().toAbsolutePath().normalize().toString();
+    }
+
+    private static long toLastModified(BasicFileAttributes attributes) {
+        return attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Indexed entry of single file, values of records are either decoded
+     * or left in mapped region of index file until they are requested
+     */
+    private static final class Entry {
+
+        private final long _size;
+        private final long _lastModified;
+
+        private final ByteBuffer _segment;
+        private final int _valuesOffset;
+        private final int _valuesLength;
+
+        private volatile Map<String, String> _values;
+
+        Entry(long size, long lastModified, Map<String, String> values) {
+            _size = size;
+            _lastModified = lastModified;
+            _segment = null;
+            _valuesOffset = 0;
+            _valuesLength = 0;
+            _values = values;
+        }
+
+        Entry(long size, long lastModified, ByteBuffer segment, int valuesOffset, int valuesLength) {
+            _size = size;
+            _lastModified = lastModified;
+            _segment = segment;
+            _valuesOffset = valuesOffset;
+            _valuesLength = valuesLength;
+        }
+
+        Map<String, String> getValues() {
+            Map<String, String> values = _values;
+            if (values == null) {
+                // decoding is idempotent, concurrent decoding of the same entry is harmless
+                values = Collections.unmodifiableMap(decodeValues());
+                _values = values;
+            }
+
+            return values;
+        }
+
+        byte[] getValuesBytes() throws IOException {
+            // values that were never requested are copied without decoding
+            if (_values == null) {
+                byte[] valuesBytes = new byte[_valuesLength];
+                ByteBuffer source = _segment.duplicate();
+                source.position(_valuesOffset);
+                source.get(valuesBytes);
+                return valuesBytes;
+            }
+
+            if (_values.size() > MAX_UNSIGNED_SHORT)
+                return null;
+
+            ByteArrayOutputStream valuesBytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(valuesBytes);
+            output.writeShort(_values.size());
+            for (Map.Entry<String, String> value : _values.entrySet()) {
+                byte[] keywordBytes = value.getKey().getBytes(StandardCharsets.US_ASCII);
+                byte[] valueBytes = value.getValue().getBytes(StandardCharsets.UTF_8);
+                if (keywordBytes.length > MAX_UNSIGNED_BYTE || valueBytes.length > MAX_UNSIGNED_SHORT)
+                    return null;
+
+                output.writeByte(keywordBytes.length);
+                output.write(keywordBytes);
+                output.writeShort(valueBytes.length);
+                output.write(valueBytes);
+            }
+            output.flush();
+
+            return valuesBytes.toByteArray();
+        }
+
+        private Map<String, String> decodeValues() {
+            ByteBuffer source = _segment.duplicate();
+            source.position(_valuesOffset);
+            source.limit(_valuesOffset + _valuesLength);
+
+            int count = source.getShort() & MAX_UNSIGNED_SHORT;
+            Map<String, String> values = new LinkedHashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                byte[] keyword = new byte[source.get() & MAX_UNSIGNED_BYTE];
+                source.get(keyword);
+                byte[] value = new byte[source.getShort() & MAX_UNSIGNED_SHORT];
+                source.get(value);
+
+                values.put(new String(keyword, StandardCharsets.US_ASCII), new String(value, StandardCharsets.UTF_8));
+            }
+
+            return values;
+        }
+    }
+}
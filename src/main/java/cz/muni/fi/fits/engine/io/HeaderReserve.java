@@ -0,0 +1,152 @@
+package cz.muni.fi.fits.engine.io;
+
+import cz.muni.fi.fits.common.utils.Constants;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Helper class managing reserve of blank records in serialized FITS headers.
+ * Blank records placed before <code>END</code> card are consumed when header grows,
+ * so that header still fits into its original blocks and data unit does not have to move
+ *
+ * @author Martin Vrábel
+ * @version 1.2
+ */
+public final class HeaderReserve {
+
+    private static final byte BLANK_SPACE = ' ';
+
+    /**
+     * Counts blank records placed before <code>END</code> card
+     * in serialized <code>header</code>
+     *
+     * @param header    serialized header including <code>END</code> card
+     * @return          number of blank records in header
+     */
+    public static int countReservedCards(byte[] header) {
+        if (header == null)
+            throw new IllegalArgumentException("header is null");
+
+        int reservedCards = 0;
+        for (int offset = 0; offset + Constants.HEADER_CARD_SIZE <= header.length; offset += Constants.HEADER_CARD_SIZE) {
+            if (HeaderBlockWriter.isEndCard(header, offset))
+                break;
+            if (isBlankCard(header, offset))
+                reservedCards++;
+        }
+
+        return reservedCards;
+    }
+
+    /**
+     * Counts records of serialized <code>header</code> up to and including <code>END</code> card
+     *
+     * @param header    serialized header including <code>END</code> card
+     * @return          number of records including <code>END</code> card
+     */
+    public static int countCardsToEnd(byte[] header) {
+        if (header == null)
+            throw new IllegalArgumentException("header is null");
+
+        for (int offset = 0; offset + Constants.HEADER_CARD_SIZE <= header.length; offset += Constants.HEADER_CARD_SIZE) {
+            if (HeaderBlockWriter.isEndCard(header, offset))
+                return offset / Constants.HEADER_CARD_SIZE + 1;
+        }
+
+        throw new IllegalArgumentException("header does not contain END card");
+    }
+
+    /**
+     * Fits serialized <code>header</code> to blocks of the original header.
+     * Records added behind original position of <code>END</code> card consume
+     * blank records, starting with the last ones. When <code>requiredReserve</code>
+     * is bigger than number of remaining blank records, exactly this number of them
+     * is placed before <code>END</code> card. When header gets shorter by some blocks,
+     * freed space is filled with blank records, so that data unit does not move.
+     * When header has to grow anyway, it grows by whole blocks with exactly
+     * the bigger of <code>requiredReserve</code> and <code>growthReserve</code>
+     * blank records, rest of the last block is padding after <code>END</code> card
+     *
+     * @param header            serialized header including <code>END</code> card
+     * @param originalLength    length of the original header in file in bytes
+     * @param originalEndCards  number of records of the original header including <code>END</code> card
+     * @param requiredReserve   minimal number of blank records that must be present in header
+     * @param growthReserve     number of blank records to reserve when header has to grow
+     * @return                  header padded to the whole blocks
+     */
+    public static byte[] fitHeader(byte[] header, long originalLength, int originalEndCards,
+                                   int requiredReserve, int growthReserve) {
+        if (header == null)
+            throw new IllegalArgumentException("header is null");
+        if (requiredReserve < 0 || growthReserve < 0)
+            throw new IllegalArgumentException("reserve cannot be negative");
+
+        // used records include END card
+        int blankCards = countReservedCards(header);
+        int usedCards = countCardsToEnd(header) - blankCards;
+        int originalCards = (int) (originalLength / Constants.HEADER_CARD_SIZE);
+
+        // blank records are consumed by records over the original END card
+        int reserve = Math.max(0, Math.min(blankCards, originalEndCards - usedCards));
+        reserve = Math.max(reserve, requiredReserve);
+
+        if (usedCards + reserve <= originalCards) {
+            // shorter header keeps its original blocks, so data unit does not move
+            int blocks = (usedCards + reserve + Constants.CARDS_PER_BLOCK - 1) / Constants.CARDS_PER_BLOCK;
+            if (blocks * Constants.CARDS_PER_BLOCK < originalCards)
+                reserve = originalCards - usedCards;
+
+            return buildHeader(header, reserve);
+        }
+
+        return buildHeader(header, Math.max(requiredReserve, growthReserve));
+    }
+
+    private static byte[] buildHeader(byte[] header, int reserve) {
+        ByteArrayOutputStream fitted = new ByteArrayOutputStream(header.length + reserve * Constants.HEADER_CARD_SIZE);
+        byte[] endCard = null;
+        int keptBlanks = 0;
+
+        // keep records in order, drop the last blank records over the reserve
+        for (int offset = 0; offset + Constants.HEADER_CARD_SIZE <= header.length; offset += Constants.HEADER_CARD_SIZE) {
+            if (HeaderBlockWriter.isEndCard(header, offset)) {
+                endCard = new byte[Constants.HEADER_CARD_SIZE];
+                System.arraycopy(header, offset, endCard, 0, Constants.HEADER_CARD_SIZE);
+                break;
+            }
+
+            if (isBlankCard(header, offset)) {
+                if (keptBlanks == reserve)
+                    continue;
+                keptBlanks++;
+            }
+
+            fitted.write(header, offset, Constants.HEADER_CARD_SIZE);
+        }
+
+        if (endCard == null)
+            throw new IllegalArgumentException("header does not contain END card");
+
+        // add missing blank records right before END card
+        byte[] blankCard = new byte[Constants.HEADER_CARD_SIZE];
+        for (int i = 0; i < blankCard.length; i++)
+            blankCard[i] = BLANK_SPACE;
+        for (; keptBlanks < reserve; keptBlanks++)
+            fitted.write(blankCard, 0, blankCard.length);
+
+        fitted.write(endCard, 0, endCard.length);
+
+        return HeaderBlockWriter.padToBlocks(fitted.toByteArray());
+    }
+
+    private static boolean isBlankCard(byte[] header, int offset) {
+        for (int i = offset; i < offset + Constants.HEADER_CARD_SIZE; i++) {
+            if (header[i] != BLANK_SPACE)
+                return false;
+        }
+
+        return true;
+    }
+
+    private HeaderReserve() { }
+}
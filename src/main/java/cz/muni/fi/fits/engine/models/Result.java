@@ -1,15 +1,17 @@
 package cz.muni.fi.fits.engine.models;
 
 /**
- * Class representing result of an operation
+ * Class representing result of an operation, optionally with
+ * {@link ResultDetails} describing the operation performed over file
  *
  * @author Martin Vrábel
- * @version 1.0
+ * @version 1.1
  */
 public final class Result {
 
     private final boolean _success;
     private final String _message;
+    private final ResultDetails _details;
 
     /**
      * Creates new {@link Result} object with success <code>status</code>
@@ -19,8 +21,21 @@ public final class Result {
      * @param message   specified message describing result of operation
      */
     public Result(boolean success, String message) {
+        this(success, message, null);
+    }
+
+    /**
+     * Creates new {@link Result} object with success <code>status</code>,
+     * specified <code>message</code> and <code>details</code> of operation
+     *
+     * @param success   indicates if operation ended successfully or not
+     * @param message   specified message describing result of operation
+     * @param details   details of operation, <code>null</code> when not available
+     */
+    public Result(boolean success, String message, ResultDetails details) {
         this._success = success;
         this._message = message;
+        this._details = details;
     }
 
     public boolean isSuccess() {
@@ -30,4 +45,8 @@ public final class Result {
     public String getMessage() {
         return _message;
     }
+
+    public ResultDetails getDetails() {
+        return _details;
+    }
 }
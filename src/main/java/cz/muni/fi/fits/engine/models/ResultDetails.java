@@ -0,0 +1,76 @@
+package cz.muni.fi.fits.engine.models;
+
+/**
+ * Class holding details of operation performed over single FITS file,
+ * values of edited record and statistics of reading and writing the file
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public final class ResultDetails {
+
+    private final String _keyword;
+    private final String _oldValue;
+    private final String _newValue;
+    private final long _bytesRead;
+    private final long _bytesWritten;
+    private final long _openNanos;
+    private final long _editNanos;
+    private final long _writeNanos;
+
+    /**
+     * Creates new {@link ResultDetails} object
+     *
+     * @param keyword       keyword of edited record, <code>null</code> when operation does not edit single record
+     * @param oldValue      value of record before operation, <code>null</code> when record did not exist
+     * @param newValue      value of record after operation, <code>null</code> when record does not exist
+     * @param bytesRead     number of bytes of headers read from file
+     * @param bytesWritten  number of bytes written to file
+     * @param openNanos     time in nanoseconds spent by reading headers from file
+     * @param editNanos     time in nanoseconds spent by editing headers
+     * @param writeNanos    time in nanoseconds spent by writing headers to file
+     */
+    public ResultDetails(String keyword, String oldValue, String newValue, long bytesRead, long bytesWritten,
+                         long openNanos, long editNanos, long writeNanos) {
+        _keyword = keyword;
+        _oldValue = oldValue;
+        _newValue = newValue;
+        _bytesRead = bytesRead;
+        _bytesWritten = bytesWritten;
+        _openNanos = openNanos;
+        _editNanos = editNanos;
+        _writeNanos = writeNanos;
+    }
+
+    public String getKeyword() {
+        return _keyword;
+    }
+
+    public String getOldValue() {
+        return _oldValue;
+    }
+
+    public String getNewValue() {
+        return _newValue;
+    }
+
+    public long getBytesRead() {
+        return _bytesRead;
+    }
+
+    public long getBytesWritten() {
+        return _bytesWritten;
+    }
+
+    public long getOpenNanos() {
+        return _openNanos;
+    }
+
+    public long getEditNanos() {
+        return _editNanos;
+    }
+
+    public long getWriteNanos() {
+        return _writeNanos;
+    }
+}
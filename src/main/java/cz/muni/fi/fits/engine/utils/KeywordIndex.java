@@ -0,0 +1,397 @@
+package cz.muni.fi.fits.engine.utils;
+
+import java.util.Arrays;
+
+/**
+ * Index of positions of records in header by their keywords. Keywords of up to
+ * {@link #MAX_PACKED_LENGTH} printable ASCII characters are packed into primitive
+ * <code>long</code> keys stored in open addressing table, so a lookup neither
+ * allocates nor compares strings. Every keyword keeps sorted positions of all its
+ * records, so repeated keywords like <code>HISTORY</code> or <code>COMMENT</code>
+ * are tracked too and lookups return the first of them. Longer keywords
+ * (e.g. <code>HIERARCH</code> ones) are not indexed, but their insertions
+ * and removals still shift positions of indexed records.
+ * Keywords can be packed straight from card images, so raw records
+ * are indexed without decoding them into strings.
+ * Index is not thread-safe, it belongs to single edited header
+ *
+ * @author Martin Vrábel
+ * @version 1.2
+ */
+public final class KeywordIndex {
+
+    /**
+     * Position returned for keyword without any record
+     */
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * Maximal length of keyword that can be indexed
+     */
+    public static final int MAX_PACKED_LENGTH = 8;
+
+    /**
+     * Key of keyword that cannot be indexed
+     */
+    public static final long NOT_INDEXED = 0L;
+
+    private static final long EMPTY_KEY = NOT_INDEXED;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final int MIN_CAPACITY = 16;
+    private static final int INITIAL_POSITIONS = 2;
+
+    private long[] _keys;
+    private int[][] _positions;
+    private int[] _counts;
+    private int _shift;
+    private int _keywords;
+    private int _size;
+
+    /**
+     * Creates new empty {@link KeywordIndex}
+     */
+    public KeywordIndex() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * Creates new empty {@link KeywordIndex} with space
+     * for specified number of distinct keywords
+     *
+     * @param expectedKeywords  expected number of distinct keywords
+     */
+    public KeywordIndex(int expectedKeywords) {
+        if (expectedKeywords < 0)
+            throw new IllegalArgumentException("expectedKeywords cannot be negative");
+
+        // table is kept at most half full
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedKeywords * 2)
+            capacity <<= 1;
+
+        allocate(capacity);
+    }
+
+    /**
+     * Determines whether records with specified <code>keyword</code> can be indexed
+     *
+     * @param keyword   keyword to check
+     * @return          <code>true</code> when keyword can be packed
+     *                  into <code>long</code> key, otherwise <code>false</code>
+     */
+    public static boolean isIndexable(String keyword) {
+        return pack(keyword) != EMPTY_KEY;
+    }
+
+    /**
+     * Packs <code>keyword</code> into <code>long</code> key, one character per byte
+     * padded by spaces like in card image
+     *
+     * @param keyword   keyword to pack
+     * @return          packed keyword, {@link #NOT_INDEXED} when keyword
+     *                  is too long or contains characters that are not printable ASCII
+     */
+    public static long pack(String keyword) {
+        if (keyword == null)
+            throw new IllegalArgumentException("keyword is null");
+
+        int length = keyword.length();
+        if (length > MAX_PACKED_LENGTH)
+            return EMPTY_KEY;
+
+        // packed key of padded keyword is never empty
+        long key = 0L;
+        for (int i = 0; i < MAX_PACKED_LENGTH; i++) {
+            char c = i < length ? keyword.charAt(i) : ' ';
+            if (c < ' ' || c > '~')
+                return EMPTY_KEY;
+
+            key = (key << Byte.SIZE) | c;
+        }
+
+        return key;
+    }
+
+    /**
+     * Packs keyword of card image starting at <code>offset</code>
+     * into <code>long</code> key without decoding it
+     *
+     * @param images    serialized card images
+     * @param offset    offset of card image in bytes
+     * @return          packed keyword, {@link #NOT_INDEXED} when keyword
+     *                  contains characters that are not printable ASCII
+     */
+    public static long pack(byte[] images, int offset) {
+        if (images == null)
+            throw new IllegalArgumentException("images is null");
+        if (offset < 0 || offset + MAX_PACKED_LENGTH > images.length)
+            throw new IllegalArgumentException("offset is out of range");
+
+        long key = 0L;
+        for (int i = offset; i < offset + MAX_PACKED_LENGTH; i++) {
+            byte b = images[i];
+            if (b < ' ' || b > '~')
+                return EMPTY_KEY;
+
+            key = (key << Byte.SIZE) | b;
+        }
+
+        return key;
+    }
+
+    /**
+     * Unpacks keyword from <code>key</code> created by one of <code>pack</code> methods
+     *
+     * @param key   packed keyword
+     * @return      keyword without padding spaces
+     */
+    public static String unpack(long key) {
+        if (key == EMPTY_KEY)
+            throw new IllegalArgumentException("key is not packed keyword");
+
+        char[] keyword = new char[MAX_PACKED_LENGTH];
+        int length = 0;
+        for (int i = 0; i < MAX_PACKED_LENGTH; i++) {
+            keyword[i] = (char) ((key >>> ((MAX_PACKED_LENGTH - 1 - i) * Byte.SIZE)) & 0xFF);
+            if (keyword[i] != ' ')
+                length = i + 1;
+        }
+
+        return new String(keyword, 0, length);
+    }
+
+    /**
+     * Gets number of records in indexed header
+     *
+     * @return  number of records including the ones with not indexed keywords
+     */
+    public int size() {
+        return _size;
+    }
+
+    /**
+     * Appends record with specified <code>keyword</code> after the last record
+     *
+     * @param keyword   keyword of appended record
+     */
+    public void append(String keyword) {
+        insert(keyword, _size);
+    }
+
+    /**
+     * Inserts record with specified <code>keyword</code> at <code>position</code>,
+     * records from this position onwards are moved by one
+     *
+     * @param keyword   keyword of inserted record
+     * @param position  zero-based position of inserted record
+     */
+    public void insert(String keyword, int position) {
+        insert(pack(keyword), position);
+    }
+
+    /**
+     * Inserts record with keyword packed into <code>key</code> at <code>position</code>,
+     * records from this position onwards are moved by one
+     *
+     * @param key       packed keyword of inserted record,
+     *                  {@link #NOT_INDEXED} for record that is not indexed
+     * @param position  zero-based position of inserted record
+     */
+    public void insert(long key, int position) {
+        if (position < 0 || position > _size)
+            throw new IllegalArgumentException("position is out of range");
+
+        shiftPositions(position, 1);
+        _size++;
+
+        if (key == EMPTY_KEY)
+            return;
+
+        int slot = findSlot(key);
+        if (_keys[slot] == EMPTY_KEY) {
+            _keys[slot] = key;
+            _positions[slot] = new int[INITIAL_POSITIONS];
+            _keywords++;
+        }
+
+        // positions of keyword are kept sorted
+        int[] positions = _positions[slot];
+        int count = _counts[slot];
+        int insertion = -Arrays.binarySearch(positions, 0, count, position) - 1;
+        if (count == positions.length) {
+            positions = Arrays.copyOf(positions, positions.length * 2);
+            _positions[slot] = positions;
+        }
+        System.arraycopy(positions, insertion, positions, insertion + 1, count - insertion);
+        positions[insertion] = position;
+        _counts[slot] = count + 1;
+
+        if (_keywords * 2 > _keys.length)
+            rehash(_keys.length * 2);
+    }
+
+    /**
+     * Removes record with specified <code>keyword</code> from <code>position</code>,
+     * records after this position are moved back by one
+     *
+     * @param keyword   keyword of removed record
+     * @param position  zero-based position of removed record
+     */
+    public void remove(String keyword, int position) {
+        remove(pack(keyword), position);
+    }
+
+    /**
+     * Removes record with keyword packed into <code>key</code> from <code>position</code>,
+     * records after this position are moved back by one
+     *
+     * @param key       packed keyword of removed record,
+     *                  {@link #NOT_INDEXED} for record that is not indexed
+     * @param position  zero-based position of removed record
+     */
+    public void remove(long key, int position) {
+        if (position < 0 || position >= _size)
+            throw new IllegalArgumentException("position is out of range");
+
+        if (key != EMPTY_KEY) {
+            int slot = findSlot(key);
+            int count = _counts[slot];
+            int removal = _keys[slot] == EMPTY_KEY
+                    ? -1
+                    : Arrays.binarySearch(_positions[slot], 0, count, position);
+            if (removal < 0)
+                throw new IllegalArgumentException("Record is not indexed at position " + position);
+
+            // keyword stays in table with no positions, so probing sequences are not broken
+            int[] positions = _positions[slot];
+            System.arraycopy(positions, removal + 1, positions, removal, count - removal - 1);
+            _counts[slot] = count - 1;
+        }
+
+        shiftPositions(position + 1, -1);
+        _size--;
+    }
+
+    /**
+     * Gets position of the first record with specified <code>keyword</code>
+     *
+     * @param keyword   keyword of record to find
+     * @return          zero-based position of the first record with keyword,
+     *                  {@link #NOT_FOUND} when there is no such record
+     *                  or keyword cannot be indexed
+     */
+    public int first(String keyword) {
+        return first(pack(keyword));
+    }
+
+    /**
+     * Gets position of the first record with keyword packed into <code>key</code>
+     *
+     * @param key   packed keyword of record to find
+     * @return      zero-based position of the first record with keyword,
+     *              {@link #NOT_FOUND} when there is no such record
+     */
+    public int first(long key) {
+        int slot = slotOf(key);
+        if (slot < 0 || _counts[slot] == 0)
+            return NOT_FOUND;
+
+        return _positions[slot][0];
+    }
+
+    /**
+     * Gets number of records with specified <code>keyword</code>
+     *
+     * @param keyword   keyword of records to count
+     * @return          number of records with keyword, <code>0</code>
+     *                  when keyword cannot be indexed
+     */
+    public int count(String keyword) {
+        return count(pack(keyword));
+    }
+
+    /**
+     * Gets number of records with keyword packed into <code>key</code>
+     *
+     * @param key   packed keyword of records to count
+     * @return      number of records with keyword
+     */
+    public int count(long key) {
+        int slot = slotOf(key);
+        return slot < 0 ? 0 : _counts[slot];
+    }
+
+    /**
+     * Determines whether header contains record with specified <code>keyword</code>
+     *
+     * @param keyword   keyword of record to find
+     * @return          <code>true</code> when there is at least one record
+     *                  with keyword, otherwise <code>false</code>
+     */
+    public boolean contains(String keyword) {
+        return count(keyword) > 0;
+    }
+
+    private int slotOf(long key) {
+        if (key == EMPTY_KEY)
+            return -1;
+
+        int slot = findSlot(key);
+        return _keys[slot] == EMPTY_KEY ? -1 : slot;
+    }
+
+    private int findSlot(long key) {
+        // linear probing ends in slot with the key or in the first empty slot
+        int mask = _keys.length - 1;
+        int slot = (int) ((key * HASH_MULTIPLIER) >>> _shift);
+        while (_keys[slot] != EMPTY_KEY && _keys[slot] != key)
+            slot = (slot + 1) & mask;
+
+        return slot;
+    }
+
+    private void shiftPositions(int from, int delta) {
+        if (from >= _size)
+            return;
+
+        for (int slot = 0; slot < _keys.length; slot++) {
+            int count = _counts[slot];
+            if (count == 0)
+                continue;
+
+            int[] positions = _positions[slot];
+            if (positions[count - 1] < from)
+                continue;
+
+            int start = Arrays.binarySearch(positions, 0, count, from);
+            if (start < 0)
+                start = -start - 1;
+            for (int i = start; i < count; i++)
+                positions[i] += delta;
+        }
+    }
+
+    private void allocate(int capacity) {
+        _keys = new long[capacity];
+        _positions = new int[capacity][];
+        _counts = new int[capacity];
+        _shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private void rehash(int capacity) {
+        long[] keys = _keys;
+        int[][] positions = _positions;
+        int[] counts = _counts;
+
+        allocate(capacity);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == EMPTY_KEY)
+                continue;
+
+            int slot = findSlot(keys[i]);
+            _keys[slot] = keys[i];
+            _positions[slot] = positions[i];
+            _counts[slot] = counts[i];
+        }
+    }
+}
@@ -7,7 +7,7 @@ import java.util.Set;
  * Helper class for working with mandatory FITS header keywords
  *
  * @author Martin Vrábel
- * @version 1.0
+ * @version 1.1
  */
 public class MandatoryFITSKeywords {
 
@@ -19,6 +19,10 @@ public class MandatoryFITSKeywords {
         MANDATORY_KEYWORDS_REGEX.add("^BITPIX$");
         MANDATORY_KEYWORDS_REGEX.add("^EXTEND$");
         MANDATORY_KEYWORDS_REGEX.add("^XTENSION$");
+        // keywords defining size of data unit of extension HDU units
+        MANDATORY_KEYWORDS_REGEX.add("^PCOUNT$");
+        MANDATORY_KEYWORDS_REGEX.add("^GCOUNT$");
+        MANDATORY_KEYWORDS_REGEX.add("^TFIELDS$");
     }
 
     /**
@@ -0,0 +1,106 @@
+package cz.muni.fi.fits.execution;
+
+import cz.muni.fi.fits.engine.io.FileSynchronizer;
+import cz.muni.fi.fits.engine.models.Result;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.BiConsumer;
+
+/**
+ * Consumer of operation results which holds successful results of files
+ * until changes of the files are synchronized by {@link FileSynchronizer}.
+ * In group mode, file is reported as edited only after its batch is synchronized
+ * and files of failed batch are reported as failed. Results are passed
+ * to wrapped consumer in order in which they were accepted
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class CommittedResultConsumer implements BiConsumer<File, Result> {
+
+    private final FileSynchronizer _fileSynchronizer;
+    private final BiConsumer<File, Result> _resultConsumer;
+    private final Deque<FileResult> _heldResults = new ArrayDeque<>();
+
+    /**
+     * Creates new {@link CommittedResultConsumer} object
+     *
+     * @param fileSynchronizer  synchronizer of files changed by operation
+     * @param resultConsumer    consumer to which results are passed
+     */
+    public CommittedResultConsumer(FileSynchronizer fileSynchronizer, BiConsumer<File, Result> resultConsumer) {
+        if (fileSynchronizer == null)
+            throw new IllegalArgumentException("fileSynchronizer is null");
+        if (resultConsumer == null)
+            throw new IllegalArgumentException("resultConsumer is null");
+
+        _fileSynchronizer = fileSynchronizer;
+        _resultConsumer = resultConsumer;
+    }
+
+    /**
+     * Passes result of <code>fitsFile</code> to wrapped consumer, or holds it
+     * while changes of the file wait for synchronization of their batch
+     *
+     * @param fitsFile  processed file
+     * @param result    result of operation over the file
+     */
+    @Override
+    public void accept(File fitsFile, Result result) {
+        if (fitsFile == null)
+            throw new IllegalArgumentException("fitsFile is null");
+
+        // files are synchronized immediately in other modes
+        if (_fileSynchronizer.getMode() != FileSynchronizer.Mode.GROUP) {
+            _resultConsumer.accept(fitsFile, result);
+            return;
+        }
+
+        _heldResults.add(new FileResult(fitsFile, result));
+        passCommitted();
+    }
+
+    /**
+     * Passes all held results to wrapped consumer, must be called
+     * after the last batch of files is committed
+     */
+    public void flush() {
+        while (!_heldResults.isEmpty())
+            pass(_heldResults.poll());
+    }
+
+    private void passCommitted() {
+        // following results wait for the first held one, so order is kept
+        while (!_heldResults.isEmpty() && !isHeld(_heldResults.peek()))
+            pass(_heldResults.poll());
+    }
+
+    private boolean isHeld(FileResult fileResult) {
+        return fileResult._result != null && fileResult._result.isSuccess()
+                && _fileSynchronizer.isPending(fileResult._fitsFile.toPath());
+    }
+
+    private void pass(FileResult fileResult) {
+        Result result = fileResult._result;
+        IOException failure = _fileSynchronizer.takeFailure(fileResult._fitsFile.toPath());
+
+        // failure of file that triggered commit of its batch is already in its result
+        if (failure != null && result != null && result.isSuccess())
+            result = new Result(false, "Changes were not written: " + failure.getMessage());
+
+        _resultConsumer.accept(fileResult._fitsFile, result);
+    }
+
+    private static final class FileResult {
+        private final File _fitsFile;
+        private final Result _result;
+
+        FileResult(File fitsFile, Result result) {
+            _fitsFile = fitsFile;
+            _result = result;
+        }
+    }
+}
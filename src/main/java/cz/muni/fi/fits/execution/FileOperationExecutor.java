@@ -0,0 +1,244 @@
+package cz.muni.fi.fits.execution;
+
+import cz.muni.fi.fits.engine.models.Result;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Class executing editing operation over multiple FITS files
+ * with a pool of worker threads. Results are passed to consumer always
+ * from the calling thread, either in order of input files
+ * or in order in which operations were completed. Results are recorded
+ * by {@link PerformanceRecorder} in worker threads that produced them
+ *
+ * @author Martin Vrábel
+ * @version 1.2
+ */
+public class FileOperationExecutor {
+
+    // number of files submitted to worker thread ahead of their processing
+    private static final int FILES_PER_THREAD = 4;
+
+    private final int _threads;
+    private final Order _order;
+    private final PerformanceRecorder _performanceRecorder;
+
+    /**
+     * Creates new {@link FileOperationExecutor} object that does not record performance
+     *
+     * @param threads   number of worker threads, <code>1</code> means
+     *                  files are processed sequentially in calling thread
+     * @param order     order in which results are passed to consumer
+     */
+    public FileOperationExecutor(int threads, Order order) {
+        this(threads, order, new NoopPerformanceRecorder());
+    }
+
+    /**
+     * Creates new {@link FileOperationExecutor} object
+     *
+     * @param threads               number of worker threads, <code>1</code> means
+     *                              files are processed sequentially in calling thread
+     * @param order                 order in which results are passed to consumer
+     * @param performanceRecorder   recorder of results of processed files
+     */
+    public FileOperationExecutor(int threads, Order order, PerformanceRecorder performanceRecorder) {
+        if (threads < 1)
+            throw new IllegalArgumentException("threads must be positive number");
+        if (order == null)
+            throw new IllegalArgumentException("order is null");
+        if (performanceRecorder == null)
+            throw new IllegalArgumentException("performanceRecorder is null");
+
+        _threads = threads;
+        _order = order;
+        _performanceRecorder = performanceRecorder;
+    }
+
+    /**
+     * Executes <code>operation</code> for every file in <code>fitsFiles</code>
+     * and passes its result to <code>resultConsumer</code>. Files are taken
+     * from iterator of <code>fitsFiles</code> only as fast as worker threads
+     * process them, so files can be discovered while the first ones are edited.
+     * Iterator is closed at the end when it implements {@link AutoCloseable}
+     *
+     * @param fitsFiles         files to process
+     * @param operation         operation to execute for every file, must be safe
+     *                          to call from multiple threads at once
+     * @param resultConsumer    consumer of operation results, is always called
+     *                          from the thread that called this method
+     */
+    public void execute(Iterable<File> fitsFiles, Function<File, Result> operation, BiConsumer<File, Result> resultConsumer) {
+        if (fitsFiles == null)
+            throw new IllegalArgumentException("fitsFiles is null");
+        if (operation == null)
+            throw new IllegalArgumentException("operation is null");
+        if (resultConsumer == null)
+            throw new IllegalArgumentException("resultConsumer is null");
+
+        Iterator<File> files = fitsFiles.iterator();
+        try {
+            if (!files.hasNext())
+                return;
+            File firstFile = files.next();
+
+            // no need to start worker threads
+            if (_threads == 1 || !files.hasNext()) {
+                resultConsumer.accept(firstFile, executeSafely(operation, firstFile));
+                while (files.hasNext()) {
+                    File fitsFile = files.next();
+                    resultConsumer.accept(fitsFile, executeSafely(operation, fitsFile));
+                }
+                return;
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(_threads);
+            try {
+                if (_order == Order.INPUT)
+                    executeInInputOrder(executor, firstFile, files, operation, resultConsumer);
+                else
+                    executeInCompletionOrder(executor, firstFile, files, operation, resultConsumer);
+            } catch (InterruptedException iEx) {
+                Thread.currentThread().interrupt();
+            } finally {
+                executor.shutdownNow();
+            }
+        } finally {
+            close(files);
+        }
+    }
+
+    public int getThreads() {
+        return _threads;
+    }
+
+    public Order getOrder() {
+        return _order;
+    }
+
+    public PerformanceRecorder getPerformanceRecorder() {
+        return _performanceRecorder;
+    }
+
+    private void executeInInputOrder(ExecutorService executor, File firstFile, Iterator<File> files,
+                                     Function<File, Result> operation, BiConsumer<File, Result> resultConsumer)
+            throws InterruptedException {
+        int window = _threads * FILES_PER_THREAD;
+        Deque<FileResult> pendingResults = new ArrayDeque<>(window);
+        pendingResults.add(new FileResult(firstFile, executor.submit(() -> executeSafely(operation, firstFile))));
+
+        while (files.hasNext()) {
+            // results of preceding files are written as soon as they are available
+            while (!pendingResults.isEmpty() && pendingResults.peek()._result.isDone()) {
+                FileResult result = pendingResults.poll();
+                resultConsumer.accept(result._fitsFile, getResult(result._result));
+            }
+
+            // next files are not taken until some of submitted files is processed
+            if (pendingResults.size() >= window) {
+                FileResult result = pendingResults.poll();
+                resultConsumer.accept(result._fitsFile, getResult(result._result));
+            }
+
+            File fitsFile = files.next();
+            pendingResults.add(new FileResult(fitsFile, executor.submit(() -> executeSafely(operation, fitsFile))));
+        }
+
+        for (FileResult result : pendingResults)
+            resultConsumer.accept(result._fitsFile, getResult(result._result));
+    }
+
+    private void executeInCompletionOrder(ExecutorService executor, File firstFile, Iterator<File> files,
+                                          Function<File, Result> operation, BiConsumer<File, Result> resultConsumer)
+            throws InterruptedException {
+        int window = _threads * FILES_PER_THREAD;
+        CompletionService<FileResult> completionService = new ExecutorCompletionService<>(executor);
+        submit(completionService, operation, firstFile);
+        int pendingResults = 1;
+
+        while (files.hasNext()) {
+            // results are written as soon as they are available
+            Future<FileResult> completed;
+            while ((completed = completionService.poll()) != null) {
+                accept(resultConsumer, getResult(completed));
+                pendingResults--;
+            }
+
+            // next files are not taken until some of submitted files is processed
+            if (pendingResults >= window) {
+                accept(resultConsumer, getResult(completionService.take()));
+                pendingResults--;
+            }
+
+            submit(completionService, operation, files.next());
+            pendingResults++;
+        }
+
+        for (; pendingResults > 0; pendingResults--)
+            accept(resultConsumer, getResult(completionService.take()));
+    }
+
+    private void submit(CompletionService<FileResult> completionService, Function<File, Result> operation, File fitsFile) {
+        completionService.submit(() -> new FileResult(fitsFile, CompletableFuture.completedFuture(executeSafely(operation, fitsFile))));
+    }
+
+    private static void accept(BiConsumer<File, Result> resultConsumer, FileResult result) throws InterruptedException {
+        resultConsumer.accept(result._fitsFile, getResult(result._result));
+    }
+
+    private static void close(Iterator<File> files) {
+        if (files instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) files).close();
+            } catch (Exception ex) {
+                // files are already processed
+            }
+        }
+    }
+
+    private Result executeSafely(Function<File, Result> operation, File fitsFile) {
+        Result result;
+        try {
+            result = operation.apply(fitsFile);
+        } catch (RuntimeException rEx) {
+            result = new Result(false, "Unexpected error in editing engine: " + rEx.getMessage());
+        }
+
+        if (_performanceRecorder.isEnabled() && result != null)
+            _performanceRecorder.recordResult(result);
+        return result;
+    }
+
+    private static <T> T getResult(Future<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException eEx) {
+            // operation exceptions are already converted to results
+            throw new IllegalStateException(eEx.getCause());
+        }
+    }
+
+    private static final class FileResult {
+        private final File _fitsFile;
+        private final Future<Result> _result;
+
+        FileResult(File fitsFile, Future<Result> result) {
+            _fitsFile = fitsFile;
+            _result = result;
+        }
+    }
+
+    /**
+     * Enum with orders in which results are passed to consumer
+     */
+    public enum Order {
+        INPUT,
+        COMPLETION
+    }
+}
@@ -0,0 +1,390 @@
+package cz.muni.fi.fits.execution;
+
+import cz.muni.fi.fits.common.WatchConfiguration;
+import cz.muni.fi.fits.engine.io.FileSynchronizer;
+import cz.muni.fi.fits.engine.models.Result;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Class watching directory for new FITS files and executing editing operation
+ * over every file once it is fully written. File is fully written when its marker
+ * file with configured suffix exists or, when marker is not configured, when size
+ * and modification time of file do not change for configured time. Fully written
+ * files are passed to worker threads through bounded queue, watch events are not
+ * accepted while the queue is full, so events lost by operating system meanwhile
+ * are found by periodic rescan of directory. Files written by editing operation
+ * itself are not processed again unless they are changed by some other program.
+ * Results are passed to consumer always from the thread that watches directory,
+ * like in {@link FileOperationExecutor}
+ *
+ * @author Martin Vrábel
+ * @version 1.1
+ */
+public class FolderWatcher implements Closeable {
+
+    private static final long POLL_INTERVAL_MILLIS = 10;
+
+    private final WatchConfiguration _configuration;
+    private final int _threads;
+    private final PerformanceRecorder _performanceRecorder;
+    private final WatchService _watchService;
+    private volatile boolean _closed;
+
+    /**
+     * Creates new {@link FolderWatcher} object
+     *
+     * @param configuration         configuration of watching
+     * @param threads               number of worker threads executing operation
+     * @param performanceRecorder   recorder of results of processed files
+     * @throws IOException when watch service cannot be created
+     */
+    public FolderWatcher(WatchConfiguration configuration, int threads, PerformanceRecorder performanceRecorder)
+            throws IOException {
+        if (configuration == null)
+            throw new IllegalArgumentException("configuration is null");
+        if (threads < 1)
+            throw new IllegalArgumentException("threads must be positive number");
+        if (performanceRecorder == null)
+            throw new IllegalArgumentException("performanceRecorder is null");
+
+        _configuration = configuration;
+        _threads = threads;
+        _performanceRecorder = performanceRecorder;
+        _watchService = FileSystems.getDefault().newWatchService();
+    }
+
+    /**
+     * Watches <code>directory</code> until watcher is closed and executes <code>operation</code>
+     * for every fully written file, files already present in directory are processed as well
+     *
+     * @param directory         directory to watch
+     * @param operation         operation to execute for every file, must be safe
+     *                          to call from multiple threads at once
+     * @param resultConsumer    consumer of operation results, is always called
+     *                          from the thread that called this method
+     * @param batchFinisher     action executed from the thread that called this method
+     *                          after results of processed files are passed to consumer
+     * @throws IOException when directory cannot be watched
+     */
+    public void watch(Path directory, Function<File, Result> operation,
+                      BiConsumer<File, Result> resultConsumer, Runnable batchFinisher) throws IOException {
+        if (directory == null)
+            throw new IllegalArgumentException("directory is null");
+        if (operation == null)
+            throw new IllegalArgumentException("operation is null");
+        if (resultConsumer == null)
+            throw new IllegalArgumentException("resultConsumer is null");
+        if (batchFinisher == null)
+            throw new IllegalArgumentException("batchFinisher is null");
+        if (!Files.isDirectory(directory))
+            throw new IOException("Watched path '" + directory + "' is not directory");
+
+        directory.register(_watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+
+        WatchState state = new WatchState(directory);
+        BlockingQueue<File> workQueue = new ArrayBlockingQueue<>(_configuration.getQueueSize());
+        BlockingQueue<WatchResult> results = new LinkedBlockingQueue<>();
+        ExecutorService workers = Executors.newFixedThreadPool(_threads);
+        for (int i = 0; i < _threads; i++)
+            workers.execute(() -> processQueuedFiles(workQueue, results, operation));
+
+        try {
+            long nextRescan = 0;
+            while (!_closed) {
+                long now = System.currentTimeMillis();
+
+                // rescan finds files already present in directory and files of lost events
+                if (now >= nextRescan || state._rescanNeeded) {
+                    rescan(state, now);
+                    nextRescan = now + _configuration.getRescanMillis();
+                }
+
+                // fully written files wait in candidates while queue is full
+                for (Iterator<Map.Entry<Path, Candidate>> iterator = state._candidates.entrySet().iterator(); iterator.hasNext(); ) {
+                    Map.Entry<Path, Candidate> entry = iterator.next();
+                    Boolean written = isFullyWritten(entry.getKey(), entry.getValue(), now);
+                    if (written == null) {
+                        iterator.remove();
+                    } else if (written) {
+                        if (!workQueue.offer(entry.getKey().toFile()))
+                            break;
+                        state._inProgress.add(entry.getKey());
+                        iterator.remove();
+                    }
+                }
+
+                if (passResults(state, results, resultConsumer))
+                    batchFinisher.run();
+
+                // new events are accepted only when workers keep up with queued files
+                if (workQueue.remainingCapacity() > 0)
+                    pollEvents(state, now);
+                else
+                    Thread.sleep(POLL_INTERVAL_MILLIS);
+            }
+        } catch (ClosedWatchServiceException cwsEx) {
+            // watcher was closed while waiting for events
+        } catch (InterruptedException iEx) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // files waiting in queue are processed by next run
+            workQueue.clear();
+            workers.shutdown();
+            try {
+                workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException iEx) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (passResults(state, results, resultConsumer))
+                batchFinisher.run();
+        }
+    }
+
+    /**
+     * Stops watching, operations being executed are finished
+     *
+     * @throws IOException when watch service cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        _closed = true;
+        _watchService.close();
+    }
+
+    private void processQueuedFiles(BlockingQueue<File> workQueue, BlockingQueue<WatchResult> results,
+                                    Function<File, Result> operation) {
+        try {
+            while (!_closed) {
+                File fitsFile = workQueue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (fitsFile == null)
+                    continue;
+
+                Result result;
+                try {
+                    result = operation.apply(fitsFile);
+                } catch (RuntimeException rEx) {
+                    result = new Result(false, "Unexpected error in editing engine: " + rEx.getMessage());
+                }
+
+                if (_performanceRecorder.isEnabled() && result != null)
+                    _performanceRecorder.recordResult(result);
+
+                // state after editing distinguishes own changes from changes of other programs
+                results.put(new WatchResult(fitsFile, result, readState(fitsFile.toPath())));
+            }
+        } catch (InterruptedException iEx) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void pollEvents(WatchState state, long now) throws IOException, InterruptedException {
+        // wait longer when there is nothing to check
+        long timeout = state._candidates.isEmpty() && state._inProgress.isEmpty()
+                ? Math.min(_configuration.getRescanMillis(), 100 * POLL_INTERVAL_MILLIS)
+                : POLL_INTERVAL_MILLIS;
+
+        WatchKey key = _watchService.poll(timeout, TimeUnit.MILLISECONDS);
+        while (key != null) {
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    state._rescanNeeded = true;
+                    continue;
+                }
+
+                Path file = state._directory.resolve((Path) event.context());
+                if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                    state._candidates.remove(file);
+                    state._processed.remove(file);
+                } else {
+                    observe(state, file, now);
+                }
+            }
+
+            if (!key.reset())
+                throw new IOException("Watched directory '" + state._directory + "' is no longer accessible");
+            key = _watchService.poll();
+        }
+    }
+
+    private void rescan(WatchState state, long now) {
+        state._rescanNeeded = false;
+
+        Set<Path> present = new HashSet<>();
+        try (Stream<Path> files = Files.list(state._directory)) {
+            files.forEach(file -> {
+                present.add(file);
+                observe(state, file, now);
+            });
+        } catch (IOException ioEx) {
+            // directory is rescanned again later
+            state._rescanNeeded = true;
+            return;
+        }
+
+        // forget files deleted while events were not accepted
+        state._processed.keySet().retainAll(present);
+        state._candidates.keySet().retainAll(present);
+    }
+
+    private void observe(WatchState state, Path file, long now) {
+        String markerSuffix = _configuration.getMarkerSuffix();
+        String fileName = file.getFileName().toString();
+        // replacement files are created next to edited files when they are replaced
+        if (FileSynchronizer.isReplacementFile(file))
+            return;
+
+        // marker announces that file next to it is fully written
+        if (markerSuffix != null && fileName.endsWith(markerSuffix)) {
+            file = file.resolveSibling(fileName.substring(0, fileName.length() - markerSuffix.length()));
+            if (file.getFileName().toString().isEmpty())
+                return;
+        }
+
+        if (state._inProgress.contains(file) || state._candidates.containsKey(file))
+            return;
+
+        FileState fileState = readState(file);
+        if (fileState == null || fileState.equals(state._processed.get(file)))
+            return;
+
+        state._candidates.put(file, new Candidate(fileState, now));
+    }
+
+    private Boolean isFullyWritten(Path file, Candidate candidate, long now) {
+        FileState fileState = readState(file);
+        if (fileState == null)
+            return null;
+
+        String markerSuffix = _configuration.getMarkerSuffix();
+        if (markerSuffix != null)
+            return Files.exists(file.resolveSibling(file.getFileName() + markerSuffix));
+
+        if (!fileState.equals(candidate._state)) {
+            // file is still being written
+            candidate._state = fileState;
+            candidate._stableSince = now;
+            return false;
+        }
+
+        return now - candidate._stableSince >= _configuration.getStabilityMillis();
+    }
+
+    private static boolean passResults(WatchState state, BlockingQueue<WatchResult> results,
+                                       BiConsumer<File, Result> resultConsumer) {
+        boolean passed = false;
+        WatchResult result;
+        while ((result = results.poll()) != null) {
+            Path file = result._fitsFile.toPath();
+            state._inProgress.remove(file);
+            if (result._state != null)
+                state._processed.put(file, result._state);
+
+            resultConsumer.accept(result._fitsFile, result._result);
+            passed = true;
+        }
+
+        return passed;
+    }
+
+    private static FileState readState(Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!attributes.isRegularFile())
+                return null;
+
+            return new FileState(attributes.size(), attributes.lastModifiedTime().toMillis());
+        } catch (IOException ioEx) {
+            // file was deleted or cannot be read yet
+            return null;
+        }
+    }
+
+    // state of single watch, accessed only by the watching thread
+    private static final class WatchState {
+        private final Path _directory;
+        private final Map<Path, Candidate> _candidates = new HashMap<>();
+        private final Set<Path> _inProgress = new HashSet<>();
+        private final Map<Path, FileState> _processed = new HashMap<>();
+        private boolean _rescanNeeded;
+
+        WatchState(Path directory) {
+            _directory = directory;
+        }
+    }
+
+    private static final class Candidate {
+        private FileState _state;
+        private long _stableSince;
+
+        Candidate(FileState state, long stableSince) {
+            _state = state;
+            _stableSince = stableSince;
+        }
+    }
+
+    private static final class FileState {
+        private final long _size;
+        private final long _lastModified;
+
+        FileState(long size, long lastModified) {
+            _size = size;
+            _lastModified = lastModified;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof FileState)) return false;
+
+            FileState other = (FileState) o;
+            return _size == other._size && _lastModified == other._lastModified;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(_size) + Long.hashCode(_lastModified);
+        }
+    }
+
+    private static final class WatchResult {
+        private final File _fitsFile;
+        private final Result _result;
+        private final FileState _state;
+
+        WatchResult(File fitsFile, Result result, FileState state) {
+            _fitsFile = fitsFile;
+            _result = result;
+            _state = state;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package cz.muni.fi.fits.execution;
+
+import cz.muni.fi.fits.engine.models.Result;
+import cz.muni.fi.fits.engine.models.ResultDetails;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Performance recorder class implementing {@link PerformanceRecorder}
+ * interface that records durations of phases to {@link LatencyHistogram}
+ * objects. Every thread records to its own histograms without any
+ * synchronization, histograms of all threads are merged when summary
+ * is created after all files are processed
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public final class HistogramPerformanceRecorder implements PerformanceRecorder {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
+    private final Queue<ThreadRecords> _allRecords = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<ThreadRecords> _threadRecords = ThreadLocal.withInitial(() -> {
+        ThreadRecords records = new ThreadRecords();
+        _allRecords.add(records);
+        return records;
+    });
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void recordPhase(Phase phase, long nanos) {
+        if (phase == null)
+            throw new IllegalArgumentException("phase is null");
+
+        _threadRecords.get()._histograms[phase.ordinal()].record(nanos);
+    }
+
+    @Override
+    public void recordResult(Result result) {
+        if (result == null)
+            throw new IllegalArgumentException("result is null");
+
+        ThreadRecords records = _threadRecords.get();
+        records._files++;
+        if (!result.isSuccess())
+            records._failedFiles++;
+
+        // results of files that were not opened carry no details
+        ResultDetails details = result.getDetails();
+        if (details == null)
+            return;
+
+        records._bytesRead += details.getBytesRead();
+        records._bytesWritten += details.getBytesWritten();
+        records._histograms[Phase.OPEN.ordinal()].record(details.getOpenNanos());
+        records._histograms[Phase.EDIT.ordinal()].record(details.getEditNanos());
+        records._histograms[Phase.WRITE.ordinal()].record(details.getWriteNanos());
+        records._histograms[Phase.FILE.ordinal()].record(
+                details.getOpenNanos() + details.getEditNanos() + details.getWriteNanos());
+    }
+
+    @Override
+    public List<String> summarize(long elapsedNanos) {
+        // merge records of all threads
+        ThreadRecords total = new ThreadRecords();
+        for (ThreadRecords records : _allRecords) {
+            total._files += records._files;
+            total._failedFiles += records._failedFiles;
+            total._bytesRead += records._bytesRead;
+            total._bytesWritten += records._bytesWritten;
+            for (int i = 0; i < total._histograms.length; i++)
+                total._histograms[i].merge(records._histograms[i]);
+        }
+
+        double seconds = elapsedNanos / NANOS_PER_SECOND;
+        double filesPerSecond = seconds > 0 ? total._files / seconds : 0;
+
+        List<String> summary = new ArrayList<>();
+        summary.add(String.format(Locale.ROOT,
+                "Performance: %d files (%d failed) in %.3f s, %.1f files/s, %.2f MB read, %.2f MB written",
+                total._files, total._failedFiles, seconds, filesPerSecond,
+                total._bytesRead / BYTES_PER_MEGABYTE, total._bytesWritten / BYTES_PER_MEGABYTE));
+
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram histogram = total._histograms[phase.ordinal()];
+            if (histogram.getCount() == 0)
+                continue;
+
+            summary.add(String.format(Locale.ROOT,
+                    "Phase %s: %d times, p50 %.3f ms, p95 %.3f ms, p99 %.3f ms, max %.3f ms, total %.3f ms",
+                    phase, histogram.getCount(),
+                    histogram.getPercentile(50) / NANOS_PER_MILLI,
+                    histogram.getPercentile(95) / NANOS_PER_MILLI,
+                    histogram.getPercentile(99) / NANOS_PER_MILLI,
+                    histogram.getMax() / NANOS_PER_MILLI,
+                    histogram.getSum() / NANOS_PER_MILLI));
+        }
+
+        return summary;
+    }
+
+    private static final class ThreadRecords {
+
+        private final LatencyHistogram[] _histograms = new LatencyHistogram[Phase.values().length];
+        private long _files;
+        private long _failedFiles;
+        private long _bytesRead;
+        private long _bytesWritten;
+
+        ThreadRecords() {
+            for (int i = 0; i < _histograms.length; i++)
+                _histograms[i] = new LatencyHistogram();
+        }
+    }
+}
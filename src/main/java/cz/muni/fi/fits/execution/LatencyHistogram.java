@@ -0,0 +1,115 @@
+package cz.muni.fi.fits.execution;
+
+/**
+ * Class counting recorded durations in buckets of exponentially growing width.
+ * Every power of two is split into {@link #SUB_BUCKETS} buckets, so percentiles
+ * are computed with relative error below 7 percent from fixed amount of memory.
+ * Histogram is not thread-safe, every thread records to its own histogram
+ * and histograms are merged afterwards
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Number of buckets every power of two is split into
+     */
+    public static final int SUB_BUCKETS = 16;
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    private final long[] _counts = new long[Long.SIZE * SUB_BUCKETS];
+    private long _count;
+    private long _sum;
+    private long _max;
+
+    /**
+     * Records single <code>value</code>, negative values are recorded as <code>0</code>
+     *
+     * @param value recorded value
+     */
+    public void record(long value) {
+        if (value < 0)
+            value = 0;
+
+        _counts[bucketIndex(value)]++;
+        _count++;
+        _sum += value;
+        if (value > _max)
+            _max = value;
+    }
+
+    /**
+     * Adds all values recorded in <code>other</code> histogram to this histogram
+     *
+     * @param other histogram to merge
+     */
+    public void merge(LatencyHistogram other) {
+        if (other == null)
+            throw new IllegalArgumentException("other is null");
+
+        for (int i = 0; i < _counts.length; i++)
+            _counts[i] += other._counts[i];
+        _count += other._count;
+        _sum += other._sum;
+        _max = Math.max(_max, other._max);
+    }
+
+    public long getCount() {
+        return _count;
+    }
+
+    public long getSum() {
+        return _sum;
+    }
+
+    public long getMax() {
+        return _max;
+    }
+
+    /**
+     * Gets value below or equal to which lie specified <code>percentile</code>
+     * of recorded values, value is upper bound of the bucket containing it
+     *
+     * @param percentile    percentile in range from <code>0</code> to <code>100</code>
+     * @return              value at percentile, <code>0</code> when no value was recorded
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("percentile is out of range");
+        if (_count == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * _count));
+        long seen = 0;
+        for (int i = 0; i < _counts.length; i++) {
+            seen += _counts[i];
+            if (seen >= rank)
+                return Math.min(bucketUpperBound(i), _max);
+        }
+
+        return _max;
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+
+        // position of the highest bit selects power of two, following bits select sub-bucket
+        int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long bucketUpperBound(int index) {
+        int shift = index / SUB_BUCKETS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        if (shift < 0)
+            return subBucket;
+
+        long lowerBound = (long) (SUB_BUCKETS + subBucket) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
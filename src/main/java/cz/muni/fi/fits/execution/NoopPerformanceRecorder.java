@@ -0,0 +1,35 @@
+package cz.muni.fi.fits.execution;
+
+import cz.muni.fi.fits.engine.models.Result;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Performance recorder class implementing {@link PerformanceRecorder}
+ * interface that ignores all recorded values, used when summary
+ * of performance is turned off
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public final class NoopPerformanceRecorder implements PerformanceRecorder {
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public void recordPhase(Phase phase, long nanos) {
+    }
+
+    @Override
+    public void recordResult(Result result) {
+    }
+
+    @Override
+    public List<String> summarize(long elapsedNanos) {
+        return Collections.emptyList();
+    }
+}
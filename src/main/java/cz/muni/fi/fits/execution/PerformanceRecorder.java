@@ -0,0 +1,78 @@
+package cz.muni.fi.fits.execution;
+
+import cz.muni.fi.fits.engine.models.Result;
+
+import java.util.List;
+
+/**
+ * Interface for recording duration of phases of processing FITS files
+ * and summarizing them at the end of the run
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public interface PerformanceRecorder {
+
+    /**
+     * Indicates whether recorder records anything, callers may skip
+     * measuring phases when recorder is disabled
+     *
+     * @return  <code>true</code> when recorded values are kept,
+     *          <code>false</code> when they are ignored
+     */
+    boolean isEnabled();
+
+    /**
+     * Records duration of single execution of specified <code>phase</code>
+     *
+     * @param phase phase of processing
+     * @param nanos duration of phase in nanoseconds
+     */
+    void recordPhase(Phase phase, long nanos);
+
+    /**
+     * Records processed file with phases and statistics
+     * from details of its <code>result</code>
+     *
+     * @param result    result of operation performed over file
+     */
+    void recordResult(Result result);
+
+    /**
+     * Creates summary of all recorded values
+     *
+     * @param elapsedNanos  duration of the whole run in nanoseconds
+     * @return              lines of summary, empty when recorder is disabled
+     */
+    List<String> summarize(long elapsedNanos);
+
+    /**
+     * Enum with phases of processing FITS files
+     */
+    enum Phase {
+        /**
+         * Processing input and discovering input files
+         */
+        DISCOVERY,
+
+        /**
+         * Opening file and reading its headers
+         */
+        OPEN,
+
+        /**
+         * Editing read headers
+         */
+        EDIT,
+
+        /**
+         * Writing edited headers to file
+         */
+        WRITE,
+
+        /**
+         * Processing of the whole file
+         */
+        FILE
+    }
+}
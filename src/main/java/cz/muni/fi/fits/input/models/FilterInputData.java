@@ -0,0 +1,52 @@
+package cz.muni.fi.fits.input.models;
+
+import cz.muni.fi.fits.models.HeaderPredicate;
+import cz.muni.fi.fits.models.OperationType;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Class encapsulating input data for operation <b>Filter files by header</b>
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class FilterInputData extends InputData {
+
+    private final List<HeaderPredicate> _predicates;
+    private final String _outputPath;
+
+    /**
+     * Creates new {@link FilterInputData} object with specified filter data
+     *
+     * @param predicates    conditions that header of file must satisfy all at once
+     * @param outputPath    path to file to which write list of matching files
+     */
+    public FilterInputData(List<HeaderPredicate> predicates, String outputPath) {
+        this(predicates, outputPath, new HashSet<>());
+    }
+
+    /**
+     * Creates new {@link FilterInputData} object with specified filter data
+     *
+     * @param predicates    conditions that header of file must satisfy all at once
+     * @param outputPath    path to file to which write list of matching files
+     * @param fitsFiles     FITS files to filter
+     */
+    public FilterInputData(List<HeaderPredicate> predicates, String outputPath, Collection<File> fitsFiles) {
+        super(OperationType.FILTER_FILES, fitsFiles);
+        this._predicates = predicates;
+        this._outputPath = outputPath;
+    }
+
+    public List<HeaderPredicate> getPredicates() {
+        return _predicates;
+    }
+
+    public String getOutputPath() {
+        return _outputPath;
+    }
+}
@@ -1,5 +1,6 @@
 package cz.muni.fi.fits.input.models;
 
+import cz.muni.fi.fits.models.HduSelector;
 import cz.muni.fi.fits.models.OperationType;
 
 import java.io.File;
@@ -10,12 +11,14 @@ import java.util.HashSet;
  * Abstract class representing input data got from input datasource
  *
  * @author Martin Vrábel
- * @version 1.0
+ * @version 1.2
  */
 public abstract class InputData {
 
     private final OperationType _operationType;
     private Collection<File> _fitsFiles;
+    private String _inputPath;
+    private HduSelector _hduSelector = HduSelector.primary();
 
     public InputData(OperationType operationType) {
         this(operationType, new HashSet<>());
@@ -37,4 +40,25 @@ public abstract class InputData {
     public void setFitsFiles(Collection<File> fitsFiles) {
         this._fitsFiles = fitsFiles;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets path from which FITS files were loaded, either list file or directory
+     *
+     * @return  input path or <code>null</code> when files were provided directly
+     */
+    public String getInputPath() {
+        return _inputPath;
+    }
+
+    public void setInputPath(String inputPath) {
+        this._inputPath = inputPath;
+    }
+
+    public HduSelector getHduSelector() {
+        return _hduSelector;
+    }
+
+    public void setHduSelector(HduSelector hduSelector) {
+        this._hduSelector = hduSelector;
+    }
+}
@@ -0,0 +1,42 @@
+package cz.muni.fi.fits.input.models;
+
+import cz.muni.fi.fits.models.OperationType;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashSet;
+
+/**
+ * Class encapsulating input data for operation <b>Reserve header space</b>
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class ReserveInputData extends InputData {
+
+    private final int _records;
+
+    /**
+     * Creates new {@link ReserveInputData} object with specified reserve data
+     *
+     * @param records   number of blank records to reserve in header
+     */
+    public ReserveInputData(int records) {
+        this(records, new HashSet<>());
+    }
+
+    /**
+     * Creates new {@link ReserveInputData} object with specified reserve data
+     *
+     * @param records   number of blank records to reserve in header
+     * @param fitsFiles FITS files in which to reserve header space
+     */
+    public ReserveInputData(int records, Collection<File> fitsFiles) {
+        super(OperationType.RESERVE_HEADER_SPACE, fitsFiles);
+        this._records = records;
+    }
+
+    public int getRecords() {
+        return _records;
+    }
+}
@@ -0,0 +1,60 @@
+package cz.muni.fi.fits.input.models;
+
+import cz.muni.fi.fits.models.OperationType;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Class encapsulating input data for operation <b>Execute script</b>
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class ScriptInputData extends InputData {
+
+    private final List<InputData> _operations;
+
+    /**
+     * Creates new {@link ScriptInputData} object with specified script data
+     *
+     * @param operations    ordered list of input data of operations to execute
+     */
+    public ScriptInputData(List<InputData> operations) {
+        this(operations, new HashSet<>());
+    }
+
+    /**
+     * Creates new {@link ScriptInputData} object with specified script data
+     *
+     * @param operations    ordered list of input data of operations to execute
+     * @param fitsFiles     FITS files in which to execute operations
+     */
+    public ScriptInputData(List<InputData> operations, Collection<File> fitsFiles) {
+        super(OperationType.EXECUTE_SCRIPT, fitsFiles);
+        this._operations = operations;
+    }
+
+    /**
+     * Sets FITS files of this script and of all its operations
+     *
+     * @param fitsFiles FITS files in which to execute operations
+     */
+    @Override
+    public void setFitsFiles(Collection<File> fitsFiles) {
+        super.setFitsFiles(fitsFiles);
+
+        if (_operations != null) {
+            for (InputData operation : _operations) {
+                if (operation != null)
+                    operation.setFitsFiles(fitsFiles);
+            }
+        }
+    }
+
+    public List<InputData> getOperations() {
+        return _operations;
+    }
+}
@@ -1,20 +1,23 @@
 package cz.muni.fi.fits.input.models;
 
+import cz.muni.fi.fits.models.ClockCorrectionTable;
 import cz.muni.fi.fits.models.OperationType;
 
 import java.io.File;
-import java.util.Collection;
-import java.util.HashSet;
+import java.util.*;
 
 /**
- * Class encapsulating input data for operation <b>Shift time of time record</b>
+ * Class encapsulating input data for operation <b>Shift time of time record</b>.
+ * Time can be shifted in multiple records at once, keywords may contain
+ * wildcards <code>*</code> and <code>?</code>. Instead of fixed time shift,
+ * shift of every file can be interpolated from {@link ClockCorrectionTable}
  *
  * @author Martin Vrábel
- * @version 1.2
+ * @version 1.4
  */
 public class ShiftTimeInputData extends InputData {
 
-    private final String _keyword;
+    private final List<String> _keywords;
     private final int _yearShift;
     private final int _monthShift;
     private final int _dayShift;
@@ -22,6 +25,7 @@ public class ShiftTimeInputData extends InputData {
     private final int _minuteShift;
     private final int _secondShift;
     private final int _nanosecondsShift;
+    private final ClockCorrectionTable _correctionTable;
 
     /**
      * Creates new {@link ShiftTimeInputData} object with specified shift parameters
@@ -68,8 +72,100 @@ public class ShiftTimeInputData extends InputData {
                               int secondShift,
                               int milisecondShift,
                               Collection<File> fitsFiles) {
+        this(keyword != null ? Collections.singletonList(keyword) : null,
+                yearShift, monthShift, dayShift, hourShift, minuteShift, secondShift, milisecondShift, fitsFiles);
+    }
+
+    /**
+     * Creates new {@link ShiftTimeInputData} object with specified shift parameters
+     *
+     * @param keywords          keywords or keyword patterns of time records in which to shift time
+     * @param yearShift         time shift for years
+     * @param monthShift        time shift for months
+     * @param dayShift          time shift for days
+     * @param hourShift         time shift for hours
+     * @param minuteShift       time shift for minutes
+     * @param secondShift       time shift for seconds
+     * @param milisecondShift   time shift for nanoseconds
+     */
+    public ShiftTimeInputData(List<String> keywords,
+                              int yearShift,
+                              int monthShift,
+                              int dayShift,
+                              int hourShift,
+                              int minuteShift,
+                              int secondShift,
+                              int milisecondShift) {
+        this(keywords, yearShift, monthShift, dayShift, hourShift, minuteShift, secondShift, milisecondShift, new HashSet<>());
+    }
+
+    /**
+     * Creates new {@link ShiftTimeInputData} object with specified shift parameters
+     *
+     * @param keywords          keywords or keyword patterns of time records in which to shift time
+     * @param yearShift         time shift for years
+     * @param monthShift        time shift for months
+     * @param dayShift          time shift for days
+     * @param hourShift         time shift for hours
+     * @param minuteShift       time shift for minutes
+     * @param secondShift       time shift for seconds
+     * @param milisecondShift   time shift for nanoseconds
+     * @param fitsFiles         FITS files in which to shift time of time records
+     */
+    public ShiftTimeInputData(List<String> keywords,
+                              int yearShift,
+                              int monthShift,
+                              int dayShift,
+                              int hourShift,
+                              int minuteShift,
+                              int secondShift,
+                              int milisecondShift,
+                              Collection<File> fitsFiles) {
+        this(keywords, yearShift, monthShift, dayShift, hourShift, minuteShift, secondShift, milisecondShift, fitsFiles, null);
+    }
+
+    /**
+     * Creates new {@link ShiftTimeInputData} object shifting time of every file
+     * by correction interpolated from <code>correctionTable</code>
+     *
+     * @param keywords          keywords or keyword patterns of time records in which to shift time
+     * @param correctionTable   table of clock corrections
+     */
+    public ShiftTimeInputData(List<String> keywords, ClockCorrectionTable correctionTable) {
+        this(keywords, correctionTable, new HashSet<>());
+    }
+
+    /**
+     * Creates new {@link ShiftTimeInputData} object shifting time of every file
+     * by correction interpolated from <code>correctionTable</code>
+     *
+     * @param keywords          keywords or keyword patterns of time records in which to shift time
+     * @param correctionTable   table of clock corrections
+     * @param fitsFiles         FITS files in which to shift time of time records
+     */
+    public ShiftTimeInputData(List<String> keywords, ClockCorrectionTable correctionTable, Collection<File> fitsFiles) {
+        this(keywords, 0, 0, 0, 0, 0, 0, 0, fitsFiles, correctionTable);
+    }
+
+    private ShiftTimeInputData(List<String> keywords,
+                               int yearShift,
+                               int monthShift,
+                               int dayShift,
+                               int hourShift,
+                               int minuteShift,
+                               int secondShift,
+                               int milisecondShift,
+                               Collection<File> fitsFiles,
+                               ClockCorrectionTable correctionTable) {
         super(OperationType.SHIFT_TIME, fitsFiles);
-        _keyword = keyword != null ? keyword.toUpperCase() : null;
+        if (keywords != null) {
+            List<String> upperCasedKeywords = new ArrayList<>(keywords.size());
+            for (String keyword : keywords)
+                upperCasedKeywords.add(keyword != null ? keyword.toUpperCase() : null);
+            _keywords = Collections.unmodifiableList(upperCasedKeywords);
+        } else {
+            _keywords = null;
+        }
         _yearShift = yearShift;
         _monthShift = monthShift;
         _dayShift = dayShift;
@@ -77,10 +173,20 @@ public class ShiftTimeInputData extends InputData {
         _minuteShift = minuteShift;
         _secondShift = secondShift;
         _nanosecondsShift = milisecondShift * 1000 * 1000; // convert to nanoseconds
+        _correctionTable = correctionTable;
     }
 
+    /**
+     * Gets the first of keywords of time records
+     *
+     * @return  the first keyword, <code>null</code> when no keyword is specified
+     */
     public String getKeyword() {
-        return _keyword;
+        return _keywords != null && !_keywords.isEmpty() ? _keywords.get(0) : null;
+    }
+
+    public List<String> getKeywords() {
+        return _keywords;
     }
 
     public int getYearShift() {
@@ -114,4 +220,13 @@ public class ShiftTimeInputData extends InputData {
     public int getNanosecondShift() {
         return _nanosecondsShift;
     }
+
+    /**
+     * Gets table from which shift of every file is interpolated
+     *
+     * @return  table of clock corrections, <code>null</code> when time is shifted by fixed shift
+     */
+    public ClockCorrectionTable getCorrectionTable() {
+        return _correctionTable;
+    }
 }
@@ -3,22 +3,24 @@ package cz.muni.fi.fits.input.processors;
 import cz.muni.fi.fits.common.exceptions.IllegalInputDataException;
 import cz.muni.fi.fits.common.exceptions.UnknownOperationException;
 import cz.muni.fi.fits.common.exceptions.WrongNumberOfParametersException;
+import cz.muni.fi.fits.common.utils.Tuple;
 import cz.muni.fi.fits.input.converters.TypeConverter;
 import cz.muni.fi.fits.input.models.*;
+import cz.muni.fi.fits.models.HduSelector;
 
-import javax.inject.Singleton;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Processing class implementing {@link InputProcessor} interface
  * that takes input data from commandline arguments
  *
  * @author Martin Vrábel
- * @version 1.2.1
+ * @version 1.10
  */
-@Singleton
 public class CmdArgumentsProcessor implements InputProcessor {
 
     private final TypeConverter _converter;
@@ -47,48 +49,90 @@ public class CmdArgumentsProcessor implements InputProcessor {
     public InputData getProcessedInput() throws IllegalInputDataException {
         if (_cmdArgs == null)
             throw new IllegalInputDataException("Arguments are null");
-        if (_cmdArgs.length == 0)
+
+        // selector of HDU units and discovery switches can be placed anywhere among arguments
+        HduSelector hduSelector = HduSelector.primary();
+        List<String> discoverySwitches = new ArrayList<>();
+        List<String> args = new ArrayList<>(_cmdArgs.length);
+        for (String cmdArg : _cmdArgs) {
+            if (isHduSwitch(cmdArg))
+                hduSelector = CmdArgumentsProcessorHelper.extractHduSelector(cmdArg);
+            else if (isDiscoverySwitch(cmdArg))
+                discoverySwitches.add(cmdArg);
+            else
+                args.add(cmdArg);
+        }
+        DiscoveryOptions discoveryOptions = CmdArgumentsProcessorHelper.extractDiscoveryOptions(discoverySwitches);
+        String[] cmdArgs = args.toArray(new String[args.size()]);
+
+        if (cmdArgs.length == 0)
             throw new WrongNumberOfParametersException(0, "No arguments provided");
-        if (_cmdArgs.length < 2)
-            throw new WrongNumberOfParametersException(_cmdArgs.length, "Insufficient number of parameters");
+        if (cmdArgs.length < 2)
+            throw new WrongNumberOfParametersException(cmdArgs.length, "Insufficient number of parameters");
+
+        int fitsFilesArgIndex;
+        InputData inputData;
+
+        String operation = cmdArgs[0].trim().toUpperCase();
+        if (operation.equals("SCRIPT")) {
+            inputData = extractScriptData(cmdArgs);
+            fitsFilesArgIndex = 1;
+        } else if (operation.equals("FILTER")) {
+            inputData = CmdArgumentsProcessorHelper.extractFilterData(cmdArgs);
+            fitsFilesArgIndex = 1;
+        } else {
+            Tuple<InputData, Integer> operationData = extractOperationData(cmdArgs);
+            inputData = operationData.getFirst();
+            fitsFilesArgIndex = operationData.getSecond();
+        }
+
+        // get input FITS files
+        Collection<File> fitsFiles = CmdArgumentsProcessorHelper.extractFilesData(cmdArgs[fitsFilesArgIndex], discoveryOptions);
+        inputData.setFitsFiles(fitsFiles);
+        inputData.setInputPath(cmdArgs[fitsFilesArgIndex]);
+        inputData.setHduSelector(hduSelector);
+
+        return inputData;
+    }
 
+    private Tuple<InputData, Integer> extractOperationData(String[] cmdArgs) throws IllegalInputDataException {
         int fitsFilesArgIndex;
         InputData inputData;
 
-        String operation = _cmdArgs[0].trim().toUpperCase();
+        String operation = cmdArgs[0].trim().toUpperCase();
         switch (operation) {
             case "ADD":
-                inputData = CmdArgumentsProcessorHelper.extractAddNewRecordData(_cmdArgs, _converter);
+                inputData = CmdArgumentsProcessorHelper.extractAddNewRecordData(cmdArgs, _converter);
                 fitsFilesArgIndex = ((AddNewRecordInputData) inputData).updateIfExists() ? 2 : 1;
                 break;
 
             case "ADD_IX":
-                inputData = CmdArgumentsProcessorHelper.extractAddNewToIndexData(_cmdArgs, _converter);
+                inputData = CmdArgumentsProcessorHelper.extractAddNewToIndexData(cmdArgs, _converter);
                 fitsFilesArgIndex = ((AddNewToIndexInputData) inputData).removeOldIfExists() ? 2 : 1;
                 break;
 
             case "REMOVE":
-                inputData = CmdArgumentsProcessorHelper.extractRemoveByKeywordData(_cmdArgs);
+                inputData = CmdArgumentsProcessorHelper.extractRemoveByKeywordData(cmdArgs);
                 fitsFilesArgIndex = 1;
                 break;
 
             case "REMOVE_IX":
-                inputData = CmdArgumentsProcessorHelper.extractRemoveFromIndexData(_cmdArgs);
+                inputData = CmdArgumentsProcessorHelper.extractRemoveFromIndexData(cmdArgs);
                 fitsFilesArgIndex = 1;
                 break;
 
             case "CHANGE":
-                inputData = CmdArgumentsProcessorHelper.extractChangeValueByKeywordData(_cmdArgs, _converter);
+                inputData = CmdArgumentsProcessorHelper.extractChangeValueByKeywordData(cmdArgs, _converter);
                 fitsFilesArgIndex = ((ChangeValueByKeywordInputData) inputData).addNewIfNotExists() ? 2 : 1;
                 break;
 
             case "CHANGE_KW":
-                inputData = CmdArgumentsProcessorHelper.extractChangeKeywordData(_cmdArgs);
+                inputData = CmdArgumentsProcessorHelper.extractChangeKeywordData(cmdArgs);
                 fitsFilesArgIndex = ((ChangeKeywordInputData) inputData).removeValueOfNewIfExists() ? 2 : 1;
                 break;
 
             case "CHAIN":
-                inputData = CmdArgumentsProcessorHelper.extractChainRecordsData(_cmdArgs);
+                inputData = CmdArgumentsProcessorHelper.extractChainRecordsData(cmdArgs);
                 ChainRecordsInputData crid = (ChainRecordsInputData) inputData;
                 if (crid.updateIfExists() && crid.longstringsAllowed())
                     fitsFilesArgIndex = 3;
@@ -99,17 +143,22 @@ public class CmdArgumentsProcessor implements InputProcessor {
                 break;
 
             case "SHIFT_TIME":
-                inputData = CmdArgumentsProcessorHelper.extractShiftTimeData(_cmdArgs, _converter);
+                inputData = CmdArgumentsProcessorHelper.extractShiftTimeData(cmdArgs, _converter);
                 fitsFilesArgIndex = 1;
                 break;
 
             case "JD":
-                inputData = CmdArgumentsProcessorHelper.extractComputeJDData(_cmdArgs, _converter);
+                inputData = CmdArgumentsProcessorHelper.extractComputeJDData(cmdArgs, _converter);
                 fitsFilesArgIndex = 1;
                 break;
 
             case "HJD":
-                inputData = CmdArgumentsProcessorHelper.extractComputeHJDData(_cmdArgs, _converter);
+                inputData = CmdArgumentsProcessorHelper.extractComputeHJDData(cmdArgs, _converter);
+                fitsFilesArgIndex = 1;
+                break;
+
+            case "RESERVE":
+                inputData = CmdArgumentsProcessorHelper.extractReserveData(cmdArgs);
                 fitsFilesArgIndex = 1;
                 break;
 
@@ -117,13 +166,54 @@ public class CmdArgumentsProcessor implements InputProcessor {
                 throw new UnknownOperationException(operation, "Unknown operation '" + operation + "'");
         }
 
-        // get input FITS files
-        Collection<File> fitsFiles = CmdArgumentsProcessorHelper.extractFilesData(_cmdArgs[fitsFilesArgIndex]);
-        inputData.setFitsFiles(fitsFiles);
+        return new Tuple<>(inputData, fitsFilesArgIndex);
+    }
 
-        return inputData;
+    private ScriptInputData extractScriptData(String[] cmdArgs) throws IllegalInputDataException {
+        if (cmdArgs.length != 3)
+            throw new WrongNumberOfParametersException(cmdArgs.length, "Wrong number of parameters for operation 'SCRIPT'");
+
+        List<InputData> operations = new ArrayList<>();
+        for (Tuple<Integer, String[]> scriptLine : CmdArgumentsProcessorHelper.extractScriptData(cmdArgs[2].trim())) {
+            String[] operationArgs = scriptLine.getSecond();
+
+            // scripts cannot be nested
+            if (operationArgs[0].trim().toUpperCase().equals("SCRIPT"))
+                throw new IllegalInputDataException("Line " + scriptLine.getFirst() + " of script: operation 'SCRIPT' cannot be used in script");
+
+            // all operations of script edit the same HDU units
+            for (String operationArg : operationArgs) {
+                if (isHduSwitch(operationArg))
+                    throw new IllegalInputDataException("Line " + scriptLine.getFirst() + " of script: HDU units can be selected only for the whole script");
+                if (isDiscoverySwitch(operationArg))
+                    throw new IllegalInputDataException("Line " + scriptLine.getFirst() + " of script: files can be searched only for the whole script");
+            }
+
+            try {
+                operations.add(extractOperationData(operationArgs).getFirst());
+            } catch (IllegalInputDataException iidEx) {
+                throw new IllegalInputDataException("Line " + scriptLine.getFirst() + " of script: " + iidEx.getMessage(), iidEx);
+            }
+        }
+
+        return new ScriptInputData(operations);
+    }
+
+    private static boolean isHduSwitch(String cmdArg) {
+        return cmdArg != null && cmdArg.trim().toLowerCase().startsWith(CmdArgumentsProcessorHelper.HDU_SWITCH);
     }
 
+    private static boolean isDiscoverySwitch(String cmdArg) {
+        if (cmdArg == null)
+            return false;
+
+        String switchParam = cmdArg.trim().toLowerCase();
+        return switchParam.equals(CmdArgumentsProcessorHelper.RECURSIVE_SWITCH)
+                || switchParam.equals(CmdArgumentsProcessorHelper.ALL_FILES_SWITCH)
+                || switchParam.startsWith(CmdArgumentsProcessorHelper.DEPTH_SWITCH)
+                || switchParam.startsWith(CmdArgumentsProcessorHelper.INCLUDE_SWITCH)
+                || switchParam.startsWith(CmdArgumentsProcessorHelper.EXCLUDE_SWITCH);
+    }
 
     /**
      * Gets commandline parameters entered to input console as stringified array of that parameters
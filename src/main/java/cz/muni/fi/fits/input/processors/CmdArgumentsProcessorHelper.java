@@ -6,29 +6,76 @@ import cz.muni.fi.fits.common.exceptions.WrongNumberOfParametersException;
 import cz.muni.fi.fits.input.converters.TypeConverter;
 import cz.muni.fi.fits.input.models.*;
 import cz.muni.fi.fits.models.ChainValueType;
+import cz.muni.fi.fits.models.ClockCorrectionTable;
 import cz.muni.fi.fits.models.DegreesObject;
+import cz.muni.fi.fits.models.HduSelector;
+import cz.muni.fi.fits.models.HeaderPredicate;
 import cz.muni.fi.fits.models.TimeObject;
 import cz.muni.fi.fits.common.utils.FileUtils;
 import cz.muni.fi.fits.common.utils.Tuple;
 
 import java.io.*;
-import java.nio.file.FileVisitOption;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Stream;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 /**
  * Internal class used as helper for {@link CmdArgumentsProcessor} class
  * that helps to extract input data to specific operation
  *
  * @author Martin Vrábel
- * @version 1.4.2
+ * @version 1.13
  */
 final class CmdArgumentsProcessorHelper {
 
+    /**
+     * Argument inserted to operations in script in place of FITS files argument
+     */
+    static final String SCRIPT_FILES_PLACEHOLDER = "<files>";
+
+    /**
+     * Switch selecting HDU units in which to edit header, can be placed anywhere among arguments
+     */
+    static final String HDU_SWITCH = "-hdu=";
+
+    /**
+     * Switch setting maximal depth of directories searched for files, can be placed anywhere among arguments
+     */
+    static final String DEPTH_SWITCH = "-depth=";
+
+    /**
+     * Switch searching all nested directories for files, can be placed anywhere among arguments
+     */
+    static final String RECURSIVE_SWITCH = "-recursive";
+
+    /**
+     * Switch with glob pattern of files to include, can be placed anywhere among arguments
+     */
+    static final String INCLUDE_SWITCH = "-include=";
+
+    /**
+     * Switch with glob pattern of files and directories to exclude, can be placed anywhere among arguments
+     */
+    static final String EXCLUDE_SWITCH = "-exclude=";
+
+    /**
+     * Switch disabling screening of files found in directories for FITS format,
+     * can be placed anywhere among arguments
+     */
+    static final String ALL_FILES_SWITCH = "-all-files";
+
+    private static final String ALL_HDU_UNITS = "ALL";
+    private static final String RANGE_SEPARATOR = "..";
+
     /**
      * Extracts files or paths to files for processing and return them as a collection of unique {@link File} objects.
      * If path does not exist it's skipped
@@ -38,10 +85,24 @@ final class CmdArgumentsProcessorHelper {
      * @throws IllegalInputDataException when input file or directory is in invalid form
      */
     static Collection<File> extractFilesData(String path) throws IllegalInputDataException {
+        return extractFilesData(path, DiscoveryOptions.defaults());
+    }
+
+    /**
+     * Extracts files or paths to files for processing and return them as a collection of unique {@link File} objects.
+     * If path does not exist it's skipped. Files are discovered lazily
+     * every time the collection is iterated, see {@link DiscoveredFiles}
+     *
+     * @param path      path to input file or directory where the files are specified
+     * @param options   options of discovery of files in directories
+     * @return unmodifiable collection of unique {@link File} objects representing extracted files
+     * @throws IllegalInputDataException when input file or directory is in invalid form
+     */
+    static Collection<File> extractFilesData(String path, DiscoveryOptions options) throws IllegalInputDataException {
         if (path == null)
             throw new IllegalArgumentException("path is null");
-
-        Collection<File> fitsFiles = new LinkedHashSet<>();
+        if (options == null)
+            throw new IllegalArgumentException("options is null");
 
         // check for path validity
         if (!FileUtils.isValidPath(path))
@@ -49,96 +110,87 @@ final class CmdArgumentsProcessorHelper {
 
         Path _path = Paths.get(path);
 
-        // check for symbolic link
-        if (FileUtils.isSymbolicLink(_path)) {
-            _path = FileUtils.readSymbolicLink(_path);
+        // check for Windows shortcuts (.lnk)
+        if (FileUtils.isWindowsShortcut(_path))
+            throw new IllegalInputDataException("Windows shortcut link is not supported");
 
-            if (_path == null)
-                throw new IllegalInputDataException("Error resolving symbolic link provided as input file");
+        // attributes of input path or target of its symbolic link are read at once
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(_path, BasicFileAttributes.class);
+        } catch (NoSuchFileException nsfEx) {
+            throw new IllegalInputDataException("Input file or directory '" + path + "' does not exist", nsfEx);
+        } catch (IOException ioEx) {
+            throw new IllegalInputDataException("Error reading input file or directory '" + path + "'", ioEx);
         }
 
-        if (!Files.exists(_path))
-            throw new IllegalInputDataException("Input file or directory '" + path + "' does not exist");
+        if (attributes.isRegularFile()) {
+            // paths to FITS files are read during discovery
+            if (!Files.isReadable(_path))
+                throw new IllegalInputDataException("Error reading input file '" + path + "'");
 
-        // check for Windows shortcuts (.lnk)
-        if (FileUtils.isWindowsShortcut(_path))
-            throw new IllegalInputDataException("Windows shortcut link is not supported");
+            return DiscoveredFiles.listedIn(_path, options);
+        } else if (attributes.isDirectory()) {
+            // files in directory are searched during discovery
+            if (!Files.isReadable(_path))
+                throw new IllegalInputDataException("Cannot access input directory - insufficient permissions");
 
-        if (Files.isRegularFile(_path)) {
-            // read paths to FITS files
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(_path.toFile()), "UTF-8"))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    line = line.trim();
-
-                    // ignore commented lines
-                    if (line.startsWith("#")) continue;
-
-                    // check for path validity
-                    if (!FileUtils.isValidPath(line)) continue;
-
-                    Path linePath = Paths.get(line);
-
-                    // resolve symbolic links
-                    if (FileUtils.isSymbolicLink(linePath)) {
-                        linePath = FileUtils.readSymbolicLink(linePath);
-
-                        if (linePath == null) continue;
-                    }
-
-                    // check Windows shortcut
-                    if (FileUtils.isWindowsShortcut(linePath)) continue;
-
-                    // check if file or directory
-                    if (Files.isRegularFile(linePath)) {
-                        // add file directly
-                        fitsFiles.add(linePath.toFile());
-                    } else if (Files.isDirectory(linePath)) {
-                        // load all files in directory
-                        try (Stream<Path> stream = Files.walk(linePath, 1, FileVisitOption.FOLLOW_LINKS)) {
-                            stream.forEach(file -> {
-                                // resolve symbolic links
-                                if (FileUtils.isSymbolicLink(file))
-                                    file = FileUtils.readSymbolicLink(file);
-
-                                // add file if valid
-                                if (file != null
-                                        && !FileUtils.isWindowsShortcut(file)
-                                        && Files.isRegularFile(file))
-                                    fitsFiles.add(new File(file.toUri()));
-                            });
-                        }
-                    }
-                }
-            } catch (FileNotFoundException fnfEx) {
-                throw new IllegalInputDataException("Input file '" + path + "' does not exist", fnfEx);
-            } catch (IOException ioEx) {
-                throw new IllegalInputDataException("Error reading input file '" + path + "'", ioEx);
-            }
-        } else if (Files.isDirectory(_path)) {
-            // read files in directory
-            try (Stream<Path> stream = Files.walk(_path, 1, FileVisitOption.FOLLOW_LINKS)) {
-                stream.forEach(file -> {
-                    // resolve symbolic links
-                    if (FileUtils.isSymbolicLink(file))
-                        file = FileUtils.readSymbolicLink(file);
-
-                    // add file if valid
-                    if (file != null
-                            && !FileUtils.isWindowsShortcut(file)
-                            && Files.isRegularFile(file))
-                        fitsFiles.add(new File(file.toUri()));
-                });
-            } catch (IOException ioEx) {
-                throw new IllegalInputDataException("Error reading input directory with files", ioEx);
-            } catch (SecurityException sEx) {
-                throw new IllegalInputDataException("Cannot access input directory - insufficient permissions", sEx);
-            }
+            return DiscoveredFiles.inDirectory(_path, options);
         } else {
             throw new IllegalInputDataException("Entered path '" + path + "' is not valid file or directory");
         }
+    }
+
+    /**
+     * Extracts options of discovery of files in directories from switches
+     * {@link #DEPTH_SWITCH}, {@link #RECURSIVE_SWITCH}, {@link #INCLUDE_SWITCH},
+     * {@link #EXCLUDE_SWITCH} and {@link #ALL_FILES_SWITCH}, include and exclude
+     * switches can be repeated. Files found in directories are screened
+     * for FITS format unless {@link #ALL_FILES_SWITCH} is present
+     *
+     * @param switches  arguments containing discovery switches
+     * @return          options of discovery
+     * @throws IllegalInputDataException when value of some switch is in invalid form
+     */
+    static DiscoveryOptions extractDiscoveryOptions(List<String> switches) throws IllegalInputDataException {
+        if (switches == null)
+            throw new IllegalArgumentException("switches is null");
+
+        int maxDepth = 1;
+        boolean fitsOnly = true;
+        List<String> includes = new ArrayList<>();
+        List<String> excludes = new ArrayList<>();
+        for (String argument : switches) {
+            String switchParam = argument.trim();
+            String lowerCaseParam = switchParam.toLowerCase();
+
+            if (lowerCaseParam.equals(RECURSIVE_SWITCH)) {
+                maxDepth = DiscoveryOptions.UNLIMITED_DEPTH;
+            } else if (lowerCaseParam.equals(ALL_FILES_SWITCH)) {
+                fitsOnly = false;
+            } else if (lowerCaseParam.startsWith(DEPTH_SWITCH)) {
+                String depth = switchParam.substring(DEPTH_SWITCH.length()).trim();
+                try {
+                    maxDepth = Integer.parseInt(depth);
+                } catch (NumberFormatException nfEx) {
+                    throw new IllegalInputDataException("Depth of searched directories is in invalid format: " + depth, nfEx);
+                }
+                if (maxDepth < 1)
+                    throw new IllegalInputDataException("Depth of searched directories must be positive number");
+            } else if (lowerCaseParam.startsWith(INCLUDE_SWITCH)) {
+                includes.add(switchParam.substring(INCLUDE_SWITCH.length()));
+            } else if (lowerCaseParam.startsWith(EXCLUDE_SWITCH)) {
+                excludes.add(switchParam.substring(EXCLUDE_SWITCH.length()));
+            } else {
+                throw new InvalidSwitchParameterException(switchParam, "Unknown switch of files discovery: '" + switchParam + "'");
+            }
+        }
 
-        return Collections.unmodifiableCollection(fitsFiles);
+        try {
+            return new DiscoveryOptions(maxDepth, includes, excludes, fitsOnly);
+        } catch (IllegalArgumentException iaEx) {
+            throw new IllegalInputDataException("Glob pattern of files is in invalid format: " + iaEx.getMessage(), iaEx);
+        }
     }
 
     /**
@@ -525,7 +577,9 @@ final class CmdArgumentsProcessorHelper {
     }
 
     /**
-     * Extracts input data for operation <b>Shift time of time record</b>
+     * Extracts input data for operation <b>Shift time of time record</b>,
+     * keywords of multiple time records are separated by comma. Time is shifted
+     * either by fixed time shifts or by corrections from table specified by <code>-table=</code>
      *
      * @param cmdArgs   commandline arguments containing specific input data
      * @param converter {@link TypeConverter} object used to convert {@link String} time value to {@link Integer} value
@@ -533,7 +587,7 @@ final class CmdArgumentsProcessorHelper {
      * @throws IllegalInputDataException when input data are in invalid form
      */
     static ShiftTimeInputData extractShiftTimeData(String[] cmdArgs, TypeConverter converter) throws IllegalInputDataException {
-        if (cmdArgs.length < 4 || cmdArgs.length > 10)
+        if (cmdArgs.length < 4 || cmdArgs.length > 11)
             throw new WrongNumberOfParametersException(cmdArgs.length, "Wrong number of parameters for operation 'SHIFT_TIME'");
 
         // get keyword (required)
@@ -544,9 +598,19 @@ final class CmdArgumentsProcessorHelper {
                 || keyword.toLowerCase().startsWith("-h=")
                 || keyword.toLowerCase().startsWith("-min=")
                 || keyword.toLowerCase().startsWith("-s=")
-                || keyword.toLowerCase().startsWith("-ms="))
+                || keyword.toLowerCase().startsWith("-ms=")
+                || keyword.toLowerCase().startsWith("-table="))
             throw new WrongNumberOfParametersException(cmdArgs.length, "Keyword is not specified");
 
+        // keywords of multiple time records are separated by comma
+        List<String> keywords = new ArrayList<>();
+        for (String keywordItem : keyword.split(",", -1)) {
+            keywordItem = keywordItem.trim();
+            if (keywordItem.isEmpty())
+                throw new IllegalInputDataException("Keywords of time records contain empty keyword");
+            keywords.add(keywordItem);
+        }
+
         // load time shifts
         int yearShift = 0;
         int monthShift = 0;
@@ -555,6 +619,8 @@ final class CmdArgumentsProcessorHelper {
         int minuteShift = 0;
         int secondShift = 0;
         int milisecondShift = 0;
+        boolean shiftSpecified = false;
+        ClockCorrectionTable correctionTable = null;
         for (int i = 3; i < cmdArgs.length; i++) {
             String argument = cmdArgs[i].trim();
 
@@ -608,13 +674,45 @@ final class CmdArgumentsProcessorHelper {
                 } else {
                     throw new IllegalInputDataException("Miliseconds time shift argument is in invalid number format");
                 }
+            } else if (argument.toLowerCase().startsWith("-table=")) {
+                correctionTable = extractClockCorrectionTable(argument.substring(7).trim());
+                continue;
             } else {
                 throw new IllegalInputDataException("Parameter '" + argument + "' is in invalid format. Must start with one of: " +
-                        "'-y=', '-m=', '-d=', '-h=', '-min=', '-s=', '-ms='");
+                        "'-y=', '-m=', '-d=', '-h=', '-min=', '-s=', '-ms=', '-table='");
             }
+            shiftSpecified = true;
         }
 
-        return new ShiftTimeInputData(keyword, yearShift, monthShift, dayShift, hourShift, minuteShift, secondShift, milisecondShift);
+        // shift of every file is interpolated from correction table
+        if (correctionTable != null) {
+            if (shiftSpecified)
+                throw new IllegalInputDataException("Time shifts cannot be combined with clock correction table");
+
+            return new ShiftTimeInputData(keywords, correctionTable);
+        }
+
+        return new ShiftTimeInputData(keywords, yearShift, monthShift, dayShift, hourShift, minuteShift, secondShift, milisecondShift);
+    }
+
+    /**
+     * Loads clock correction table from file on specified <code>path</code>
+     *
+     * @param path  path to file with clock correction table
+     * @return      {@link ClockCorrectionTable} object with rows of table
+     * @throws IllegalInputDataException when file cannot be read or table is in invalid format
+     */
+    static ClockCorrectionTable extractClockCorrectionTable(String path) throws IllegalInputDataException {
+        if (path.isEmpty())
+            throw new IllegalInputDataException("Path to clock correction table is not specified");
+
+        try {
+            return ClockCorrectionTable.parse(Files.readAllLines(Paths.get(path), StandardCharsets.UTF_8));
+        } catch (InvalidPathException | IOException ex) {
+            throw new IllegalInputDataException("Clock correction table '" + path + "' cannot be read: " + ex.getMessage());
+        } catch (IllegalArgumentException iaEx) {
+            throw new IllegalInputDataException("Clock correction table '" + path + "' is in invalid format: " + iaEx.getMessage());
+        }
     }
 
     /**
@@ -785,4 +883,240 @@ final class CmdArgumentsProcessorHelper {
 
         return new ComputeHJDInputData(datetime, exposure, rightAscension, declination, comment);
     }
+
+    /**
+     * Extracts input data for operation <b>Reserve header space</b>
+     *
+     * @param cmdArgs commandline arguments containing specific input data
+     * @return {@link ReserveInputData} object with input data
+     * @throws IllegalInputDataException when input data are in invalid form
+     */
+    static ReserveInputData extractReserveData(String[] cmdArgs) throws IllegalInputDataException {
+        if (cmdArgs.length != 3)
+            throw new WrongNumberOfParametersException(cmdArgs.length, "Wrong number of parameters for operation 'RESERVE'");
+
+        // get number of records to reserve (required)
+        int records;
+        String recordsString = cmdArgs[2].trim();
+        try {
+            records = Integer.parseInt(recordsString);
+        } catch (NumberFormatException nfEx) {
+            throw new IllegalInputDataException("Number of records is in invalid format: " + recordsString, nfEx);
+        }
+
+        return new ReserveInputData(records);
+    }
+
+    /**
+     * Extracts input data for operation <b>Filter files by header</b>
+     *
+     * @param cmdArgs   commandline arguments containing specific input data
+     * @return          {@link FilterInputData} object with input data
+     * @throws IllegalInputDataException when input data are in invalid form
+     */
+    static FilterInputData extractFilterData(String[] cmdArgs) throws IllegalInputDataException {
+        if (cmdArgs.length < 4)
+            throw new WrongNumberOfParametersException(cmdArgs.length, "Wrong number of parameters for operation 'FILTER'");
+
+        // get path to output list of files (required)
+        String outputPath = cmdArgs[2].trim();
+
+        // get conditions on header records (at least one required)
+        List<HeaderPredicate> predicates = new ArrayList<>();
+        for (int i = 3; i < cmdArgs.length; i++)
+            predicates.add(extractHeaderPredicate(cmdArgs[i]));
+
+        return new FilterInputData(predicates, outputPath);
+    }
+
+    /**
+     * Extracts condition on header record from argument in form <code>KEYWORD=value</code>
+     * for equality, <code>KEYWORD=min..max</code> for numeric range with optional bounds
+     * or <code>KEYWORD~regex</code> for regular expression
+     *
+     * @param argument  argument containing condition on header record
+     * @return          condition on header record
+     * @throws IllegalInputDataException when condition is in invalid form
+     */
+    static HeaderPredicate extractHeaderPredicate(String argument) throws IllegalInputDataException {
+        if (argument == null)
+            throw new IllegalArgumentException("argument is null");
+
+        String condition = argument.trim();
+        int equalsIndex = condition.indexOf('=');
+        int regexIndex = condition.indexOf('~');
+
+        // regular expression
+        if (regexIndex > 0 && (equalsIndex < 0 || regexIndex < equalsIndex)) {
+            String keyword = condition.substring(0, regexIndex).trim();
+            String regex = condition.substring(regexIndex + 1);
+            try {
+                return HeaderPredicate.matching(keyword, Pattern.compile(regex));
+            } catch (PatternSyntaxException psEx) {
+                throw new IllegalInputDataException("Regular expression of condition is in invalid format: " + regex, psEx);
+            }
+        }
+
+        if (equalsIndex <= 0)
+            throw new IllegalInputDataException("Condition is in invalid format: '" + condition + "'. Correct format is 'KEYWORD=value', 'KEYWORD=min..max' or 'KEYWORD~regex'");
+
+        String keyword = condition.substring(0, equalsIndex).trim();
+        String value = condition.substring(equalsIndex + 1).trim();
+
+        // numeric range with optional bounds
+        int rangeIndex = value.indexOf(RANGE_SEPARATOR);
+        if (rangeIndex >= 0) {
+            BigDecimal minValue = parseRangeBound(value.substring(0, rangeIndex));
+            BigDecimal maxValue = parseRangeBound(value.substring(rangeIndex + RANGE_SEPARATOR.length()));
+            if (minValue == null && maxValue == null)
+                throw new IllegalInputDataException("Range of condition has no bounds: '" + condition + "'");
+
+            return HeaderPredicate.inRange(keyword, minValue, maxValue);
+        }
+
+        return HeaderPredicate.equalTo(keyword, value);
+    }
+
+    private static BigDecimal parseRangeBound(String bound) throws IllegalInputDataException {
+        if (bound.trim().isEmpty())
+            return null;
+
+        try {
+            return new BigDecimal(bound.trim());
+        } catch (NumberFormatException nfEx) {
+            throw new IllegalInputDataException("Bound of range is in invalid format: " + bound, nfEx);
+        }
+    }
+
+    /**
+     * Extracts selector of HDU units from value of {@link #HDU_SWITCH} switch.
+     * Value can be index of HDU unit, <code>all</code> for all HDU units,
+     * or value of <code>EXTNAME</code> keyword optionally followed by comma
+     * and value of <code>EXTVER</code> keyword
+     *
+     * @param argument  argument containing {@link #HDU_SWITCH} switch
+     * @return          selector of HDU units
+     * @throws IllegalInputDataException when value of switch is in invalid form
+     */
+    static HduSelector extractHduSelector(String argument) throws IllegalInputDataException {
+        if (argument == null)
+            throw new IllegalArgumentException("argument is null");
+
+        String value = argument.trim();
+        if (value.toLowerCase().startsWith(HDU_SWITCH))
+            value = value.substring(HDU_SWITCH.length()).trim();
+
+        if (value.isEmpty())
+            throw new IllegalInputDataException("HDU unit selector is empty");
+
+        // select all HDU units
+        if (value.toUpperCase().equals(ALL_HDU_UNITS))
+            return HduSelector.all();
+
+        // select HDU unit by index
+        if (Character.isDigit(value.charAt(0))) {
+            try {
+                return HduSelector.index(Integer.parseInt(value));
+            } catch (NumberFormatException nfEx) {
+                throw new IllegalInputDataException("Index of HDU unit is in invalid format: " + value, nfEx);
+            }
+        }
+
+        // select HDU units by EXTNAME and optionally by EXTVER
+        int versionSeparator = value.lastIndexOf(',');
+        if (versionSeparator < 0)
+            return HduSelector.extension(value);
+
+        String extname = value.substring(0, versionSeparator).trim();
+        String extverString = value.substring(versionSeparator + 1).trim();
+        if (extname.isEmpty())
+            throw new IllegalInputDataException("Name of HDU unit is empty: " + value);
+
+        try {
+            return HduSelector.extension(extname, Integer.parseInt(extverString));
+        } catch (NumberFormatException nfEx) {
+            throw new IllegalInputDataException("Version of HDU unit is in invalid format: " + extverString, nfEx);
+        }
+    }
+
+    /**
+     * Extracts operations from script file for operation <b>Execute script</b>.
+     * Every non-empty line of script that is not commented contains one operation
+     * in the same form as on commandline, only without FITS files argument.
+     * Arguments are separated by whitespaces, argument containing whitespaces
+     * has to be enclosed in double quotes
+     *
+     * @param scriptPath    path to script file
+     * @return              list of tuples with line number and commandline arguments of operation,
+     *                      {@link #SCRIPT_FILES_PLACEHOLDER} is inserted in place of FITS files argument
+     * @throws IllegalInputDataException when script file cannot be read or is in invalid form
+     */
+    static List<Tuple<Integer, String[]>> extractScriptData(String scriptPath) throws IllegalInputDataException {
+        if (scriptPath == null)
+            throw new IllegalArgumentException("scriptPath is null");
+
+        if (!FileUtils.isValidPath(scriptPath) || !Files.isRegularFile(Paths.get(scriptPath)))
+            throw new IllegalInputDataException("Script file '" + scriptPath + "' does not exist");
+
+        List<Tuple<Integer, String[]>> operations = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(scriptPath), "UTF-8"))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+
+                // ignore empty and commented lines
+                if (line.isEmpty() || line.startsWith("#")) continue;
+
+                List<String> args = splitScriptLine(line, lineNumber);
+
+                // FITS files argument follows operation and its switches
+                int fitsFilesArgIndex = 1;
+                while (fitsFilesArgIndex < args.size() && args.get(fitsFilesArgIndex).startsWith("-"))
+                    fitsFilesArgIndex++;
+                args.add(fitsFilesArgIndex, SCRIPT_FILES_PLACEHOLDER);
+
+                operations.add(new Tuple<>(lineNumber, args.toArray(new String[args.size()])));
+            }
+        } catch (IOException ioEx) {
+            throw new IllegalInputDataException("Error reading script file '" + scriptPath + "'", ioEx);
+        }
+
+        if (operations.isEmpty())
+            throw new IllegalInputDataException("Script file '" + scriptPath + "' does not contain any operation");
+
+        return operations;
+    }
+
+    private static List<String> splitScriptLine(String line, int lineNumber) throws IllegalInputDataException {
+        List<String> args = new ArrayList<>();
+        StringBuilder arg = new StringBuilder();
+        boolean inQuotes = false;
+        boolean argStarted = false;
+
+        for (char c : line.toCharArray()) {
+            if (c == '"') {
+                inQuotes = !inQuotes;
+                argStarted = true;
+            } else if (Character.isWhitespace(c) && !inQuotes) {
+                if (argStarted) {
+                    args.add(arg.toString());
+                    arg.setLength(0);
+                    argStarted = false;
+                }
+            } else {
+                arg.append(c);
+                argStarted = true;
+            }
+        }
+
+        if (inQuotes)
+            throw new IllegalInputDataException("Line " + lineNumber + " of script contains unclosed quotes");
+        if (argStarted)
+            args.add(arg.toString());
+
+        return args;
+    }
 }
@@ -0,0 +1,376 @@
+package cz.muni.fi.fits.input.processors;
+
+import cz.muni.fi.fits.common.utils.FileUtils;
+import cz.muni.fi.fits.engine.io.FileSynchronizer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Internal collection of FITS files discovered in input directory or in paths listed
+ * in input file. Files are not stored, every iteration discovers them again
+ * and passes them to consumer through bounded queue as soon as they are found,
+ * so processing of the first files starts before directories are fully searched
+ * and memory does not grow with number of files. Sibling directories are searched
+ * in parallel, so files come in no particular order. Attributes of every found
+ * entry are read only once, so discovery is cheap also on network file systems.
+ * Symbolic links to files are resolved to their targets, symbolic links to
+ * directories are not followed, so search of nested directories cannot loop.
+ * Files reached through multiple symbolic or hard links are discovered once,
+ * they are identified by keys of files when file system provides them.
+ * Files found in directories can be screened by {@link FitsPrescreen}, paths
+ * listed in input file are always passed to editing. Replacement files left
+ * by interrupted edits are never discovered in directories.
+ * Iterators of collection should be closed when they are not iterated to the end
+ *
+ * @author Martin Vrábel
+ * @version 1.4
+ */
+final class DiscoveredFiles extends AbstractCollection<File> {
+
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final long OFFER_TIMEOUT_MILLIS = 10;
+    private static final Set<FileVisitOption> NO_OPTIONS = EnumSet.noneOf(FileVisitOption.class);
+    private static final int DISCOVERY_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    // marks end of discovery in queue of found files
+    private static final File END_OF_FILES = new File("");
+
+    private final Path _directory;
+    private final Path _listFile;
+    private final DiscoveryOptions _options;
+
+    private DiscoveredFiles(Path directory, Path listFile, DiscoveryOptions options) {
+        if (options == null)
+            throw new IllegalArgumentException("options is null");
+
+        _directory = directory;
+        _listFile = listFile;
+        _options = options;
+    }
+
+    /**
+     * Creates collection of files discovered in <code>directory</code>
+     *
+     * @param directory input directory
+     * @param options   options of discovery
+     * @return          new collection of files in directory
+     */
+    static DiscoveredFiles inDirectory(Path directory, DiscoveryOptions options) {
+        if (directory == null)
+            throw new IllegalArgumentException("directory is null");
+
+        return new DiscoveredFiles(directory, null, options);
+    }
+
+    /**
+     * Creates collection of files listed in <code>listFile</code>, listed directories
+     * are searched for files and lines starting with <code>#</code> are ignored
+     *
+     * @param listFile  input file with paths to files or directories on separate lines
+     * @param options   options of discovery in listed directories
+     * @return          new collection of listed files
+     */
+    static DiscoveredFiles listedIn(Path listFile, DiscoveryOptions options) {
+        if (listFile == null)
+            throw new IllegalArgumentException("listFile is null");
+
+        return new DiscoveredFiles(null, listFile, options);
+    }
+
+    /**
+     * Starts new discovery of files, returned iterator implements {@link AutoCloseable},
+     * closing it stops discovery
+     *
+     * @return  iterator over discovered files
+     */
+    @Override
+    public Iterator<File> iterator() {
+        return new DiscoveryIterator();
+    }
+
+    /**
+     * Determines whether collection is empty, discovery is stopped
+     * as soon as the first file is found
+     *
+     * @return  <code>true</code> when there is no file to discover
+     */
+    @Override
+    public boolean isEmpty() {
+        try (DiscoveryIterator iterator = new DiscoveryIterator()) {
+            return !iterator.hasNext();
+        }
+    }
+
+    /**
+     * Counts discovered files, all files are discovered without storing them
+     *
+     * @return  number of discovered files
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        try (DiscoveryIterator iterator = new DiscoveryIterator()) {
+            while (iterator.hasNext()) {
+                iterator.next();
+                size++;
+            }
+        }
+
+        return size;
+    }
+
+    private static Object getFileKey(Path file, BasicFileAttributes attributes) {
+        // file systems without keys of files identify them only by path
+        Object fileKey = attributes.fileKey();
+        return fileKey != null ? fileKey : file.toAbsolutePath().normalize();
+    }
+
+    private final class DiscoveryIterator implements Iterator<File>, AutoCloseable {
+
+        private final BlockingQueue<File> _queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private final ForkJoinPool _pool = new ForkJoinPool(DISCOVERY_THREADS);
+        private final Set<Object> _fileKeys = ConcurrentHashMap.newKeySet();
+        private volatile boolean _closed;
+        private File _next;
+        private boolean _finished;
+
+        DiscoveryIterator() {
+            _pool.execute(() -> {
+                try {
+                    if (_directory != null)
+                        new DirectoryTask(_directory, _directory, 1).invoke();
+                    else
+                        discoverListedFiles();
+                    offer(END_OF_FILES);
+                } catch (CancellationException cEx) {
+                    // iterator was closed, nobody waits for end marker
+                } catch (RuntimeException rEx) {
+                    // files found so far are processed, consumer never waits forever
+                    if (!_closed)
+                        offer(END_OF_FILES);
+                }
+            });
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (_next != null)
+                return true;
+            if (_finished)
+                return false;
+
+            try {
+                File file = _queue.take();
+                if (file == END_OF_FILES) {
+                    close();
+                    return false;
+                }
+
+                _next = file;
+                return true;
+            } catch (InterruptedException iEx) {
+                Thread.currentThread().interrupt();
+                close();
+                return false;
+            }
+        }
+
+        @Override
+        public File next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            File file = _next;
+            _next = null;
+            return file;
+        }
+
+        @Override
+        public void close() {
+            _finished = true;
+            _closed = true;
+            _pool.shutdownNow();
+        }
+
+        private void discoverListedFiles() {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(_listFile), StandardCharsets.UTF_8))) {
+                List<DirectoryTask> directoryTasks = new ArrayList<>();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+
+                    // ignore empty and commented lines
+                    if (line.isEmpty() || line.startsWith("#")) continue;
+
+                    // check for path validity and Windows shortcut without access to disk
+                    if (!FileUtils.isValidPath(line)) continue;
+                    Path linePath = Paths.get(line);
+                    if (FileUtils.isWindowsShortcut(linePath)) continue;
+
+                    // single read of attributes, only symbolic links are read again
+                    BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(linePath, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                        if (attributes.isSymbolicLink()) {
+                            linePath = linePath.toRealPath();
+                            attributes = Files.readAttributes(linePath, BasicFileAttributes.class);
+                        }
+                    } catch (IOException ioEx) {
+                        continue;
+                    }
+
+                    if (attributes.isDirectory()) {
+                        // search directories in parallel with reading of next lines, each directory once
+                        if (_fileKeys.add(getFileKey(linePath, attributes))) {
+                            DirectoryTask directoryTask = new DirectoryTask(linePath, linePath, 1);
+                            directoryTask.fork();
+                            directoryTasks.add(directoryTask);
+                        }
+                    } else {
+                        // listed files are edited even when they are not recognized as FITS files
+                        offer(linePath, attributes, null);
+                    }
+                }
+
+                for (DirectoryTask directoryTask : directoryTasks)
+                    directoryTask.join();
+            } catch (IOException ioEx) {
+                // input file was checked before discovery, files read so far are processed
+            }
+        }
+
+        private void offer(Path file, BasicFileAttributes attributes, List<Path> fitsCandidates) {
+            // symbolic links to files are resolved to their targets
+            if (attributes.isSymbolicLink()) {
+                try {
+                    file = file.toRealPath();
+                    attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                } catch (IOException ioEx) {
+                    return;
+                }
+            }
+            if (!attributes.isRegularFile())
+                return;
+
+            // size of FITS file is known without reading it
+            if (fitsCandidates != null && !FitsPrescreen.hasBlockLayout(attributes.size()))
+                return;
+
+            // the same file can be reached through symbolic or hard links
+            if (!_fileKeys.add(getFileKey(file, attributes)))
+                return;
+
+            if (fitsCandidates == null) {
+                offer(file.toFile());
+            } else {
+                fitsCandidates.add(file);
+                if (fitsCandidates.size() >= FitsPrescreen.BATCH_SIZE)
+                    offerFitsFiles(fitsCandidates);
+            }
+        }
+
+        private void offerFitsFiles(List<Path> fitsCandidates) {
+            if (fitsCandidates == null || fitsCandidates.isEmpty())
+                return;
+
+            for (Path fitsFile : FitsPrescreen.screen(fitsCandidates))
+                offer(fitsFile.toFile());
+            fitsCandidates.clear();
+        }
+
+        private void offer(File file) {
+            try {
+                while (!_queue.offer(file, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (_closed)
+                        throw new CancellationException();
+                }
+            } catch (InterruptedException iEx) {
+                throw new CancellationException();
+            }
+        }
+
+        private final class DirectoryTask extends RecursiveAction {
+
+            private static final long serialVersionUID = 1L;
+
+            private final Path _root;
+            private final Path _directory;
+            private final int _depth;
+
+            DirectoryTask(Path root, Path directory, int depth) {
+                _root = root;
+                _directory = directory;
+                _depth = depth;
+            }
+
+            @Override
+            protected void compute() {
+                if (_closed)
+                    throw new CancellationException();
+
+                List<DirectoryTask> subdirectoryTasks = new ArrayList<>();
+                List<Path> fitsCandidates = _options.isFitsOnly() ? new ArrayList<>(FitsPrescreen.BATCH_SIZE) : null;
+                try {
+                    // attributes of entries are read once while directory is listed
+                    Files.walkFileTree(_directory, NO_OPTIONS, 1, new SimpleFileVisitor<Path>() {
+                        @Override
+                        public FileVisitResult visitFile(Path entry, BasicFileAttributes attributes) {
+                            if (attributes.isDirectory()) {
+                                // sibling directories are searched in parallel
+                                if (_depth < _options.getMaxDepth() && _options.acceptsDirectory(_root, entry)) {
+                                    DirectoryTask subdirectoryTask = new DirectoryTask(_root, entry, _depth + 1);
+                                    subdirectoryTask.fork();
+                                    subdirectoryTasks.add(subdirectoryTask);
+                                }
+                            } else if (!FileUtils.isWindowsShortcut(entry) && !FileSynchronizer.isReplacementFile(entry)
+                                    && _options.acceptsFile(_root, entry)) {
+                                // symbolic links are selected by their names
+                                offer(entry, attributes, fitsCandidates);
+                            }
+
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult visitFileFailed(Path entry, IOException exc) {
+                            // unreadable entries are skipped
+                            return FileVisitResult.CONTINUE;
+                        }
+                    });
+                } catch (IOException ioEx) {
+                    // unreadable nested directories are skipped
+                }
+                offerFitsFiles(fitsCandidates);
+
+                for (DirectoryTask subdirectoryTask : subdirectoryTasks)
+                    subdirectoryTask.join();
+            }
+        }
+    }
+}
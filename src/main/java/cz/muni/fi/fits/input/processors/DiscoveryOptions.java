@@ -0,0 +1,149 @@
+package cz.muni.fi.fits.input.processors;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Internal class with options of discovering FITS files in input directories,
+ * files are selected by maximal depth of directories and by glob patterns
+ * with wildcards <code>*</code> and <code>?</code>. Patterns without
+ * <code>/</code> are matched against names of files, other patterns against
+ * paths relative to input directory. Directories matching exclude pattern
+ * are not entered at all. Files found in directories can be screened
+ * for FITS format by {@link FitsPrescreen}
+ *
+ * @author Martin Vrábel
+ * @version 1.1
+ */
+final class DiscoveryOptions {
+
+    /**
+     * Depth of directories when all nested directories are searched
+     */
+    static final int UNLIMITED_DEPTH = Integer.MAX_VALUE;
+
+    private static final int DEFAULT_DEPTH = 1;
+    private static final String PATH_SEPARATOR = "/";
+    private static final DiscoveryOptions DEFAULT = new DiscoveryOptions(DEFAULT_DEPTH,
+            Collections.<String>emptyList(), Collections.<String>emptyList(), false);
+
+    private final int _maxDepth;
+    private final List<Matcher> _includes;
+    private final List<Matcher> _excludes;
+    private final boolean _fitsOnly;
+
+    /**
+     * Creates new {@link DiscoveryOptions} object that does not screen files for FITS format
+     *
+     * @param maxDepth  maximal depth of searched directories, <code>1</code> means
+     *                  only files directly in input directory are searched
+     * @param includes  glob patterns of files to include, all files are included when empty
+     * @param excludes  glob patterns of files and directories to exclude
+     * @throws IllegalArgumentException when some pattern is not valid glob pattern
+     */
+    DiscoveryOptions(int maxDepth, List<String> includes, List<String> excludes) {
+        this(maxDepth, includes, excludes, false);
+    }
+
+    /**
+     * Creates new {@link DiscoveryOptions} object
+     *
+     * @param maxDepth  maximal depth of searched directories, <code>1</code> means
+     *                  only files directly in input directory are searched
+     * @param includes  glob patterns of files to include, all files are included when empty
+     * @param excludes  glob patterns of files and directories to exclude
+     * @param fitsOnly  <code>true</code> when files found in directories
+     *                  that are not FITS files are dropped
+     * @throws IllegalArgumentException when some pattern is not valid glob pattern
+     */
+    DiscoveryOptions(int maxDepth, List<String> includes, List<String> excludes, boolean fitsOnly) {
+        if (maxDepth < 1)
+            throw new IllegalArgumentException("maxDepth must be positive number");
+        if (includes == null)
+            throw new IllegalArgumentException("includes is null");
+        if (excludes == null)
+            throw new IllegalArgumentException("excludes is null");
+
+        _maxDepth = maxDepth;
+        _includes = compile(includes);
+        _excludes = compile(excludes);
+        _fitsOnly = fitsOnly;
+    }
+
+    /**
+     * Gets options searching only files directly in input directory without any filter
+     *
+     * @return  default options
+     */
+    static DiscoveryOptions defaults() {
+        return DEFAULT;
+    }
+
+    int getMaxDepth() {
+        return _maxDepth;
+    }
+
+    boolean isFitsOnly() {
+        return _fitsOnly;
+    }
+
+    /**
+     * Determines whether <code>file</code> found in <code>root</code> directory is selected
+     *
+     * @param root  input directory in which file was found
+     * @param file  found file
+     * @return      <code>true</code> when file matches some include pattern
+     *              and does not match any exclude pattern
+     */
+    boolean acceptsFile(Path root, Path file) {
+        return (_includes.isEmpty() || matchesAny(_includes, root, file)) && !matchesAny(_excludes, root, file);
+    }
+
+    /**
+     * Determines whether <code>directory</code> found in <code>root</code> directory is searched
+     *
+     * @param root      input directory in which directory was found
+     * @param directory found directory
+     * @return          <code>true</code> when directory does not match any exclude pattern
+     */
+    boolean acceptsDirectory(Path root, Path directory) {
+        return !matchesAny(_excludes, root, directory);
+    }
+
+    private static boolean matchesAny(List<Matcher> matchers, Path root, Path file) {
+        for (Matcher matcher : matchers) {
+            Path matched = matcher._relativePath ? root.relativize(file) : file.getFileName();
+            if (matched != null && matcher._pathMatcher.matches(matched))
+                return true;
+        }
+
+        return false;
+    }
+
+    private static List<Matcher> compile(List<String> patterns) {
+        List<Matcher> matchers = new ArrayList<>(patterns.size());
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.isEmpty())
+                throw new IllegalArgumentException("Glob pattern is empty");
+
+            matchers.add(new Matcher(FileSystems.getDefault().getPathMatcher("glob:" + pattern),
+                    pattern.contains(PATH_SEPARATOR)));
+        }
+
+        return Collections.unmodifiableList(matchers);
+    }
+
+    private static final class Matcher {
+        private final PathMatcher _pathMatcher;
+        private final boolean _relativePath;
+
+        Matcher(PathMatcher pathMatcher, boolean relativePath) {
+            _pathMatcher = pathMatcher;
+            _relativePath = relativePath;
+        }
+    }
+}
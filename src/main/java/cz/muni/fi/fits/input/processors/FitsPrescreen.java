@@ -0,0 +1,150 @@
+package cz.muni.fi.fits.input.processors;
+
+import cz.muni.fi.fits.common.utils.Constants;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Internal helper class recognizing FITS files before they are passed to editing,
+ * so logs, previews or catalogs found in input directories do not cost full
+ * open of the file in editing engine. File is recognized by size of whole FITS blocks
+ * and by its first header card that must be <code>SIMPLE</code> card. First cards
+ * of all files in batch are read asynchronously at once, so latencies of reads
+ * on network file systems overlap. Files that cannot be read are not dropped,
+ * so editing engine reports the error
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+final class FitsPrescreen {
+
+    /**
+     * Recommended number of files screened at once
+     */
+    static final int BATCH_SIZE = 64;
+
+    private static final byte[] PRIMARY_CARD_START = "SIMPLE  = ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte FIRST_PRINTABLE_CHARACTER = 0x20;
+    private static final byte LAST_PRINTABLE_CHARACTER = 0x7E;
+
+    /**
+     * Checks whether file of provided <code>size</code> consists of whole FITS blocks
+     *
+     * @param size  size of file in bytes
+     * @return      <code>true</code> if file contains at least one block
+     *              and its size is multiple of block size, <code>false</code> otherwise
+     */
+    static boolean hasBlockLayout(long size) {
+        return size >= Constants.FITS_BLOCK_SIZE && size % Constants.FITS_BLOCK_SIZE == 0;
+    }
+
+    /**
+     * Checks whether provided <code>card</code> is <code>SIMPLE</code> card
+     * that starts primary header of FITS file
+     *
+     * @param card  first header card of file
+     * @return      <code>true</code> if card starts with <code>SIMPLE</code> keyword
+     *              and value indicator and contains only printable ASCII characters,
+     *              <code>false</code> otherwise
+     */
+    static boolean isPrimaryCard(byte[] card) {
+        if (card == null)
+            throw new IllegalArgumentException("card is null");
+
+        if (card.length != Constants.HEADER_CARD_SIZE)
+            return false;
+
+        for (int i = 0; i < PRIMARY_CARD_START.length; i++) {
+            if (card[i] != PRIMARY_CARD_START[i])
+                return false;
+        }
+        for (byte character : card) {
+            if (character < FIRST_PRINTABLE_CHARACTER || character > LAST_PRINTABLE_CHARACTER)
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Selects FITS files from provided <code>files</code>, first cards
+     * of all files are read at once
+     *
+     * @param files files to screen
+     * @return      files in the same order without files recognized as non-FITS files
+     * @throws CancellationException when thread is interrupted while waiting for reads
+     */
+    static List<Path> screen(List<Path> files) {
+        if (files == null)
+            throw new IllegalArgumentException("files is null");
+
+        AsynchronousFileChannel[] channels = new AsynchronousFileChannel[files.size()];
+        ByteBuffer[] cards = new ByteBuffer[files.size()];
+        List<Future<Integer>> reads = new ArrayList<>(files.size());
+        try {
+            // start reads of all files
+            for (int i = 0; i < files.size(); i++) {
+                cards[i] = ByteBuffer.allocate(Constants.HEADER_CARD_SIZE);
+                try {
+                    channels[i] = AsynchronousFileChannel.open(files.get(i), StandardOpenOption.READ);
+                    reads.add(channels[i].read(cards[i], 0));
+                } catch (IOException | UnsupportedOperationException ex) {
+                    reads.add(null);
+                }
+            }
+
+            // wait for reads in order of files
+            List<Path> fitsFiles = new ArrayList<>(files.size());
+            for (int i = 0; i < files.size(); i++) {
+                if (reads.get(i) == null || isFitsFile(channels[i], cards[i], reads.get(i)))
+                    fitsFiles.add(files.get(i));
+            }
+
+            return fitsFiles;
+        } catch (InterruptedException iEx) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException();
+        } finally {
+            for (AsynchronousFileChannel channel : channels)
+                close(channel);
+        }
+    }
+
+    private static boolean isFitsFile(AsynchronousFileChannel channel, ByteBuffer card, Future<Integer> read)
+            throws InterruptedException {
+        try {
+            // single read returns whole card unless the file is shorter
+            int bytesRead = read.get();
+            while (bytesRead >= 0 && card.hasRemaining())
+                bytesRead = channel.read(card, card.position()).get();
+        } catch (ExecutionException eEx) {
+            // engine reports error of unreadable file
+            return true;
+        }
+
+        return !card.hasRemaining() && isPrimaryCard(card.array());
+    }
+
+    private static void close(AsynchronousFileChannel channel) {
+        if (channel == null)
+            return;
+
+        try {
+            channel.close();
+        } catch (IOException ioEx) {
+            // nothing was written to file
+        }
+    }
+
+    private FitsPrescreen() {}
+}
@@ -1,14 +1,15 @@
 package cz.muni.fi.fits.input.validators;
 
-import com.google.common.base.CharMatcher;
 import cz.muni.fi.fits.engine.models.Declination;
 import cz.muni.fi.fits.engine.models.RightAscension;
 import cz.muni.fi.fits.common.exceptions.ValidationException;
 import cz.muni.fi.fits.input.models.*;
 import cz.muni.fi.fits.models.ChainValueType;
 import cz.muni.fi.fits.models.DegreesObject;
+import cz.muni.fi.fits.models.HeaderPredicate;
 import cz.muni.fi.fits.models.TimeObject;
 import cz.muni.fi.fits.common.utils.Constants;
+import cz.muni.fi.fits.common.utils.StringUtils;
 import cz.muni.fi.fits.common.utils.Tuple;
 
 import java.math.BigDecimal;
@@ -19,7 +20,7 @@ import java.time.LocalDateTime;
  * for validation of input data
  *
  * @author Martin Vrábel
- * @version 1.2.6
+ * @version 1.8
  */
 public class DefaultInputDataValidator implements InputDataValidator {
 
@@ -73,7 +74,7 @@ public class DefaultInputDataValidator implements InputDataValidator {
             if (strValue.length() > Constants.MAX_STRING_VALUE_LENGTH)
                 throw new ValidationException("String value has exceeded maximum allowed length of " + Constants.MAX_STRING_VALUE_LENGTH + " characters");
             // check for invalid characters
-            if (!CharMatcher.ASCII.matchesAllOf(strValue))
+            if (!StringUtils.isAscii(strValue))
                 throw new ValidationException("String value contains invalid non-ASCII characters");
         }
         // if value is double, check for NaN or Infinity
@@ -91,7 +92,7 @@ public class DefaultInputDataValidator implements InputDataValidator {
         // if contains comment check for allowed comment length
         if (addNewRecordInputData.getComment() != null && !addNewRecordInputData.getComment().isEmpty()) {
             // check for invalid characters
-            if (!CharMatcher.ASCII.matchesAllOf(addNewRecordInputData.getComment()))
+            if (!StringUtils.isAscii(addNewRecordInputData.getComment()))
                 throw new ValidationException("Comment contains invalid non-ASCII characters");
             // check for comment allowed length
             if (addNewRecordInputData.getComment().length() > Constants.MAX_COMMENT_LENGTH)
@@ -164,7 +165,7 @@ public class DefaultInputDataValidator implements InputDataValidator {
             if (strValue.length() > Constants.MAX_STRING_VALUE_LENGTH)
                 throw new ValidationException("String value has exceeded maximum allowed length of " + Constants.MAX_STRING_VALUE_LENGTH + " characters");
             // check for invalid characters
-            if (!CharMatcher.ASCII.matchesAllOf(strValue))
+            if (!StringUtils.isAscii(strValue))
                 throw new ValidationException("Comment contains invalid non-ASCII characters");
         }
         // if value is double, check for NaN or Infinity
@@ -182,7 +183,7 @@ public class DefaultInputDataValidator implements InputDataValidator {
         // if contains comment check for allowed comment length
         if (addNewToIndexInputData.getComment() != null && !addNewToIndexInputData.getComment().isEmpty()) {
             // check for invalid characters
-            if (!CharMatcher.ASCII.matchesAllOf(addNewToIndexInputData.getComment()))
+            if (!StringUtils.isAscii(addNewToIndexInputData.getComment()))
                 throw new ValidationException("Comment contains invalid non-ASCII characters");
             // check for comment allowed length
             if (addNewToIndexInputData.getComment().length() > Constants.MAX_COMMENT_LENGTH)
@@ -350,7 +351,7 @@ public class DefaultInputDataValidator implements InputDataValidator {
             if (strValue.length() > Constants.MAX_STRING_VALUE_LENGTH)
                 throw new ValidationException("String value has exceeded maximum allowed length of " + Constants.MAX_STRING_VALUE_LENGTH + " characters");
             // check for invalid characters
-            if (!CharMatcher.ASCII.matchesAllOf(strValue))
+            if (!StringUtils.isAscii(strValue))
                 throw new ValidationException("String value contains invalid non-ASCII characters");
         }
         // if value is double, check for NaN or Infinity
@@ -369,7 +370,7 @@ public class DefaultInputDataValidator implements InputDataValidator {
         // if contains comment check for allowed comment length
         if (changeValueByKeywordInputData.getComment() != null && !changeValueByKeywordInputData.getComment().isEmpty()) {
             // check for invalid characters
-            if (!CharMatcher.ASCII.matchesAllOf(changeValueByKeywordInputData.getComment()))
+            if (!StringUtils.isAscii(changeValueByKeywordInputData.getComment()))
                 throw new ValidationException("Comment contains invalid non-ASCII characters");
             // check for comment allowed length
             if (changeValueByKeywordInputData.getComment().length() > Constants.MAX_COMMENT_LENGTH)
@@ -432,7 +433,7 @@ public class DefaultInputDataValidator implements InputDataValidator {
                 if (constant == null)
                     throw new ValidationException("Constant in chain values cannot be null");
                 // check for invalid characters
-                if (!CharMatcher.ASCII.matchesAllOf(constant))
+                if (!StringUtils.isAscii(constant))
                     throw new ValidationException("Constant '" + constant + "' in chain values  contains invalid non-ASCII characters");
 
                 constantsLength += constant.length();
@@ -474,7 +475,7 @@ public class DefaultInputDataValidator implements InputDataValidator {
         // if contains comment check for allowed value/comment length
         if (chainRecordsInputData.getComment() != null && !chainRecordsInputData.getComment().isEmpty()) {
             // check for invalid characters
-            if (!CharMatcher.ASCII.matchesAllOf(chainRecordsInputData.getComment()))
+            if (!StringUtils.isAscii(chainRecordsInputData.getComment()))
                 throw new ValidationException("Comment contains invalid non-ASCII characters");
             // check for comment allowed length
             if (chainRecordsInputData.getComment().length() > Constants.MAX_COMMENT_LENGTH)
@@ -504,21 +505,31 @@ public class DefaultInputDataValidator implements InputDataValidator {
         // fits files collection cannot be empty
         validateCommonInputData(shiftTimeInputData);
 
-        // keyword cannot be null
-        if (shiftTimeInputData.getKeyword() == null)
+        // keywords cannot be null
+        if (shiftTimeInputData.getKeywords() == null || shiftTimeInputData.getKeyword() == null)
             throw new ValidationException("Keyword cannot be null");
 
-        // keyword cannot be empty
-        if (shiftTimeInputData.getKeyword().isEmpty())
-            throw new ValidationException("Keyword cannot be empty");
+        for (String keyword : shiftTimeInputData.getKeywords()) {
+            // keyword cannot be null
+            if (keyword == null)
+                throw new ValidationException("Keyword cannot be null");
 
-        // check for keyword's allowed characters
-        if (!shiftTimeInputData.getKeyword().matches(Constants.KEYWORD_REGEX))
-            throw new ValidationException("Keyword contains invalid characters");
+            // keyword cannot be empty
+            if (keyword.isEmpty())
+                throw new ValidationException("Keyword cannot be empty");
 
-        // check for allowed keyword length
-        if (shiftTimeInputData.getKeyword().length() > Constants.MAX_KEYWORD_LENGTH)
-            throw new ValidationException("Keyword has exceeded maximum allowed length of " + Constants.MAX_KEYWORD_LENGTH + " characters");
+            // check for keyword's allowed characters, wildcards are allowed
+            if (!keyword.matches(Constants.KEYWORD_PATTERN_REGEX))
+                throw new ValidationException("Keyword '" + keyword + "' contains invalid characters");
+
+            // check for allowed keyword length
+            if (keyword.length() > Constants.MAX_KEYWORD_LENGTH)
+                throw new ValidationException("Keyword '" + keyword + "' has exceeded maximum allowed length of " + Constants.MAX_KEYWORD_LENGTH + " characters");
+        }
+
+        // shifts are interpolated from correction table
+        if (shiftTimeInputData.getCorrectionTable() != null)
+            return;
 
         // check if time shift parameters contains only 0's
         if (shiftTimeInputData.getYearShift() == 0
@@ -612,7 +623,7 @@ public class DefaultInputDataValidator implements InputDataValidator {
         if (computeJDInputData.getComment() != null
                 && !computeJDInputData.getComment().equals(Constants.DEFAULT_HJD_COMMENT)) {
             // check for comment's invalid characters
-            if (!CharMatcher.ASCII.matchesAllOf(computeJDInputData.getComment()))
+            if (!StringUtils.isAscii(computeJDInputData.getComment()))
                 throw new ValidationException("Comment contains invalid non-ASCII characters");
 
             // check for comment's allowed length
@@ -849,7 +860,7 @@ public class DefaultInputDataValidator implements InputDataValidator {
         if (computeHJDInputData.getComment() != null
                 && !computeHJDInputData.getComment().equals(Constants.DEFAULT_HJD_COMMENT)) {
             // check for comment's invalid characters
-            if (!CharMatcher.ASCII.matchesAllOf(computeHJDInputData.getComment()))
+            if (!StringUtils.isAscii(computeHJDInputData.getComment()))
                 throw new ValidationException("Comment contains invalid non-ASCII characters");
 
             // check for comment's allowed length
@@ -858,6 +869,162 @@ public class DefaultInputDataValidator implements InputDataValidator {
         }
     }
 
+    /**
+     * Validates input data for operation <b>Reserve header space</b>
+     *
+     * @param reserveInputData      input data to validate
+     * @throws ValidationException  {@inheritDoc}
+     */
+    @Override
+    public void validate(ReserveInputData reserveInputData)
+            throws ValidationException {
+        if (reserveInputData == null)
+            throw new IllegalArgumentException("reserveInputData is null");
+
+        // fits files collection cannot be empty
+        validateCommonInputData(reserveInputData);
+
+        // number of records must be positive number
+        if (reserveInputData.getRecords() <= 0)
+            throw new ValidationException("Number of records to reserve must be number bigger than 0");
+    }
+
+    /**
+     * Validates input data for operation <b>Execute script</b>
+     * including input data of all operations in script
+     *
+     * @param scriptInputData       input data to validate
+     * @throws ValidationException  {@inheritDoc}
+     */
+    @Override
+    public void validate(ScriptInputData scriptInputData)
+            throws ValidationException {
+        if (scriptInputData == null)
+            throw new IllegalArgumentException("scriptInputData is null");
+
+        // fits files collection cannot be empty
+        validateCommonInputData(scriptInputData);
+
+        // script must contain at least one operation
+        if (scriptInputData.getOperations() == null || scriptInputData.getOperations().isEmpty())
+            throw new ValidationException("Script does not contain any operation");
+
+        int line = 0;
+        for (InputData operation : scriptInputData.getOperations()) {
+            line++;
+            if (operation == null)
+                throw new ValidationException("Operation " + line + " of script cannot be null");
+
+            try {
+                validateScriptOperation(operation);
+            } catch (ValidationException vEx) {
+                throw new ValidationException("Operation " + line + " of script is invalid: " + vEx.getMessage(), vEx);
+            }
+        }
+    }
+
+    private void validateScriptOperation(InputData operation)
+            throws ValidationException {
+        switch (operation.getOperationType()) {
+            case ADD_NEW_RECORD_TO_END:
+                validate((AddNewRecordInputData) operation);
+                break;
+
+            case ADD_NEW_RECORD_TO_INDEX:
+                validate((AddNewToIndexInputData) operation);
+                break;
+
+            case REMOVE_RECORD_BY_KEYWORD:
+                validate((RemoveByKeywordInputData) operation);
+                break;
+
+            case REMOVE_RECORD_FROM_INDEX:
+                validate((RemoveFromIndexInputData) operation);
+                break;
+
+            case CHANGE_KEYWORD:
+                validate((ChangeKeywordInputData) operation);
+                break;
+
+            case CHANGE_VALUE_BY_KEYWORD:
+                validate((ChangeValueByKeywordInputData) operation);
+                break;
+
+            case CHAIN_RECORDS:
+                validate((ChainRecordsInputData) operation);
+                break;
+
+            case SHIFT_TIME:
+                validate((ShiftTimeInputData) operation);
+                break;
+
+            case COMPUTE_JD:
+                validate((ComputeJDInputData) operation);
+                break;
+
+            case COMPUTE_HJD:
+                validate((ComputeHJDInputData) operation);
+                break;
+
+            case RESERVE_HEADER_SPACE:
+                validate((ReserveInputData) operation);
+                break;
+
+            default:
+                throw new ValidationException("Operation " + operation.getOperationType() + " cannot be used in script");
+        }
+    }
+
+    /**
+     * Validates input data for operation <b>Filter files by header</b>
+     *
+     * @param filterInputData       input data to validate
+     * @throws ValidationException  {@inheritDoc}
+     */
+    @Override
+    public void validate(FilterInputData filterInputData)
+            throws ValidationException {
+        if (filterInputData == null)
+            throw new IllegalArgumentException("filterInputData is null");
+
+        // fits files collection cannot be empty
+        validateCommonInputData(filterInputData);
+
+        // output path cannot be empty
+        if (filterInputData.getOutputPath() == null || filterInputData.getOutputPath().isEmpty())
+            throw new ValidationException("Path to output list of files cannot be empty");
+
+        // filter is applied to primary header only
+        if (!filterInputData.getHduSelector().isPrimaryOnly())
+            throw new ValidationException("Files can be filtered only by primary header");
+
+        // at least one condition is required
+        if (filterInputData.getPredicates() == null || filterInputData.getPredicates().isEmpty())
+            throw new ValidationException("No conditions provided for filter");
+
+        for (HeaderPredicate predicate : filterInputData.getPredicates()) {
+            String keyword = predicate.getKeyword();
+
+            // keyword cannot be empty
+            if (keyword.isEmpty())
+                throw new ValidationException("Keyword of condition cannot be empty");
+
+            // check for keyword's allowed characters
+            if (!keyword.matches(Constants.KEYWORD_REGEX))
+                throw new ValidationException("Keyword of condition '" + predicate + "' contains invalid characters");
+
+            // check for allowed keyword length
+            if (keyword.length() > Constants.MAX_KEYWORD_LENGTH)
+                throw new ValidationException("Keyword of condition '" + predicate + "' has exceeded maximum allowed length of " + Constants.MAX_KEYWORD_LENGTH + " characters");
+
+            // range must not be empty
+            if (predicate.getType() == HeaderPredicate.Type.RANGE
+                    && predicate.getMinValue() != null && predicate.getMaxValue() != null
+                    && predicate.getMinValue().compareTo(predicate.getMaxValue()) > 0)
+                throw new ValidationException("Lower bound of range in condition '" + predicate + "' is bigger than upper bound");
+        }
+    }
+
     /**
      * Validates correctness of input FITS files in input data
      *
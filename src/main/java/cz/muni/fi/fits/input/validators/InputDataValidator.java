@@ -8,7 +8,7 @@ import cz.muni.fi.fits.input.models.*;
  * if they are in correct form
  *
  * @author Martin Vrábel
- * @version 1.0
+ * @version 1.3
  */
 public interface InputDataValidator {
 
@@ -91,4 +91,29 @@ public interface InputDataValidator {
      * @throws ValidationException  when input data are in invalid form
      */
     void validate(ComputeHJDInputData computeHJDInputData) throws ValidationException;
+
+    /**
+     * Validates input data for operation <b>Reserve header space</b>
+     *
+     * @param reserveInputData      input data to validate
+     * @throws ValidationException  when input data are in invalid form
+     */
+    void validate(ReserveInputData reserveInputData) throws ValidationException;
+
+    /**
+     * Validates input data for operation <b>Execute script</b>
+     * including input data of all operations in script
+     *
+     * @param scriptInputData       input data to validate
+     * @throws ValidationException  when input data are in invalid form
+     */
+    void validate(ScriptInputData scriptInputData) throws ValidationException;
+
+    /**
+     * Validates input data for operation <b>Filter files by header</b>
+     *
+     * @param filterInputData       input data to validate
+     * @throws ValidationException  when input data are in invalid form
+     */
+    void validate(FilterInputData filterInputData) throws ValidationException;
 }
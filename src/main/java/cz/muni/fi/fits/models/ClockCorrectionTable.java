@@ -0,0 +1,160 @@
+package cz.muni.fi.fits.models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Table of clock corrections measured at specified times. Every row contains
+ * ISO-8601 time of measurement followed by correction in seconds that is added
+ * to time measured by clock, columns are separated by whitespaces, comma
+ * or semicolon and lines starting with <code>#</code> are comments.
+ * Rows are kept in sorted primitive arrays, so correction for any time
+ * is found by binary search and interpolated linearly between
+ * the two nearest rows without allocating any objects
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public final class ClockCorrectionTable {
+
+    private static final String COMMENT_PREFIX = "#";
+    private static final String COLUMN_SEPARATOR_REGEX = "[\\s,;]+";
+    private static final long NANOS_PER_SECOND = 1000L * 1000L * 1000L;
+
+    // times of rows in nanoseconds since epoch and their corrections in nanoseconds
+    private final long[] _times;
+    private final long[] _corrections;
+
+    private ClockCorrectionTable(long[] times, long[] corrections) {
+        _times = times;
+        _corrections = corrections;
+    }
+
+    /**
+     * Parses clock correction table from its <code>lines</code>,
+     * rows do not have to be ordered by their times
+     *
+     * @param lines lines of table
+     * @return      new table with all rows of provided lines
+     * @throws IllegalArgumentException when any row is in invalid format,
+     *                                  two rows have the same time or table is empty
+     */
+    public static ClockCorrectionTable parse(List<String> lines) {
+        if (lines == null)
+            throw new IllegalArgumentException("lines is null");
+
+        long[] times = new long[lines.size()];
+        long[] corrections = new long[lines.size()];
+        int size = 0;
+        boolean sorted = true;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith(COMMENT_PREFIX))
+                continue;
+
+            String[] columns = line.split(COLUMN_SEPARATOR_REGEX);
+            if (columns.length != 2)
+                throw new IllegalArgumentException("Row on line " + (i + 1) + " must contain time and correction");
+
+            try {
+                times[size] = toNanos(LocalDateTime.parse(columns[0]));
+                corrections[size] = new BigDecimal(columns[1]).movePointRight(9).setScale(0, RoundingMode.HALF_UP).longValueExact();
+            } catch (DateTimeParseException | ArithmeticException | NumberFormatException ex) {
+                throw new IllegalArgumentException("Row on line " + (i + 1) + " is in invalid format: " + ex.getMessage());
+            }
+
+            if (size > 0 && times[size] <= times[size - 1])
+                sorted = false;
+            size++;
+        }
+
+        if (size == 0)
+            throw new IllegalArgumentException("Table does not contain any row");
+
+        times = Arrays.copyOf(times, size);
+        corrections = Arrays.copyOf(corrections, size);
+        if (!sorted)
+            sortByTimes(times, corrections);
+
+        return new ClockCorrectionTable(times, corrections);
+    }
+
+    /**
+     * Gets number of rows in table
+     *
+     * @return  number of rows
+     */
+    public int size() {
+        return _times.length;
+    }
+
+    /**
+     * Determines whether <code>time</code> lies between the first
+     * and the last row of table, both inclusive
+     *
+     * @param time  time to check
+     * @return      <code>true</code> when correction for time can be interpolated,
+     *              otherwise <code>false</code>
+     */
+    public boolean covers(LocalDateTime time) {
+        if (time == null)
+            throw new IllegalArgumentException("time is null");
+
+        long nanos = toNanos(time);
+        return nanos >= _times[0] && nanos <= _times[_times.length - 1];
+    }
+
+    /**
+     * Gets clock correction for specified <code>time</code> interpolated
+     * linearly between the two nearest rows of table
+     *
+     * @param time  time for which to get correction
+     * @return      correction in nanoseconds
+     * @throws IllegalArgumentException when time is not covered by table
+     */
+    public long getCorrectionNanos(LocalDateTime time) {
+        if (!covers(time))
+            throw new IllegalArgumentException("Time " + time + " is not covered by clock correction table");
+
+        long nanos = toNanos(time);
+        int index = Arrays.binarySearch(_times, nanos);
+        if (index >= 0)
+            return _corrections[index];
+
+        // time lies between two rows
+        int next = -index - 1;
+        int previous = next - 1;
+        double ratio = (double) (nanos - _times[previous]) / (_times[next] - _times[previous]);
+        return _corrections[previous] + Math.round((_corrections[next] - _corrections[previous]) * ratio);
+    }
+
+    private static long toNanos(LocalDateTime time) {
+        return Math.addExact(Math.multiplyExact(time.toEpochSecond(ZoneOffset.UTC), NANOS_PER_SECOND), time.getNano());
+    }
+
+    private static void sortByTimes(long[] times, long[] corrections) {
+        // insertion sort keeps arrays primitive, unsorted tables are rare
+        for (int i = 1; i < times.length; i++) {
+            long time = times[i];
+            long correction = corrections[i];
+            int j = i - 1;
+            while (j >= 0 && times[j] > time) {
+                times[j + 1] = times[j];
+                corrections[j + 1] = corrections[j];
+                j--;
+            }
+            times[j + 1] = time;
+            corrections[j + 1] = correction;
+        }
+
+        for (int i = 1; i < times.length; i++) {
+            if (times[i] == times[i - 1])
+                throw new IllegalArgumentException("Table contains multiple rows for the same time");
+        }
+    }
+}
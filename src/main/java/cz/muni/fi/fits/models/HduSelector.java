@@ -0,0 +1,198 @@
+package cz.muni.fi.fits.models;
+
+/**
+ * Class selecting HDU units of FITS file in which to edit header,
+ * HDU units can be selected by index, by value of <code>EXTNAME</code>
+ * and optionally <code>EXTVER</code> keyword, or all HDU units can be selected
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public final class HduSelector {
+
+    /**
+     * Index of primary HDU unit
+     */
+    public static final int PRIMARY_INDEX = 0;
+
+    /**
+     * Default value of <code>EXTVER</code> keyword when it is not present in header
+     */
+    public static final int DEFAULT_EXTVER = 1;
+
+    private static final HduSelector PRIMARY = new HduSelector(Type.INDEX, PRIMARY_INDEX, null, null);
+    private static final HduSelector ALL = new HduSelector(Type.ALL, -1, null, null);
+
+    private final Type _type;
+    private final int _index;
+    private final String _extname;
+    private final Integer _extver;
+
+    private HduSelector(Type type, int index, String extname, Integer extver) {
+        _type = type;
+        _index = index;
+        _extname = extname;
+        _extver = extver;
+    }
+
+    /**
+     * Gets selector of primary HDU unit
+     *
+     * @return  selector of primary HDU unit
+     */
+    public static HduSelector primary() {
+        return PRIMARY;
+    }
+
+    /**
+     * Gets selector of all HDU units in file
+     *
+     * @return  selector of all HDU units
+     */
+    public static HduSelector all() {
+        return ALL;
+    }
+
+    /**
+     * Creates selector of HDU unit on specified <code>index</code>,
+     * primary HDU unit has index {@link #PRIMARY_INDEX}
+     *
+     * @param index index of HDU unit in file
+     * @return      selector of HDU unit on index
+     */
+    public static HduSelector index(int index) {
+        if (index < 0)
+            throw new IllegalArgumentException("index cannot be negative");
+
+        return index == PRIMARY_INDEX ? PRIMARY : new HduSelector(Type.INDEX, index, null, null);
+    }
+
+    /**
+     * Creates selector of extension HDU units with specified value
+     * of <code>EXTNAME</code> keyword, regardless of their <code>EXTVER</code> value
+     *
+     * @param extname   value of <code>EXTNAME</code> keyword
+     * @return          selector of extension HDU units with name
+     */
+    public static HduSelector extension(String extname) {
+        return extension(extname, null);
+    }
+
+    /**
+     * Creates selector of extension HDU units with specified values
+     * of <code>EXTNAME</code> and <code>EXTVER</code> keywords
+     *
+     * @param extname   value of <code>EXTNAME</code> keyword
+     * @param extver    value of <code>EXTVER</code> keyword, insert <code>null</code>
+     *                  to select HDU units with any version
+     * @return          selector of extension HDU units with name and version
+     */
+    public static HduSelector extension(String extname, Integer extver) {
+        if (extname == null)
+            throw new IllegalArgumentException("extname is null");
+        if (extname.trim().isEmpty())
+            throw new IllegalArgumentException("extname is empty");
+
+        return new HduSelector(Type.EXTNAME, -1, extname.trim(), extver);
+    }
+
+    public Type getType() {
+        return _type;
+    }
+
+    public int getIndex() {
+        return _index;
+    }
+
+    public String getExtname() {
+        return _extname;
+    }
+
+    public Integer getExtver() {
+        return _extver;
+    }
+
+    /**
+     * Checks whether this selector selects only primary HDU unit
+     *
+     * @return  <code>true</code> when only primary HDU unit is selected,
+     *          <code>false</code> otherwise
+     */
+    public boolean isPrimaryOnly() {
+        return _type == Type.INDEX && _index == PRIMARY_INDEX;
+    }
+
+    /**
+     * Checks whether HDU unit with provided properties is selected by this selector
+     *
+     * @param index     index of HDU unit in file
+     * @param extname   value of <code>EXTNAME</code> keyword in header of HDU unit,
+     *                  or <code>null</code> if not present
+     * @param extver    value of <code>EXTVER</code> keyword in header of HDU unit,
+     *                  {@link #DEFAULT_EXTVER} if not present
+     * @return          <code>true</code> if HDU unit is selected, <code>false</code> otherwise
+     */
+    public boolean matches(int index, String extname, int extver) {
+        switch (_type) {
+            case ALL:
+                return true;
+
+            case INDEX:
+                return index == _index;
+
+            case EXTNAME:
+                return extname != null
+                        && _extname.equals(extname.trim())
+                        && (_extver == null || _extver == extver);
+
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Checks whether any HDU unit following the one on specified <code>index</code>
+     * can be selected by this selector, so that scanning of file can stop early
+     *
+     * @param index index of HDU unit in file
+     * @return      <code>true</code> if following HDU units can be selected,
+     *              <code>false</code> otherwise
+     */
+    public boolean canMatchAfter(int index) {
+        return _type != Type.INDEX || index < _index;
+    }
+
+    @Override
+    public String toString() {
+        switch (_type) {
+            case ALL:
+                return "all HDU units";
+
+            case INDEX:
+                return "HDU unit " + _index;
+
+            default:
+                return "HDU unit " + _extname + (_extver != null ? "," + _extver : "");
+        }
+    }
+
+    /**
+     * Enum with types of HDU unit selection
+     */
+    public enum Type {
+        /**
+         * Selection of single HDU unit by its index
+         */
+        INDEX,
+
+        /**
+         * Selection of extension HDU units by value of EXTNAME and EXTVER keywords
+         */
+        EXTNAME,
+
+        /**
+         * Selection of all HDU units in file
+         */
+        ALL
+    }
+}
@@ -0,0 +1,185 @@
+package cz.muni.fi.fits.models;
+
+import java.math.BigDecimal;
+import java.util.regex.Pattern;
+
+/**
+ * Class representing condition on value of header record with specified keyword.
+ * Value can be compared for equality, checked to be in numeric range
+ * or matched against regular expression
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public final class HeaderPredicate {
+
+    private final Type _type;
+    private final String _keyword;
+    private final String _value;
+    private final BigDecimal _minValue;
+    private final BigDecimal _maxValue;
+    private final Pattern _pattern;
+
+    private HeaderPredicate(Type type, String keyword, String value,
+                            BigDecimal minValue, BigDecimal maxValue, Pattern pattern) {
+        if (keyword == null)
+            throw new IllegalArgumentException("keyword is null");
+
+        _type = type;
+        _keyword = keyword;
+        _value = value;
+        _minValue = minValue;
+        _maxValue = maxValue;
+        _pattern = pattern;
+    }
+
+    /**
+     * Creates predicate satisfied when value of record is equal to <code>value</code>,
+     * numeric values are compared by their numeric value
+     *
+     * @param keyword   keyword of record which value to check
+     * @param value     expected value of record
+     * @return          new predicate
+     */
+    public static HeaderPredicate equalTo(String keyword, String value) {
+        if (value == null)
+            throw new IllegalArgumentException("value is null");
+
+        return new HeaderPredicate(Type.EQUALS, keyword, value.trim(), null, null, null);
+    }
+
+    /**
+     * Creates predicate satisfied when numeric value of record is in range
+     * between <code>minValue</code> and <code>maxValue</code>, both inclusive
+     *
+     * @param keyword   keyword of record which value to check
+     * @param minValue  minimal value of record, insert <code>null</code> for no lower bound
+     * @param maxValue  maximal value of record, insert <code>null</code> for no upper bound
+     * @return          new predicate
+     */
+    public static HeaderPredicate inRange(String keyword, BigDecimal minValue, BigDecimal maxValue) {
+        if (minValue == null && maxValue == null)
+            throw new IllegalArgumentException("range has no bounds");
+
+        return new HeaderPredicate(Type.RANGE, keyword, null, minValue, maxValue, null);
+    }
+
+    /**
+     * Creates predicate satisfied when the whole value of record
+     * matches regular expression <code>pattern</code>
+     *
+     * @param keyword   keyword of record which value to check
+     * @param pattern   regular expression to match
+     * @return          new predicate
+     */
+    public static HeaderPredicate matching(String keyword, Pattern pattern) {
+        if (pattern == null)
+            throw new IllegalArgumentException("pattern is null");
+
+        return new HeaderPredicate(Type.REGEX, keyword, null, null, null, pattern);
+    }
+
+    public Type getType() {
+        return _type;
+    }
+
+    public String getKeyword() {
+        return _keyword;
+    }
+
+    public String getValue() {
+        return _value;
+    }
+
+    public BigDecimal getMinValue() {
+        return _minValue;
+    }
+
+    public BigDecimal getMaxValue() {
+        return _maxValue;
+    }
+
+    public Pattern getPattern() {
+        return _pattern;
+    }
+
+    /**
+     * Checks whether provided value of record satisfies this predicate
+     *
+     * @param value value of record without enclosing quotes and comment,
+     *              <code>null</code> when record is not present in header
+     * @return      <code>true</code> if value satisfies this predicate,
+     *              <code>false</code> otherwise
+     */
+    public boolean test(String value) {
+        if (value == null)
+            return false;
+
+        switch (_type) {
+            case EQUALS:
+                if (_value.equals(value.trim()))
+                    return true;
+
+                BigDecimal expected = parseNumber(_value);
+                BigDecimal actual = parseNumber(value);
+                return expected != null && actual != null && expected.compareTo(actual) == 0;
+
+            case RANGE:
+                BigDecimal number = parseNumber(value);
+                return number != null
+                        && (_minValue == null || number.compareTo(_minValue) >= 0)
+                        && (_maxValue == null || number.compareTo(_maxValue) <= 0);
+
+            case REGEX:
+                return _pattern.matcher(value).matches();
+
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        switch (_type) {
+            case EQUALS:
+                return _keyword + "=" + _value;
+
+            case RANGE:
+                return _keyword + "=" + (_minValue != null ? _minValue.toPlainString() : "")
+                        + ".." + (_maxValue != null ? _maxValue.toPlainString() : "");
+
+            default:
+                return _keyword + "~" + _pattern.pattern();
+        }
+    }
+
+    private static BigDecimal parseNumber(String value) {
+        // FITS allows exponent of floating-point numbers to be marked with 'D'
+        String number = value.trim().replace('D', 'E').replace('d', 'e');
+        try {
+            return new BigDecimal(number);
+        } catch (NumberFormatException nfEx) {
+            return null;
+        }
+    }
+
+    /**
+     * Enum with types of conditions on value of header record
+     */
+    public enum Type {
+        /**
+         * Value of record is equal to expected value
+         */
+        EQUALS,
+
+        /**
+         * Numeric value of record is in specified range
+         */
+        RANGE,
+
+        /**
+         * Value of record matches regular expression
+         */
+        REGEX
+    }
+}
@@ -4,7 +4,7 @@ package cz.muni.fi.fits.models;
  * Enumeration of main editing operations
  *
  * @author Martin Vrábel
- * @version 1.2.1
+ * @version 1.5
  */
 public enum OperationType {
     /**
@@ -55,5 +55,20 @@ public enum OperationType {
     /**
      * Operation of computing and saving Heliocentric Julian date to header
      */
-    COMPUTE_HJD
+    COMPUTE_HJD,
+
+    /**
+     * Operation of executing script with multiple operations over single parsed header
+     */
+    EXECUTE_SCRIPT,
+
+    /**
+     * Operation of reserving blank records in header for its future growth
+     */
+    RESERVE_HEADER_SPACE,
+
+    /**
+     * Operation of selecting files by values of their header records
+     */
+    FILTER_FILES
 }
@@ -1,9 +1,9 @@
 package cz.muni.fi.fits.output.writers;
 
-import com.google.inject.Singleton;
 import cz.muni.fi.fits.common.utils.StringUtils;
 
 import java.io.File;
+import java.io.PrintStream;
 import java.time.LocalDateTime;
 
 /**
@@ -11,16 +11,43 @@ import java.time.LocalDateTime;
  * <ul>
  *     <li>to system console</li>
  * </ul>
- * implements {@link OutputWriter} interface
+ * implements {@link OutputWriter} interface, messages and errors
+ * can be also redirected to other streams than standard outputs
  *
  * @author Martin Vrábel
- * @version 1.1.1
+ * @version 1.3
  */
-@Singleton
 public class ConsoleOutputWriter implements OutputWriter {
 
     private static final String UNKNOWN_FILE_NAME = "Unknown file";
 
+    private final PrintStream _out;
+    private final PrintStream _err;
+
+    /**
+     * Creates new {@link ConsoleOutputWriter} writing to standard output
+     * and standard error output
+     */
+    public ConsoleOutputWriter() {
+        this(System.out, System.err);
+    }
+
+    /**
+     * Creates new {@link ConsoleOutputWriter} writing to provided streams
+     *
+     * @param out   stream to which info messages are written
+     * @param err   stream to which errors and exceptions are written
+     */
+    public ConsoleOutputWriter(PrintStream out, PrintStream err) {
+        if (out == null)
+            throw new IllegalArgumentException("out is null");
+        if (err == null)
+            throw new IllegalArgumentException("err is null");
+
+        _out = out;
+        _err = err;
+    }
+
     /**
      * Writes specified <code>infoMessage</code> to standard output
      *
@@ -31,7 +58,7 @@ public class ConsoleOutputWriter implements OutputWriter {
     public boolean writeInfo(String infoMessage) {
         // write only if infoMessage parameter is correct
         if (infoMessage != null) {
-            System.out.println("[" + LocalDateTime.now().toString() + "] INFO >> " + infoMessage);
+            _out.println("[" + LocalDateTime.now().toString() + "] INFO >> " + infoMessage);
 
             return true;
         } else {
@@ -58,7 +85,7 @@ public class ConsoleOutputWriter implements OutputWriter {
 
         // write only if infoMessage parameter is correct
         if (infoMessage != null) {
-            System.out.println("[" + LocalDateTime.now().toString() + "]" +
+            _out.println("[" + LocalDateTime.now().toString() + "]" +
                     " INFO >> [" + filename + "]: " + infoMessage);
 
             return true;
@@ -78,7 +105,7 @@ public class ConsoleOutputWriter implements OutputWriter {
         if (exception != null) {
             String exceptionType = StringUtils.getExceptionType(exception);
 
-            System.err.println("[" + LocalDateTime.now().toString() + "]" +
+            _err.println("[" + LocalDateTime.now().toString() + "]" +
                     " EXCEPTION >>" +
                     " [" + exceptionType + "]: " +
                     exception.getMessage());
@@ -109,7 +136,7 @@ public class ConsoleOutputWriter implements OutputWriter {
 
         String exceptionType = StringUtils.getExceptionType(exception);
 
-        System.err.println("[" + LocalDateTime.now().toString() + "]" +
+        _err.println("[" + LocalDateTime.now().toString() + "]" +
                 " EXCEPTION >>" +
                 " [" + exceptionType + "]: " +
                 errorMessage);
@@ -137,7 +164,7 @@ public class ConsoleOutputWriter implements OutputWriter {
         if (exception != null) {
             String exceptionType = StringUtils.getExceptionType(exception);
 
-            System.err.println("[" + LocalDateTime.now().toString() + "]" +
+            _err.println("[" + LocalDateTime.now().toString() + "]" +
                     " EXCEPTION >>" +
                     " [" + filename + "] -" +
                     " [" + exceptionType + "]: " +
@@ -158,7 +185,7 @@ public class ConsoleOutputWriter implements OutputWriter {
     @Override
     public boolean writeError(String errorMessage) {
         if (errorMessage != null) {
-            System.err.println("[" + LocalDateTime.now().toString() + "]" +
+            _err.println("[" + LocalDateTime.now().toString() + "]" +
                     " ERROR >>" + errorMessage);
 
             return true;
@@ -185,7 +212,7 @@ public class ConsoleOutputWriter implements OutputWriter {
             filename = file.getName();
 
         if (errorMessage != null) {
-            System.err.println("[" + LocalDateTime.now().toString() + "]" +
+            _err.println("[" + LocalDateTime.now().toString() + "]" +
                     " ERROR >>" +
                     " [" + filename + "]: " +
                     errorMessage);
@@ -2,8 +2,8 @@ package cz.muni.fi.fits.output.writers;
 
 import cz.muni.fi.fits.common.utils.StringUtils;
 
-import javax.inject.Singleton;
-import java.io.*;
+import java.io.File;
+import java.io.IOException;
 import java.time.LocalDateTime;
 
 /**
@@ -11,17 +11,18 @@ import java.time.LocalDateTime;
  * <ul>
  * <li>to file specified in constructor</li>
  * </ul>
- * implements {@link OutputWriter} interface
+ * implements {@link OutputWriter} interface. Output file stays open
+ * until writer is closed, messages can be written to it asynchronously
+ * through bounded queue of {@link LogChannel}
  *
  * @author Martin Vrábel
- * @version 1.2
+ * @version 1.4
  */
-@Singleton
 public class FileOutputWriter implements OutputWriter {
 
     private static final String UNKNOWN_FILE_NAME = "Unknown file";
 
-    private final File _outputFile;
+    private final LogChannel _logChannel;
 
     /**
      * Creates new instance of {@link FileOutputWriter} that writes
@@ -34,17 +35,7 @@ public class FileOutputWriter implements OutputWriter {
         if (filePath == null)
             throw new IllegalArgumentException("filePath parameter is null");
 
-        _outputFile = new File(filePath);
-
-        // create output file if it does not exist
-        if (!_outputFile.exists()) {
-            try {
-                if (!_outputFile.createNewFile())
-                    throw new IllegalArgumentException("Invalid filepath parameter");
-            } catch (IOException ioEx) {
-                throw new IllegalArgumentException("Invalid filepath parameter", ioEx);
-            }
-        }
+        _logChannel = openLogChannel(new File(filePath), 0, LogChannel.OverflowPolicy.BLOCK, "Invalid filepath parameter");
     }
 
     /**
@@ -59,17 +50,34 @@ public class FileOutputWriter implements OutputWriter {
         if (outputFile == null)
             throw new IllegalArgumentException("outputFile parameter is null");
 
-        _outputFile = outputFile;
+        _logChannel = openLogChannel(outputFile, 0, LogChannel.OverflowPolicy.BLOCK, "Invalid file parameter");
+    }
 
-        // create output file if it does not exist
-        if (!_outputFile.exists()) {
-            try {
-                if (!_outputFile.createNewFile())
-                    throw new IllegalArgumentException("Invalid file parameter");
-            } catch (IOException ioEx) {
-                throw new IllegalArgumentException("Invalid file parameter", ioEx);
-            }
-        }
+    /**
+     * Creates new instance of {@link FileOutputWriter} that writes
+     * to specified <code>outputFile</code> parameter asynchronously through queue
+     * of specified capacity. File will be created if it does not exist
+     *
+     * @param outputFile                specifies file where to write output data
+     * @param queueCapacity             number of messages waiting to be written to file,
+     *                                  <code>0</code> means messages are written synchronously
+     * @param overflowPolicy            policy applied when queue is full
+     * @throws IllegalArgumentException if provided <code>file</code> parameter contains
+     *                                  invalid File data
+     */
+    public FileOutputWriter(File outputFile, int queueCapacity, LogChannel.OverflowPolicy overflowPolicy) {
+        if (outputFile == null)
+            throw new IllegalArgumentException("outputFile parameter is null");
+
+        _logChannel = openLogChannel(outputFile, queueCapacity, overflowPolicy, "Invalid file parameter");
+    }
+
+    /**
+     * Writes all messages waiting in queue to output file and closes it
+     */
+    @Override
+    public void close() {
+        _logChannel.close();
     }
 
     /**
@@ -81,12 +89,8 @@ public class FileOutputWriter implements OutputWriter {
     @Override
     public boolean writeInfo(String infoMessage) {
         if (infoMessage != null) {
-            try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(_outputFile, true)))) {
-                writer.println("[" + LocalDateTime.now().toString() + "] INFO >> " + infoMessage);
-                return true;
-            } catch (IOException ioEx) {
-                return false;
-            }
+            String message = "[" + LocalDateTime.now().toString() + "] INFO >> " + infoMessage;
+            return _logChannel.write(message, true);
         } else {
             return false;
         }
@@ -110,13 +114,9 @@ public class FileOutputWriter implements OutputWriter {
             filename = file.getName();
 
         if (infoMessage != null) {
-            try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(_outputFile, true)))) {
-                writer.println("[" + LocalDateTime.now().toString() + "]" +
-                        " INFO >> [" + filename + "]: " + infoMessage);
-                return true;
-            } catch (IOException ioEx) {
-                return false;
-            }
+            String message = "[" + LocalDateTime.now().toString() + "]" +
+                    " INFO >> [" + filename + "]: " + infoMessage;
+            return _logChannel.write(message, true);
         } else {
             return false;
         }
@@ -133,13 +133,9 @@ public class FileOutputWriter implements OutputWriter {
         if (exception != null) {
             String exceptionType = StringUtils.getExceptionType(exception);
 
-            try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(_outputFile, true)))) {
-                writer.println("[" + LocalDateTime.now().toString() + "]" +
-                        " EXCEPTION >> [" + exceptionType + "]: " + exception.getMessage());
-                return true;
-            } catch (IOException ioEx) {
-                return false;
-            }
+            String message = "[" + LocalDateTime.now().toString() + "]" +
+                    " EXCEPTION >> [" + exceptionType + "]: " + exception.getMessage();
+            return _logChannel.write(message, false);
         } else {
             return false;
         }
@@ -165,13 +161,9 @@ public class FileOutputWriter implements OutputWriter {
 
         String exceptionType = StringUtils.getExceptionType(exception);
 
-        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(_outputFile, true)))) {
-            writer.println("[" + LocalDateTime.now().toString() + "]" +
-                    " EXCEPTION >> [" + exceptionType + "]: " + errorMessage);
-            return true;
-        } catch (IOException ioEx) {
-            return false;
-        }
+        String message = "[" + LocalDateTime.now().toString() + "]" +
+                " EXCEPTION >> [" + exceptionType + "]: " + errorMessage;
+        return _logChannel.write(message, false);
     }
 
     /**
@@ -194,16 +186,12 @@ public class FileOutputWriter implements OutputWriter {
         if (exception != null) {
             String exceptionType = StringUtils.getExceptionType(exception);
 
-            try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(_outputFile, true)))) {
-                writer.println("[" + LocalDateTime.now().toString() + "]" +
-                        " EXCEPTION >>" +
-                        " [" + filename + "] -" +
-                        " [" + exceptionType + "]: " +
-                        exception.getMessage());
-                return true;
-            } catch (IOException ioEx) {
-                return false;
-            }
+            String message = "[" + LocalDateTime.now().toString() + "]" +
+                    " EXCEPTION >>" +
+                    " [" + filename + "] -" +
+                    " [" + exceptionType + "]: " +
+                    exception.getMessage();
+            return _logChannel.write(message, false);
         } else {
             return false;
         }
@@ -218,13 +206,9 @@ public class FileOutputWriter implements OutputWriter {
     @Override
     public boolean writeError(String errorMessage) {
         if (errorMessage != null) {
-            try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(_outputFile, true)))) {
-                writer.println("[" + LocalDateTime.now().toString() + "]" +
-                        " ERROR >>" + errorMessage);
-                return true;
-            } catch (IOException ioEx) {
-                return false;
-            }
+            String message = "[" + LocalDateTime.now().toString() + "]" +
+                    " ERROR >>" + errorMessage;
+            return _logChannel.write(message, false);
         } else {
             return false;
         }
@@ -248,17 +232,33 @@ public class FileOutputWriter implements OutputWriter {
             filename = file.getName();
 
         if (errorMessage != null) {
-            try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(_outputFile, true)))) {
-                writer.println("[" + LocalDateTime.now().toString() + "]" +
-                        " ERROR >>" +
-                        " [" + filename + "]: " +
-                        errorMessage);
-                return true;
-            } catch (IOException ioEx) {
-                return false;
-            }
+            String message = "[" + LocalDateTime.now().toString() + "]" +
+                    " ERROR >>" +
+                    " [" + filename + "]: " +
+                    errorMessage;
+            return _logChannel.write(message, false);
         } else {
             return false;
         }
     }
+
+    private static LogChannel openLogChannel(File outputFile, int queueCapacity, LogChannel.OverflowPolicy overflowPolicy,
+                                             String errorMessage) {
+        // create output file if it does not exist
+        if (!outputFile.exists()) {
+            try {
+                if (!outputFile.createNewFile())
+                    throw new IllegalArgumentException(errorMessage);
+            } catch (IOException ioEx) {
+                throw new IllegalArgumentException(errorMessage, ioEx);
+            }
+        }
+
+        // output file stays open until writer is closed
+        try {
+            return new LogChannel(outputFile, queueCapacity, overflowPolicy);
+        } catch (IOException ioEx) {
+            throw new IllegalArgumentException(errorMessage, ioEx);
+        }
+    }
 }
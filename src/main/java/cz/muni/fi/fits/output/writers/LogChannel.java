@@ -0,0 +1,319 @@
+package cz.muni.fi.fits.output.writers;
+
+import java.io.*;
+import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class holding single writer to output file that stays open for the whole
+ * run of the program. Synchronous channel writes and flushes every line
+ * in calling thread. Asynchronous channel puts lines into bounded queue
+ * drained by background thread that flushes written lines in batches,
+ * when batch is full or when the oldest unflushed line waits too long.
+ * When queue is full, lines are either waited for or lines that are
+ * allowed to be dropped are left out, based on {@link OverflowPolicy}.
+ * Remaining lines are written when channel is closed or program shuts down
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class LogChannel implements Closeable {
+
+    /**
+     * Number of lines written before they are flushed to output file
+     */
+    public static final int BATCH_SIZE = 256;
+
+    /**
+     * Maximal time in milliseconds for which written line waits to be flushed
+     */
+    public static final long FLUSH_INTERVAL_MILLIS = 500;
+
+    private static final Message CLOSE = new Message(null, null);
+
+    private final Writer _writer;
+    private final BlockingQueue<Message> _queue;
+    private final OverflowPolicy _overflowPolicy;
+    private final Thread _drainer;
+    private final Thread _shutdownHook;
+
+    private final Object _lock = new Object();
+    private final AtomicLong _droppedLines = new AtomicLong();
+    private volatile boolean _closed;
+    private volatile boolean _failed;
+
+    /**
+     * Creates new synchronous {@link LogChannel} appending lines to <code>outputFile</code>
+     *
+     * @param outputFile    file to which lines are appended
+     * @throws IOException  when output file cannot be opened
+     */
+    public LogChannel(File outputFile) throws IOException {
+        this(outputFile, 0, OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * Creates new {@link LogChannel} appending lines to <code>outputFile</code>
+     *
+     * @param outputFile        file to which lines are appended
+     * @param queueCapacity     number of lines waiting to be written,
+     *                          <code>0</code> means lines are written synchronously
+     * @param overflowPolicy    policy applied when queue is full
+     * @throws IOException      when output file cannot be opened
+     */
+    public LogChannel(File outputFile, int queueCapacity, OverflowPolicy overflowPolicy) throws IOException {
+        if (outputFile == null)
+            throw new IllegalArgumentException("outputFile is null");
+        if (queueCapacity < 0)
+            throw new IllegalArgumentException("queueCapacity cannot be negative");
+        if (overflowPolicy == null)
+            throw new IllegalArgumentException("overflowPolicy is null");
+
+        _writer = new BufferedWriter(new FileWriter(outputFile, true));
+        _overflowPolicy = overflowPolicy;
+
+        if (queueCapacity == 0) {
+            _queue = null;
+            _drainer = null;
+            _shutdownHook = null;
+        } else {
+            _queue = new ArrayBlockingQueue<>(queueCapacity);
+            _drainer = new Thread(this::drain, "log-channel-" + outputFile.getName());
+            _drainer.setDaemon(true);
+            _drainer.start();
+
+            // lines still waiting in queue are written when program exits without closing the channel
+            _shutdownHook = new Thread(this::close);
+            Runtime.getRuntime().addShutdownHook(_shutdownHook);
+        }
+    }
+
+    public boolean isAsynchronous() {
+        return _queue != null;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return _overflowPolicy;
+    }
+
+    /**
+     * Gets number of lines left out because queue was full
+     *
+     * @return  number of dropped lines
+     */
+    public long getDroppedLines() {
+        return _droppedLines.get();
+    }
+
+    /**
+     * Writes specified <code>line</code> to output file
+     *
+     * @param line      line to write, without line separator
+     * @param droppable value indicating whether line can be left out when queue is full
+     *                  and {@link OverflowPolicy#DROP_INFO} policy is used
+     * @return          <code>true</code> when line was written or accepted to be written,
+     *                  <code>false</code> when line was dropped, channel is closed
+     *                  or error occurred during writing to output file
+     */
+    public boolean write(String line, boolean droppable) {
+        if (line == null)
+            throw new IllegalArgumentException("line is null");
+        if (_closed || _failed)
+            return false;
+
+        if (_queue == null) {
+            synchronized (_lock) {
+                try {
+                    _writer.write(line);
+                    _writer.write(System.lineSeparator());
+                    _writer.flush();
+                    return true;
+                } catch (IOException ioEx) {
+                    return false;
+                }
+            }
+        }
+
+        Message message = new Message(line, null);
+        if (droppable && _overflowPolicy == OverflowPolicy.DROP_INFO) {
+            if (_queue.offer(message))
+                return true;
+
+            _droppedLines.incrementAndGet();
+            return false;
+        }
+
+        return enqueue(message);
+    }
+
+    /**
+     * Waits until all lines accepted before this call are written and flushed to output file
+     *
+     * @return  <code>true</code> when lines were flushed, <code>false</code> when
+     *          channel is closed or waiting was interrupted
+     */
+    public boolean flush() {
+        if (_closed)
+            return false;
+        if (_queue == null)
+            return true;
+
+        CountDownLatch flushed = new CountDownLatch(1);
+        if (!enqueue(new Message(null, flushed)))
+            return false;
+
+        try {
+            // request accepted while channel was being closed is never processed by stopped drainer
+            while (!flushed.await(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (!_drainer.isAlive())
+                    return false;
+            }
+            return !_failed;
+        } catch (InterruptedException iEx) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Writes all lines waiting in queue, flushes them and closes output file.
+     * Lines written after channel is closed are rejected
+     */
+    @Override
+    public void close() {
+        synchronized (_lock) {
+            if (_closed)
+                return;
+            _closed = true;
+        }
+
+        if (_queue != null) {
+            try {
+                _queue.put(CLOSE);
+                _drainer.join();
+            } catch (InterruptedException iEx) {
+                Thread.currentThread().interrupt();
+            }
+
+            try {
+                Runtime.getRuntime().removeShutdownHook(_shutdownHook);
+            } catch (IllegalStateException isEx) {
+                // channel is being closed by shutdown hook itself
+            }
+        }
+
+        synchronized (_lock) {
+            try {
+                long droppedLines = _droppedLines.get();
+                if (droppedLines > 0) {
+                    _writer.write("[" + LocalDateTime.now().toString() + "] ERROR >> "
+                            + droppedLines + " info messages were dropped because output queue was full");
+                    _writer.write(System.lineSeparator());
+                }
+                _writer.close();
+            } catch (IOException ioEx) {
+                _failed = true;
+            }
+        }
+    }
+
+    private boolean enqueue(Message message) {
+        try {
+            // message accepted while channel was being closed must not wait for stopped drainer
+            while (!_queue.offer(message, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (_closed && !_drainer.isAlive())
+                    return false;
+            }
+            return true;
+        } catch (InterruptedException iEx) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void drain() {
+        int unflushedLines = 0;
+        long flushDeadline = 0;
+
+        try {
+            while (true) {
+                // wait for the next line only until unflushed lines have to be flushed
+                Message message = unflushedLines == 0
+                        ? _queue.take()
+                        : _queue.poll(Math.max(0, flushDeadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+                if (message == null || message == CLOSE || message._flushed != null || unflushedLines + 1 >= BATCH_SIZE) {
+                    if (message != null && message._line != null)
+                        writeLine(message._line);
+
+                    flushWriter();
+                    unflushedLines = 0;
+
+                    if (message == CLOSE)
+                        return;
+                    if (message != null && message._flushed != null)
+                        message._flushed.countDown();
+                    continue;
+                }
+
+                if (unflushedLines == 0)
+                    flushDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MILLIS);
+                writeLine(message._line);
+                unflushedLines++;
+            }
+        } catch (InterruptedException iEx) {
+            flushWriter();
+        }
+    }
+
+    private void writeLine(String line) {
+        synchronized (_lock) {
+            try {
+                _writer.write(line);
+                _writer.write(System.lineSeparator());
+            } catch (IOException ioEx) {
+                _failed = true;
+            }
+        }
+    }
+
+    private void flushWriter() {
+        synchronized (_lock) {
+            try {
+                _writer.flush();
+            } catch (IOException ioEx) {
+                _failed = true;
+            }
+        }
+    }
+
+    private static final class Message {
+
+        private final String _line;
+        private final CountDownLatch _flushed;
+
+        Message(String line, CountDownLatch flushed) {
+            _line = line;
+            _flushed = flushed;
+        }
+    }
+
+    /**
+     * Enum with policies applied when queue of asynchronous channel is full
+     */
+    public enum OverflowPolicy {
+        /**
+         * Writing thread waits until there is space in queue
+         */
+        BLOCK,
+
+        /**
+         * Info messages are dropped, other messages wait until there is space in queue
+         */
+        DROP_INFO
+    }
+}
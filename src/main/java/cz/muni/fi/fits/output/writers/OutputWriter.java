@@ -1,14 +1,19 @@
 package cz.muni.fi.fits.output.writers;
 
+import cz.muni.fi.fits.engine.models.Result;
+import cz.muni.fi.fits.models.OperationType;
+
+import java.io.Closeable;
 import java.io.File;
 
 /**
- * Writer interface for writing output data
+ * Writer interface for writing output data, writer has to be closed
+ * after the last message so that all messages reach the output
  *
  * @author Martin Vrábel
- * @version 1.0
+ * @version 1.2
  */
-public interface OutputWriter {
+public interface OutputWriter extends Closeable {
 
     /**
      * Writes specified <code>infoMessage</code> to output
@@ -90,12 +95,43 @@ public interface OutputWriter {
      */
     boolean writeError(File file, String errorMessage);
 
+    /**
+     * Writes specified <code>result</code> of <code>operation</code> performed
+     * over specified <code>file</code> to output, by default only message
+     * of result is written as info or error message
+     *
+     * @param file      file over which operation was performed
+     * @param operation type of performed operation
+     * @param result    result of operation to be written to output
+     * @return          <code>true</code> when writing to output is successful,
+     *                  <code>false</code> when error occurs during writing to output or
+     *                  <code>result</code> parameter is <code>null</code>
+     */
+    default boolean writeResult(File file, OperationType operation, Result result) {
+        if (result == null)
+            return false;
+
+        return result.isSuccess()
+                ? writeInfo(file, result.getMessage())
+                : writeError(file, result.getMessage());
+    }
+
+    /**
+     * Writes all pending messages to output and releases resources held by writer,
+     * writers that write every message immediately do not need to be closed
+     */
+    @Override
+    default void close() {
+    }
+
     /**
      * Enum with types of {@link OutputWriter}
      */
     enum Type {
         FILE,
         CONSOLE,
-        FILE_AND_CONSOLE
+        FILE_AND_CONSOLE,
+        JSON_LINES,
+        CSV
     }
 }
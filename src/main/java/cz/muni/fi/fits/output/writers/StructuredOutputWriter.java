@@ -0,0 +1,383 @@
+package cz.muni.fi.fits.output.writers;
+
+import cz.muni.fi.fits.common.utils.StringUtils;
+import cz.muni.fi.fits.engine.models.Result;
+import cz.muni.fi.fits.engine.models.ResultDetails;
+import cz.muni.fi.fits.models.OperationType;
+
+import java.io.*;
+
+/**
+ * Writer class that writes output
+ * <ul>
+ *     <li>messages related to single files as machine-readable records
+ *     to file specified in constructor, one record per line</li>
+ *     <li>other messages to system console</li>
+ * </ul>
+ * implements {@link OutputWriter} interface. Records are written in format
+ * specified by {@link Format}, every record contains file, operation, status,
+ * keyword with old and new value of edited record, number of read and written
+ * bytes and time spent in every phase of operation. Records are built
+ * in single reused buffer and streamed to output file that stays open
+ * until writer is closed, every record is flushed after it is written
+ *
+ * @author Martin Vrábel
+ * @version 1.2
+ */
+public class StructuredOutputWriter implements OutputWriter {
+
+    /**
+     * Status of record describing successful operation
+     */
+    public static final String OK_STATUS = "OK";
+
+    /**
+     * Status of record describing failed operation
+     */
+    public static final String ERROR_STATUS = "ERROR";
+
+    /**
+     * Header line of records written in {@link Format#CSV} format
+     */
+    public static final String CSV_HEADER = "file,operation,status,keyword,old_value,new_value,"
+            + "bytes_read,bytes_written,open_nanos,edit_nanos,write_nanos,total_nanos,message";
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Format _format;
+    private final Writer _writer;
+    private final OutputWriter _consoleWriter;
+
+    // buffer reused by all records
+    private final StringBuilder _record = new StringBuilder(512);
+
+    /**
+     * Creates new instance of {@link StructuredOutputWriter} that writes records
+     * in specified <code>format</code> to specified <code>outputFile</code>.
+     * File will be created if it does not exist, records are appended to existing file
+     *
+     * @param outputFile                specifies file where to write records
+     * @param format                    format of written records
+     * @throws IllegalArgumentException if provided <code>outputFile</code> parameter contains
+     *                                  invalid File data or <code>format</code> is <code>null</code>
+     */
+    public StructuredOutputWriter(File outputFile, Format format) {
+        if (outputFile == null)
+            throw new IllegalArgumentException("outputFile parameter is null");
+        if (format == null)
+            throw new IllegalArgumentException("format parameter is null");
+
+        _format = format;
+        _consoleWriter = new ConsoleOutputWriter();
+
+        // output file stays open until writer is closed
+        try {
+            boolean empty = !outputFile.exists() || outputFile.length() == 0;
+            _writer = new BufferedWriter(new FileWriter(outputFile, true));
+
+            // header line is written only once to the beginning of file
+            if (format == Format.CSV && empty) {
+                _writer.write(CSV_HEADER);
+                _writer.write(System.lineSeparator());
+            }
+        } catch (IOException ioEx) {
+            throw new IllegalArgumentException("Invalid file parameter", ioEx);
+        }
+    }
+
+    public Format getFormat() {
+        return _format;
+    }
+
+    /**
+     * Writes specified <code>result</code> of <code>operation</code> performed
+     * over specified <code>file</code> as record to output file
+     *
+     * @param file      file over which operation was performed
+     * @param operation type of performed operation
+     * @param result    result of operation to be written to output
+     * @return          {@inheritDoc}
+     */
+    @Override
+    public boolean writeResult(File file, OperationType operation, Result result) {
+        if (result == null)
+            return false;
+
+        return writeRecord(file, operation, result.isSuccess(), result.getMessage(), result.getDetails());
+    }
+
+    /**
+     * Writes specified <code>infoMessage</code> to standard output
+     *
+     * @param infoMessage   info message to be written to output
+     * @return              {@inheritDoc}
+     */
+    @Override
+    public boolean writeInfo(String infoMessage) {
+        return _consoleWriter.writeInfo(infoMessage);
+    }
+
+    /**
+     * Writes specified <code>infoMessage</code> related to specified <code>file</code>
+     * as record with {@link #OK_STATUS} status to output file
+     *
+     * @param file          file to which specific info message relates
+     * @param infoMessage   message to be written to output
+     * @return              {@inheritDoc}
+     */
+    @Override
+    public boolean writeInfo(File file, String infoMessage) {
+        if (infoMessage == null)
+            return false;
+
+        return writeRecord(file, null, true, infoMessage, null);
+    }
+
+    /**
+     * Writes specified <code>exception</code> to standard error output
+     *
+     * @param exception exception to be written to output
+     * @return          {@inheritDoc}
+     */
+    @Override
+    public boolean writeException(Throwable exception) {
+        return _consoleWriter.writeException(exception);
+    }
+
+    /**
+     * Writes specified <code>exception</code> along with <code>errorMessage</code>
+     * to standard error output
+     *
+     * @param errorMessage  error message to be written to output,
+     *                      if <code>null</code> or empty, message from <code>exception</code>
+     *                      parameter is taken
+     * @param exception     exception to be written to output,
+     *                      if <code>null</code>, only <code>errorMessage</code> id written as error
+     * @return              {@inheritDoc}
+     */
+    @Override
+    public boolean writeException(String errorMessage, Throwable exception) {
+        return _consoleWriter.writeException(errorMessage, exception);
+    }
+
+    /**
+     * Writes specified <code>exception</code> related to specified <code>file</code>
+     * as record with {@link #ERROR_STATUS} status to output file
+     *
+     * @param file      file to which specific exception relates
+     * @param exception exception to be written to output
+     * @return          {@inheritDoc}
+     */
+    @Override
+    public boolean writeException(File file, Throwable exception) {
+        if (exception == null)
+            return false;
+
+        String message = "[" + StringUtils.getExceptionType(exception) + "]: " + exception.getMessage();
+        return writeRecord(file, null, false, message, null);
+    }
+
+    /**
+     * Writes specified <code>errorMessage</code> to standard error output
+     *
+     * @param errorMessage  error message to be written to output
+     * @return              {@inheritDoc}
+     */
+    @Override
+    public boolean writeError(String errorMessage) {
+        return _consoleWriter.writeError(errorMessage);
+    }
+
+    /**
+     * Writes specified <code>errorMessage</code> related to specified <code>file</code>
+     * as record with {@link #ERROR_STATUS} status to output file
+     *
+     * @param file          file to which specific error message relates
+     * @param errorMessage  error message to be written to output
+     * @return              {@inheritDoc}
+     */
+    @Override
+    public boolean writeError(File file, String errorMessage) {
+        if (errorMessage == null)
+            return false;
+
+        return writeRecord(file, null, false, errorMessage, null);
+    }
+
+    /**
+     * Flushes all written records to output file and closes it
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            _writer.close();
+        } catch (IOException ioEx) {
+            _consoleWriter.writeException("Output file was not closed", ioEx);
+        }
+    }
+
+    private synchronized boolean writeRecord(File file, OperationType operation, boolean success,
+                                             String message, ResultDetails details) {
+        _record.setLength(0);
+
+        String path = file != null ? file.getPath() : null;
+        String operationName = operation != null ? operation.name() : null;
+        String status = success ? OK_STATUS : ERROR_STATUS;
+
+        if (_format == Format.JSON_LINES)
+            appendJsonRecord(path, operationName, status, message, details);
+        else
+            appendCsvRecord(path, operationName, status, message, details);
+        _record.append(System.lineSeparator());
+
+        // record of every file is flushed, so it is not lost when processing is interrupted
+        try {
+            _writer.append(_record);
+            _writer.flush();
+            return true;
+        } catch (IOException ioEx) {
+            return false;
+        }
+    }
+
+    private void appendJsonRecord(String path, String operation, String status, String message, ResultDetails details) {
+        _record.append('{');
+        appendJsonField("file", path);
+        _record.append(',');
+        appendJsonField("operation", operation);
+        _record.append(',');
+        appendJsonField("status", status);
+
+        if (details != null) {
+            _record.append(',');
+            appendJsonField("keyword", details.getKeyword());
+            _record.append(',');
+            appendJsonField("oldValue", details.getOldValue());
+            _record.append(',');
+            appendJsonField("newValue", details.getNewValue());
+            _record.append(",\"bytesRead\":").append(details.getBytesRead());
+            _record.append(",\"bytesWritten\":").append(details.getBytesWritten());
+            _record.append(",\"openNanos\":").append(details.getOpenNanos());
+            _record.append(",\"editNanos\":").append(details.getEditNanos());
+            _record.append(",\"writeNanos\":").append(details.getWriteNanos());
+            _record.append(",\"totalNanos\":").append(totalNanos(details));
+        }
+
+        _record.append(',');
+        appendJsonField("message", message);
+        _record.append('}');
+    }
+
+    private void appendJsonField(String name, String value) {
+        _record.append('"').append(name).append("\":");
+        if (value == null) {
+            _record.append("null");
+            return;
+        }
+
+        _record.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    _record.append("\\\"");
+                    break;
+                case '\\':
+                    _record.append("\\\\");
+                    break;
+                case '\n':
+                    _record.append("\\n");
+                    break;
+                case '\r':
+                    _record.append("\\r");
+                    break;
+                case '\t':
+                    _record.append("\\t");
+                    break;
+                default:
+                    // other control characters are written as unicode escapes
+                    if (c < 0x20) {
+                        _record.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+                    } else {
+                        _record.append(c);
+                    }
+            }
+        }
+        _record.append('"');
+    }
+
+    private void appendCsvRecord(String path, String operation, String status, String message, ResultDetails details) {
+        appendCsvField(path);
+        _record.append(',');
+        appendCsvField(operation);
+        _record.append(',');
+        appendCsvField(status);
+        _record.append(',');
+
+        if (details != null) {
+            appendCsvField(details.getKeyword());
+            _record.append(',');
+            appendCsvField(details.getOldValue());
+            _record.append(',');
+            appendCsvField(details.getNewValue());
+            _record.append(',').append(details.getBytesRead());
+            _record.append(',').append(details.getBytesWritten());
+            _record.append(',').append(details.getOpenNanos());
+            _record.append(',').append(details.getEditNanos());
+            _record.append(',').append(details.getWriteNanos());
+            _record.append(',').append(totalNanos(details));
+        } else {
+            // empty values of missing details
+            _record.append(",,,,,,,,");
+        }
+
+        _record.append(',');
+        appendCsvField(message);
+    }
+
+    private void appendCsvField(String value) {
+        if (value == null)
+            return;
+
+        boolean quoted = false;
+        for (int i = 0; i < value.length() && !quoted; i++) {
+            char c = value.charAt(i);
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!quoted) {
+            _record.append(value);
+            return;
+        }
+
+        // quotes inside quoted value are doubled
+        _record.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"')
+                _record.append('"');
+            _record.append(c);
+        }
+        _record.append('"');
+    }
+
+    private static long totalNanos(ResultDetails details) {
+        return details.getOpenNanos() + details.getEditNanos() + details.getWriteNanos();
+    }
+
+    /**
+     * Enum with formats of records written by {@link StructuredOutputWriter}
+     */
+    public enum Format {
+        /**
+         * Every record is written as JSON object on separate line
+         */
+        JSON_LINES,
+
+        /**
+         * Every record is written as line of comma-separated values,
+         * file starts with header line
+         */
+        CSV
+    }
+}
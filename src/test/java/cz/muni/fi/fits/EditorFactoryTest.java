@@ -0,0 +1,96 @@
+package cz.muni.fi.fits;
+
+import cz.muni.fi.fits.common.Configuration;
+import cz.muni.fi.fits.engine.HeaderEditingEngine;
+import cz.muni.fi.fits.engine.MappedFitsEditingEngine;
+import cz.muni.fi.fits.engine.NomTamFitsEditingEngine;
+import cz.muni.fi.fits.execution.NoopPerformanceRecorder;
+import cz.muni.fi.fits.output.writers.ConsoleOutputWriter;
+import cz.muni.fi.fits.output.writers.OutputWriter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link EditorFactory} class
+ *
+ * @author Martin Vrábel
+ * @version 1.1
+ */
+public class EditorFactoryTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testConstructor_Configuration_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("configuration is null");
+        new EditorFactory(new String[] { "remove", "files.txt", "KEYWORD" }, null);
+    }
+
+    @Test
+    public void testGetEditor_SameInstances() throws Exception {
+        EditorFactory editorFactory = new EditorFactory(new String[] { "remove", "files.txt", "KEYWORD" },
+                new Configuration(OutputWriter.Type.CONSOLE, null));
+
+        FITSHeaderEditor editor = editorFactory.getEditor();
+
+        assertNotNull(editor);
+        assertSame(editor, editorFactory.getEditor());
+        assertSame(editorFactory.getOutputWriter(), editorFactory.getOutputWriter());
+        assertTrue(editorFactory.getOutputWriter() instanceof ConsoleOutputWriter);
+        assertSame(editorFactory.getPerformanceRecorder(), editorFactory.getPerformanceRecorder());
+    }
+
+    @Test
+    public void testGetEditor_EngineFactory_EngineShared() throws Exception {
+        Configuration configuration = new Configuration(OutputWriter.Type.CONSOLE, null);
+        EditorFactory engineFactory = new EditorFactory(null, configuration);
+        OutputWriter outputWriter = new ConsoleOutputWriter();
+
+        EditorFactory first = new EditorFactory(new String[] { "remove", "files.txt", "KEYWORD" },
+                configuration, engineFactory, outputWriter, null);
+        EditorFactory second = new EditorFactory(new String[] { "remove", "other.txt", "KEYWORD" },
+                configuration, engineFactory, null, null);
+
+        assertNotNull(first.getEditor());
+        assertTrue(first.getEditor() != second.getEditor());
+        assertSame(engineFactory.getEngine(), first.getEngine());
+        assertSame(engineFactory.getEngine(), second.getEngine());
+        assertSame(engineFactory.getFileSynchronizer(), second.getFileSynchronizer());
+        assertSame(engineFactory.getHeaderIndex(), second.getHeaderIndex());
+        assertSame(outputWriter, first.getOutputWriter());
+        assertTrue(outputWriter != second.getOutputWriter());
+    }
+
+    @Test
+    public void testCreateEngine_ByConfiguration() throws Exception {
+        Configuration nomTam = new Configuration(OutputWriter.Type.CONSOLE, null, HeaderEditingEngine.Type.NOM_TAM);
+        Configuration mapped = new Configuration(OutputWriter.Type.CONSOLE, null, HeaderEditingEngine.Type.MAPPED);
+
+        HeaderEditingEngine nomTamEngine = EditorFactory.createEngine(nomTam,
+                EditorFactory.createFileSynchronizer(nomTam), EditorFactory.createHeaderIndex(nomTam));
+        HeaderEditingEngine mappedEngine = EditorFactory.createEngine(mapped,
+                EditorFactory.createFileSynchronizer(mapped), EditorFactory.createHeaderIndex(mapped));
+
+        assertTrue(nomTamEngine instanceof NomTamFitsEditingEngine);
+        assertTrue(mappedEngine instanceof MappedFitsEditingEngine);
+    }
+
+    @Test
+    public void testCreatePerformanceRecorder_ByConfiguration() throws Exception {
+        Configuration withoutSummary = new Configuration(OutputWriter.Type.CONSOLE, null);
+
+        assertTrue(EditorFactory.createPerformanceRecorder(withoutSummary) instanceof NoopPerformanceRecorder);
+    }
+
+    @Test
+    public void testCreateOutputWriter_Configuration_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("configuration is null");
+        EditorFactory.createOutputWriter(null);
+    }
+}
@@ -1,8 +1,13 @@
 package cz.muni.fi.fits.common.loaders;
 
 import cz.muni.fi.fits.common.Configuration;
+import cz.muni.fi.fits.common.WatchConfiguration;
 import cz.muni.fi.fits.common.exceptions.ConfigurationException;
 import cz.muni.fi.fits.common.utils.Placeholders;
+import cz.muni.fi.fits.engine.HeaderEditingEngine;
+import cz.muni.fi.fits.engine.io.FileSynchronizer;
+import cz.muni.fi.fits.execution.FileOperationExecutor;
+import cz.muni.fi.fits.output.writers.LogChannel;
 import cz.muni.fi.fits.output.writers.OutputWriter;
 import org.junit.Rule;
 import org.junit.Test;
@@ -11,13 +16,16 @@ import org.junit.rules.ExpectedException;
 import java.util.Properties;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests for {@link ConfigurationLoader} helper class
  *
  * @author Martin Vrábel
- * @version 1.0
+ * @version 1.9
  */
 public class ConfigurationLoaderTest {
 
@@ -122,4 +130,348 @@ public class ConfigurationLoaderTest {
         assertEquals(OutputWriter.Type.FILE_AND_CONSOLE, configuration.getOutputWriterType());
         assertEquals("output.txt", configuration.getOutputFilePath());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLoadConfiguration_OutputWriterProperty_JsonLines_MissingOutputFileProperty() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "jsonl");
+
+        exception.expect(ConfigurationException.class);
+        exception.expectMessage("Cannot find property");
+        ConfigurationLoader.loadConfiguration(properties);
+    }
+
+    @Test
+    public void testLoadConfiguration_OutputWriterProperty_JsonLines_CorrectValue() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "jsonl");
+        properties.put(Placeholders.OUTPUT_FILE_PROPERTY, "results.jsonl");
+
+        Configuration configuration = ConfigurationLoader.loadConfiguration(properties);
+        assertNotNull(configuration);
+        assertEquals(OutputWriter.Type.JSON_LINES, configuration.getOutputWriterType());
+        assertEquals("results.jsonl", configuration.getOutputFilePath());
+    }
+
+    @Test
+    public void testLoadConfiguration_OutputWriterProperty_Csv_CorrectValue() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "csv");
+        properties.put(Placeholders.OUTPUT_FILE_PROPERTY, "results.csv");
+
+        Configuration configuration = ConfigurationLoader.loadConfiguration(properties);
+        assertNotNull(configuration);
+        assertEquals(OutputWriter.Type.CSV, configuration.getOutputWriterType());
+        assertEquals("results.csv", configuration.getOutputFilePath());
+    }
+
+    @Test
+    public void testLoadConfiguration_EngineProperty_NotPresent() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+
+        Configuration configuration = ConfigurationLoader.loadConfiguration(properties);
+        assertNotNull(configuration);
+        assertEquals(HeaderEditingEngine.Type.NOM_TAM, configuration.getEngineType());
+    }
+
+    @Test
+    public void testLoadConfiguration_EngineProperty_UnknownValue() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+        properties.put(Placeholders.ENGINE_PROPERTY, "stream");
+
+        exception.expect(ConfigurationException.class);
+        exception.expectMessage("Unknown value for property");
+        ConfigurationLoader.loadConfiguration(properties);
+    }
+
+    @Test
+    public void testLoadConfiguration_EngineProperty_Mapped_CorrectValue() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+        properties.put(Placeholders.ENGINE_PROPERTY, "mapped");
+
+        Configuration configuration = ConfigurationLoader.loadConfiguration(properties);
+        assertNotNull(configuration);
+        assertEquals(HeaderEditingEngine.Type.MAPPED, configuration.getEngineType());
+    }
+
+    @Test
+    public void testLoadConfiguration_ThreadsProperty_NotPresent() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+
+        Configuration configuration = ConfigurationLoader.loadConfiguration(properties);
+        assertEquals(1, configuration.getThreads());
+        assertEquals(FileOperationExecutor.Order.INPUT, configuration.getOutputOrder());
+    }
+
+    @Test
+    public void testLoadConfiguration_ThreadsProperty_NotPositive() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+        properties.put(Placeholders.THREADS_PROPERTY, "0");
+
+        exception.expect(ConfigurationException.class);
+        exception.expectMessage("must be positive number");
+        ConfigurationLoader.loadConfiguration(properties);
+    }
+
+    @Test
+    public void testLoadConfiguration_ThreadsProperty_Auto() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+        properties.put(Placeholders.THREADS_PROPERTY, "auto");
+
+        Configuration configuration = ConfigurationLoader.loadConfiguration(properties);
+        assertEquals(Runtime.getRuntime().availableProcessors(), configuration.getThreads());
+    }
+
+    @Test
+    public void testLoadConfiguration_OutputOrderProperty_Completion_CorrectValue() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+        properties.put(Placeholders.THREADS_PROPERTY, "8");
+        properties.put(Placeholders.OUTPUT_ORDER_PROPERTY, "completion");
+
+        Configuration configuration = ConfigurationLoader.loadConfiguration(properties);
+        assertEquals(8, configuration.getThreads());
+        assertEquals(FileOperationExecutor.Order.COMPLETION, configuration.getOutputOrder());
+    }
+
+    @Test
+    public void testLoadConfiguration_OutputOrderProperty_UnknownValue() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+        properties.put(Placeholders.OUTPUT_ORDER_PROPERTY, "random");
+
+        exception.expect(ConfigurationException.class);
+        exception.expectMessage("Unknown value for property");
+        ConfigurationLoader.loadConfiguration(properties);
+    }
+
+    @Test
+    public void testLoadConfiguration_HeaderReserveProperty_NotPresent() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+
+        Configuration configuration = ConfigurationLoader.loadConfiguration(properties);
+        assertEquals(0, configuration.getHeaderReserve());
+    }
+
+    @Test
+    public void testLoadConfiguration_HeaderReserveProperty_Negative() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+        properties.put(Placeholders.HEADER_RESERVE_PROPERTY, "-1");
+
+        exception.expect(ConfigurationException.class);
+        exception.expectMessage("cannot be negative number");
+        ConfigurationLoader.loadConfiguration(properties);
+    }
+
+    @Test
+    public void testLoadConfiguration_HeaderReserveProperty_CorrectValue() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+        properties.put(Placeholders.HEADER_RESERVE_PROPERTY, "36");
+
+        Configuration configuration = ConfigurationLoader.loadConfiguration(properties);
+        assertEquals(36, configuration.getHeaderReserve());
+    }
+
+    @Test
+    public void testLoadConfiguration_DurabilityProperty_NotPresent() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+
+        Configuration configuration = ConfigurationLoader.loadConfiguration(properties);
+        assertEquals(FileSynchronizer.Mode.NONE, configuration.getDurability());
+        assertEquals(32, configuration.getGroupCommitSize());
+    }
+
+    @Test
+    public void testLoadConfiguration_DurabilityProperty_UnknownValue() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+        properties.put(Placeholders.DURABILITY_PROPERTY, "always");
+
+        exception.expect(ConfigurationException.class);
+        exception.expectMessage("Unknown value for property");
+        ConfigurationLoader.loadConfiguration(properties);
+    }
+
+    @Test
+    public void testLoadConfiguration_DurabilityProperty_Fsync_CorrectValue() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+        properties.put(Placeholders.DURABILITY_PROPERTY, "fsync");
+
+        Configuration configuration = ConfigurationLoader.loadConfiguration(properties);
+        assertEquals(FileSynchronizer.Mode.FSYNC, configuration.getDurability());
+    }
+
+    @Test
+    public void testLoadConfiguration_DurabilityProperty_Group_CorrectValue() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+        properties.put(Placeholders.DURABILITY_PROPERTY, "group");
+        properties.put(Placeholders.GROUP_COMMIT_SIZE_PROPERTY, "64");
+
+        Configuration configuration = ConfigurationLoader.loadConfiguration(properties);
+        assertEquals(FileSynchronizer.Mode.GROUP, configuration.getDurability());
+        assertEquals(64, configuration.getGroupCommitSize());
+    }
+
+    @Test
+    public void testLoadConfiguration_GroupCommitSizeProperty_NotPositive() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+        properties.put(Placeholders.DURABILITY_PROPERTY, "group");
+        properties.put(Placeholders.GROUP_COMMIT_SIZE_PROPERTY, "0");
+
+        exception.expect(ConfigurationException.class);
+        exception.expectMessage("must be positive number");
+        ConfigurationLoader.loadConfiguration(properties);
+    }
+
+    @Test
+    public void testLoadConfiguration_HeaderIndexProperty_NotPresent() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+
+        Configuration configuration = ConfigurationLoader.loadConfiguration(properties);
+        assertNull(configuration.getHeaderIndexPath());
+    }
+
+    @Test
+    public void testLoadConfiguration_HeaderIndexProperty_CorrectValue() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+        properties.put(Placeholders.HEADER_INDEX_PROPERTY, " archive.index ");
+
+        Configuration configuration = ConfigurationLoader.loadConfiguration(properties);
+        assertEquals("archive.index", configuration.getHeaderIndexPath());
+    }
+
+    @Test
+    public void testLoadConfiguration_OutputQueueProperties_NotPresent() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+
+        Configuration configuration = ConfigurationLoader.loadConfiguration(properties);
+        assertEquals(8192, configuration.getOutputQueueSize());
+        assertEquals(LogChannel.OverflowPolicy.BLOCK, configuration.getOutputOverflowPolicy());
+    }
+
+    @Test
+    public void testLoadConfiguration_OutputQueueSizeProperty_Negative() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+        properties.put(Placeholders.OUTPUT_QUEUE_SIZE_PROPERTY, "-1");
+
+        exception.expect(ConfigurationException.class);
+        exception.expectMessage("cannot be negative number");
+        ConfigurationLoader.loadConfiguration(properties);
+    }
+
+    @Test
+    public void testLoadConfiguration_OutputOverflowProperty_UnknownValue() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+        properties.put(Placeholders.OUTPUT_OVERFLOW_PROPERTY, "drop-all");
+
+        exception.expect(ConfigurationException.class);
+        exception.expectMessage("Unknown value for property");
+        ConfigurationLoader.loadConfiguration(properties);
+    }
+
+    @Test
+    public void testLoadConfiguration_OutputQueueProperties_CorrectValues() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+        properties.put(Placeholders.OUTPUT_QUEUE_SIZE_PROPERTY, "0");
+        properties.put(Placeholders.OUTPUT_OVERFLOW_PROPERTY, "drop-info");
+
+        Configuration configuration = ConfigurationLoader.loadConfiguration(properties);
+        assertEquals(0, configuration.getOutputQueueSize());
+        assertEquals(LogChannel.OverflowPolicy.DROP_INFO, configuration.getOutputOverflowPolicy());
+    }
+
+    @Test
+    public void testLoadConfiguration_PerformanceSummaryProperty_NotPresent() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+
+        Configuration configuration = ConfigurationLoader.loadConfiguration(properties);
+        assertFalse(configuration.isPerformanceSummary());
+    }
+
+    @Test
+    public void testLoadConfiguration_PerformanceSummaryProperty_UnknownValue() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+        properties.put(Placeholders.PERFORMANCE_SUMMARY_PROPERTY, "yes");
+
+        exception.expect(ConfigurationException.class);
+        exception.expectMessage("Unknown value for property");
+        ConfigurationLoader.loadConfiguration(properties);
+    }
+
+    @Test
+    public void testLoadConfiguration_PerformanceSummaryProperty_CorrectValue() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+        properties.put(Placeholders.PERFORMANCE_SUMMARY_PROPERTY, "true");
+
+        Configuration configuration = ConfigurationLoader.loadConfiguration(properties);
+        assertTrue(configuration.isPerformanceSummary());
+    }
+
+    @Test
+    public void testLoadWatchConfiguration_PropertiesNotPresent() throws Exception {
+        WatchConfiguration configuration = ConfigurationLoader.loadWatchConfiguration(new Properties());
+
+        assertEquals(1000, configuration.getStabilityMillis());
+        assertNull(configuration.getMarkerSuffix());
+        assertEquals(256, configuration.getQueueSize());
+        assertEquals(10000, configuration.getRescanMillis());
+    }
+
+    @Test
+    public void testLoadWatchConfiguration_CorrectValues() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.WATCH_STABILITY_PROPERTY, "250");
+        properties.put(Placeholders.WATCH_MARKER_PROPERTY, " .done ");
+        properties.put(Placeholders.WATCH_QUEUE_SIZE_PROPERTY, "16");
+        properties.put(Placeholders.WATCH_RESCAN_PROPERTY, "5000");
+
+        WatchConfiguration configuration = ConfigurationLoader.loadWatchConfiguration(properties);
+
+        assertEquals(250, configuration.getStabilityMillis());
+        assertEquals(".done", configuration.getMarkerSuffix());
+        assertEquals(16, configuration.getQueueSize());
+        assertEquals(5000, configuration.getRescanMillis());
+    }
+
+    @Test
+    public void testLoadWatchConfiguration_QueueSizeProperty_NotPositive() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.WATCH_QUEUE_SIZE_PROPERTY, "0");
+
+        exception.expect(ConfigurationException.class);
+        exception.expectMessage("must be positive number");
+        ConfigurationLoader.loadWatchConfiguration(properties);
+    }
+
+    @Test
+    public void testLoadWatchConfiguration_StabilityProperty_UnknownValue() throws Exception {
+        Properties properties = new Properties();
+        properties.put(Placeholders.WATCH_STABILITY_PROPERTY, "1s");
+
+        exception.expect(ConfigurationException.class);
+        exception.expectMessage("Unknown value for property");
+        ConfigurationLoader.loadWatchConfiguration(properties);
+    }
+}
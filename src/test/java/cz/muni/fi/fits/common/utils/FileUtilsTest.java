@@ -16,7 +16,7 @@ import static org.junit.Assert.*;
  * Tests for {@link FileUtils} helper class
  *
  * @author Martin Vrábel
- * @version 1.0
+ * @version 1.1
  */
 public class FileUtilsTest {
 
@@ -103,9 +103,18 @@ public class FileUtilsTest {
 
     @Test
     public void testIsValidPath_Path_Invalid() throws Exception {
-        String invalidPathString = "invalid/path//-/-somewhere";
+        String invalidPathString = "invalid/path\u0000/-somewhere";
 
         boolean isInvalidPath = FileUtils.isValidPath(invalidPathString);
         assertFalse(isInvalidPath);
     }
+
+    @Test
+    public void testIsValidPath_Path_NonexistentNotCreated() throws Exception {
+        Path nonexistentPath = SAMPLE_FITS_FILE.resolveSibling("nonexistent-sample.fits");
+
+        boolean isValidPath = FileUtils.isValidPath(nonexistentPath.toString());
+        assertTrue(isValidPath);
+        assertFalse(Files.exists(nonexistentPath));
+    }
 }
\ No newline at end of file
@@ -3,14 +3,13 @@ package cz.muni.fi.fits.common.utils;
 import cz.muni.fi.fits.common.exceptions.ConfigurationException;
 import org.junit.Test;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.*;
 
 /**
  * Tests for methods in {@link StringUtils} class
  *
  * @author Martin Vrábel
- * @version 1.0
+ * @version 1.1
  */
 public class StringUtilsTest {
 
@@ -35,4 +34,17 @@ public class StringUtilsTest {
         assertNotNull(type2);
         assertEquals("ConfigurationException", type2);
     }
-}
\ No newline at end of file
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIsAscii_Null() throws Exception {
+        StringUtils.isAscii(null);
+    }
+
+    @Test
+    public void testIsAscii() throws Exception {
+        assertTrue(StringUtils.isAscii(""));
+        assertTrue(StringUtils.isAscii("M31 ~ 'Andromeda' \u007f"));
+        assertFalse(StringUtils.isAscii("\u0161t\u011bp\u00e1n"));
+        assertFalse(StringUtils.isAscii("degrees \u00b0"));
+    }
+}
@@ -0,0 +1,92 @@
+package cz.muni.fi.fits.daemon;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.file.Paths;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for resolving of paths in arguments sent by {@link DaemonClient}
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class DaemonClientTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testResolvePaths_Args_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        DaemonClient.resolvePaths(null);
+    }
+
+    @Test
+    public void testResolvePaths_FilesArgumentResolved_KeywordAndValueKept() throws Exception {
+        // keyword and value are names of existing directories in working directory
+        String[] args = { "ADD", "-u", "files.txt", "src", "pom.xml" };
+
+        String[] resolved = DaemonClient.resolvePaths(args);
+
+        assertArrayEquals(new String[] { "ADD", "-u", absolute("files.txt"), "src", "pom.xml" }, resolved);
+    }
+
+    @Test
+    public void testResolvePaths_PositionFreeSwitchesSkipped() throws Exception {
+        String[] args = { "-threads=4", "-hdu=all", "REMOVE", "-recursive", "data", "-include=sub/*.fits", "OBJECT" };
+
+        String[] resolved = DaemonClient.resolvePaths(args);
+
+        assertArrayEquals(new String[] { "-threads=4", "-hdu=all", "REMOVE", "-recursive", absolute("data"),
+                "-include=sub/*.fits", "OBJECT" }, resolved);
+    }
+
+    @Test
+    public void testResolvePaths_Filter_OutputListResolved() throws Exception {
+        String[] args = { "FILTER", "data", "matching.txt", "OBJECT=src" };
+
+        String[] resolved = DaemonClient.resolvePaths(args);
+
+        assertArrayEquals(new String[] { "FILTER", absolute("data"), absolute("matching.txt"), "OBJECT=src" }, resolved);
+    }
+
+    @Test
+    public void testResolvePaths_Script_ScriptFileResolved() throws Exception {
+        String[] resolved = DaemonClient.resolvePaths(new String[] { "SCRIPT", "data", "edit.txt" });
+
+        assertArrayEquals(new String[] { "SCRIPT", absolute("data"), absolute("edit.txt") }, resolved);
+    }
+
+    @Test
+    public void testResolvePaths_TableSwitchResolved() throws Exception {
+        String[] args = { "SHIFT_TIME", "data", "-table=corrections.txt", "-s=5" };
+
+        String[] resolved = DaemonClient.resolvePaths(args);
+
+        assertArrayEquals(new String[] { "SHIFT_TIME", absolute("data"), "-table=" + absolute("corrections.txt"), "-s=5" }, resolved);
+    }
+
+    @Test
+    public void testResolvePaths_Watch_FilesArgumentResolved() throws Exception {
+        String[] resolved = DaemonClient.resolvePaths(new String[] { "-watch", "REMOVE", "incoming", "OBJECT" });
+
+        assertArrayEquals(new String[] { "-watch", "REMOVE", absolute("incoming"), "OBJECT" }, resolved);
+    }
+
+    @Test
+    public void testResolvePaths_AbsolutePathKept() throws Exception {
+        String path = Paths.get("data").toAbsolutePath().toString();
+
+        String[] resolved = DaemonClient.resolvePaths(new String[] { "REMOVE", path, "OBJECT" });
+
+        assertEquals(path, resolved[1]);
+    }
+
+    private static String absolute(String path) {
+        return Paths.get(path).toAbsolutePath().normalize().toString();
+    }
+}
@@ -0,0 +1,164 @@
+package cz.muni.fi.fits.daemon;
+
+import cz.muni.fi.fits.common.exceptions.ConfigurationException;
+import cz.muni.fi.fits.common.utils.Placeholders;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.EnumSet;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link DaemonProtocol} class
+ *
+ * @author Martin Vrábel
+ * @version 1.1
+ */
+public class DaemonProtocolTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testLoadPort_NotSpecified() throws Exception {
+        assertEquals(DaemonProtocol.DEFAULT_PORT, DaemonProtocol.loadPort(new Properties()));
+    }
+
+    @Test
+    public void testLoadPort_OutOfRange() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(Placeholders.DAEMON_PORT_PROPERTY, "70000");
+
+        exception.expect(ConfigurationException.class);
+        exception.expectMessage("must be port number");
+        DaemonProtocol.loadPort(properties);
+    }
+
+    @Test
+    public void testWriteRequest_ReadRequest_SameArguments() throws Exception {
+        String[] args = { "ADD", "-threads=4", "/data/frames with spaces", "OBJECT", "M 31", "" };
+        StringWriter writer = new StringWriter();
+
+        DaemonProtocol.writeRequest(writer, "secret", args);
+
+        assertTrue(writer.toString().startsWith("FHE/1 6\nTOKEN secret\n"));
+        assertArrayEquals(args, DaemonProtocol.readRequest(new BufferedReader(new StringReader(writer.toString())), "secret"));
+    }
+
+    @Test
+    public void testReadRequest_WrongToken() throws Exception {
+        StringWriter writer = new StringWriter();
+        DaemonProtocol.writeRequest(writer, "guessed", new String[] { "REMOVE", "files.txt", "OBJECT" });
+
+        exception.expect(IOException.class);
+        exception.expectMessage("does not contain valid token");
+        DaemonProtocol.readRequest(new BufferedReader(new StringReader(writer.toString())), "secret");
+    }
+
+    @Test
+    public void testReadRequest_MissingToken() throws Exception {
+        exception.expect(IOException.class);
+        exception.expectMessage("does not contain valid token");
+        DaemonProtocol.readRequest(new BufferedReader(new StringReader("FHE/1 1\nREMOVE\n")), "secret");
+    }
+
+    @Test
+    public void testCreateToken_ReadToken_SameToken() throws Exception {
+        Path tokenFile = DaemonProtocol.getTokenFile(temporaryFolder.getRoot().toPath().resolve("tokens"), 7460);
+
+        String token = DaemonProtocol.createToken(tokenFile);
+
+        assertEquals(64, token.length());
+        assertEquals(token, DaemonProtocol.readToken(tokenFile));
+        assertNotEquals(token, DaemonProtocol.createToken(tokenFile));
+    }
+
+    @Test
+    public void testCreateToken_ReadableOnlyByOwner() throws Exception {
+        Assume.assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        Path tokenFile = DaemonProtocol.getTokenFile(temporaryFolder.getRoot().toPath(), 7460);
+
+        DaemonProtocol.createToken(tokenFile);
+
+        assertEquals(EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE),
+                Files.getPosixFilePermissions(tokenFile));
+    }
+
+    @Test
+    public void testReadToken_MissingFile() throws Exception {
+        exception.expect(IOException.class);
+        exception.expectMessage("does not exist");
+        DaemonProtocol.readToken(temporaryFolder.getRoot().toPath().resolve("missing.token"));
+    }
+
+    @Test
+    public void testWriteRequest_ArgumentWithLineSeparator() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("contains line separator");
+        DaemonProtocol.writeRequest(new StringWriter(), "secret", new String[] { "ADD", "first\nsecond" });
+    }
+
+    @Test
+    public void testReadRequest_ClosedConnection() throws Exception {
+        assertNull(DaemonProtocol.readRequest(new BufferedReader(new StringReader("")), "secret"));
+    }
+
+    @Test
+    public void testReadRequest_MissingArguments() throws Exception {
+        exception.expect(IOException.class);
+        exception.expectMessage("ended after 1 of 3 arguments");
+        DaemonProtocol.readRequest(new BufferedReader(new StringReader("FHE/1 3\nTOKEN secret\nREMOVE\n")), "secret");
+    }
+
+    @Test
+    public void testReadRequest_UnknownHeader() throws Exception {
+        exception.expect(IOException.class);
+        exception.expectMessage("does not start with 'FHE/1' header");
+        DaemonProtocol.readRequest(new BufferedReader(new StringReader("REMOVE files.txt KEY\n")), "secret");
+    }
+
+    @Test
+    public void testResponseStreams_ReadResponse_LinesSplitToStreams() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        DaemonProtocol.createResponseStream(output, DaemonProtocol.OUT_PREFIX).println("first info");
+        DaemonProtocol.createResponseStream(output, DaemonProtocol.ERR_PREFIX).println("error\nwith cause");
+        DaemonProtocol.createResponseStream(output, DaemonProtocol.OUT_PREFIX).println("second info");
+        DaemonProtocol.writeExitCode(output, 3);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode = DaemonProtocol.readResponse(
+                new BufferedReader(new StringReader(output.toString(DaemonProtocol.CHARSET.name()))),
+                new PrintStream(out, true), new PrintStream(err, true));
+
+        assertEquals(3, exitCode);
+        assertEquals(String.format("first info%nsecond info%n"), out.toString());
+        assertEquals(String.format("error%nwith cause%n"), err.toString());
+    }
+
+    @Test
+    public void testReadResponse_NoExitCode() throws Exception {
+        exception.expect(IOException.class);
+        exception.expectMessage("closed connection before end of response");
+        DaemonProtocol.readResponse(new BufferedReader(new StringReader("OUT info\n")),
+                new PrintStream(new ByteArrayOutputStream()), new PrintStream(new ByteArrayOutputStream()));
+    }
+}
@@ -0,0 +1,128 @@
+package cz.muni.fi.fits.daemon;
+
+import cz.muni.fi.fits.common.loaders.ConfigurationLoader;
+import cz.muni.fi.fits.common.utils.Placeholders;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for jobs run by {@link DaemonServer} on loopback socket
+ *
+ * @author Martin Vrábel
+ * @version 1.1
+ */
+public class DaemonServerTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private DaemonServer _daemonServer;
+    private Thread _daemonThread;
+
+    @Before
+    public void setUp() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(Placeholders.OUTPUT_WRITER_PROPERTY, "console");
+
+        _daemonServer = new DaemonServer(properties, ConfigurationLoader.loadConfiguration(properties), 0,
+                temporaryFolder.newFolder("tokens").toPath());
+        _daemonThread = new Thread(() -> {
+            try {
+                _daemonServer.serve();
+            } catch (Exception ex) {
+                throw new RuntimeException(ex);
+            }
+        });
+        _daemonThread.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        _daemonServer.close();
+        _daemonThread.join(5000);
+    }
+
+    @Test
+    public void testJob_MessagesWrittenToClient() throws Exception {
+        File missingFile = new File(temporaryFolder.getRoot(), "missing.fits");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode = sendJob(out, err, "REMOVE", missingFile.getAbsolutePath(), "OBJECT");
+
+        assertEquals(DaemonProtocol.EXIT_SUCCESS, exitCode);
+        assertTrue(out.toString().contains("Entered parameters"));
+        assertTrue(err.toString().contains(missingFile.getAbsolutePath()));
+    }
+
+    @Test
+    public void testJob_InvalidSwitchOfJob() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode = sendJob(out, err, "-threads=none", "REMOVE", "files.txt", "OBJECT");
+
+        assertEquals(DaemonProtocol.EXIT_FAILURE, exitCode);
+        assertTrue(err.toString().contains(Placeholders.THREADS_PROPERTY));
+    }
+
+    @Test
+    public void testJob_SeveralJobsBySameDaemon() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int exitCode = sendJob(out, new ByteArrayOutputStream(), "REMOVE", "missing-" + i + ".fits", "OBJECT");
+
+            assertEquals(DaemonProtocol.EXIT_SUCCESS, exitCode);
+            assertTrue(out.toString().contains("missing-" + i + ".fits"));
+        }
+    }
+
+    @Test
+    public void testJob_WrongToken_JobRejected() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode = sendJob("guessed", out, err, Placeholders.DAEMON_STOP_SWITCH);
+
+        assertEquals(DaemonProtocol.EXIT_FAILURE, exitCode);
+        assertTrue(err.toString().contains("valid token"));
+        assertTrue(_daemonThread.isAlive());
+    }
+
+    @Test
+    public void testStop_DaemonStopsAccepting() throws Exception {
+        int exitCode = sendJob(new ByteArrayOutputStream(), new ByteArrayOutputStream(), Placeholders.DAEMON_STOP_SWITCH);
+        _daemonThread.join(5000);
+
+        assertEquals(DaemonProtocol.EXIT_SUCCESS, exitCode);
+        assertFalse(_daemonThread.isAlive());
+        assertFalse(Files.exists(_daemonServer.getTokenFile()));
+    }
+
+    private int sendJob(ByteArrayOutputStream out, ByteArrayOutputStream err, String... args) throws Exception {
+        return sendJob(DaemonProtocol.readToken(_daemonServer.getTokenFile()), out, err, args);
+    }
+
+    private int sendJob(String token, ByteArrayOutputStream out, ByteArrayOutputStream err, String... args) throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), _daemonServer.getPort())) {
+            DaemonProtocol.writeRequest(new OutputStreamWriter(socket.getOutputStream(), DaemonProtocol.CHARSET), token, args);
+            return DaemonProtocol.readResponse(
+                    new BufferedReader(new InputStreamReader(socket.getInputStream(), DaemonProtocol.CHARSET)),
+                    new PrintStream(out, true), new PrintStream(err, true));
+        }
+    }
+}
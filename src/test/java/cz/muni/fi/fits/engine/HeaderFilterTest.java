@@ -0,0 +1,124 @@
+package cz.muni.fi.fits.engine;
+
+import cz.muni.fi.fits.common.utils.Constants;
+import cz.muni.fi.fits.engine.io.HeaderBlockWriter;
+import cz.muni.fi.fits.engine.io.HeaderIndex;
+import cz.muni.fi.fits.models.HeaderPredicate;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link HeaderFilter} class
+ *
+ * @author Martin Vrábel
+ * @version 1.1
+ */
+public class HeaderFilterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testConstructor_Predicates_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        new HeaderFilter(null);
+    }
+
+    @Test
+    public void testMatches_AllPredicatesSatisfied() throws Exception {
+        File fitsFile = createFitsFile("SIMPLE  =                    T",
+                "FILTER  = 'V       '",
+                "EXPTIME =                 30.0",
+                "OBJECT  = 'M31     '",
+                "END");
+        HeaderFilter headerFilter = new HeaderFilter(Arrays.asList(
+                HeaderPredicate.equalTo("FILTER", "V"),
+                HeaderPredicate.inRange("EXPTIME", new BigDecimal(10), new BigDecimal(60)),
+                HeaderPredicate.matching("OBJECT", Pattern.compile("M\\d+"))));
+
+        assertTrue(headerFilter.matches(fitsFile));
+    }
+
+    @Test
+    public void testMatches_PredicateNotSatisfied() throws Exception {
+        File fitsFile = createFitsFile("SIMPLE  =                    T",
+                "FILTER  = 'R       '",
+                "EXPTIME =                 30.0",
+                "END");
+        HeaderFilter headerFilter = new HeaderFilter(Arrays.asList(
+                HeaderPredicate.equalTo("FILTER", "V"),
+                HeaderPredicate.inRange("EXPTIME", new BigDecimal(10), null)));
+
+        assertFalse(headerFilter.matches(fitsFile));
+    }
+
+    @Test
+    public void testMatches_RecordMissing() throws Exception {
+        File fitsFile = createFitsFile("SIMPLE  =                    T", "END");
+        HeaderFilter headerFilter = new HeaderFilter(Collections.singletonList(HeaderPredicate.equalTo("FILTER", "V")));
+
+        assertFalse(headerFilter.matches(fitsFile));
+    }
+
+    @Test
+    public void testMatches_HeaderIndex_EntryCreatedAndUsed() throws Exception {
+        File fitsFile = createFitsFile("SIMPLE  =                    T",
+                "FILTER  = 'V       '",
+                "OBJECT  = 'M31     '",
+                "END");
+        HeaderIndex headerIndex = new HeaderIndex(folder.getRoot().toPath().resolve("headers.index"));
+        HeaderFilter headerFilter = new HeaderFilter(Collections.singletonList(HeaderPredicate.equalTo("FILTER", "V")), headerIndex);
+
+        assertTrue(headerFilter.matches(fitsFile));
+        // whole header is indexed, not only keywords of predicates
+        assertEquals("M31", headerIndex.getValues(fitsFile).get("OBJECT"));
+
+        // indexed values are used while file does not change
+        headerIndex.update(fitsFile, Collections.singletonMap("FILTER", "R"));
+        assertFalse(headerFilter.matches(fitsFile));
+    }
+
+    @Test
+    public void testMatches_HeaderIndex_StaleEntryRefreshed() throws Exception {
+        File fitsFile = createFitsFile("SIMPLE  =                    T", "FILTER  = 'V       '", "END");
+        HeaderIndex headerIndex = new HeaderIndex(folder.getRoot().toPath().resolve("headers.index"));
+        headerIndex.update(fitsFile, Collections.singletonMap("FILTER", "R"));
+        HeaderFilter headerFilter = new HeaderFilter(Collections.singletonList(HeaderPredicate.equalTo("FILTER", "V")), headerIndex);
+
+        // file changed after it was indexed
+        assertTrue(fitsFile.setLastModified(fitsFile.lastModified() - 60000));
+
+        assertTrue(headerFilter.matches(fitsFile));
+        assertEquals("V", headerIndex.getValues(fitsFile).get("FILTER"));
+    }
+
+    private File createFitsFile(String... cards) throws Exception {
+        StringBuilder builder = new StringBuilder();
+        for (String card : cards) {
+            builder.append(card);
+            for (int i = card.length(); i < Constants.HEADER_CARD_SIZE; i++)
+                builder.append(' ');
+        }
+
+        File fitsFile = folder.newFile();
+        Files.write(fitsFile.toPath(), HeaderBlockWriter.padToBlocks(builder.toString().getBytes(StandardCharsets.US_ASCII)));
+        return fitsFile;
+    }
+}
@@ -0,0 +1,179 @@
+package cz.muni.fi.fits.engine;
+
+import cz.muni.fi.fits.common.utils.Constants;
+import cz.muni.fi.fits.engine.io.HeaderBlockWriter;
+import nom.tam.fits.FitsException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link IndexedHeader} class working with raw card images
+ *
+ * @author Martin Vrábel
+ * @version 1.2
+ */
+public class IndexedHeaderTest {
+
+    private static final String[] CARDS = {
+            "SIMPLE  =                    T",
+            "BITPIX  =                    8",
+            "NAXIS   =                    0",
+            "OBJECT  = 'M31'   / unusual   formatting",
+            "HISTORY first",
+            "EXPTIME =   30.0",
+            "HISTORY second",
+            "END"
+    };
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testConstructor_NullHeader() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("header is null");
+        new IndexedHeader(null);
+    }
+
+    @Test
+    public void testConstructor_NoEndCard() throws Exception {
+        byte[] header = createHeader("SIMPLE  =                    T", "BITPIX  =                    8");
+
+        exception.expect(FitsException.class);
+        exception.expectMessage("END card");
+        new IndexedHeader(header);
+    }
+
+    @Test
+    public void testGetNumberOfCards_RecordsBeforeEnd() throws Exception {
+        IndexedHeader header = new IndexedHeader(createHeader(CARDS));
+
+        assertEquals(CARDS.length - 1, header.getNumberOfCards());
+    }
+
+    @Test
+    public void testGetNumberOfCards_ContinuedLongString() throws Exception {
+        IndexedHeader header = new IndexedHeader(createHeader(
+                "SIMPLE  =                    T",
+                "LONGSTR = 'first part of long string&'",
+                "CONTINUE  'second part of long string&'",
+                "CONTINUE  'last part'",
+                "END"));
+
+        assertEquals(2, header.getNumberOfCards());
+    }
+
+    @Test
+    public void testGetNumberOfCards_ContinueWithoutLongString_SeparateRecords() throws Exception {
+        IndexedHeader header = new IndexedHeader(createHeader(
+                "SIMPLE  =                    T",
+                "CONTINUE  'orphan continuation'",
+                "OBJECT  = 'M31'",
+                "CONTINUE  'after string without ampersand'",
+                "COMMENT ends with &'",
+                "CONTINUE  'after comment'",
+                "QUOTED  = 'quoted ''&'''",
+                "CONTINUE  'after escaped quote'",
+                "END"));
+
+        assertEquals(8, header.getNumberOfCards());
+        assertTrue(header.containsKey("OBJECT"));
+        assertTrue(header.containsKey("CONTINUE"));
+    }
+
+    @Test
+    public void testGetNumberOfCards_ContinuedHierarchLongString() throws Exception {
+        IndexedHeader header = new IndexedHeader(createHeader(
+                "SIMPLE  =                    T",
+                "HIERARCH ESO OBS NAME = 'first part&'",
+                "CONTINUE  'last part'",
+                "END"));
+
+        assertEquals(2, header.getNumberOfCards());
+    }
+
+    @Test
+    public void testSerialize_Unchanged_SameBytes() throws Exception {
+        byte[] original = createHeader(CARDS);
+        IndexedHeader header = new IndexedHeader(original);
+
+        assertArrayEquals(original, header.serialize());
+    }
+
+    @Test
+    public void testContainsKey_RepeatedKeyword() throws Exception {
+        IndexedHeader header = new IndexedHeader(createHeader(CARDS));
+
+        assertTrue(header.containsKey("OBJECT"));
+        assertTrue(header.containsKey("HISTORY"));
+        assertFalse(header.containsKey("FILTER"));
+    }
+
+    @Test
+    public void testRemoveLine_OtherRecordsKeepTheirBytes() throws Exception {
+        IndexedHeader header = new IndexedHeader(createHeader(CARDS));
+
+        header.removeLine(4);
+
+        String[] expected = Arrays.copyOf(CARDS, CARDS.length);
+        System.arraycopy(CARDS, 5, expected, 4, CARDS.length - 5);
+        assertArrayEquals(createHeader(Arrays.copyOf(expected, expected.length - 1)), header.serialize());
+        assertTrue(header.containsKey("HISTORY"));
+        assertTrue(header.containsKey("EXPTIME"));
+    }
+
+    @Test
+    public void testDeleteKey_FirstOfRepeatedKeyword() throws Exception {
+        IndexedHeader header = new IndexedHeader(createHeader(CARDS));
+
+        header.deleteKey("HISTORY");
+        header.deleteKey("HISTORY");
+
+        assertFalse(header.containsKey("HISTORY"));
+        assertEquals(CARDS.length - 3, header.getNumberOfCards());
+        assertArrayEquals(createHeader(CARDS[0], CARDS[1], CARDS[2], CARDS[3], CARDS[5], CARDS[7]), header.serialize());
+    }
+
+    @Test
+    public void testFindKeywords_Wildcards() throws Exception {
+        IndexedHeader header = new IndexedHeader(createHeader(
+                "SIMPLE  =                    T",
+                "DATE-OBS= '2015-06-12T21:30:00'",
+                "HISTORY DATE-OBS corrected",
+                "DATE-END= '2015-06-12T21:31:00'",
+                "DATE    = '2015-06-13'",
+                "DATE-OBS= '2015-06-12T21:30:00'",
+                "END"));
+
+        assertEquals(Arrays.asList("DATE-OBS", "DATE-END"), header.findKeywords("DATE-*"));
+        assertEquals(Arrays.asList("DATE-OBS", "DATE-END", "DATE"), header.findKeywords("DATE*"));
+        assertEquals(Arrays.asList("DATE-OBS"), header.findKeywords("DATE-?BS"));
+        assertTrue(header.findKeywords("TIME*").isEmpty());
+    }
+
+    @Test
+    public void testRemoveLine_PositionOutOfRange() throws Exception {
+        IndexedHeader header = new IndexedHeader(createHeader(CARDS));
+
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("position is out of range");
+        header.removeLine(CARDS.length - 1);
+    }
+
+    private static byte[] createHeader(String... cards) {
+        StringBuilder builder = new StringBuilder();
+        for (String card : cards) {
+            builder.append(card);
+            for (int i = card.length(); i < Constants.HEADER_CARD_SIZE; i++)
+                builder.append(' ');
+        }
+
+        return HeaderBlockWriter.padToBlocks(builder.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+}
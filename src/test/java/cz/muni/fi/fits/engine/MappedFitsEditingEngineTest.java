@@ -0,0 +1,691 @@
+package cz.muni.fi.fits.engine;
+
+import cz.muni.fi.fits.common.utils.Constants;
+import cz.muni.fi.fits.common.utils.Tuple;
+import cz.muni.fi.fits.engine.io.FileSynchronizer;
+import cz.muni.fi.fits.engine.io.HeaderBlockWriter;
+import cz.muni.fi.fits.engine.io.HeaderIndex;
+import cz.muni.fi.fits.engine.models.Result;
+import cz.muni.fi.fits.engine.models.ResultDetails;
+import cz.muni.fi.fits.engine.utils.DateTimeUtils;
+import cz.muni.fi.fits.input.models.*;
+import cz.muni.fi.fits.models.ChainValueType;
+import cz.muni.fi.fits.models.ClockCorrectionTable;
+import cz.muni.fi.fits.models.HduSelector;
+import nom.tam.fits.FitsException;
+import nom.tam.fits.HeaderCard;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link MappedFitsEditingEngine} and {@link NomTamFitsEditingEngine} classes
+ * comparing files written by them with files written by {@link ReferenceFitsEditingEngine}
+ * with behaviour of the original engine on shared corpus of FITS files
+ *
+ * @author Martin Vrábel
+ * @version 1.12
+ */
+public class MappedFitsEditingEngineTest {
+
+    private static final long NANOS_PER_SECOND = 1000000000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ReferenceFitsEditingEngine _referenceEngine;
+    private HeaderEditingEngine _nomTamEngine;
+    private HeaderEditingEngine _mappedEngine;
+    private List<byte[]> _corpus;
+
+    @Before
+    public void setUp() throws Exception {
+        _referenceEngine = new ReferenceFitsEditingEngine();
+        _nomTamEngine = new NomTamFitsEditingEngine();
+        _mappedEngine = new MappedFitsEditingEngine();
+        _corpus = new ArrayList<>();
+
+        // header without data unit
+        _corpus.add(createFitsFile(0, "SIMPLE  =                    T",
+                "BITPIX  =                    8",
+                "NAXIS   =                    0",
+                "OBJECT  = 'M31     '",
+                "DATE-OBS= '2015-06-12T21:30:00'",
+                "EXPTIME =                 30.0",
+                "RA      = '00 42 44.3'",
+                "DEC     = '+41 16 09'",
+                "END"));
+
+        // small image
+        _corpus.add(createFitsFile(10 * 10 * 2, "SIMPLE  =                    T",
+                "BITPIX  =                   16",
+                "NAXIS   =                    2",
+                "NAXIS1  =                   10",
+                "NAXIS2  =                   10",
+                "OBJECT  = 'M33     '",
+                "DATE-OBS= '2015-06-12T22:00:00.500'",
+                "EXPTIME =                 60.0",
+                "RA      =              23.4621",
+                "DEC     =              30.6599",
+                "END"));
+
+        // image with header filling whole block
+        String[] cards = new String[Constants.CARDS_PER_BLOCK];
+        Arrays.fill(cards, "HISTORY full header block");
+        cards[0] = "SIMPLE  =                    T";
+        cards[1] = "BITPIX  =                  -32";
+        cards[2] = "NAXIS   =                    1";
+        cards[3] = "NAXIS1  =                 1000";
+        cards[4] = "OBJECT  = 'M42     '";
+        cards[5] = "DATE-OBS= '2015-06-13T01:15:00'";
+        cards[6] = "EXPTIME =                120.0";
+        cards[cards.length - 1] = "END";
+        _corpus.add(createFitsFile(1000 * 4, cards));
+    }
+
+    @Test
+    public void testAddNewRecord_SameAsReference() throws Exception {
+        assertSameResults((engine, file) -> engine.addNewRecord("OBSERVER", "Vrabel", "observer", false, file),
+                (engine, file) -> engine.addNewRecord("OBSERVER", "Vrabel", "observer", false, file));
+        assertSameResults((engine, file) -> engine.addNewRecord("OBJECT", "NGC 224", null, true, file),
+                (engine, file) -> engine.addNewRecord("OBJECT", "NGC 224", null, true, file));
+    }
+
+    @Test
+    public void testAddNewRecordToIndex_SameAsReference() throws Exception {
+        assertSameResults((engine, file) -> engine.addNewRecordToIndex(5, "FILTER", "V", null, false, file),
+                (engine, file) -> engine.addNewRecordToIndex(5, "FILTER", "V", null, false, file));
+    }
+
+    @Test
+    public void testRemoveRecordByKeyword_SameAsReference() throws Exception {
+        assertSameResults((engine, file) -> engine.removeRecordByKeyword("OBJECT", file),
+                (engine, file) -> engine.removeRecordByKeyword("OBJECT", file));
+    }
+
+    @Test
+    public void testRemoveRecordFromIndex_SameAsReference() throws Exception {
+        assertSameResults((engine, file) -> engine.removeRecordFromIndex(5, file),
+                (engine, file) -> engine.removeRecordFromIndex(5, file));
+    }
+
+    @Test
+    public void testChangeKeywordOfRecord_SameAsReference() throws Exception {
+        assertSameResults((engine, file) -> engine.changeKeywordOfRecord("OBJECT", "TARGET", false, file),
+                (engine, file) -> engine.changeKeywordOfRecord("OBJECT", "TARGET", false, file));
+    }
+
+    @Test
+    public void testChangeValueOfRecord_SameAsReference() throws Exception {
+        assertSameResults((engine, file) -> engine.changeValueOfRecord("EXPTIME", 45.5, "seconds", false, file),
+                (engine, file) -> engine.changeValueOfRecord("EXPTIME", 45.5, "seconds", false, file));
+    }
+
+    @Test
+    public void testChainMultipleRecords_SameAsReference() throws Exception {
+        List<Tuple<ChainValueType, String>> chainParameters = Arrays.asList(
+                new Tuple<>(ChainValueType.CONSTANT, "Object: "),
+                new Tuple<>(ChainValueType.KEYWORD, "OBJECT"));
+
+        assertSameResults((engine, file) -> engine.chainMultipleRecords("DESCR", chainParameters, null, false, false, file),
+                (engine, file) -> engine.chainMultipleRecords("DESCR", chainParameters, null, false, false, file));
+    }
+
+    @Test
+    public void testShiftTimeOfTimeRecord_SameAsReference() throws Exception {
+        assertSameResults((engine, file) -> engine.shiftTimeOfTimeRecord("DATE-OBS", 0, 0, 1, 2, 0, 0, 0, file),
+                (engine, file) -> engine.shiftTimeOfTimeRecord("DATE-OBS", 0, 0, 1, 2, 0, 0, 0, file));
+    }
+
+    @Test
+    public void testShiftTimeOfTimeRecords_SameAsReference() throws Exception {
+        assertSameResults((engine, file) -> engine.shiftTimeOfTimeRecords(Arrays.asList("DATE-OBS", "DATE*"), 0, 0, 1, 2, 0, 0, 0, file),
+                // pattern matches only DATE-OBS record in files of corpus
+                (engine, file) -> engine.shiftTimeOfTimeRecord("DATE-OBS", 0, 0, 1, 2, 0, 0, 0, file));
+    }
+
+    @Test
+    public void testShiftTimeOfTimeRecords_DerivedDayCountsShiftedTogether() throws Exception {
+        byte[] fitsFile = createFitsFile(0, "SIMPLE  =                    T",
+                "BITPIX  =                    8",
+                "NAXIS   =                    0",
+                "DATE-OBS= '2015-06-12T21:30:00'",
+                "MJD-OBS =         57185.895833",
+                "DATE-END= '2015-06-12T21:31:00'",
+                "TIME-OBS= '21:30:00'",
+                "JD      =       2457186.395833 / mid-exposure",
+                "END");
+
+        for (HeaderEditingEngine engine : Arrays.asList(_nomTamEngine, _mappedEngine)) {
+            File file = folder.newFile();
+            Files.write(file.toPath(), fitsFile);
+
+            Result result = engine.shiftTimeOfTimeRecords(Arrays.asList("DATE-*", "TIME-OBS", "MJD-OBS"), 0, 0, 0, 1, 0, 0, 0, file);
+
+            assertTrue(result.getMessage(), result.isSuccess());
+            IndexedHeader header = new IndexedHeader(Files.readAllBytes(file.toPath()));
+            assertEquals("2015-06-12T22:30", header.findCard("DATE-OBS").getValue());
+            assertEquals("2015-06-12T22:31", header.findCard("DATE-END").getValue());
+            assertEquals("22:30", header.findCard("TIME-OBS").getValue());
+            // day counts are moved by the same hour as their time record, only once
+            assertEquals(0, new BigDecimal("57185.9375").compareTo(new BigDecimal(header.findCard("MJD-OBS").getValue())));
+            assertEquals(0, new BigDecimal("2457186.4375").compareTo(new BigDecimal(header.findCard("JD").getValue())));
+            assertEquals("mid-exposure", header.findCard("JD").getComment());
+        }
+    }
+
+    @Test
+    public void testShiftTimeOfTimeRecords_DayCountWithoutTimeRecord() throws Exception {
+        byte[] fitsFile = createFitsFile(0, "SIMPLE  =                    T",
+                "BITPIX  =                    8",
+                "NAXIS   =                    0",
+                "JD      =       2457186.395833",
+                "END");
+
+        for (HeaderEditingEngine engine : Arrays.asList(_nomTamEngine, _mappedEngine)) {
+            File file = folder.newFile();
+            Files.write(file.toPath(), fitsFile);
+
+            Result result = engine.shiftTimeOfTimeRecords(Arrays.asList("JD"), 0, 1, 0, 0, 0, 0, 0, file);
+
+            assertTrue(result.getMessage(), result.isSuccess());
+            IndexedHeader header = new IndexedHeader(Files.readAllBytes(file.toPath()));
+            // June has 30 days
+            assertEquals(0, new BigDecimal("2457216.395833").compareTo(new BigDecimal(header.findCard("JD").getValue())));
+        }
+    }
+
+    @Test
+    public void testShiftTimeOfTimeRecords_PatternMatchesNothing_NoChangesWritten() throws Exception {
+        for (HeaderEditingEngine engine : Arrays.asList(_nomTamEngine, _mappedEngine)) {
+            for (byte[] fitsFile : _corpus) {
+                File file = folder.newFile();
+                Files.write(file.toPath(), fitsFile);
+
+                Result result = engine.shiftTimeOfTimeRecords(Arrays.asList("DATE-OBS", "UT*"), 0, 0, 0, 1, 0, 0, 0, file);
+
+                assertFalse(result.isSuccess());
+                assertArrayEquals(fitsFile, Files.readAllBytes(file.toPath()));
+            }
+        }
+    }
+
+    @Test
+    public void testShiftTimeOfTimeRecords_CorrectionTable_SameAsReference() throws Exception {
+        ClockCorrectionTable table = ClockCorrectionTable.parse(Arrays.asList("2015-06-12T00:00:00 10", "2015-06-14T00:00:00 -10"));
+
+        assertSameResults((engine, file) -> engine.shiftTimeOfTimeRecords(Arrays.asList("DATE-OBS"), table, file),
+                (engine, file) -> {
+                    // correction for time of observation is applied as fixed shift
+                    String observationTime = readValue(file, "DATE-OBS");
+                    LocalDateTime time = DateTimeUtils.DateTimeParser.parseLocalDateTime(observationTime,
+                            DateTimeUtils.DateTimeParser.tryGetDateTimeFormatter(observationTime));
+                    long correctionNanos = table.getCorrectionNanos(time);
+                    return engine.shiftTimeOfTimeRecord("DATE-OBS", 0, 0, 0, 0, 0,
+                            (int) (correctionNanos / NANOS_PER_SECOND), (int) (correctionNanos % NANOS_PER_SECOND), file);
+                });
+    }
+
+    @Test
+    public void testShiftTimeOfTimeRecords_CorrectionTable_ShiftInterpolatedForEveryFile() throws Exception {
+        ClockCorrectionTable table = ClockCorrectionTable.parse(Arrays.asList("2015-06-12T21:00:00 0", "2015-06-12T23:00:00 4"));
+        String[][] observations = {
+                { "2015-06-12T21:30:00", "2015-06-12T21:30:01" },
+                { "2015-06-12T22:00:00", "2015-06-12T22:00:02" },
+                { "2015-06-12T22:45:00", "2015-06-12T22:45:03.500" } };
+
+        for (HeaderEditingEngine engine : Arrays.asList(_nomTamEngine, _mappedEngine)) {
+            for (String[] observation : observations) {
+                File file = folder.newFile();
+                Files.write(file.toPath(), createFitsFile(0, "SIMPLE  =                    T",
+                        "BITPIX  =                    8",
+                        "NAXIS   =                    0",
+                        "DATE-OBS= '" + observation[0] + "'",
+                        "END"));
+
+                Result result = engine.shiftTimeOfTimeRecords(Arrays.asList("DATE-OBS"), table, file);
+
+                assertTrue(result.getMessage(), result.isSuccess());
+                IndexedHeader header = new IndexedHeader(Files.readAllBytes(file.toPath()));
+                assertEquals(observation[1], header.findCard("DATE-OBS").getValue());
+            }
+        }
+    }
+
+    @Test
+    public void testShiftTimeOfTimeRecords_CorrectionTable_TimeNotCovered() throws Exception {
+        ClockCorrectionTable table = ClockCorrectionTable.parse(Arrays.asList("2016-01-01T00:00:00 1", "2016-02-01T00:00:00 2"));
+
+        for (HeaderEditingEngine engine : Arrays.asList(_nomTamEngine, _mappedEngine)) {
+            for (byte[] fitsFile : _corpus) {
+                File file = folder.newFile();
+                Files.write(file.toPath(), fitsFile);
+
+                Result result = engine.shiftTimeOfTimeRecords(Arrays.asList("DATE-OBS"), table, file);
+
+                assertFalse(result.isSuccess());
+                assertArrayEquals(fitsFile, Files.readAllBytes(file.toPath()));
+            }
+        }
+    }
+
+    @Test
+    public void testComputeJulianDate_SameAsReference() throws Exception {
+        assertSameResults((engine, file) -> engine.computeJulianDate("DATE-OBS", "EXPTIME", null, file),
+                (engine, file) -> engine.computeJulianDate("DATE-OBS", "EXPTIME", null, file));
+    }
+
+    @Test
+    public void testComputeHeliocentricJulianDate_SameAsReference() throws Exception {
+        assertSameResults((engine, file) -> engine.computeHeliocentricJulianDate("DATE-OBS", "EXPTIME", "RA", "DEC", null, file),
+                (engine, file) -> engine.computeHeliocentricJulianDate("DATE-OBS", "EXPTIME", "RA", "DEC", null, file));
+    }
+
+    @Test
+    public void testExecuteOperations_SameAsReference() throws Exception {
+        List<InputData> operations = Arrays.asList(
+                new AddNewRecordInputData("OBSERVER", "Vrabel", "observer", false),
+                new ChangeKeywordInputData("OBJECT", "TARGET", false),
+                new ComputeJDInputData("DATE-OBS", "EXPTIME", null),
+                new RemoveByKeywordInputData("RA"));
+
+        assertSameResults((engine, file) -> engine.executeOperations(operations, file),
+                (engine, file) -> executeAll(file,
+                        () -> engine.addNewRecord("OBSERVER", "Vrabel", "observer", false, file),
+                        () -> engine.changeKeywordOfRecord("OBJECT", "TARGET", false, file),
+                        // input data of JD operation use default comment instead of null
+                        () -> engine.computeJulianDate("DATE-OBS", "EXPTIME", Constants.DEFAULT_JD_COMMENT, file),
+                        () -> engine.removeRecordByKeyword("RA", file)));
+    }
+
+    @Test
+    public void testExecuteOperations_OperationFails_NoChangesWritten() throws Exception {
+        List<InputData> operations = Arrays.asList(
+                new AddNewRecordInputData("OBSERVER", "Vrabel", "observer", false),
+                new RemoveByKeywordInputData("NOTEXIST"));
+
+        for (HeaderEditingEngine engine : Arrays.asList(_nomTamEngine, _mappedEngine)) {
+            for (byte[] fitsFile : _corpus) {
+                File file = folder.newFile();
+                Files.write(file.toPath(), fitsFile);
+
+                Result result = engine.executeOperations(operations, file);
+
+                assertFalse(result.isSuccess());
+                assertArrayEquals(fitsFile, Files.readAllBytes(file.toPath()));
+            }
+        }
+    }
+
+    @Test
+    public void testReserveHeaderSpace_RecordsAndDataUnitKept() throws Exception {
+        for (byte[] fitsFile : _corpus) {
+            int headerLength = headerLength(fitsFile);
+            int endOffset = endCardOffset(fitsFile);
+
+            for (HeaderEditingEngine engine : Arrays.asList(_nomTamEngine, _mappedEngine)) {
+                File file = folder.newFile();
+                Files.write(file.toPath(), fitsFile);
+
+                Result result = engine.reserveHeaderSpace(40, file);
+                byte[] content = Files.readAllBytes(file.toPath());
+                int newHeaderLength = headerLength(content);
+                int newEndOffset = endCardOffset(content);
+
+                assertTrue(result.getMessage(), result.isSuccess());
+                assertEquals(0, newHeaderLength % Constants.FITS_BLOCK_SIZE);
+                // records are kept and at least 40 blank records are placed right before END card
+                assertArrayEquals(Arrays.copyOfRange(fitsFile, 0, endOffset), Arrays.copyOfRange(content, 0, endOffset));
+                assertTrue(newEndOffset - endOffset >= 40 * Constants.HEADER_CARD_SIZE);
+                for (int i = endOffset; i < newEndOffset; i++)
+                    assertEquals(' ', content[i]);
+                // data unit is not changed
+                assertArrayEquals(Arrays.copyOfRange(fitsFile, headerLength, fitsFile.length),
+                        Arrays.copyOfRange(content, newHeaderLength, content.length));
+            }
+        }
+    }
+
+    @Test
+    public void testRemoveRecordByKeyword_HeaderShrinksByBlock_DataUnitNotMoved() throws Exception {
+        // 36 records and END card need two blocks, header without removed record fits into one
+        String[] cards = new String[Constants.CARDS_PER_BLOCK + 1];
+        Arrays.fill(cards, "HISTORY header over block boundary");
+        cards[0] = "SIMPLE  =                    T";
+        cards[1] = "BITPIX  =                   16";
+        cards[2] = "NAXIS   =                    1";
+        cards[3] = "NAXIS1  =                  100";
+        cards[4] = "OBJECT  = 'M42     '";
+        cards[cards.length - 1] = "END";
+        byte[] fitsFile = createFitsFile(100 * 2, cards);
+        int headerLength = 2 * Constants.FITS_BLOCK_SIZE;
+
+        for (HeaderEditingEngine engine : Arrays.asList(_nomTamEngine, _mappedEngine)) {
+            File file = folder.newFile();
+            Files.write(file.toPath(), fitsFile);
+
+            Result result = engine.removeRecordByKeyword("OBJECT", file);
+            byte[] content = Files.readAllBytes(file.toPath());
+
+            assertTrue(result.getMessage(), result.isSuccess());
+            assertEquals(fitsFile.length, content.length);
+            assertEquals(headerLength, headerLength(content));
+            assertArrayEquals(Arrays.copyOfRange(fitsFile, headerLength, fitsFile.length),
+                    Arrays.copyOfRange(content, headerLength, content.length));
+        }
+    }
+
+    @Test
+    public void testReserveHeaderSpace_LaterAdditionConsumesReserve() throws Exception {
+        for (HeaderEditingEngine engine : Arrays.asList(_nomTamEngine, _mappedEngine)) {
+            for (byte[] fitsFile : _corpus) {
+                File file = folder.newFile();
+                Files.write(file.toPath(), fitsFile);
+
+                Result reserveResult = engine.reserveHeaderSpace(10, file);
+                long reservedLength = file.length();
+                Result addResult = engine.addNewRecord("OBSERVER", "Vrabel", "observer", false, file);
+
+                assertTrue(reserveResult.isSuccess());
+                assertTrue(addResult.isSuccess());
+                assertTrue(addResult.getMessage().contains("header reserve: 9 records"));
+                assertEquals(reservedLength, file.length());
+            }
+        }
+    }
+
+    @Test
+    public void testAddNewRecord_ExtensionSelected_OtherUnitsUntouched() throws Exception {
+        byte[] fitsFile = createMultiExtensionFile();
+        int extensionOffset = _corpus.get(1).length;
+
+        for (HeaderEditingEngine engine : Arrays.asList(_nomTamEngine, _mappedEngine)) {
+            File file = folder.newFile();
+            Files.write(file.toPath(), fitsFile);
+
+            Result result = engine.addNewRecord("FILTER", "V", null, false, HduSelector.extension("ERR"), file);
+            byte[] content = Files.readAllBytes(file.toPath());
+
+            assertTrue(result.isSuccess());
+            assertTrue(result.getMessage().startsWith("HDU 2: "));
+            assertEquals(fitsFile.length, content.length);
+            // primary HDU unit and first extension are not changed
+            assertArrayEquals(Arrays.copyOfRange(fitsFile, 0, 2 * extensionOffset),
+                    Arrays.copyOfRange(content, 0, 2 * extensionOffset));
+            assertTrue(new String(content, 2 * extensionOffset, Constants.FITS_BLOCK_SIZE, StandardCharsets.US_ASCII)
+                    .contains("FILTER  = 'V       '"));
+        }
+    }
+
+    @Test
+    public void testAddNewRecord_AllSelected_RecordAddedToEveryUnit() throws Exception {
+        byte[] fitsFile = createMultiExtensionFile();
+        byte[] expected = createMultiExtensionFile("FILTER  = 'V       '");
+        List<String> messages = new ArrayList<>();
+
+        for (HeaderEditingEngine engine : Arrays.asList(_nomTamEngine, _mappedEngine)) {
+            File file = folder.newFile();
+            Files.write(file.toPath(), fitsFile);
+
+            Result result = engine.addNewRecord("FILTER", "V", null, false, HduSelector.all(), file);
+
+            assertTrue(result.getMessage(), result.isSuccess());
+            assertArrayEquals(expected, Files.readAllBytes(file.toPath()));
+            messages.add(result.getMessage());
+        }
+        assertEquals(messages.get(0), messages.get(1));
+    }
+
+    @Test
+    public void testAddNewRecord_NoUnitSelected_NoChangesWritten() throws Exception {
+        byte[] fitsFile = createMultiExtensionFile();
+        File file = folder.newFile();
+        Files.write(file.toPath(), fitsFile);
+
+        Result result = _mappedEngine.addNewRecord("FILTER", "V", null, false, HduSelector.extension("DQ"), file);
+
+        assertFalse(result.isSuccess());
+        assertEquals("File does not contain HDU unit DQ", result.getMessage());
+        assertArrayEquals(fitsFile, Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    public void testAddNewRecord_HeaderIndex_EntryUpdated() throws Exception {
+        HeaderIndex headerIndex = new HeaderIndex(folder.getRoot().toPath().resolve("headers.index"));
+        HeaderEditingEngine engine = new MappedFitsEditingEngine(0, new FileSynchronizer(FileSynchronizer.Mode.NONE), headerIndex);
+
+        for (byte[] fitsFile : _corpus) {
+            File file = folder.newFile();
+            Files.write(file.toPath(), fitsFile);
+
+            Result result = engine.addNewRecord("OBSERVER", "Vrabel", "observer", false, file);
+
+            assertTrue(result.isSuccess());
+            assertEquals("Vrabel", headerIndex.getValues(file).get("OBSERVER"));
+        }
+    }
+
+    @Test
+    public void testChangeValueOfRecord_ResultDetails() throws Exception {
+        File file = folder.newFile();
+        Files.write(file.toPath(), _corpus.get(0));
+
+        Result result = _mappedEngine.changeValueOfRecord("OBJECT", "M32", null, false, file);
+
+        assertTrue(result.isSuccess());
+        ResultDetails details = result.getDetails();
+        assertNotNull(details);
+        assertEquals("OBJECT", details.getKeyword());
+        assertEquals("M31", details.getOldValue());
+        assertEquals("M32", details.getNewValue());
+        assertEquals(Constants.FITS_BLOCK_SIZE, details.getBytesRead());
+        assertTrue(details.getBytesWritten() > 0);
+        assertTrue(details.getOpenNanos() >= 0 && details.getEditNanos() >= 0 && details.getWriteNanos() >= 0);
+    }
+
+    @Test
+    public void testChangeKeywordOfRecord_ResultDetails() throws Exception {
+        File file = folder.newFile();
+        Files.write(file.toPath(), _corpus.get(0));
+
+        Result result = _mappedEngine.changeKeywordOfRecord("OBJECT", "TARGET", false, file);
+
+        assertTrue(result.isSuccess());
+        ResultDetails details = result.getDetails();
+        assertNotNull(details);
+        assertEquals("TARGET", details.getKeyword());
+        assertEquals("M31", details.getOldValue());
+        assertEquals("M31", details.getNewValue());
+    }
+
+    @Test
+    public void testChangeValueOfRecord_UntouchedRecordsKeepTheirBytes() throws Exception {
+        byte[] fitsFile = createFitsFile(0, "SIMPLE  =                    T",
+                "BITPIX  =                    8",
+                "NAXIS   =                    0",
+                "OBJECT  = 'M31'   / unusual   formatting",
+                "EXPTIME =   30.0",
+                "DATE-OBS= '2015-06-12T21:30:00'",
+                "END");
+
+        for (HeaderEditingEngine engine : Arrays.asList(_nomTamEngine, _mappedEngine)) {
+            File file = folder.newFile();
+            Files.write(file.toPath(), fitsFile);
+
+            Result result = engine.changeValueOfRecord("EXPTIME", 45.5, null, false, file);
+
+            assertTrue(result.isSuccess());
+            byte[] edited = Files.readAllBytes(file.toPath());
+            assertEquals(fitsFile.length, edited.length);
+            // only the card of changed record differs
+            for (int card = 0; card < fitsFile.length / Constants.HEADER_CARD_SIZE; card++) {
+                int offset = card * Constants.HEADER_CARD_SIZE;
+                boolean same = Arrays.equals(Arrays.copyOfRange(fitsFile, offset, offset + Constants.HEADER_CARD_SIZE),
+                        Arrays.copyOfRange(edited, offset, offset + Constants.HEADER_CARD_SIZE));
+                assertEquals(card != 4, same);
+            }
+        }
+    }
+
+    private byte[] createMultiExtensionFile() {
+        return createMultiExtensionFile(null);
+    }
+
+    private byte[] createMultiExtensionFile(String addedCard) {
+        byte[] primary = createFitsFile(10 * 10 * 2, withCard(addedCard, "SIMPLE  =                    T",
+                "BITPIX  =                   16",
+                "NAXIS   =                    2",
+                "NAXIS1  =                   10",
+                "NAXIS2  =                   10",
+                "OBJECT  = 'M33     '",
+                "DATE-OBS= '2015-06-12T22:00:00.500'",
+                "EXPTIME =                 60.0",
+                "RA      =              23.4621",
+                "DEC     =              30.6599",
+                "END"));
+        byte[] science = createFitsFile(10 * 10 * 2, withCard(addedCard, "XTENSION= 'IMAGE   '",
+                "BITPIX  =                   16",
+                "NAXIS   =                    2",
+                "NAXIS1  =                   10",
+                "NAXIS2  =                   10",
+                "PCOUNT  =                    0",
+                "GCOUNT  =                    1",
+                "EXTNAME = 'SCI     '",
+                "END"));
+        byte[] error = createFitsFile(10 * 10 * 2, withCard(addedCard, "XTENSION= 'IMAGE   '",
+                "BITPIX  =                   16",
+                "NAXIS   =                    2",
+                "NAXIS1  =                   10",
+                "NAXIS2  =                   10",
+                "PCOUNT  =                    0",
+                "GCOUNT  =                    1",
+                "EXTNAME = 'ERR     '",
+                "END"));
+
+        byte[] fitsFile = Arrays.copyOf(primary, primary.length + science.length + error.length);
+        System.arraycopy(science, 0, fitsFile, primary.length, science.length);
+        System.arraycopy(error, 0, fitsFile, primary.length + science.length, error.length);
+        return fitsFile;
+    }
+
+    private static String[] withCard(String addedCard, String... cards) {
+        if (addedCard == null)
+            return cards;
+
+        // added record is the last one before END card
+        String[] extendedCards = Arrays.copyOf(cards, cards.length + 1);
+        extendedCards[cards.length - 1] = addedCard;
+        extendedCards[cards.length] = cards[cards.length - 1];
+        return extendedCards;
+    }
+
+    private void assertSameResults(BiFunction<HeaderEditingEngine, File, Result> operation,
+                                   BiFunction<ReferenceFitsEditingEngine, File, Result> referenceOperation) throws Exception {
+        for (byte[] fitsFile : _corpus) {
+            File referenceFile = folder.newFile();
+            Files.write(referenceFile.toPath(), fitsFile);
+            Result referenceResult = referenceOperation.apply(_referenceEngine, referenceFile);
+            byte[] referenceContent = Files.readAllBytes(referenceFile.toPath());
+            byte[] referenceHeader = Arrays.copyOf(referenceContent, headerLength(referenceContent));
+            byte[] originalData = Arrays.copyOfRange(fitsFile, headerLength(fitsFile), fitsFile.length);
+
+            List<String> messages = new ArrayList<>();
+            for (HeaderEditingEngine engine : Arrays.asList(_nomTamEngine, _mappedEngine)) {
+                File file = folder.newFile();
+                Files.write(file.toPath(), fitsFile);
+
+                Result result = operation.apply(engine, file);
+                byte[] content = Files.readAllBytes(file.toPath());
+
+                // reference rewrites grown header over data unit it has not read yet,
+                // so only its header is compared and data unit must be kept intact
+                assertEquals(result.getMessage(), referenceResult.isSuccess(), result.isSuccess());
+                assertEquals(referenceContent.length, content.length);
+                assertArrayEquals(referenceHeader, Arrays.copyOf(content, headerLength(content)));
+                assertArrayEquals(originalData, Arrays.copyOfRange(content, headerLength(content), content.length));
+                messages.add(result.getMessage());
+            }
+            assertEquals(messages.get(0), messages.get(1));
+        }
+    }
+
+    @SafeVarargs
+    private static Result executeAll(File file, Supplier<Result>... operations) {
+        try {
+            // reference engine writes every operation, failed sequence is rolled back
+            byte[] original = Files.readAllBytes(file.toPath());
+            for (Supplier<Result> operation : operations) {
+                Result result = operation.get();
+                if (!result.isSuccess()) {
+                    Files.write(file.toPath(), original);
+                    return result;
+                }
+            }
+
+            return new Result(true, "All operations executed");
+        } catch (IOException ioEx) {
+            throw new UncheckedIOException(ioEx);
+        }
+    }
+
+    private static String readValue(File file, String keyword) {
+        try {
+            HeaderCard card = new IndexedHeader(Files.readAllBytes(file.toPath())).findCard(keyword);
+            return card != null ? card.getValue() : null;
+        } catch (IOException | FitsException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static int endCardOffset(byte[] fitsFile) {
+        for (int offset = 0; offset < fitsFile.length; offset += Constants.HEADER_CARD_SIZE) {
+            if (HeaderBlockWriter.isEndCard(fitsFile, offset))
+                return offset;
+        }
+
+        throw new IllegalArgumentException("fitsFile does not contain END card");
+    }
+
+    private static int headerLength(byte[] fitsFile) {
+        int endOffset = endCardOffset(fitsFile) + Constants.HEADER_CARD_SIZE;
+        return (endOffset + Constants.FITS_BLOCK_SIZE - 1) / Constants.FITS_BLOCK_SIZE * Constants.FITS_BLOCK_SIZE;
+    }
+
+    private static byte[] createFitsFile(int dataSize, String... cards) {
+        StringBuilder builder = new StringBuilder();
+        for (String card : cards) {
+            builder.append(card);
+            for (int i = card.length(); i < Constants.HEADER_CARD_SIZE; i++)
+                builder.append(' ');
+        }
+        byte[] header = HeaderBlockWriter.padToBlocks(builder.toString().getBytes(StandardCharsets.US_ASCII));
+
+        // data unit padded with zeros to the whole block
+        int paddedDataSize = (dataSize + Constants.FITS_BLOCK_SIZE - 1) / Constants.FITS_BLOCK_SIZE * Constants.FITS_BLOCK_SIZE;
+        byte[] fitsFile = Arrays.copyOf(header, header.length + paddedDataSize);
+        for (int i = 0; i < dataSize; i++)
+            fitsFile[header.length + i] = (byte) (i % 127);
+
+        return fitsFile;
+    }
+}
@@ -0,0 +1,241 @@
+package cz.muni.fi.fits.engine.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link FileSynchronizer} class
+ *
+ * @author Martin Vrábel
+ * @version 1.2
+ */
+public class FileSynchronizerTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testConstructor_Mode_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        new FileSynchronizer(null);
+    }
+
+    @Test
+    public void testConstructor_GroupSize_NotPositive() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        new FileSynchronizer(FileSynchronizer.Mode.GROUP, 0);
+    }
+
+    @Test
+    public void testFileWritten_File_Null() throws Exception {
+        FileSynchronizer synchronizer = new FileSynchronizer(FileSynchronizer.Mode.FSYNC);
+
+        exception.expect(IllegalArgumentException.class);
+        synchronizer.fileWritten(null, null);
+    }
+
+    @Test
+    public void testReplaceFile_Replacement_Null() throws Exception {
+        FileSynchronizer synchronizer = new FileSynchronizer(FileSynchronizer.Mode.NONE);
+
+        exception.expect(IllegalArgumentException.class);
+        synchronizer.replaceFile(null, createFile("target", "original"));
+    }
+
+    @Test
+    public void testReplaceFile_None_ReplacedImmediately() throws Exception {
+        assertReplacedImmediately(new FileSynchronizer(FileSynchronizer.Mode.NONE));
+    }
+
+    @Test
+    public void testReplaceFile_Fsync_ReplacedImmediately() throws Exception {
+        assertReplacedImmediately(new FileSynchronizer(FileSynchronizer.Mode.FSYNC));
+    }
+
+    @Test
+    public void testFileWritten_Fsync_ChannelForced() throws Exception {
+        FileSynchronizer synchronizer = new FileSynchronizer(FileSynchronizer.Mode.FSYNC);
+        Path file = createFile("written", "original");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            synchronizer.fileWritten(file, channel);
+        }
+
+        assertEquals("original", read(file));
+    }
+
+    @Test
+    public void testReplaceFile_Group_ReplacedOnCommit() throws Exception {
+        FileSynchronizer synchronizer = new FileSynchronizer(FileSynchronizer.Mode.GROUP, 10);
+        Path target = createFile("target", "original");
+        Path replacement = createFile("replacement", "replaced");
+
+        synchronizer.replaceFile(replacement, target);
+
+        assertEquals("original", read(target));
+        assertTrue(Files.exists(replacement));
+
+        synchronizer.commit();
+
+        assertEquals("replaced", read(target));
+        assertFalse(Files.exists(replacement));
+    }
+
+    @Test
+    public void testReplaceFile_Group_CommittedWhenGroupIsFull() throws Exception {
+        FileSynchronizer synchronizer = new FileSynchronizer(FileSynchronizer.Mode.GROUP, 2);
+        Path firstTarget = createFile("target1", "original1");
+        Path secondTarget = createFile("target2", "original2");
+
+        synchronizer.replaceFile(createFile("replacement1", "replaced1"), firstTarget);
+        assertEquals("original1", read(firstTarget));
+
+        synchronizer.replaceFile(createFile("replacement2", "replaced2"), secondTarget);
+        assertEquals("replaced1", read(firstTarget));
+        assertEquals("replaced2", read(secondTarget));
+    }
+
+    @Test
+    public void testCommit_Group_ReplacementMissing_OtherReplacementsDiscarded() throws Exception {
+        FileSynchronizer synchronizer = new FileSynchronizer(FileSynchronizer.Mode.GROUP, 10);
+        Path firstTarget = createFile("target1", "original1");
+        Path secondTarget = createFile("target2", "original2");
+        Path firstReplacement = createFile("replacement1", "replaced1");
+        Path secondReplacement = createFile("replacement2", "replaced2");
+
+        synchronizer.replaceFile(firstReplacement, firstTarget);
+        synchronizer.replaceFile(secondReplacement, secondTarget);
+        Files.delete(firstReplacement);
+
+        try {
+            synchronizer.commit();
+            fail("commit should fail");
+        } catch (IOException ioEx) {
+            assertTrue(ioEx.getMessage().contains("group of 2 files"));
+        }
+
+        assertEquals("original1", read(firstTarget));
+        assertEquals("original2", read(secondTarget));
+        assertFalse(Files.exists(secondReplacement));
+    }
+
+    @Test
+    public void testCommit_Group_Failed_FailureRememberedForEveryFile() throws Exception {
+        FileSynchronizer synchronizer = new FileSynchronizer(FileSynchronizer.Mode.GROUP, 10);
+        Path firstTarget = createFile("target1", "original1");
+        Path secondTarget = createFile("target2", "original2");
+        Path firstReplacement = createFile("replacement1", "replaced1");
+
+        synchronizer.replaceFile(firstReplacement, firstTarget);
+        synchronizer.replaceFile(createFile("replacement2", "replaced2"), secondTarget);
+        assertTrue(synchronizer.isPending(firstTarget));
+        assertTrue(synchronizer.isPending(secondTarget));
+        Files.delete(firstReplacement);
+
+        try {
+            synchronizer.commit();
+            fail("commit should fail");
+        } catch (IOException ioEx) {
+            assertSame(ioEx, synchronizer.takeFailure(firstTarget));
+            assertSame(ioEx, synchronizer.takeFailure(secondTarget));
+        }
+
+        assertFalse(synchronizer.isPending(firstTarget));
+        assertNull(synchronizer.takeFailure(firstTarget));
+    }
+
+    @Test
+    public void testCommit_Group_Succeeded_NoFailure() throws Exception {
+        FileSynchronizer synchronizer = new FileSynchronizer(FileSynchronizer.Mode.GROUP, 10);
+        Path target = createFile("target", "original");
+
+        synchronizer.replaceFile(createFile("replacement", "replaced"), target);
+        synchronizer.commit();
+
+        assertFalse(synchronizer.isPending(target));
+        assertNull(synchronizer.takeFailure(target));
+    }
+
+    @Test
+    public void testCreateReplacement_HiddenReplacementNextToTarget() throws Exception {
+        FileSynchronizer synchronizer = new FileSynchronizer(FileSynchronizer.Mode.NONE);
+        Path target = createFile("frame.fits", "original");
+
+        Path replacement = synchronizer.createReplacement(target);
+
+        assertEquals(target.toAbsolutePath().getParent(), replacement.getParent());
+        assertTrue(replacement.getFileName().toString().startsWith(".frame.fits"));
+        assertTrue(FileSynchronizer.isReplacementFile(replacement));
+        assertFalse(FileSynchronizer.isReplacementFile(target));
+    }
+
+    @Test
+    public void testCreateReplacement_LeftoverReplacementsRemoved() throws Exception {
+        Path target = createFile("frame.fits", "original");
+        Path running = new FileSynchronizer(FileSynchronizer.Mode.GROUP, 10).createReplacement(target);
+        Path leftover = createFile(".other.fits.1234.replacement", "leftover");
+
+        Path replacement = new FileSynchronizer(FileSynchronizer.Mode.GROUP, 10).createReplacement(target);
+
+        // replacement of edit that is still running is kept
+        assertFalse(Files.exists(leftover));
+        assertTrue(Files.exists(running));
+        assertTrue(Files.exists(replacement));
+        assertEquals("original", read(target));
+    }
+
+    @Test
+    public void testDiscardReplacement_Group_ReplacementDeletedAndNotCommitted() throws Exception {
+        FileSynchronizer synchronizer = new FileSynchronizer(FileSynchronizer.Mode.GROUP, 10);
+        Path target = createFile("target", "original");
+        Path replacement = synchronizer.createReplacement(target);
+        synchronizer.replaceFile(replacement, target);
+
+        synchronizer.discardReplacement(replacement);
+        synchronizer.commit();
+
+        assertFalse(Files.exists(replacement));
+        assertEquals("original", read(target));
+    }
+
+    @Test
+    public void testCommit_NothingPending_DoesNothing() throws Exception {
+        FileSynchronizer synchronizer = new FileSynchronizer(FileSynchronizer.Mode.GROUP, 10);
+
+        synchronizer.commit();
+    }
+
+    private void assertReplacedImmediately(FileSynchronizer synchronizer) throws Exception {
+        Path target = createFile("target", "original");
+        Path replacement = createFile("replacement", "replaced");
+
+        synchronizer.replaceFile(replacement, target);
+
+        assertEquals("replaced", read(target));
+        assertFalse(Files.exists(replacement));
+    }
+
+    private Path createFile(String name, String content) throws Exception {
+        Path file = folder.getRoot().toPath().resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    private static String read(Path file) throws Exception {
+        return new String(Files.readAllBytes(file), StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,225 @@
+package cz.muni.fi.fits.engine.io;
+
+import cz.muni.fi.fits.common.utils.Constants;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for static methods of {@link HeaderBlockScanner} class
+ *
+ * @author Martin Vrábel
+ * @version 1.3
+ */
+public class HeaderBlockScannerTest {
+
+    private static final Path FITS_FILE = Paths.get("test-header-block-scanner.fits");
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(FITS_FILE);
+    }
+
+    @Test
+    public void testScanHeaderLength_Channel_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        HeaderBlockScanner.scanHeaderLength(null, 0);
+    }
+
+    @Test
+    public void testScanHeaderLength_MultipleBlocks() throws Exception {
+        String[] cards = new String[2 * Constants.CARDS_PER_BLOCK + 1];
+        Arrays.fill(cards, "HISTORY long header");
+        cards[0] = "SIMPLE  =                    T";
+        cards[cards.length - 1] = "END";
+        Files.write(FITS_FILE, createHeader(cards));
+
+        try (FileChannel channel = FileChannel.open(FITS_FILE, StandardOpenOption.READ)) {
+            assertEquals(3 * Constants.FITS_BLOCK_SIZE, HeaderBlockScanner.scanHeaderLength(channel, 0));
+        }
+    }
+
+    @Test
+    public void testScanHeaderLength_MissingEndCard() throws Exception {
+        Files.write(FITS_FILE, createHeader("SIMPLE  =                    T", "ENDING  =                    T"));
+
+        try (FileChannel channel = FileChannel.open(FITS_FILE, StandardOpenOption.READ)) {
+            assertEquals(HeaderBlockScanner.NOT_FOUND, HeaderBlockScanner.scanHeaderLength(channel, 0));
+        }
+    }
+
+    @Test
+    public void testScanValues_StopsAtEndCard() throws Exception {
+        byte[] header = createHeader("SIMPLE  =                    T",
+                "FILTER  = 'V       '           / filter",
+                "EXPTIME =                 30.0",
+                "END");
+        // records after END card belong to data unit and must not be found
+        byte[] data = createHeader("OBJECT  = 'M31     '");
+        byte[] content = Arrays.copyOf(header, header.length + data.length);
+        System.arraycopy(data, 0, content, header.length, data.length);
+        Files.write(FITS_FILE, content);
+
+        try (FileChannel channel = FileChannel.open(FITS_FILE, StandardOpenOption.READ)) {
+            Map<String, String> values = HeaderBlockScanner.scanValues(channel, 0,
+                    new HashSet<>(Arrays.asList("FILTER", "EXPTIME", "OBJECT")));
+
+            assertEquals(2, values.size());
+            assertEquals("V", values.get("FILTER"));
+            assertEquals("30.0", values.get("EXPTIME"));
+            assertFalse(values.containsKey("OBJECT"));
+        }
+    }
+
+    @Test
+    public void testScanValues_MultipleBlocks() throws Exception {
+        String[] cards = new String[Constants.CARDS_PER_BLOCK + 2];
+        Arrays.fill(cards, "HISTORY long header");
+        cards[0] = "SIMPLE  =                    T";
+        cards[Constants.CARDS_PER_BLOCK] = "FILTER  = 'R       '";
+        cards[cards.length - 1] = "END";
+        Files.write(FITS_FILE, createHeader(cards));
+
+        try (FileChannel channel = FileChannel.open(FITS_FILE, StandardOpenOption.READ)) {
+            Map<String, String> values = HeaderBlockScanner.scanValues(channel, 0, new HashSet<>(Arrays.asList("FILTER")));
+
+            assertEquals("R", values.get("FILTER"));
+        }
+    }
+
+    @Test
+    public void testScanAllValues_FirstRecordsUpToEndCard() throws Exception {
+        byte[] header = createHeader("SIMPLE  =                    T",
+                "FILTER  = 'V       '           / filter",
+                "COMMENT no value",
+                "FILTER  = 'R       '",
+                "EXPTIME =                 30.0",
+                "END");
+        byte[] data = createHeader("OBJECT  = 'M31     '");
+        byte[] content = Arrays.copyOf(header, header.length + data.length);
+        System.arraycopy(data, 0, content, header.length, data.length);
+        Files.write(FITS_FILE, content);
+
+        try (FileChannel channel = FileChannel.open(FITS_FILE, StandardOpenOption.READ)) {
+            Map<String, String> values = HeaderBlockScanner.scanAllValues(channel, 0);
+
+            assertEquals(Arrays.asList("SIMPLE", "FILTER", "EXPTIME"), new ArrayList<>(values.keySet()));
+            assertEquals("V", values.get("FILTER"));
+            assertEquals("30.0", values.get("EXPTIME"));
+        }
+    }
+
+    @Test
+    public void testParseValues() throws Exception {
+        byte[] header = createHeader("SIMPLE  =                    T",
+                "OBJECT  = 'M31     '",
+                "END");
+
+        Map<String, String> values = HeaderBlockScanner.parseValues(header);
+
+        assertEquals(2, values.size());
+        assertEquals("T", values.get("SIMPLE"));
+        assertEquals("M31", values.get("OBJECT"));
+    }
+
+    @Test
+    public void testComputeDataSize_NoAxes() throws Exception {
+        byte[] header = createHeader("SIMPLE  =                    T",
+                "BITPIX  =                   16",
+                "NAXIS   =                    0",
+                "END");
+
+        assertEquals(0, HeaderBlockScanner.computeDataSize(header));
+    }
+
+    @Test
+    public void testComputeDataSize_Image_PaddedToBlock() throws Exception {
+        byte[] header = createHeader("SIMPLE  =                    T",
+                "BITPIX  =                  -32 / single precision",
+                "NAXIS   =                    2",
+                "NAXIS1  =                  100",
+                "NAXIS2  =                   10",
+                "END");
+
+        assertEquals(2 * Constants.FITS_BLOCK_SIZE, HeaderBlockScanner.computeDataSize(header));
+    }
+
+    @Test
+    public void testComputeDataSize_RandomGroups() throws Exception {
+        byte[] header = createHeader("SIMPLE  =                    T",
+                "BITPIX  =                    8",
+                "NAXIS   =                    2",
+                "NAXIS1  =                    0",
+                "NAXIS2  =                   10",
+                "GROUPS  =                    T",
+                "PCOUNT  =                    2",
+                "GCOUNT  =                  240",
+                "END");
+
+        assertEquals(Constants.FITS_BLOCK_SIZE, HeaderBlockScanner.computeDataSize(header));
+    }
+
+    @Test
+    public void testComputeDataSize_MissingAxis() throws Exception {
+        byte[] header = createHeader("SIMPLE  =                    T",
+                "BITPIX  =                    8",
+                "NAXIS   =                    2",
+                "NAXIS1  =                   10",
+                "END");
+
+        exception.expect(IllegalArgumentException.class);
+        HeaderBlockScanner.computeDataSize(header);
+    }
+
+    @Test
+    public void testIsPrimaryHeader() throws Exception {
+        assertTrue(HeaderBlockScanner.isPrimaryHeader(createHeader("SIMPLE  =                    T", "END")));
+        assertFalse(HeaderBlockScanner.isPrimaryHeader(createHeader("XTENSION= 'IMAGE   '", "END")));
+    }
+
+    @Test
+    public void testIsExtensionHeader() throws Exception {
+        assertTrue(HeaderBlockScanner.isExtensionHeader(createHeader("XTENSION= 'IMAGE   '", "END")));
+        assertFalse(HeaderBlockScanner.isExtensionHeader(createHeader("SIMPLE  =                    T", "END")));
+    }
+
+    @Test
+    public void testFindStringValue_QuotedValue() throws Exception {
+        byte[] header = createHeader("XTENSION= 'BINTABLE'",
+                "EXTNAME = 'O''HARE  '           / name with quote",
+                "EXTVER  =                    2 / version",
+                "END");
+
+        assertEquals("O'HARE", HeaderBlockScanner.findStringValue(header, "EXTNAME"));
+        assertEquals("2", HeaderBlockScanner.findStringValue(header, "EXTVER"));
+        assertNull(HeaderBlockScanner.findStringValue(header, "OBJECT"));
+    }
+
+    private static byte[] createHeader(String... cards) {
+        StringBuilder builder = new StringBuilder();
+        for (String card : cards) {
+            builder.append(card);
+            for (int i = card.length(); i < Constants.HEADER_CARD_SIZE; i++)
+                builder.append(' ');
+        }
+
+        return HeaderBlockWriter.padToBlocks(builder.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,248 @@
+package cz.muni.fi.fits.engine.io;
+
+import cz.muni.fi.fits.common.utils.Constants;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for static methods of {@link HeaderBlockWriter} class
+ *
+ * @author Martin Vrábel
+ * @version 1.6
+ */
+public class HeaderBlockWriterTest {
+
+    private static final Path FITS_FILE = Paths.get("test-header-block-writer.fits");
+    private static final int DATA_SIZE = Constants.FITS_BLOCK_SIZE;
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Before
+    public void setUp() throws Exception {
+        byte[] header = createHeader("SIMPLE  =                    T",
+                "BITPIX  =                    8",
+                "NAXIS   =                    1",
+                "NAXIS1  =                 2880",
+                "OBJECT  = 'M31     '",
+                "END");
+        byte[] data = new byte[DATA_SIZE];
+        Arrays.fill(data, (byte) 7);
+
+        Files.write(FITS_FILE, concat(header, data));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(FITS_FILE);
+    }
+
+    @Test
+    public void testWriteReplaced_FitsFile_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        HeaderBlockWriter.writeReplaced(null, 0, new byte[0]);
+    }
+
+    @Test
+    public void testWriteReplaced_HeaderOffset_NotAligned() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        HeaderBlockWriter.writeReplaced(FITS_FILE.toFile(), 80, new byte[0]);
+    }
+
+    @Test
+    public void testWriteReplaced_NothingChanged() throws Exception {
+        byte[] original = Files.readAllBytes(FITS_FILE);
+        byte[] newHeader = Arrays.copyOfRange(original, 0, Constants.FITS_BLOCK_SIZE);
+
+        long written = HeaderBlockWriter.writeReplaced(FITS_FILE.toFile(), 0, newHeader);
+
+        assertEquals(0, written);
+        assertArrayEquals(original, Files.readAllBytes(FITS_FILE));
+    }
+
+    @Test
+    public void testWriteReplaced_HeaderGrows_DataTransferred() throws Exception {
+        String[] cards = new String[Constants.CARDS_PER_BLOCK + 5];
+        Arrays.fill(cards, "HISTORY grown header");
+        cards[cards.length - 1] = "END";
+        byte[] newHeader = createHeader(cards);
+
+        long written = HeaderBlockWriter.writeReplaced(FITS_FILE.toFile(), 0, newHeader);
+
+        byte[] content = Files.readAllBytes(FITS_FILE);
+        assertEquals(2 * Constants.FITS_BLOCK_SIZE + DATA_SIZE, written);
+        assertEquals(2 * Constants.FITS_BLOCK_SIZE + DATA_SIZE, content.length);
+        assertArrayEquals(newHeader, Arrays.copyOfRange(content, 0, newHeader.length));
+        for (int i = newHeader.length; i < content.length; i++)
+            assertEquals(7, content[i]);
+    }
+
+    @Test
+    public void testWriteReplaced_HeaderShrinks_DataTransferred() throws Exception {
+        String[] cards = new String[Constants.CARDS_PER_BLOCK + 5];
+        Arrays.fill(cards, "HISTORY grown header");
+        cards[cards.length - 1] = "END";
+        HeaderBlockWriter.writeReplaced(FITS_FILE.toFile(), 0, createHeader(cards));
+        byte[] newHeader = createHeader("SIMPLE  =                    T", "END");
+
+        HeaderBlockWriter.writeReplaced(FITS_FILE.toFile(), 0, newHeader);
+
+        byte[] content = Files.readAllBytes(FITS_FILE);
+        assertEquals(Constants.FITS_BLOCK_SIZE + DATA_SIZE, content.length);
+        assertArrayEquals(newHeader, Arrays.copyOfRange(content, 0, Constants.FITS_BLOCK_SIZE));
+        for (int i = Constants.FITS_BLOCK_SIZE; i < content.length; i++)
+            assertEquals(7, content[i]);
+    }
+
+    @Test
+    public void testWriteReplaced_SameBlocks_WrittenInPlace() throws Exception {
+        byte[] newHeader = createHeader("SIMPLE  =                    T",
+                "BITPIX  =                    8",
+                "NAXIS   =                    1",
+                "NAXIS1  =                 2880",
+                "OBJECT  = 'M33     '",
+                "END");
+
+        long written = HeaderBlockWriter.writeReplaced(FITS_FILE.toFile(), 0, newHeader);
+
+        byte[] content = Files.readAllBytes(FITS_FILE);
+        assertEquals(Constants.HEADER_CARD_SIZE, written);
+        assertEquals(Constants.FITS_BLOCK_SIZE + DATA_SIZE, content.length);
+        assertArrayEquals(newHeader, Arrays.copyOfRange(content, 0, Constants.FITS_BLOCK_SIZE));
+        for (int i = Constants.FITS_BLOCK_SIZE; i < content.length; i++)
+            assertEquals(7, content[i]);
+    }
+
+    @Test
+    public void testWriteReplaced_HeaderGrows_NoTemporaryFileLeft() throws Exception {
+        String[] cards = new String[Constants.CARDS_PER_BLOCK + 5];
+        Arrays.fill(cards, "HISTORY grown header");
+        cards[cards.length - 1] = "END";
+        Path directory = FITS_FILE.toAbsolutePath().getParent();
+
+        HeaderBlockWriter.writeReplaced(FITS_FILE.toFile(), 0, createHeader(cards));
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FileSynchronizer::isReplacementFile)) {
+            assertFalse(files.iterator().hasNext());
+        }
+    }
+
+    @Test
+    public void testWriteReplaced_GroupDurability_ReplacedOnCommit() throws Exception {
+        String[] cards = new String[Constants.CARDS_PER_BLOCK + 5];
+        Arrays.fill(cards, "HISTORY grown header");
+        cards[cards.length - 1] = "END";
+        byte[] original = Files.readAllBytes(FITS_FILE);
+        FileSynchronizer synchronizer = new FileSynchronizer(FileSynchronizer.Mode.GROUP, 10);
+
+        HeaderBlockWriter.writeReplaced(FITS_FILE.toFile(), 0, createHeader(cards), synchronizer);
+        assertArrayEquals(original, Files.readAllBytes(FITS_FILE));
+
+        synchronizer.commit();
+        assertEquals(2 * Constants.FITS_BLOCK_SIZE + DATA_SIZE, Files.size(FITS_FILE));
+    }
+
+    @Test
+    public void testWriteReplaced_MultipleHeaders_ExtensionGrows_DataTransferred() throws Exception {
+        long extensionOffset = Constants.FITS_BLOCK_SIZE + DATA_SIZE;
+        byte[] extension = createHeader("XTENSION= 'IMAGE   '",
+                "BITPIX  =                    8",
+                "NAXIS   =                    0",
+                "END");
+        byte[] extensionData = new byte[DATA_SIZE];
+        Arrays.fill(extensionData, (byte) 9);
+        Files.write(FITS_FILE, concat(Files.readAllBytes(FITS_FILE), concat(extension, extensionData)));
+
+        String[] cards = new String[Constants.CARDS_PER_BLOCK + 5];
+        Arrays.fill(cards, "HISTORY grown header");
+        cards[0] = "XTENSION= 'IMAGE   '";
+        cards[cards.length - 1] = "END";
+        byte[] newExtension = createHeader(cards);
+        byte[] newPrimary = createHeader("SIMPLE  =                    T",
+                "BITPIX  =                    8",
+                "NAXIS   =                    1",
+                "NAXIS1  =                 2880",
+                "OBJECT  = 'M33     '",
+                "END");
+        SortedMap<Long, byte[]> newHeaders = new TreeMap<>();
+        newHeaders.put(0L, newPrimary);
+        newHeaders.put(extensionOffset, newExtension);
+
+        HeaderBlockWriter.writeReplaced(FITS_FILE.toFile(), newHeaders, new FileSynchronizer(FileSynchronizer.Mode.NONE));
+
+        byte[] content = Files.readAllBytes(FITS_FILE);
+        assertEquals(Constants.FITS_BLOCK_SIZE + DATA_SIZE + newExtension.length + DATA_SIZE, content.length);
+        assertArrayEquals(newPrimary, Arrays.copyOfRange(content, 0, Constants.FITS_BLOCK_SIZE));
+        for (int i = Constants.FITS_BLOCK_SIZE; i < extensionOffset; i++)
+            assertEquals(7, content[i]);
+        assertArrayEquals(newExtension, Arrays.copyOfRange(content, (int) extensionOffset, (int) extensionOffset + newExtension.length));
+        for (int i = (int) extensionOffset + newExtension.length; i < content.length; i++)
+            assertEquals(9, content[i]);
+    }
+
+    @Test
+    public void testWriteReplaced_MultipleHeaders_SameBlocks_WrittenInPlace() throws Exception {
+        long extensionOffset = Constants.FITS_BLOCK_SIZE + DATA_SIZE;
+        byte[] extension = createHeader("XTENSION= 'IMAGE   '",
+                "BITPIX  =                    8",
+                "NAXIS   =                    0",
+                "END");
+        Files.write(FITS_FILE, concat(Files.readAllBytes(FITS_FILE), extension));
+
+        byte[] newExtension = createHeader("XTENSION= 'IMAGE   '",
+                "BITPIX  =                    8",
+                "NAXIS   =                    0",
+                "EXTNAME = 'SCI     '",
+                "END");
+        SortedMap<Long, byte[]> newHeaders = new TreeMap<>();
+        newHeaders.put(extensionOffset, newExtension);
+
+        HeaderBlockWriter.writeReplaced(FITS_FILE.toFile(), newHeaders, new FileSynchronizer(FileSynchronizer.Mode.NONE));
+
+        byte[] content = Files.readAllBytes(FITS_FILE);
+        assertEquals(extensionOffset + Constants.FITS_BLOCK_SIZE, content.length);
+        assertArrayEquals(newExtension, Arrays.copyOfRange(content, (int) extensionOffset, content.length));
+    }
+
+    @Test
+    public void testPadToBlocks_AddsBlankSpaces() throws Exception {
+        byte[] header = "END".getBytes(StandardCharsets.US_ASCII);
+
+        byte[] padded = HeaderBlockWriter.padToBlocks(header);
+
+        assertEquals(Constants.FITS_BLOCK_SIZE, padded.length);
+        assertTrue(HeaderBlockWriter.isEndCard(padded, 0));
+        assertEquals(' ', padded[padded.length - 1]);
+    }
+
+    private static byte[] createHeader(String... cards) {
+        StringBuilder builder = new StringBuilder();
+        for (String card : cards) {
+            builder.append(card);
+            for (int i = card.length(); i < Constants.HEADER_CARD_SIZE; i++)
+                builder.append(' ');
+        }
+
+        return HeaderBlockWriter.padToBlocks(builder.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
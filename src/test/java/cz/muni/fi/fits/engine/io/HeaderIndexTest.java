@@ -0,0 +1,153 @@
+package cz.muni.fi.fits.engine.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link HeaderIndex} class
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class HeaderIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testGetValues_FitsFile_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        new HeaderIndex(folder.getRoot().toPath().resolve("headers.index")).getValues(null);
+    }
+
+    @Test
+    public void testDisabled_HoldsNoEntries() throws Exception {
+        HeaderIndex headerIndex = new HeaderIndex();
+        File fitsFile = folder.newFile();
+
+        headerIndex.update(fitsFile, Collections.singletonMap("FILTER", "V"));
+        headerIndex.save();
+
+        assertFalse(headerIndex.isEnabled());
+        assertNull(headerIndex.getValues(fitsFile));
+        assertEquals(0, headerIndex.size());
+    }
+
+    @Test
+    public void testSave_LoadedValuesEqual() throws Exception {
+        Path indexFile = folder.getRoot().toPath().resolve("headers.index");
+        File fitsFile = folder.newFile("image.fits");
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("SIMPLE", "T");
+        values.put("OBJECT", "Messier 31");
+        values.put("EXPTIME", "30.0");
+
+        HeaderIndex headerIndex = new HeaderIndex(indexFile);
+        headerIndex.update(fitsFile, values);
+        headerIndex.save();
+
+        HeaderIndex loadedIndex = new HeaderIndex(indexFile);
+        assertEquals(1, loadedIndex.size());
+        assertEquals(values, loadedIndex.getValues(fitsFile));
+    }
+
+    @Test
+    public void testSave_NotRequestedEntriesKept() throws Exception {
+        Path indexFile = folder.getRoot().toPath().resolve("headers.index");
+        File firstFile = folder.newFile("first.fits");
+        File secondFile = folder.newFile("second.fits");
+
+        HeaderIndex headerIndex = new HeaderIndex(indexFile);
+        headerIndex.update(firstFile, Collections.singletonMap("FILTER", "V"));
+        headerIndex.update(secondFile, Collections.singletonMap("FILTER", "R"));
+        headerIndex.save();
+
+        // values of second file are copied from mapped index without being decoded
+        HeaderIndex loadedIndex = new HeaderIndex(indexFile);
+        loadedIndex.update(firstFile, Collections.singletonMap("FILTER", "B"));
+        loadedIndex.save();
+
+        HeaderIndex reloadedIndex = new HeaderIndex(indexFile);
+        assertEquals("B", reloadedIndex.getValues(firstFile).get("FILTER"));
+        assertEquals("R", reloadedIndex.getValues(secondFile).get("FILTER"));
+    }
+
+    @Test
+    public void testGetValues_FileChanged_EntryStale() throws Exception {
+        HeaderIndex headerIndex = new HeaderIndex(folder.getRoot().toPath().resolve("headers.index"));
+        File fitsFile = folder.newFile();
+        headerIndex.update(fitsFile, Collections.singletonMap("FILTER", "V"));
+
+        Files.write(fitsFile.toPath(), new byte[] { 1, 2, 3 });
+
+        assertNull(headerIndex.getValues(fitsFile));
+    }
+
+    @Test
+    public void testGetValues_FileDeleted_EntryStale() throws Exception {
+        HeaderIndex headerIndex = new HeaderIndex(folder.getRoot().toPath().resolve("headers.index"));
+        File fitsFile = folder.newFile();
+        headerIndex.update(fitsFile, Collections.singletonMap("FILTER", "V"));
+
+        assertTrue(fitsFile.delete());
+
+        assertNull(headerIndex.getValues(fitsFile));
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+        HeaderIndex headerIndex = new HeaderIndex(folder.getRoot().toPath().resolve("headers.index"));
+        File fitsFile = folder.newFile();
+        headerIndex.update(fitsFile, Collections.singletonMap("FILTER", "V"));
+
+        headerIndex.remove(fitsFile);
+
+        assertNull(headerIndex.getValues(fitsFile));
+        assertEquals(0, headerIndex.size());
+    }
+
+    @Test
+    public void testLoad_CorruptedIndex_Ignored() throws Exception {
+        Path indexFile = folder.getRoot().toPath().resolve("headers.index");
+        Files.write(indexFile, "not an index file".getBytes(StandardCharsets.US_ASCII));
+        File fitsFile = folder.newFile();
+
+        HeaderIndex headerIndex = new HeaderIndex(indexFile);
+        assertEquals(0, headerIndex.size());
+
+        // corrupted index is rebuilt on save
+        headerIndex.update(fitsFile, Collections.singletonMap("FILTER", "V"));
+        headerIndex.save();
+        assertEquals("V", new HeaderIndex(indexFile).getValues(fitsFile).get("FILTER"));
+    }
+
+    @Test
+    public void testLoad_TruncatedIndex_Ignored() throws Exception {
+        Path indexFile = folder.getRoot().toPath().resolve("headers.index");
+        File fitsFile = folder.newFile();
+        HeaderIndex headerIndex = new HeaderIndex(indexFile);
+        headerIndex.update(fitsFile, Collections.singletonMap("FILTER", "V"));
+        headerIndex.save();
+
+        byte[] content = Files.readAllBytes(indexFile);
+        Files.write(indexFile, Arrays.copyOf(content, content.length - 3));
+
+        assertEquals(0, new HeaderIndex(indexFile).size());
+    }
+}
@@ -0,0 +1,172 @@
+package cz.muni.fi.fits.engine.io;
+
+import cz.muni.fi.fits.common.utils.Constants;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for static methods of {@link HeaderReserve} class
+ *
+ * @author Martin Vrábel
+ * @version 1.2
+ */
+public class HeaderReserveTest {
+
+    private static final String BLANK_CARD = "";
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testCountReservedCards_Header_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        HeaderReserve.countReservedCards(null);
+    }
+
+    @Test
+    public void testCountReservedCards_BlankCardsBeforeEnd() throws Exception {
+        byte[] header = createHeader(5, 3);
+
+        assertEquals(3, HeaderReserve.countReservedCards(header));
+    }
+
+    @Test
+    public void testFitHeader_Header_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        HeaderReserve.fitHeader(null, Constants.FITS_BLOCK_SIZE, 6, 0, 0);
+    }
+
+    @Test
+    public void testFitHeader_Reserve_Negative() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        HeaderReserve.fitHeader(createHeader(5, 0), Constants.FITS_BLOCK_SIZE, 6, -1, 0);
+    }
+
+    @Test
+    public void testFitHeader_Header_WithoutEndCard() throws Exception {
+        byte[] header = new byte[Constants.FITS_BLOCK_SIZE];
+        Arrays.fill(header, (byte) 'A');
+
+        exception.expect(IllegalArgumentException.class);
+        HeaderReserve.fitHeader(header, Constants.FITS_BLOCK_SIZE, 6, 0, 0);
+    }
+
+    @Test
+    public void testFitHeader_FitsIntoOriginalBlocks_Unchanged() throws Exception {
+        byte[] header = createHeader(10, 4);
+
+        byte[] fitted = HeaderReserve.fitHeader(header, Constants.FITS_BLOCK_SIZE, 15, 0, 10);
+
+        assertArrayEquals(header, fitted);
+    }
+
+    @Test
+    public void testFitHeader_RecordAdded_ConsumesReserve() throws Exception {
+        // original header had 4 records, 10 blank records and END card
+        byte[] header = createHeader(5, 10);
+
+        byte[] fitted = HeaderReserve.fitHeader(header, Constants.FITS_BLOCK_SIZE, 15, 0, 0);
+
+        assertEquals(Constants.FITS_BLOCK_SIZE, fitted.length);
+        assertEquals(9, HeaderReserve.countReservedCards(fitted));
+        assertTrue(HeaderBlockWriter.isEndCard(fitted, 14 * Constants.HEADER_CARD_SIZE));
+    }
+
+    @Test
+    public void testFitHeader_GrowsWithoutReserve_NoBlankRecords() throws Exception {
+        byte[] header = createHeader(36, 0);
+
+        byte[] fitted = HeaderReserve.fitHeader(header, Constants.FITS_BLOCK_SIZE, 36, 0, 0);
+
+        assertArrayEquals(header, fitted);
+        assertEquals(0, HeaderReserve.countReservedCards(fitted));
+    }
+
+    @Test
+    public void testFitHeader_ReserveConsumed_StaysInOriginalBlocks() throws Exception {
+        // 34 records, 3 blank records and END card do not fit into single block
+        byte[] header = createHeader(34, 3);
+
+        byte[] fitted = HeaderReserve.fitHeader(header, Constants.FITS_BLOCK_SIZE, 36, 0, 10);
+
+        assertEquals(Constants.FITS_BLOCK_SIZE, fitted.length);
+        assertEquals(1, HeaderReserve.countReservedCards(fitted));
+        assertTrue(HeaderBlockWriter.isEndCard(fitted, (Constants.CARDS_PER_BLOCK - 1) * Constants.HEADER_CARD_SIZE));
+    }
+
+    @Test
+    public void testFitHeader_ShrinksByBlock_KeepsOriginalBlocks() throws Exception {
+        // 35 records and END card fit into single block, original header had two blocks
+        byte[] header = createHeader(35, 0);
+
+        byte[] fitted = HeaderReserve.fitHeader(header, 2 * Constants.FITS_BLOCK_SIZE, 37, 0, 0);
+
+        assertEquals(2 * Constants.FITS_BLOCK_SIZE, fitted.length);
+        assertEquals(Constants.CARDS_PER_BLOCK, HeaderReserve.countReservedCards(fitted));
+        assertArrayEquals(Arrays.copyOf(header, 35 * Constants.HEADER_CARD_SIZE),
+                Arrays.copyOf(fitted, 35 * Constants.HEADER_CARD_SIZE));
+        assertTrue(HeaderBlockWriter.isEndCard(fitted, (2 * Constants.CARDS_PER_BLOCK - 1) * Constants.HEADER_CARD_SIZE));
+    }
+
+    @Test
+    public void testFitHeader_ReserveExhausted_GrowsWithGrowthReserve() throws Exception {
+        byte[] header = createHeader(36, 0);
+
+        byte[] fitted = HeaderReserve.fitHeader(header, Constants.FITS_BLOCK_SIZE, 36, 0, 10);
+
+        // rest of the last block is padding after END card
+        assertEquals(2 * Constants.FITS_BLOCK_SIZE, fitted.length);
+        assertEquals(10, HeaderReserve.countReservedCards(fitted));
+        assertTrue(HeaderBlockWriter.isEndCard(fitted, 46 * Constants.HEADER_CARD_SIZE));
+    }
+
+    @Test
+    public void testFitHeader_RequiredReserve_FilledInOriginalBlocks() throws Exception {
+        byte[] header = createHeader(5, 0);
+
+        byte[] fitted = HeaderReserve.fitHeader(header, Constants.FITS_BLOCK_SIZE, 6, 10, 0);
+
+        assertEquals(Constants.FITS_BLOCK_SIZE, fitted.length);
+        assertEquals(10, HeaderReserve.countReservedCards(fitted));
+        assertTrue(HeaderBlockWriter.isEndCard(fitted, 15 * Constants.HEADER_CARD_SIZE));
+        assertArrayEquals(Arrays.copyOf(header, 5 * Constants.HEADER_CARD_SIZE),
+                Arrays.copyOf(fitted, 5 * Constants.HEADER_CARD_SIZE));
+    }
+
+    @Test
+    public void testFitHeader_RequiredReserve_HeaderGrows() throws Exception {
+        byte[] header = createHeader(30, 0);
+
+        byte[] fitted = HeaderReserve.fitHeader(header, Constants.FITS_BLOCK_SIZE, 31, 10, 0);
+
+        assertEquals(2 * Constants.FITS_BLOCK_SIZE, fitted.length);
+        assertEquals(10, HeaderReserve.countReservedCards(fitted));
+    }
+
+    private static byte[] createHeader(int records, int blankRecords) {
+        List<String> cards = new ArrayList<>();
+        cards.add("SIMPLE  =                    T");
+        for (int i = 1; i < records; i++)
+            cards.add(String.format("HISTORY record %d", i));
+        for (int i = 0; i < blankRecords; i++)
+            cards.add(BLANK_CARD);
+        cards.add("END");
+
+        StringBuilder builder = new StringBuilder();
+        for (String card : cards) {
+            builder.append(card);
+            for (int i = card.length(); i < Constants.HEADER_CARD_SIZE; i++)
+                builder.append(' ');
+        }
+
+        return HeaderBlockWriter.padToBlocks(builder.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+}
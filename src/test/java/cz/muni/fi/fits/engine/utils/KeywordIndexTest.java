@@ -0,0 +1,222 @@
+package cz.muni.fi.fits.engine.utils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link KeywordIndex} class
+ *
+ * @author Martin Vrábel
+ * @version 1.1
+ */
+public class KeywordIndexTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testIsIndexable_NullKeyword() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("keyword is null");
+        KeywordIndex.isIndexable(null);
+    }
+
+    @Test
+    public void testIsIndexable_Keywords() throws Exception {
+        assertTrue(KeywordIndex.isIndexable("DATE-OBS"));
+        assertTrue(KeywordIndex.isIndexable("HISTORY"));
+        assertTrue(KeywordIndex.isIndexable(""));
+        assertFalse(KeywordIndex.isIndexable("HIERARCH.ESO.DET"));
+        assertFalse(KeywordIndex.isIndexable("KEYé"));
+    }
+
+    @Test
+    public void testUnpack_PackedKeywords() throws Exception {
+        assertEquals("DATE-OBS", KeywordIndex.unpack(KeywordIndex.pack("DATE-OBS")));
+        assertEquals("JD", KeywordIndex.unpack(KeywordIndex.pack("JD")));
+        assertEquals("", KeywordIndex.unpack(KeywordIndex.pack("")));
+    }
+
+    @Test
+    public void testUnpack_NotIndexedKey() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("is not packed keyword");
+        KeywordIndex.unpack(KeywordIndex.NOT_INDEXED);
+    }
+
+    @Test
+    public void testConstructor_NegativeExpectedKeywords() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("cannot be negative");
+        new KeywordIndex(-1);
+    }
+
+    @Test
+    public void testAppend_PositionsOfKeywords() throws Exception {
+        KeywordIndex index = createIndex("SIMPLE", "BITPIX", "NAXIS", "DATE-OBS", "EXPTIME");
+
+        assertEquals(5, index.size());
+        assertEquals(0, index.first("SIMPLE"));
+        assertEquals(3, index.first("DATE-OBS"));
+        assertEquals(4, index.first("EXPTIME"));
+        assertEquals(KeywordIndex.NOT_FOUND, index.first("OBJECT"));
+        assertTrue(index.contains("NAXIS"));
+        assertFalse(index.contains("NAXIS1"));
+    }
+
+    @Test
+    public void testAppend_RepeatedKeywords() throws Exception {
+        KeywordIndex index = createIndex("SIMPLE", "HISTORY", "OBJECT", "HISTORY", "COMMENT", "HISTORY");
+
+        assertEquals(3, index.count("HISTORY"));
+        assertEquals(1, index.first("HISTORY"));
+        assertEquals(1, index.count("COMMENT"));
+        assertEquals(0, index.count("FILTER"));
+    }
+
+    @Test
+    public void testAppend_KeywordsDifferingInLastCharacter() throws Exception {
+        KeywordIndex index = createIndex("NAXIS", "NAXIS1", "NAXIS2", "NAXIS10");
+
+        assertEquals(0, index.first("NAXIS"));
+        assertEquals(1, index.first("NAXIS1"));
+        assertEquals(2, index.first("NAXIS2"));
+        assertEquals(3, index.first("NAXIS10"));
+    }
+
+    @Test
+    public void testInsert_PositionOutOfRange() throws Exception {
+        KeywordIndex index = createIndex("SIMPLE", "BITPIX");
+
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("position is out of range");
+        index.insert("OBJECT", 3);
+    }
+
+    @Test
+    public void testInsert_NullKeyword() throws Exception {
+        KeywordIndex index = createIndex("SIMPLE");
+
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("keyword is null");
+        index.insert(null, 0);
+    }
+
+    @Test
+    public void testInsert_FollowingPositionsShifted() throws Exception {
+        KeywordIndex index = createIndex("SIMPLE", "BITPIX", "HISTORY", "OBJECT", "HISTORY");
+
+        index.insert("FILTER", 2);
+
+        assertEquals(6, index.size());
+        assertEquals(1, index.first("BITPIX"));
+        assertEquals(2, index.first("FILTER"));
+        assertEquals(3, index.first("HISTORY"));
+        assertEquals(4, index.first("OBJECT"));
+    }
+
+    @Test
+    public void testInsert_RepeatedKeywordBeforeExisting() throws Exception {
+        KeywordIndex index = createIndex("SIMPLE", "OBJECT", "HISTORY");
+
+        index.insert("HISTORY", 1);
+
+        assertEquals(2, index.count("HISTORY"));
+        assertEquals(1, index.first("HISTORY"));
+        assertEquals(2, index.first("OBJECT"));
+    }
+
+    @Test
+    public void testInsert_NotIndexableKeywordShiftsPositions() throws Exception {
+        KeywordIndex index = createIndex("SIMPLE", "OBJECT");
+
+        index.insert("HIERARCH.ESO.DET", 1);
+
+        assertEquals(3, index.size());
+        assertEquals(2, index.first("OBJECT"));
+        assertEquals(KeywordIndex.NOT_FOUND, index.first("HIERARCH.ESO.DET"));
+    }
+
+    @Test
+    public void testRemove_PositionOutOfRange() throws Exception {
+        KeywordIndex index = createIndex("SIMPLE", "BITPIX");
+
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("position is out of range");
+        index.remove("BITPIX", 2);
+    }
+
+    @Test
+    public void testRemove_KeywordNotOnPosition() throws Exception {
+        KeywordIndex index = createIndex("SIMPLE", "BITPIX", "OBJECT");
+
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("is not indexed at position 1");
+        index.remove("OBJECT", 1);
+    }
+
+    @Test
+    public void testRemove_FollowingPositionsShifted() throws Exception {
+        KeywordIndex index = createIndex("SIMPLE", "BITPIX", "OBJECT", "HISTORY", "EXPTIME", "HISTORY");
+
+        index.remove("OBJECT", 2);
+
+        assertEquals(5, index.size());
+        assertFalse(index.contains("OBJECT"));
+        assertEquals(1, index.first("BITPIX"));
+        assertEquals(2, index.first("HISTORY"));
+        assertEquals(3, index.first("EXPTIME"));
+    }
+
+    @Test
+    public void testRemove_FirstOfRepeatedKeywords() throws Exception {
+        KeywordIndex index = createIndex("SIMPLE", "HISTORY", "OBJECT", "HISTORY");
+
+        index.remove("HISTORY", 1);
+
+        assertEquals(1, index.count("HISTORY"));
+        assertEquals(2, index.first("HISTORY"));
+        assertEquals(1, index.first("OBJECT"));
+    }
+
+    @Test
+    public void testRemove_KeywordInsertedAgain() throws Exception {
+        KeywordIndex index = createIndex("SIMPLE", "OBJECT", "EXPTIME");
+
+        index.remove("OBJECT", 1);
+        index.append("OBJECT");
+
+        assertEquals(1, index.count("OBJECT"));
+        assertEquals(2, index.first("OBJECT"));
+        assertEquals(1, index.first("EXPTIME"));
+    }
+
+    @Test
+    public void testAppend_ManyKeywordsAndRepeatedRecords() throws Exception {
+        KeywordIndex index = new KeywordIndex();
+        for (int i = 0; i < 1000; i++) {
+            index.append(String.format("GEN%05d", i));
+            index.append("HISTORY");
+        }
+
+        assertEquals(2000, index.size());
+        assertEquals(1000, index.count("HISTORY"));
+        for (int i = 0; i < 1000; i++)
+            assertEquals(i * 2, index.first(String.format("GEN%05d", i)));
+
+        index.remove("GEN00000", 0);
+        assertEquals(0, index.first("HISTORY"));
+        assertEquals(997, index.first("GEN00499"));
+    }
+
+    private static KeywordIndex createIndex(String... keywords) {
+        KeywordIndex index = new KeywordIndex();
+        for (String keyword : keywords)
+            index.append(keyword);
+
+        return index;
+    }
+}
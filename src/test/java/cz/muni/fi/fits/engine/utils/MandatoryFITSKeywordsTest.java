@@ -9,7 +9,7 @@ import static org.junit.Assert.assertTrue;
  * Tests for methods of {@link MandatoryFITSKeywords} class
  *
  * @author Martin Vrábel
- * @version 1.1
+ * @version 1.2
  */
 public class MandatoryFITSKeywordsTest {
 
@@ -39,4 +39,13 @@ public class MandatoryFITSKeywordsTest {
 
         assertFalse(result);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testMatchesMandatoryKeyword_Keyword_IsMandatoryForExtension() throws Exception {
+        String keyword = "PCOUNT";
+
+        boolean result = MandatoryFITSKeywords.matchesMandatoryKeyword(keyword);
+
+        assertTrue(result);
+    }
+}
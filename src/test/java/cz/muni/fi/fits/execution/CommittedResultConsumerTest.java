@@ -0,0 +1,163 @@
+package cz.muni.fi.fits.execution;
+
+import cz.muni.fi.fits.engine.io.FileSynchronizer;
+import cz.muni.fi.fits.engine.models.Result;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link CommittedResultConsumer} class
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class CommittedResultConsumerTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<File> _files = new ArrayList<>();
+    private final List<Result> _results = new ArrayList<>();
+
+    @Test
+    public void testConstructor_FileSynchronizer_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        new CommittedResultConsumer(null, this::record);
+    }
+
+    @Test
+    public void testConstructor_ResultConsumer_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        new CommittedResultConsumer(new FileSynchronizer(FileSynchronizer.Mode.GROUP), null);
+    }
+
+    @Test
+    public void testAccept_Fsync_PassedImmediately() throws Exception {
+        CommittedResultConsumer consumer = new CommittedResultConsumer(
+                new FileSynchronizer(FileSynchronizer.Mode.FSYNC), this::record);
+        File file = createFile("target", "original").toFile();
+
+        consumer.accept(file, new Result(true, "edited"));
+
+        assertEquals(1, _results.size());
+        assertTrue(_results.get(0).isSuccess());
+    }
+
+    @Test
+    public void testAccept_Group_HeldUntilCommit() throws Exception {
+        FileSynchronizer synchronizer = new FileSynchronizer(FileSynchronizer.Mode.GROUP, 10);
+        CommittedResultConsumer consumer = new CommittedResultConsumer(synchronizer, this::record);
+        Path target = createFile("target", "original");
+        synchronizer.replaceFile(createFile("replacement", "replaced"), target);
+
+        consumer.accept(target.toFile(), new Result(true, "edited"));
+        assertTrue(_results.isEmpty());
+
+        synchronizer.commit();
+        consumer.flush();
+
+        assertEquals(1, _results.size());
+        assertTrue(_results.get(0).isSuccess());
+    }
+
+    @Test
+    public void testAccept_Group_PassedWhenBatchIsCommitted() throws Exception {
+        FileSynchronizer synchronizer = new FileSynchronizer(FileSynchronizer.Mode.GROUP, 2);
+        CommittedResultConsumer consumer = new CommittedResultConsumer(synchronizer, this::record);
+        Path firstTarget = createFile("target1", "original1");
+        Path secondTarget = createFile("target2", "original2");
+
+        synchronizer.replaceFile(createFile("replacement1", "replaced1"), firstTarget);
+        consumer.accept(firstTarget.toFile(), new Result(true, "edited"));
+        assertTrue(_results.isEmpty());
+
+        synchronizer.replaceFile(createFile("replacement2", "replaced2"), secondTarget);
+        consumer.accept(secondTarget.toFile(), new Result(true, "edited"));
+
+        assertEquals(2, _results.size());
+        assertEquals(firstTarget.toFile(), _files.get(0));
+        assertEquals(secondTarget.toFile(), _files.get(1));
+        assertTrue(_results.get(0).isSuccess());
+        assertTrue(_results.get(1).isSuccess());
+    }
+
+    @Test
+    public void testAccept_Group_BatchFailed_EveryFileReportedAsFailed() throws Exception {
+        FileSynchronizer synchronizer = new FileSynchronizer(FileSynchronizer.Mode.GROUP, 2);
+        CommittedResultConsumer consumer = new CommittedResultConsumer(synchronizer, this::record);
+        Path firstTarget = createFile("target1", "original1");
+        Path secondTarget = createFile("target2", "original2");
+        Path firstReplacement = createFile("replacement1", "replaced1");
+
+        synchronizer.replaceFile(firstReplacement, firstTarget);
+        consumer.accept(firstTarget.toFile(), new Result(true, "edited"));
+        Files.delete(firstReplacement);
+
+        // file which triggered commit of its batch gets failure from editing engine
+        try {
+            synchronizer.replaceFile(createFile("replacement2", "replaced2"), secondTarget);
+            fail("commit of batch should fail");
+        } catch (IOException ioEx) {
+            consumer.accept(secondTarget.toFile(), new Result(false, "Error in editing engine: " + ioEx.getMessage()));
+        }
+        consumer.flush();
+
+        assertEquals(2, _results.size());
+        assertFalse(_results.get(0).isSuccess());
+        assertTrue(_results.get(0).getMessage().contains("group of 2 files"));
+        assertFalse(_results.get(1).isSuccess());
+        assertTrue(_results.get(1).getMessage().startsWith("Error in editing engine"));
+        assertEquals("original1", read(firstTarget));
+        assertEquals("original2", read(secondTarget));
+    }
+
+    @Test
+    public void testAccept_Group_FailedResultWaitsForPrecedingFile() throws Exception {
+        FileSynchronizer synchronizer = new FileSynchronizer(FileSynchronizer.Mode.GROUP, 10);
+        CommittedResultConsumer consumer = new CommittedResultConsumer(synchronizer, this::record);
+        Path target = createFile("target", "original");
+        File failedFile = createFile("failed", "original").toFile();
+        synchronizer.replaceFile(createFile("replacement", "replaced"), target);
+
+        consumer.accept(target.toFile(), new Result(true, "edited"));
+        consumer.accept(failedFile, new Result(false, "Error in editing engine"));
+        assertTrue(_results.isEmpty());
+
+        synchronizer.commit();
+        consumer.flush();
+
+        assertEquals(2, _results.size());
+        assertEquals(target.toFile(), _files.get(0));
+        assertEquals(failedFile, _files.get(1));
+    }
+
+    private void record(File file, Result result) {
+        _files.add(file);
+        _results.add(result);
+    }
+
+    private Path createFile(String name, String content) throws Exception {
+        Path file = folder.getRoot().toPath().resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    private static String read(Path file) throws Exception {
+        return new String(Files.readAllBytes(file), StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,143 @@
+package cz.muni.fi.fits.execution;
+
+import cz.muni.fi.fits.engine.models.Result;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link FileOperationExecutor} class
+ *
+ * @author Martin Vrábel
+ * @version 1.1
+ */
+public class FileOperationExecutorTest {
+
+    private static final int FILES_COUNT = 200;
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testConstructor_Threads_NotPositive() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        new FileOperationExecutor(0, FileOperationExecutor.Order.INPUT);
+    }
+
+    @Test
+    public void testConstructor_Order_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        new FileOperationExecutor(4, null);
+    }
+
+    @Test
+    public void testConstructor_PerformanceRecorder_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        new FileOperationExecutor(4, FileOperationExecutor.Order.INPUT, null);
+    }
+
+    @Test
+    public void testExecute_PerformanceRecorder_ResultsRecordedFromWorkerThreads() throws Exception {
+        HistogramPerformanceRecorder recorder = new HistogramPerformanceRecorder();
+        FileOperationExecutor executor = new FileOperationExecutor(8, FileOperationExecutor.Order.COMPLETION, recorder);
+
+        executor.execute(createFiles(), FileOperationExecutorTest::delayedOperation, (file, result) -> { });
+
+        List<String> summary = recorder.summarize(1_000_000_000L);
+        assertTrue(summary.get(0).startsWith("Performance: " + FILES_COUNT + " files (0 failed)"));
+    }
+
+    @Test
+    public void testExecute_FitsFiles_Null() throws Exception {
+        FileOperationExecutor executor = new FileOperationExecutor(4, FileOperationExecutor.Order.INPUT);
+
+        exception.expect(IllegalArgumentException.class);
+        executor.execute(null, file -> new Result(true, "ok"), (file, result) -> { });
+    }
+
+    @Test
+    public void testExecute_InputOrder_ResultsInOrderOfFiles() throws Exception {
+        FileOperationExecutor executor = new FileOperationExecutor(8, FileOperationExecutor.Order.INPUT);
+        List<File> fitsFiles = createFiles();
+        List<File> consumedFiles = new ArrayList<>();
+
+        executor.execute(fitsFiles, FileOperationExecutorTest::delayedOperation,
+                (file, result) -> {
+                    assertEquals(file.getName(), result.getMessage());
+                    consumedFiles.add(file);
+                });
+
+        assertEquals(fitsFiles, consumedFiles);
+    }
+
+    @Test
+    public void testExecute_CompletionOrder_AllResultsConsumed() throws Exception {
+        FileOperationExecutor executor = new FileOperationExecutor(8, FileOperationExecutor.Order.COMPLETION);
+        List<File> fitsFiles = createFiles();
+        List<File> consumedFiles = new ArrayList<>();
+
+        executor.execute(fitsFiles, FileOperationExecutorTest::delayedOperation,
+                (file, result) -> consumedFiles.add(file));
+
+        assertEquals(fitsFiles.size(), consumedFiles.size());
+        assertEquals(new HashSet<>(fitsFiles), new HashSet<>(consumedFiles));
+    }
+
+    @Test
+    public void testExecute_MultipleThreads_ConsumerCalledFromCallingThread() throws Exception {
+        FileOperationExecutor executor = new FileOperationExecutor(8, FileOperationExecutor.Order.COMPLETION);
+        Set<Thread> operationThreads = ConcurrentHashMap.newKeySet();
+        Set<Thread> consumerThreads = new HashSet<>();
+
+        executor.execute(createFiles(),
+                file -> {
+                    operationThreads.add(Thread.currentThread());
+                    return delayedOperation(file);
+                },
+                (file, result) -> consumerThreads.add(Thread.currentThread()));
+
+        assertFalse(operationThreads.contains(Thread.currentThread()));
+        assertEquals(Collections.singleton(Thread.currentThread()), consumerThreads);
+    }
+
+    @Test
+    public void testExecute_OperationThrowsException_ErrorResult() throws Exception {
+        FileOperationExecutor executor = new FileOperationExecutor(4, FileOperationExecutor.Order.INPUT);
+        List<Result> results = new ArrayList<>();
+
+        executor.execute(createFiles(),
+                file -> { throw new IllegalStateException("failure"); },
+                (file, result) -> results.add(result));
+
+        assertEquals(FILES_COUNT, results.size());
+        for (Result result : results) {
+            assertFalse(result.isSuccess());
+            assertTrue(result.getMessage().contains("failure"));
+        }
+    }
+
+    private static List<File> createFiles() {
+        List<File> fitsFiles = new ArrayList<>(FILES_COUNT);
+        for (int i = 0; i < FILES_COUNT; i++)
+            fitsFiles.add(new File("file" + i + ".fits"));
+
+        return fitsFiles;
+    }
+
+    private static Result delayedOperation(File fitsFile) {
+        try {
+            // later files complete sooner
+            Thread.sleep(fitsFile.getName().length() % 3);
+        } catch (InterruptedException iEx) {
+            Thread.currentThread().interrupt();
+        }
+
+        return new Result(true, fitsFile.getName());
+    }
+}
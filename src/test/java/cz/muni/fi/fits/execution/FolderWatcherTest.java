@@ -0,0 +1,168 @@
+package cz.muni.fi.fits.execution;
+
+import cz.muni.fi.fits.common.WatchConfiguration;
+import cz.muni.fi.fits.engine.models.Result;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link FolderWatcher} class
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class FolderWatcherTest {
+
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final List<File> _results = new CopyOnWriteArrayList<>();
+    private final AtomicInteger _finishedBatches = new AtomicInteger();
+    private FolderWatcher _folderWatcher;
+    private Thread _watchThread;
+
+    @After
+    public void tearDown() throws Exception {
+        if (_folderWatcher != null)
+            _folderWatcher.close();
+        if (_watchThread != null)
+            _watchThread.join(TIMEOUT_MILLIS);
+    }
+
+    @Test
+    public void testConstructor_Configuration_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("configuration is null");
+        new FolderWatcher(null, 1, new NoopPerformanceRecorder());
+    }
+
+    @Test
+    public void testWatch_Directory_NotDirectory() throws Exception {
+        FolderWatcher folderWatcher = new FolderWatcher(new WatchConfiguration(100, null, 4, 1000), 1, new NoopPerformanceRecorder());
+        File file = temporaryFolder.newFile("frame.fits");
+
+        exception.expect(IOException.class);
+        exception.expectMessage("is not directory");
+        folderWatcher.watch(file.toPath(), fitsFile -> new Result(true, "edited"), (fitsFile, result) -> { }, () -> { });
+    }
+
+    @Test
+    public void testWatch_ExistingAndNewFiles_EditedOnce() throws Exception {
+        Path directory = temporaryFolder.getRoot().toPath();
+        Files.write(directory.resolve("existing.fits"), new byte[] { 1 });
+
+        startWatching(new WatchConfiguration(100, null, 4, 60000), FolderWatcherTest::appendingOperation);
+        Files.write(directory.resolve("new.fits"), new byte[] { 1 });
+
+        waitForResults(2);
+        // files changed by operation itself are not edited again
+        Thread.sleep(500);
+
+        assertEquals(2, _results.size());
+        assertTrue(_results.contains(directory.resolve("existing.fits").toFile()));
+        assertTrue(_results.contains(directory.resolve("new.fits").toFile()));
+        assertTrue(_finishedBatches.get() > 0);
+    }
+
+    @Test
+    public void testWatch_FileBeingWritten_EditedWhenStable() throws Exception {
+        Path file = temporaryFolder.getRoot().toPath().resolve("frame.fits");
+
+        startWatching(new WatchConfiguration(400, null, 4, 60000), fitsFile -> new Result(true, "edited"));
+        Files.write(file, new byte[] { 1 });
+        for (int i = 0; i < 4; i++) {
+            Thread.sleep(150);
+            Files.write(file, new byte[] { 1 }, StandardOpenOption.APPEND);
+        }
+
+        // file is edited only after it stops growing
+        assertTrue(_results.isEmpty());
+        waitForResults(1);
+        assertEquals(5, Files.size(file));
+    }
+
+    @Test
+    public void testWatch_Marker_EditedAfterMarkerCreated() throws Exception {
+        Path directory = temporaryFolder.getRoot().toPath();
+
+        startWatching(new WatchConfiguration(60000, ".done", 4, 60000), fitsFile -> new Result(true, "edited"));
+        Files.write(directory.resolve("frame.fits"), new byte[] { 1 });
+        Thread.sleep(300);
+        assertTrue(_results.isEmpty());
+
+        Files.write(directory.resolve("frame.fits.done"), new byte[0]);
+
+        waitForResults(1);
+        assertEquals(directory.resolve("frame.fits").toFile(), _results.get(0));
+    }
+
+    @Test
+    public void testWatch_FullQueue_AllFilesEdited() throws Exception {
+        Path directory = temporaryFolder.getRoot().toPath();
+
+        startWatching(new WatchConfiguration(50, null, 1, 200), fitsFile -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException iEx) {
+                Thread.currentThread().interrupt();
+            }
+            return new Result(true, "edited");
+        });
+        for (int i = 0; i < 20; i++)
+            Files.write(directory.resolve("frame" + i + ".fits"), new byte[] { 1 });
+
+        waitForResults(20);
+        assertEquals(20, _results.size());
+    }
+
+    private void startWatching(WatchConfiguration configuration, Function<File, Result> operation) throws Exception {
+        _folderWatcher = new FolderWatcher(configuration, 2, new NoopPerformanceRecorder());
+        Path directory = temporaryFolder.getRoot().toPath();
+        _watchThread = new Thread(() -> {
+            try {
+                _folderWatcher.watch(directory, operation, (fitsFile, result) -> _results.add(fitsFile),
+                        _finishedBatches::incrementAndGet);
+            } catch (IOException ioEx) {
+                throw new RuntimeException(ioEx);
+            }
+        });
+        _watchThread.start();
+    }
+
+    private void waitForResults(int count) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (_results.size() < count && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+
+        assertEquals(count, _results.size());
+    }
+
+    private static Result appendingOperation(File fitsFile) {
+        try {
+            Files.write(fitsFile.toPath(), new byte[] { 2 }, StandardOpenOption.APPEND);
+            return new Result(true, "edited");
+        } catch (IOException ioEx) {
+            return new Result(false, ioEx.getMessage());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package cz.muni.fi.fits.execution;
+
+import cz.muni.fi.fits.engine.models.Result;
+import cz.muni.fi.fits.engine.models.ResultDetails;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link HistogramPerformanceRecorder} and {@link NoopPerformanceRecorder} classes
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class HistogramPerformanceRecorderTest {
+
+    private static final int THREADS = 4;
+    private static final int FILES_PER_THREAD = 250;
+
+    @Test
+    public void testSummarize_RecordsOfAllThreadsMerged() throws Exception {
+        HistogramPerformanceRecorder recorder = new HistogramPerformanceRecorder();
+        ResultDetails details = new ResultDetails("OBJECT", null, "M31", 2880, 80, 2_000_000, 1_000_000, 3_000_000);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < FILES_PER_THREAD; j++)
+                    recorder.recordResult(new Result(true, "edited", details));
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        recorder.recordResult(new Result(false, "not edited"));
+        recorder.recordPhase(PerformanceRecorder.Phase.DISCOVERY, 5_000_000);
+
+        List<String> summary = recorder.summarize(2_000_000_000L);
+
+        assertEquals(6, summary.size());
+        assertEquals("Performance: 1001 files (1 failed) in 2.000 s, 500.5 files/s, 2.75 MB read, 0.08 MB written",
+                summary.get(0));
+        assertTrue(summary.get(1).startsWith("Phase DISCOVERY: 1 times"));
+        assertTrue(summary.get(2).startsWith("Phase OPEN: 1000 times"));
+        assertTrue(summary.get(3).startsWith("Phase EDIT: 1000 times"));
+        assertTrue(summary.get(4).startsWith("Phase WRITE: 1000 times"));
+        assertTrue(summary.get(5).startsWith("Phase FILE: 1000 times"));
+        assertTrue(summary.get(5).contains("max 6.000 ms"));
+    }
+
+    @Test
+    public void testNoopRecorder_NothingSummarized() throws Exception {
+        PerformanceRecorder recorder = new NoopPerformanceRecorder();
+        recorder.recordPhase(PerformanceRecorder.Phase.DISCOVERY, 5_000_000);
+        recorder.recordResult(new Result(true, "edited"));
+
+        assertFalse(recorder.isEnabled());
+        assertTrue(recorder.summarize(1_000_000_000L).isEmpty());
+    }
+}
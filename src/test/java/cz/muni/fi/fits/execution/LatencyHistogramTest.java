@@ -0,0 +1,89 @@
+package cz.muni.fi.fits.execution;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link LatencyHistogram} class
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class LatencyHistogramTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testGetPercentile_Empty() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void testGetPercentile_OutOfRange() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        new LatencyHistogram().getPercentile(100.5);
+    }
+
+    @Test
+    public void testGetPercentile_SmallValues_Exact() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10; i++)
+            histogram.record(i);
+
+        assertEquals(5, histogram.getPercentile(50));
+        assertEquals(10, histogram.getPercentile(95));
+        assertEquals(10, histogram.getMax());
+        assertEquals(55, histogram.getSum());
+    }
+
+    @Test
+    public void testGetPercentile_LargeValues_WithinRelativeError() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 100_000; i++)
+            histogram.record(i * 1000);
+
+        assertWithinError(50_000_000L, histogram.getPercentile(50));
+        assertWithinError(95_000_000L, histogram.getPercentile(95));
+        assertWithinError(99_000_000L, histogram.getPercentile(99));
+        assertEquals(100_000_000L, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void testRecord_Negative_RecordedAsZero() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    @Test
+    public void testMerge_CountsAdded() throws Exception {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        for (int i = 0; i < 90; i++)
+            first.record(100);
+        for (int i = 0; i < 10; i++)
+            second.record(1_000_000);
+
+        first.merge(second);
+
+        assertEquals(100, first.getCount());
+        assertWithinError(100, first.getPercentile(90));
+        assertWithinError(1_000_000, first.getPercentile(91));
+        assertEquals(1_000_000, first.getMax());
+    }
+
+    private static void assertWithinError(long expected, long actual) {
+        double relativeError = Math.abs(actual - expected) / (double) expected;
+        assertTrue("expected " + expected + " but was " + actual, relativeError < 1.0 / LatencyHistogram.SUB_BUCKETS);
+    }
+}
@@ -7,6 +7,7 @@ import cz.muni.fi.fits.input.converters.DefaultTypeConverter;
 import cz.muni.fi.fits.input.converters.TypeConverter;
 import cz.muni.fi.fits.input.models.*;
 import cz.muni.fi.fits.models.DegreesObject;
+import cz.muni.fi.fits.models.HduSelector;
 import cz.muni.fi.fits.models.OperationType;
 import cz.muni.fi.fits.common.utils.Constants;
 import org.junit.After;
@@ -28,7 +29,7 @@ import static org.junit.Assert.*;
  * Tests for {@link CmdArgumentsProcessor} class
  *
  * @author Martin Vrábel
- * @version 1.4.1
+ * @version 1.6
  */
 public class CmdArgumentsProcessorTest {
 
@@ -331,4 +332,101 @@ public class CmdArgumentsProcessorTest {
         assertEquals(13.5, declination.getSeconds(), 0.0);
         assertEquals(Constants.DEFAULT_HJD_COMMENT, chjdid.getComment());
     }
-}
\ No newline at end of file
+
+    // ScriptInputData tests
+    @Test
+    public void testGetProcessedInput_ScriptInputData_Valid() throws Exception {
+        Files.write(FILE_PATH, Arrays.asList(
+                SAMPLE1.toString(),
+                SAMPLE2.toString()));
+        Path scriptPath = Paths.get("test-script.in");
+        Files.write(scriptPath, Arrays.asList(
+                "# normalization",
+                "add -u OBSERVER \"Martin Vrabel\"",
+                "change_kw OBJECT TARGET",
+                "jd DATE-OBS EXPTIME"));
+        String[] args = new String[] { "script", FILE_PATH.toString(), scriptPath.toString() };
+        InputProcessor inputProcessor = new CmdArgumentsProcessor(args, _converter);
+
+        try {
+            InputData inputData = inputProcessor.getProcessedInput();
+
+            assertTrue(inputData != null);
+            assertTrue(inputData.getOperationType() == OperationType.EXECUTE_SCRIPT);
+            assertTrue(inputData instanceof ScriptInputData);
+            assertEquals(2, inputData.getFitsFiles().size());
+
+            ScriptInputData sid = (ScriptInputData) inputData;
+            assertEquals(3, sid.getOperations().size());
+            assertTrue(sid.getOperations().get(0) instanceof AddNewRecordInputData);
+            assertEquals("Martin Vrabel", ((AddNewRecordInputData) sid.getOperations().get(0)).getValue());
+            assertTrue(sid.getOperations().get(1) instanceof ChangeKeywordInputData);
+            assertTrue(sid.getOperations().get(2) instanceof ComputeJDInputData);
+            for (InputData operation : sid.getOperations())
+                assertEquals(inputData.getFitsFiles(), operation.getFitsFiles());
+        } finally {
+            Files.deleteIfExists(scriptPath);
+        }
+    }
+
+    @Test
+    public void testGetProcessedInput_ScriptInputData_NestedScript() throws Exception {
+        Path scriptPath = Paths.get("test-script.in");
+        Files.write(scriptPath, Collections.singletonList("script other-script.in"));
+        String[] args = new String[] { "script", FILE_PATH.toString(), scriptPath.toString() };
+        InputProcessor inputProcessor = new CmdArgumentsProcessor(args, _converter);
+
+        try {
+            exception.expect(IllegalInputDataException.class);
+            exception.expectMessage("Line 1 of script");
+            inputProcessor.getProcessedInput();
+        } finally {
+            Files.deleteIfExists(scriptPath);
+        }
+    }
+
+    // HDU units selector tests
+    @Test
+    public void testGetProcessedInput_HduSelector_Default() throws Exception {
+        Files.write(FILE_PATH, Collections.singletonList(SAMPLE1.toString()));
+
+        String[] args = new String[] { "remove", FILE_PATH.toString(), "KEYWORD" };
+        InputProcessor inputProcessor = new CmdArgumentsProcessor(args, _converter);
+
+        InputData inputData = inputProcessor.getProcessedInput();
+
+        assertTrue(inputData.getHduSelector().isPrimaryOnly());
+    }
+
+    @Test
+    public void testGetProcessedInput_HduSelector_AnywhereInArguments() throws Exception {
+        Files.write(FILE_PATH, Collections.singletonList(SAMPLE1.toString()));
+
+        String[] args = new String[] { "remove", "-hdu=SCI,2", FILE_PATH.toString(), "KEYWORD" };
+        InputProcessor inputProcessor = new CmdArgumentsProcessor(args, _converter);
+
+        InputData inputData = inputProcessor.getProcessedInput();
+
+        assertTrue(inputData instanceof RemoveByKeywordInputData);
+        assertEquals("KEYWORD", ((RemoveByKeywordInputData) inputData).getKeyword());
+        assertEquals(HduSelector.Type.EXTNAME, inputData.getHduSelector().getType());
+        assertEquals("SCI", inputData.getHduSelector().getExtname());
+        assertEquals(Integer.valueOf(2), inputData.getHduSelector().getExtver());
+    }
+
+    @Test
+    public void testGetProcessedInput_ScriptInputData_HduSelectorInScript() throws Exception {
+        Path scriptPath = Paths.get("test-script.in");
+        Files.write(scriptPath, Collections.singletonList("remove -hdu=1 KEYWORD"));
+        String[] args = new String[] { "script", FILE_PATH.toString(), scriptPath.toString() };
+        InputProcessor inputProcessor = new CmdArgumentsProcessor(args, _converter);
+
+        try {
+            exception.expect(IllegalInputDataException.class);
+            exception.expectMessage("Line 1 of script");
+            inputProcessor.getProcessedInput();
+        } finally {
+            Files.deleteIfExists(scriptPath);
+        }
+    }
+}
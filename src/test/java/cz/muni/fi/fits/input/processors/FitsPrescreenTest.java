@@ -0,0 +1,98 @@
+package cz.muni.fi.fits.input.processors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link FitsPrescreen} class
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class FitsPrescreenTest {
+
+    private static final String PRIMARY_CARD = "SIMPLE  =                    T / file does conform to FITS standard             ";
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testHasBlockLayout() throws Exception {
+        assertTrue(FitsPrescreen.hasBlockLayout(2880));
+        assertTrue(FitsPrescreen.hasBlockLayout(5760));
+        assertFalse(FitsPrescreen.hasBlockLayout(0));
+        assertFalse(FitsPrescreen.hasBlockLayout(80));
+        assertFalse(FitsPrescreen.hasBlockLayout(2881));
+    }
+
+    @Test
+    public void testIsPrimaryCard_Card_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("card is null");
+        FitsPrescreen.isPrimaryCard(null);
+    }
+
+    @Test
+    public void testIsPrimaryCard() throws Exception {
+        assertTrue(FitsPrescreen.isPrimaryCard(PRIMARY_CARD.getBytes(StandardCharsets.US_ASCII)));
+        assertFalse(FitsPrescreen.isPrimaryCard(PRIMARY_CARD.substring(0, 40).getBytes(StandardCharsets.US_ASCII)));
+        assertFalse(FitsPrescreen.isPrimaryCard(PRIMARY_CARD.replace("SIMPLE ", "XSIMPLE").getBytes(StandardCharsets.US_ASCII)));
+        assertFalse(FitsPrescreen.isPrimaryCard(PRIMARY_CARD.replace("conform", "conf\tom").getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    public void testScreen_Files_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("files is null");
+        FitsPrescreen.screen(null);
+    }
+
+    @Test
+    public void testScreen_MixedFiles() throws Exception {
+        Path fitsFile = writeFile("frame.fits", PRIMARY_CARD);
+        Path logFile = writeFile("night.log", "2015-06-12T20:00:00 exposure started");
+        Path shortFile = writeFile("short.fits", "SIMPLE  =");
+        Path imageFile = temporaryFolder.getRoot().toPath().resolve("preview.jpg");
+        Files.write(imageFile, new byte[] { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0 });
+        Path missingFile = temporaryFolder.getRoot().toPath().resolve("missing.fits");
+
+        List<Path> fitsFiles = FitsPrescreen.screen(Arrays.asList(logFile, fitsFile, shortFile, imageFile, missingFile));
+
+        // unreadable files are left for engine to report
+        assertEquals(Arrays.asList(fitsFile, missingFile), fitsFiles);
+    }
+
+    @Test
+    public void testScreen_FullBatch() throws Exception {
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < FitsPrescreen.BATCH_SIZE; i++)
+            files.add(writeFile("frame" + i + ".fits", i % 2 == 0 ? PRIMARY_CARD : "END"));
+
+        List<Path> fitsFiles = FitsPrescreen.screen(files);
+
+        assertEquals(FitsPrescreen.BATCH_SIZE / 2, fitsFiles.size());
+        assertEquals(files.get(0), fitsFiles.get(0));
+        assertTrue(FitsPrescreen.screen(Collections.emptyList()).isEmpty());
+    }
+
+    private Path writeFile(String name, String firstCard) throws Exception {
+        Path file = temporaryFolder.getRoot().toPath().resolve(name);
+        Files.write(file, firstCard.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+}
@@ -0,0 +1,114 @@
+package cz.muni.fi.fits.input.processors;
+
+import cz.muni.fi.fits.common.exceptions.IllegalInputDataException;
+import cz.muni.fi.fits.common.exceptions.InvalidSwitchParameterException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for extraction of options of files discovery
+ * in {@link CmdArgumentsProcessorHelper} class
+ *
+ * @author Martin Vrábel
+ * @version 1.1
+ */
+public class ProcessorHelper_ExtractDiscoveryOptionsTest {
+
+    private static final Path ROOT = Paths.get("data");
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testExtractDiscoveryOptions_Switches_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        CmdArgumentsProcessorHelper.extractDiscoveryOptions(null);
+    }
+
+    @Test
+    public void testExtractDiscoveryOptions_NoSwitches() throws Exception {
+        DiscoveryOptions options = CmdArgumentsProcessorHelper.extractDiscoveryOptions(Collections.emptyList());
+
+        assertEquals(1, options.getMaxDepth());
+        assertTrue(options.acceptsFile(ROOT, ROOT.resolve("sample.txt")));
+        assertTrue(options.isFitsOnly());
+    }
+
+    @Test
+    public void testExtractDiscoveryOptions_AllFiles() throws Exception {
+        DiscoveryOptions options = CmdArgumentsProcessorHelper.extractDiscoveryOptions(Arrays.asList("-recursive", "-all-files"));
+
+        assertEquals(DiscoveryOptions.UNLIMITED_DEPTH, options.getMaxDepth());
+        assertFalse(options.isFitsOnly());
+    }
+
+    @Test
+    public void testExtractDiscoveryOptions_Depth_Invalid() throws Exception {
+        exception.expect(IllegalInputDataException.class);
+        exception.expectMessage("invalid format");
+        CmdArgumentsProcessorHelper.extractDiscoveryOptions(Collections.singletonList("-depth=two"));
+    }
+
+    @Test
+    public void testExtractDiscoveryOptions_Depth_NotPositive() throws Exception {
+        exception.expect(IllegalInputDataException.class);
+        exception.expectMessage("must be positive number");
+        CmdArgumentsProcessorHelper.extractDiscoveryOptions(Collections.singletonList("-depth=0"));
+    }
+
+    @Test
+    public void testExtractDiscoveryOptions_Depth_Valid() throws Exception {
+        DiscoveryOptions options = CmdArgumentsProcessorHelper.extractDiscoveryOptions(Collections.singletonList("-DEPTH=3"));
+
+        assertEquals(3, options.getMaxDepth());
+    }
+
+    @Test
+    public void testExtractDiscoveryOptions_Recursive() throws Exception {
+        DiscoveryOptions options = CmdArgumentsProcessorHelper.extractDiscoveryOptions(Collections.singletonList("-recursive"));
+
+        assertEquals(DiscoveryOptions.UNLIMITED_DEPTH, options.getMaxDepth());
+    }
+
+    @Test
+    public void testExtractDiscoveryOptions_Pattern_Empty() throws Exception {
+        exception.expect(IllegalInputDataException.class);
+        exception.expectMessage("Glob pattern");
+        CmdArgumentsProcessorHelper.extractDiscoveryOptions(Collections.singletonList("-include="));
+    }
+
+    @Test
+    public void testExtractDiscoveryOptions_Pattern_Invalid() throws Exception {
+        exception.expect(IllegalInputDataException.class);
+        exception.expectMessage("Glob pattern");
+        CmdArgumentsProcessorHelper.extractDiscoveryOptions(Collections.singletonList("-exclude=*.{fits"));
+    }
+
+    @Test
+    public void testExtractDiscoveryOptions_UnknownSwitch() throws Exception {
+        exception.expect(InvalidSwitchParameterException.class);
+        CmdArgumentsProcessorHelper.extractDiscoveryOptions(Collections.singletonList("-recursively"));
+    }
+
+    @Test
+    public void testExtractDiscoveryOptions_Patterns_Valid() throws Exception {
+        DiscoveryOptions options = CmdArgumentsProcessorHelper.extractDiscoveryOptions(Arrays.asList(
+                "-include=*.fits", "-include=*.fit", "-exclude=dark?.fits", "-exclude=calibration/*"));
+
+        assertTrue(options.acceptsFile(ROOT, ROOT.resolve("night1").resolve("frame.fits")));
+        assertTrue(options.acceptsFile(ROOT, ROOT.resolve("frame.fit")));
+        assertFalse(options.acceptsFile(ROOT, ROOT.resolve("frame.txt")));
+        assertFalse(options.acceptsFile(ROOT, ROOT.resolve("night1").resolve("dark1.fits")));
+        assertFalse(options.acceptsFile(ROOT, ROOT.resolve("calibration").resolve("flat.fits")));
+        assertFalse(options.acceptsDirectory(ROOT, ROOT.resolve("calibration").resolve("old")));
+        assertTrue(options.acceptsDirectory(ROOT, ROOT.resolve("night1")));
+    }
+}
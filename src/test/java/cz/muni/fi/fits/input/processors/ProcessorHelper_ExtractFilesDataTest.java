@@ -3,6 +3,7 @@ package cz.muni.fi.fits.input.processors;
 import cz.muni.fi.fits.common.exceptions.IllegalInputDataException;
 import org.junit.*;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 import java.io.Writer;
@@ -19,7 +20,7 @@ import static org.junit.Assert.*;
  * in {@link CmdArgumentsProcessorHelper} class
  *
  * @author Martin Vrábel
- * @version 1.4
+ * @version 1.8
  */
 public class ProcessorHelper_ExtractFilesDataTest {
 
@@ -49,6 +50,9 @@ public class ProcessorHelper_ExtractFilesDataTest {
     @Rule
     public ExpectedException exception = ExpectedException.none();
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Before
     public void setUp() throws Exception {
         DIRECTORY1 = Paths.get(getClass().getResource("/test-directory1").toURI());
@@ -297,4 +301,151 @@ public class ProcessorHelper_ExtractFilesDataTest {
         assertNotNull(files);
         assertEquals(2, files.size());
     }
+
+    @Test
+    public void testExtractFilesData_Options_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        CmdArgumentsProcessorHelper.extractFilesData(DIRECTORY2.toString(), null);
+    }
+
+    @Test
+    public void testExtractFilesData_Directory_Recursive() throws Exception {
+        Path root = createDirectoryTree();
+
+        Collection<File> files = CmdArgumentsProcessorHelper.extractFilesData(root.toString(),
+                new DiscoveryOptions(DiscoveryOptions.UNLIMITED_DEPTH, Collections.emptyList(), Collections.emptyList()));
+
+        assertEquals(new HashSet<>(Arrays.asList(
+                root.resolve("frame1.fits").toFile(),
+                root.resolve("notes.txt").toFile(),
+                root.resolve("night1/frame2.fits").toFile(),
+                root.resolve("night1/dark/dark1.fits").toFile(),
+                root.resolve("night2/frame3.fits").toFile())), new HashSet<>(files));
+    }
+
+    @Test
+    public void testExtractFilesData_Directory_LimitedDepth() throws Exception {
+        Path root = createDirectoryTree();
+
+        Collection<File> files = CmdArgumentsProcessorHelper.extractFilesData(root.toString(),
+                new DiscoveryOptions(2, Collections.emptyList(), Collections.emptyList()));
+
+        assertEquals(4, files.size());
+        assertFalse(files.contains(root.resolve("night1/dark/dark1.fits").toFile()));
+    }
+
+    @Test
+    public void testExtractFilesData_Directory_IncludeAndExclude() throws Exception {
+        Path root = createDirectoryTree();
+
+        Collection<File> files = CmdArgumentsProcessorHelper.extractFilesData(root.toString(),
+                new DiscoveryOptions(DiscoveryOptions.UNLIMITED_DEPTH,
+                        Collections.singletonList("*.fits"), Arrays.asList("night2", "dark?.fits")));
+
+        assertEquals(new HashSet<>(Arrays.asList(
+                root.resolve("frame1.fits").toFile(),
+                root.resolve("night1/frame2.fits").toFile())), new HashSet<>(files));
+    }
+
+    @Test
+    public void testExtractFilesData_Directory_FilesStreamedWhileIterated() throws Exception {
+        Path root = temporaryFolder.getRoot().toPath();
+        for (int i = 0; i < 3000; i++)
+            Files.createFile(root.resolve("frame" + i + ".fits"));
+
+        Collection<File> files = CmdArgumentsProcessorHelper.extractFilesData(root.toString());
+
+        // every iteration discovers files again
+        assertEquals(3000, files.size());
+        assertEquals(3000, new HashSet<>(files).size());
+        Files.createFile(root.resolve("frame3000.fits"));
+        assertEquals(3001, files.size());
+    }
+
+    @Test
+    public void testExtractFilesData_Directory_LinksToTheSameFile() throws Exception {
+        Path root = createDirectoryTree();
+        Path frame = root.resolve("night1/frame2.fits");
+        Files.createLink(root.resolve("night1/frame2-copy.fits"), frame);
+        Files.createSymbolicLink(root.resolve("frame2-link.fits"), frame);
+        Files.createSymbolicLink(root.resolve("night2/night1-link"), root.resolve("night1"));
+
+        Collection<File> files = CmdArgumentsProcessorHelper.extractFilesData(root.toString(),
+                new DiscoveryOptions(DiscoveryOptions.UNLIMITED_DEPTH,
+                        Collections.singletonList("*.fits"), Collections.emptyList()));
+
+        // linked file is discovered once, linked directories are not followed
+        assertEquals(4, files.size());
+        assertEquals(1, files.stream()
+                .filter(file -> file.getName().startsWith("frame2"))
+                .count());
+    }
+
+    @Test
+    public void testExtractFilesData_File_LinksToTheSameFile() throws Exception {
+        Path root = createDirectoryTree();
+        Path frame = root.resolve("frame1.fits");
+        Files.createSymbolicLink(root.resolve("frame1-link.fits"), frame);
+        Files.write(FILE_IN, Arrays.asList(
+                frame.toString(),
+                root.resolve("frame1-link.fits").toString(),
+                root.resolve("night1/../frame1.fits").toString(),
+                root.resolve("night2").toString(),
+                root.resolve("night2").toString()));
+
+        Collection<File> files = CmdArgumentsProcessorHelper.extractFilesData(FILE_IN.toString());
+
+        assertEquals(2, files.size());
+    }
+
+    @Test
+    public void testExtractFilesData_Directory_OnlyFitsFiles() throws Exception {
+        Path root = createDirectoryTree();
+        Path fitsFile = root.resolve("night1/frame4.fits");
+        byte[] block = new byte[2880];
+        Arrays.fill(block, (byte) ' ');
+        byte[] primaryCard = "SIMPLE  =                    T".getBytes("US-ASCII");
+        System.arraycopy(primaryCard, 0, block, 0, primaryCard.length);
+        Files.write(fitsFile, block);
+        Arrays.fill(block, (byte) ' ');
+        Files.write(root.resolve("night1/catalog.cat"), block);
+
+        DiscoveryOptions options = new DiscoveryOptions(DiscoveryOptions.UNLIMITED_DEPTH,
+                Collections.emptyList(), Collections.emptyList(), true);
+        Collection<File> files = CmdArgumentsProcessorHelper.extractFilesData(root.toString(), options);
+
+        assertEquals(Collections.singletonList(fitsFile.toFile()), new ArrayList<>(files));
+
+        // listed files are passed to editing without screening
+        Files.write(FILE_IN, Arrays.asList(root.resolve("notes.txt").toString(), root.resolve("night1").toString()));
+        files = CmdArgumentsProcessorHelper.extractFilesData(FILE_IN.toString(), options);
+
+        assertEquals(new HashSet<>(Arrays.asList(root.resolve("notes.txt").toFile(), fitsFile.toFile())),
+                new HashSet<>(files));
+    }
+
+    @Test
+    public void testExtractFilesData_Directory_ReplacementFilesSkipped() throws Exception {
+        Path root = createDirectoryTree();
+        Files.createFile(root.resolve("night1/.frame2.fits.8412.replacement"));
+
+        Collection<File> files = CmdArgumentsProcessorHelper.extractFilesData(root.toString(),
+                new DiscoveryOptions(DiscoveryOptions.UNLIMITED_DEPTH, Collections.emptyList(), Collections.emptyList()));
+
+        assertEquals(5, files.size());
+        assertFalse(files.contains(root.resolve("night1/.frame2.fits.8412.replacement").toFile()));
+    }
+
+    private Path createDirectoryTree() throws Exception {
+        Path root = temporaryFolder.getRoot().toPath();
+        Files.createDirectories(root.resolve("night1/dark"));
+        Files.createDirectories(root.resolve("night2"));
+        Files.createFile(root.resolve("frame1.fits"));
+        Files.createFile(root.resolve("notes.txt"));
+        Files.createFile(root.resolve("night1/frame2.fits"));
+        Files.createFile(root.resolve("night1/dark/dark1.fits"));
+        Files.createFile(root.resolve("night2/frame3.fits"));
+
+        return root;
+    }
 }
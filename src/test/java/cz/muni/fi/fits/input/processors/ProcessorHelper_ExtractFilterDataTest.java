@@ -0,0 +1,94 @@
+package cz.muni.fi.fits.input.processors;
+
+import cz.muni.fi.fits.common.exceptions.IllegalInputDataException;
+import cz.muni.fi.fits.common.exceptions.WrongNumberOfParametersException;
+import cz.muni.fi.fits.input.models.FilterInputData;
+import cz.muni.fi.fits.models.HeaderPredicate;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for extraction of input data for operation <b>Filter files by header</b>
+ * in {@link CmdArgumentsProcessorHelper} class
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class ProcessorHelper_ExtractFilterDataTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testExtractFilterData_Parameters_WrongNumber() throws Exception {
+        String[] args = new String[] { "filter", "files.in", "matching.in" };
+
+        exception.expect(WrongNumberOfParametersException.class);
+        CmdArgumentsProcessorHelper.extractFilterData(args);
+    }
+
+    @Test
+    public void testExtractFilterData_Valid() throws Exception {
+        String[] args = new String[] { "filter", "files.in", "matching.in", "FILTER=V", "EXPTIME=10..60", "OBJECT~M3[13]" };
+
+        FilterInputData fid = CmdArgumentsProcessorHelper.extractFilterData(args);
+
+        assertNotNull(fid);
+        assertEquals("matching.in", fid.getOutputPath());
+        assertEquals(3, fid.getPredicates().size());
+        assertEquals(HeaderPredicate.Type.EQUALS, fid.getPredicates().get(0).getType());
+        assertEquals(HeaderPredicate.Type.RANGE, fid.getPredicates().get(1).getType());
+        assertEquals(HeaderPredicate.Type.REGEX, fid.getPredicates().get(2).getType());
+    }
+
+    @Test
+    public void testExtractHeaderPredicate_EqualTo() throws Exception {
+        HeaderPredicate predicate = CmdArgumentsProcessorHelper.extractHeaderPredicate("DATE-OBS=2015-06-12");
+
+        assertEquals("DATE-OBS", predicate.getKeyword());
+        assertEquals("2015-06-12", predicate.getValue());
+    }
+
+    @Test
+    public void testExtractHeaderPredicate_Range_OpenBound() throws Exception {
+        HeaderPredicate predicate = CmdArgumentsProcessorHelper.extractHeaderPredicate("EXPTIME=..60.5");
+
+        assertEquals(HeaderPredicate.Type.RANGE, predicate.getType());
+        assertNull(predicate.getMinValue());
+        assertEquals(0, new BigDecimal("60.5").compareTo(predicate.getMaxValue()));
+    }
+
+    @Test
+    public void testExtractHeaderPredicate_Range_InvalidBound() throws Exception {
+        exception.expect(IllegalInputDataException.class);
+        exception.expectMessage("Bound of range is in invalid format");
+        CmdArgumentsProcessorHelper.extractHeaderPredicate("EXPTIME=short..60");
+    }
+
+    @Test
+    public void testExtractHeaderPredicate_Regex_WithEqualsSign() throws Exception {
+        HeaderPredicate predicate = CmdArgumentsProcessorHelper.extractHeaderPredicate("COMMENT~a=b");
+
+        assertEquals(HeaderPredicate.Type.REGEX, predicate.getType());
+        assertEquals("COMMENT", predicate.getKeyword());
+        assertEquals("a=b", predicate.getPattern().pattern());
+    }
+
+    @Test
+    public void testExtractHeaderPredicate_Regex_Invalid() throws Exception {
+        exception.expect(IllegalInputDataException.class);
+        CmdArgumentsProcessorHelper.extractHeaderPredicate("OBJECT~M[31");
+    }
+
+    @Test
+    public void testExtractHeaderPredicate_InvalidFormat() throws Exception {
+        exception.expect(IllegalInputDataException.class);
+        exception.expectMessage("Condition is in invalid format");
+        CmdArgumentsProcessorHelper.extractHeaderPredicate("FILTER");
+    }
+}
@@ -0,0 +1,79 @@
+package cz.muni.fi.fits.input.processors;
+
+import cz.muni.fi.fits.common.exceptions.IllegalInputDataException;
+import cz.muni.fi.fits.models.HduSelector;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for extraction of selector of HDU units
+ * in {@link CmdArgumentsProcessorHelper} class
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class ProcessorHelper_ExtractHduSelectorTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testExtractHduSelector_Argument_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        CmdArgumentsProcessorHelper.extractHduSelector(null);
+    }
+
+    @Test
+    public void testExtractHduSelector_Value_Empty() throws Exception {
+        exception.expect(IllegalInputDataException.class);
+        CmdArgumentsProcessorHelper.extractHduSelector("-hdu=");
+    }
+
+    @Test
+    public void testExtractHduSelector_Index() throws Exception {
+        HduSelector hduSelector = CmdArgumentsProcessorHelper.extractHduSelector("-hdu=2");
+
+        assertEquals(HduSelector.Type.INDEX, hduSelector.getType());
+        assertEquals(2, hduSelector.getIndex());
+    }
+
+    @Test
+    public void testExtractHduSelector_Index_Invalid() throws Exception {
+        exception.expect(IllegalInputDataException.class);
+        CmdArgumentsProcessorHelper.extractHduSelector("-hdu=2x");
+    }
+
+    @Test
+    public void testExtractHduSelector_All() throws Exception {
+        HduSelector hduSelector = CmdArgumentsProcessorHelper.extractHduSelector("-HDU=all");
+
+        assertEquals(HduSelector.Type.ALL, hduSelector.getType());
+    }
+
+    @Test
+    public void testExtractHduSelector_Extname() throws Exception {
+        HduSelector hduSelector = CmdArgumentsProcessorHelper.extractHduSelector("-hdu=SCI");
+
+        assertEquals(HduSelector.Type.EXTNAME, hduSelector.getType());
+        assertEquals("SCI", hduSelector.getExtname());
+        assertNull(hduSelector.getExtver());
+    }
+
+    @Test
+    public void testExtractHduSelector_ExtnameAndExtver() throws Exception {
+        HduSelector hduSelector = CmdArgumentsProcessorHelper.extractHduSelector("-hdu=SCI,3");
+
+        assertEquals("SCI", hduSelector.getExtname());
+        assertEquals(Integer.valueOf(3), hduSelector.getExtver());
+    }
+
+    @Test
+    public void testExtractHduSelector_Extver_Invalid() throws Exception {
+        exception.expect(IllegalInputDataException.class);
+        exception.expectMessage("Version of HDU unit is in invalid format");
+        CmdArgumentsProcessorHelper.extractHduSelector("-hdu=SCI,x");
+    }
+}
@@ -0,0 +1,67 @@
+package cz.muni.fi.fits.input.processors;
+
+import cz.muni.fi.fits.common.exceptions.IllegalInputDataException;
+import cz.muni.fi.fits.common.exceptions.WrongNumberOfParametersException;
+import cz.muni.fi.fits.input.models.ReserveInputData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Tests for extraction of input data for operation <b>Reserve header space</b>
+ * in {@link CmdArgumentsProcessorHelper} class
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class ProcessorHelper_ExtractReserveDataTest {
+
+    private static final Path FILE_PATH = Paths.get("test-files.in");
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Before
+    public void setUp() throws Exception {
+        Files.createFile(FILE_PATH);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(FILE_PATH);
+    }
+
+    @Test
+    public void testExtractReserveData_Parameters_WrongNumber() throws Exception {
+        String[] args = new String[] { "reserve", FILE_PATH.toString() };
+
+        exception.expect(WrongNumberOfParametersException.class);
+        CmdArgumentsProcessorHelper.extractReserveData(args);
+    }
+
+    @Test
+    public void testExtractReserveData_Records_InvalidNumber() throws Exception {
+        String[] args = new String[] { "reserve", FILE_PATH.toString(), "records" };
+
+        exception.expect(IllegalInputDataException.class);
+        CmdArgumentsProcessorHelper.extractReserveData(args);
+    }
+
+    @Test
+    public void testExtractReserveData_Records_Valid() throws Exception {
+        String[] args = new String[] { "reserve", FILE_PATH.toString(), "36" };
+
+        ReserveInputData rid = CmdArgumentsProcessorHelper.extractReserveData(args);
+        assertNotNull(rid);
+        assertEquals(36, rid.getRecords());
+    }
+}
@@ -0,0 +1,95 @@
+package cz.muni.fi.fits.input.processors;
+
+import cz.muni.fi.fits.common.exceptions.IllegalInputDataException;
+import cz.muni.fi.fits.common.utils.Tuple;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for extraction of input data for operation <b>Execute script</b>
+ * in {@link CmdArgumentsProcessorHelper} class
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class ProcessorHelper_ExtractScriptDataTest {
+
+    private static final Path SCRIPT_PATH = Paths.get("test-script.in");
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(SCRIPT_PATH);
+    }
+
+    @Test
+    public void testExtractScriptData_ScriptPath_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        CmdArgumentsProcessorHelper.extractScriptData(null);
+    }
+
+    @Test
+    public void testExtractScriptData_ScriptFile_NotExists() throws Exception {
+        exception.expect(IllegalInputDataException.class);
+        exception.expectMessage("does not exist");
+        CmdArgumentsProcessorHelper.extractScriptData(SCRIPT_PATH.toString());
+    }
+
+    @Test
+    public void testExtractScriptData_ScriptFile_NoOperations() throws Exception {
+        writeScript("# only comment", "");
+
+        exception.expect(IllegalInputDataException.class);
+        exception.expectMessage("does not contain any operation");
+        CmdArgumentsProcessorHelper.extractScriptData(SCRIPT_PATH.toString());
+    }
+
+    @Test
+    public void testExtractScriptData_UnclosedQuotes() throws Exception {
+        writeScript("ADD OBJECT \"M31");
+
+        exception.expect(IllegalInputDataException.class);
+        exception.expectMessage("Line 1");
+        CmdArgumentsProcessorHelper.extractScriptData(SCRIPT_PATH.toString());
+    }
+
+    @Test
+    public void testExtractScriptData_FilesPlaceholderInserted() throws Exception {
+        writeScript("# normalization script",
+                "ADD -u OBSERVER \"Martin Vrabel\" \"name of observer\"",
+                "",
+                "CHAIN -u -l DESCR -c=\"Object: \" -k=OBJECT",
+                "REMOVE OBJECT");
+
+        List<Tuple<Integer, String[]>> operations = CmdArgumentsProcessorHelper.extractScriptData(SCRIPT_PATH.toString());
+
+        String placeholder = CmdArgumentsProcessorHelper.SCRIPT_FILES_PLACEHOLDER;
+        assertEquals(3, operations.size());
+        assertEquals(2, (int) operations.get(0).getFirst());
+        assertArrayEquals(new String[] { "ADD", "-u", placeholder, "OBSERVER", "Martin Vrabel", "name of observer" },
+                operations.get(0).getSecond());
+        assertEquals(4, (int) operations.get(1).getFirst());
+        assertArrayEquals(new String[] { "CHAIN", "-u", "-l", placeholder, "DESCR", "-c=Object: ", "-k=OBJECT" },
+                operations.get(1).getSecond());
+        assertArrayEquals(new String[] { "REMOVE", placeholder, "OBJECT" },
+                operations.get(2).getSecond());
+    }
+
+    private static void writeScript(String... lines) throws Exception {
+        Files.write(SCRIPT_PATH, Arrays.asList(lines), StandardCharsets.UTF_8);
+    }
+}
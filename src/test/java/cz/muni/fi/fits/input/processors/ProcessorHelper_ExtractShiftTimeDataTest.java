@@ -14,20 +14,24 @@ import org.junit.rules.ExpectedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 /**
  * Tests for extraction of input data for operation <b>Shift time of time record</b>
  * in {@link CmdArgumentsProcessorHelper} class
  *
  * @author Martin Vrábel
- * @version 1.3
+ * @version 1.5
  */
 public class ProcessorHelper_ExtractShiftTimeDataTest {
 
     private static final Path FILE_PATH = Paths.get("test-files.in");
+    private static final Path TABLE_PATH = Paths.get("test-corrections.txt");
 
     private TypeConverter _converter;
 
@@ -43,6 +47,7 @@ public class ProcessorHelper_ExtractShiftTimeDataTest {
     @After
     public void tearDown() throws Exception {
         Files.deleteIfExists(FILE_PATH);
+        Files.deleteIfExists(TABLE_PATH);
         _converter = null;
     }
 
@@ -72,6 +77,65 @@ public class ProcessorHelper_ExtractShiftTimeDataTest {
         assertEquals("KEYWORD", stid.getKeyword());
     }
 
+    @Test
+    public void testExtractShiftRecordData_Keywords_MultipleWithPattern() throws Exception {
+        String[] args = new String[] { "shift_time", FILE_PATH.toString(), "date-*, TIME-OBS,utstart", "-h=1" };
+
+        ShiftTimeInputData stid = CmdArgumentsProcessorHelper.extractShiftTimeData(args, _converter);
+        assertNotNull(stid);
+        assertEquals(Arrays.asList("DATE-*", "TIME-OBS", "UTSTART"), stid.getKeywords());
+        assertEquals("DATE-*", stid.getKeyword());
+    }
+
+    @Test
+    public void testExtractShiftRecordData_Keywords_EmptyKeyword() throws Exception {
+        String[] args = new String[] { "shift_time", FILE_PATH.toString(), "DATE-OBS,,TIME-OBS", "-h=1" };
+
+        exception.expect(IllegalInputDataException.class);
+        exception.expectMessage("contain empty keyword");
+        CmdArgumentsProcessorHelper.extractShiftTimeData(args, _converter);
+    }
+
+    @Test
+    public void testExtractShiftRecordData_CorrectionTable_Valid() throws Exception {
+        Files.write(TABLE_PATH, Arrays.asList("# time correction", "2015-06-12T20:00:00 1.5", "2015-06-12T22:00:00 2.5"));
+        String[] args = new String[] { "shift_time", FILE_PATH.toString(), "DATE-OBS", "-table=" + TABLE_PATH };
+
+        ShiftTimeInputData stid = CmdArgumentsProcessorHelper.extractShiftTimeData(args, _converter);
+        assertNotNull(stid.getCorrectionTable());
+        assertEquals(2, stid.getCorrectionTable().size());
+        assertEquals(0, stid.getHourShift());
+    }
+
+    @Test
+    public void testExtractShiftRecordData_CorrectionTable_CombinedWithShift() throws Exception {
+        Files.write(TABLE_PATH, Collections.singletonList("2015-06-12T20:00:00 1.5"));
+        String[] args = new String[] { "shift_time", FILE_PATH.toString(), "DATE-OBS", "-table=" + TABLE_PATH, "-s=1" };
+
+        exception.expect(IllegalInputDataException.class);
+        exception.expectMessage("cannot be combined with clock correction table");
+        CmdArgumentsProcessorHelper.extractShiftTimeData(args, _converter);
+    }
+
+    @Test
+    public void testExtractShiftRecordData_CorrectionTable_NotExisting() throws Exception {
+        String[] args = new String[] { "shift_time", FILE_PATH.toString(), "DATE-OBS", "-table=" + TABLE_PATH };
+
+        exception.expect(IllegalInputDataException.class);
+        exception.expectMessage("cannot be read");
+        CmdArgumentsProcessorHelper.extractShiftTimeData(args, _converter);
+    }
+
+    @Test
+    public void testExtractShiftRecordData_CorrectionTable_InvalidRow() throws Exception {
+        Files.write(TABLE_PATH, Collections.singletonList("2015-06-12 20:00:00 1.5"));
+        String[] args = new String[] { "shift_time", FILE_PATH.toString(), "DATE-OBS", "-table=" + TABLE_PATH };
+
+        exception.expect(IllegalInputDataException.class);
+        exception.expectMessage("is in invalid format");
+        CmdArgumentsProcessorHelper.extractShiftTimeData(args, _converter);
+    }
+
     @Test
     public void testExtractShiftRecordData_ShiftParameter_Unknown() throws Exception {
         String[] args = new String[] { "shift_time", FILE_PATH.toString(), "KEYWORD", "-years=-56", "-months=2" };
@@ -104,5 +168,6 @@ public class ProcessorHelper_ExtractShiftTimeDataTest {
         assertEquals(2, stid.getMinuteShift());
         assertEquals(0, stid.getSecondShift());
         assertEquals(230, stid.getMilisecondsShift());
+        assertNull(stid.getCorrectionTable());
     }
 }
@@ -0,0 +1,114 @@
+package cz.muni.fi.fits.input.validators;
+
+import com.google.common.collect.Sets;
+import cz.muni.fi.fits.common.exceptions.ValidationException;
+import cz.muni.fi.fits.input.models.FilterInputData;
+import cz.muni.fi.fits.models.HduSelector;
+import cz.muni.fi.fits.models.HeaderPredicate;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Tests for validation of {@link FilterInputData} input data
+ * in {@link DefaultInputDataValidator} class
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class DefaultValidator_FilterInputDataTest {
+
+    private static InputDataValidator _validator;
+    private static Collection<File> _fitsFiles;
+    private static List<HeaderPredicate> _predicates;
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        _validator = new DefaultInputDataValidator();
+        _fitsFiles = Sets.newHashSet(new File("sample1.fits"), new File("sample2.fits"));
+        _predicates = Collections.singletonList(HeaderPredicate.equalTo("FILTER", "V"));
+    }
+
+    @Test
+    public void testValidate_FilterInputData_Null() throws Exception {
+        FilterInputData fid = null;
+
+        exception.expect(IllegalArgumentException.class);
+        _validator.validate(fid);
+    }
+
+    @Test
+    public void testValidate_FilterInputData_FitsFiles_Empty() throws Exception {
+        FilterInputData fid = new FilterInputData(_predicates, "matching.in", new HashSet<>());
+
+        exception.expect(ValidationException.class);
+        exception.expectMessage("No FITS files provided");
+        _validator.validate(fid);
+    }
+
+    @Test
+    public void testValidate_FilterInputData_OutputPath_Empty() throws Exception {
+        FilterInputData fid = new FilterInputData(_predicates, "", _fitsFiles);
+
+        exception.expect(ValidationException.class);
+        exception.expectMessage("output list of files cannot be empty");
+        _validator.validate(fid);
+    }
+
+    @Test
+    public void testValidate_FilterInputData_HduSelector_NotPrimary() throws Exception {
+        FilterInputData fid = new FilterInputData(_predicates, "matching.in", _fitsFiles);
+        fid.setHduSelector(HduSelector.all());
+
+        exception.expect(ValidationException.class);
+        exception.expectMessage("only by primary header");
+        _validator.validate(fid);
+    }
+
+    @Test
+    public void testValidate_FilterInputData_Predicates_Empty() throws Exception {
+        FilterInputData fid = new FilterInputData(Collections.emptyList(), "matching.in", _fitsFiles);
+
+        exception.expect(ValidationException.class);
+        exception.expectMessage("No conditions provided");
+        _validator.validate(fid);
+    }
+
+    @Test
+    public void testValidate_FilterInputData_Keyword_InvalidCharacters() throws Exception {
+        FilterInputData fid = new FilterInputData(
+                Collections.singletonList(HeaderPredicate.equalTo("filter", "V")), "matching.in", _fitsFiles);
+
+        exception.expect(ValidationException.class);
+        exception.expectMessage("contains invalid characters");
+        _validator.validate(fid);
+    }
+
+    @Test
+    public void testValidate_FilterInputData_Range_Reversed() throws Exception {
+        FilterInputData fid = new FilterInputData(
+                Collections.singletonList(HeaderPredicate.inRange("EXPTIME", new BigDecimal(60), new BigDecimal(10))), "matching.in", _fitsFiles);
+
+        exception.expect(ValidationException.class);
+        exception.expectMessage("Lower bound of range");
+        _validator.validate(fid);
+    }
+
+    @Test
+    public void testValidate_FilterInputData_Valid() throws Exception {
+        FilterInputData fid = new FilterInputData(_predicates, "matching.in", _fitsFiles);
+
+        _validator.validate(fid);
+    }
+}
@@ -0,0 +1,77 @@
+package cz.muni.fi.fits.input.validators;
+
+import com.google.common.collect.Sets;
+import cz.muni.fi.fits.common.exceptions.ValidationException;
+import cz.muni.fi.fits.input.models.ReserveInputData;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashSet;
+
+/**
+ * Tests for validation of {@link ReserveInputData} input data
+ * in {@link DefaultInputDataValidator} class
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class DefaultValidator_ReserveInputDataTest {
+
+    private static InputDataValidator _validator;
+    private static Collection<File> _fitsFiles;
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        _validator = new DefaultInputDataValidator();
+        _fitsFiles = Sets.newHashSet(new File("sample1.fits"), new File("sample2.fits"));
+    }
+
+    @Test
+    public void testValidate_ReserveInputData_Null() throws Exception {
+        ReserveInputData rid = null;
+
+        exception.expect(IllegalArgumentException.class);
+        _validator.validate(rid);
+    }
+
+    @Test
+    public void testValidate_ReserveInputData_FitsFiles_Null() throws Exception {
+        ReserveInputData rid = new ReserveInputData(36, null);
+
+        exception.expect(ValidationException.class);
+        exception.expectMessage("cannot be null");
+        _validator.validate(rid);
+    }
+
+    @Test
+    public void testValidate_ReserveInputData_FitsFiles_Empty() throws Exception {
+        ReserveInputData rid = new ReserveInputData(36, new HashSet<>());
+
+        exception.expect(ValidationException.class);
+        exception.expectMessage("No FITS files provided");
+        _validator.validate(rid);
+    }
+
+    @Test
+    public void testValidate_ReserveInputData_Records_InvalidNumber() throws Exception {
+        ReserveInputData rid = new ReserveInputData(0, _fitsFiles);
+
+        exception.expect(ValidationException.class);
+        exception.expectMessage("must be number bigger than 0");
+        _validator.validate(rid);
+    }
+
+    @Test
+    public void testValidate_ReserveInputData_Valid() throws Exception {
+        ReserveInputData rid = new ReserveInputData(36, _fitsFiles);
+
+        _validator.validate(rid);
+    }
+}
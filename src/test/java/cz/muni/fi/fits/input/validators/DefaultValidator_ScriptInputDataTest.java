@@ -0,0 +1,84 @@
+package cz.muni.fi.fits.input.validators;
+
+import com.google.common.collect.Sets;
+import cz.muni.fi.fits.common.exceptions.ValidationException;
+import cz.muni.fi.fits.input.models.*;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * Tests for validation of {@link ScriptInputData} input data
+ * in {@link DefaultInputDataValidator} class
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class DefaultValidator_ScriptInputDataTest {
+
+    private static InputDataValidator _validator;
+    private static Collection<File> _fitsFiles;
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        _validator = new DefaultInputDataValidator();
+        _fitsFiles = Sets.newHashSet(new File("sample1.fits"), new File("sample2.fits"));
+    }
+
+    @Test
+    public void testValidate_ScriptInputData_Null() throws Exception {
+        ScriptInputData sid = null;
+
+        exception.expect(IllegalArgumentException.class);
+        _validator.validate(sid);
+    }
+
+    @Test
+    public void testValidate_ScriptInputData_FitsFiles_Empty() throws Exception {
+        ScriptInputData sid = new ScriptInputData(
+                Collections.singletonList(new RemoveByKeywordInputData("KEYWORD")), new HashSet<>());
+
+        exception.expect(ValidationException.class);
+        exception.expectMessage("No FITS files provided");
+        _validator.validate(sid);
+    }
+
+    @Test
+    public void testValidate_ScriptInputData_Operations_Empty() throws Exception {
+        ScriptInputData sid = new ScriptInputData(new ArrayList<>(), _fitsFiles);
+
+        exception.expect(ValidationException.class);
+        exception.expectMessage("does not contain any operation");
+        _validator.validate(sid);
+    }
+
+    @Test
+    public void testValidate_ScriptInputData_Operation_Invalid() throws Exception {
+        ScriptInputData sid = new ScriptInputData(Arrays.asList(
+                new RemoveByKeywordInputData("KEYWORD"),
+                new AddNewRecordInputData("KEYWORD", null, null, false)));
+        sid.setFitsFiles(_fitsFiles);
+
+        exception.expect(ValidationException.class);
+        exception.expectMessage("Operation 2 of script is invalid");
+        _validator.validate(sid);
+    }
+
+    @Test
+    public void testValidate_ScriptInputData_Valid() throws Exception {
+        ScriptInputData sid = new ScriptInputData(Arrays.asList(
+                new AddNewRecordInputData("OBSERVER", "Vrabel", null, false),
+                new ChangeKeywordInputData("OBJECT", "TARGET", false),
+                new RemoveByKeywordInputData("KEYWORD")));
+        sid.setFitsFiles(_fitsFiles);
+
+        _validator.validate(sid);
+    }
+}
@@ -4,12 +4,14 @@ import com.google.common.collect.Sets;
 import cz.muni.fi.fits.common.exceptions.ValidationException;
 import cz.muni.fi.fits.input.models.ChainRecordsInputData;
 import cz.muni.fi.fits.input.models.ShiftTimeInputData;
+import cz.muni.fi.fits.models.ClockCorrectionTable;
 import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 
@@ -18,7 +20,7 @@ import java.util.HashSet;
  * in {@link DefaultInputDataValidator} class
  *
  * @author Martin Vrábel
- * @version 1.1
+ * @version 1.3
  */
 public class DefaultValidator_ShiftTimeInputDataTest {
 
@@ -63,7 +65,7 @@ public class DefaultValidator_ShiftTimeInputDataTest {
 
     @Test
     public void testValidate_ShiftTimeInputData_Keyword_Null() throws Exception {
-        ShiftTimeInputData stid = new ShiftTimeInputData(null, 0, -9, 0, 0, 0, 8, 12, _fitsFiles);
+        ShiftTimeInputData stid = new ShiftTimeInputData((String) null, 0, -9, 0, 0, 0, 8, 12, _fitsFiles);
 
         exception.expect(ValidationException.class);
         exception.expectMessage("cannot be null");
@@ -81,7 +83,7 @@ public class DefaultValidator_ShiftTimeInputDataTest {
 
     @Test
     public void testValidate_ShiftTimeInputData_Keyword_WithInvalidChars() throws Exception {
-        ShiftTimeInputData stid = new ShiftTimeInputData("KEYWORD*", 0, 0, 0, 0, 4, 0, 0, _fitsFiles);
+        ShiftTimeInputData stid = new ShiftTimeInputData("KEYWORD#", 0, 0, 0, 0, 4, 0, 0, _fitsFiles);
 
         exception.expect(ValidationException.class);
         exception.expectMessage("contains invalid characters");
@@ -97,6 +99,24 @@ public class DefaultValidator_ShiftTimeInputDataTest {
         _validator.validate(stid);
     }
 
+    @Test
+    public void testValidate_ShiftTimeInputData_Keywords_OneWithInvalidChars() throws Exception {
+        ShiftTimeInputData stid = new ShiftTimeInputData(Arrays.asList("DATE-OBS", "TIME OBS"), 0, 0, 0, 1, 0, 0, 0, _fitsFiles);
+
+        exception.expect(ValidationException.class);
+        exception.expectMessage("'TIME OBS' contains invalid characters");
+        _validator.validate(stid);
+    }
+
+    @Test
+    public void testValidate_ShiftTimeInputData_Keywords_OneEmpty() throws Exception {
+        ShiftTimeInputData stid = new ShiftTimeInputData(Arrays.asList("DATE-OBS", ""), 0, 0, 0, 1, 0, 0, 0, _fitsFiles);
+
+        exception.expect(ValidationException.class);
+        exception.expectMessage("cannot be empty");
+        _validator.validate(stid);
+    }
+
     @Test
     public void testValidate_ShiftTimeInputData_TimeShiftArguments_AllZero() throws Exception {
         ShiftTimeInputData stid = new ShiftTimeInputData("KEYWORD", 0, 0, 0, 0, 0, 0, 0, _fitsFiles);
@@ -114,4 +134,19 @@ public class DefaultValidator_ShiftTimeInputDataTest {
         _validator.validate(stid1);
         _validator.validate(stid2);
     }
+
+    @Test
+    public void testValidate_ShiftTimeInputData_KeywordsWithPatterns_Valid() throws Exception {
+        ShiftTimeInputData stid = new ShiftTimeInputData(Arrays.asList("DATE-*", "TIME-OBS", "UT?TART"), 0, 0, 0, 0, 0, 30, 0, _fitsFiles);
+
+        _validator.validate(stid);
+    }
+
+    @Test
+    public void testValidate_ShiftTimeInputData_CorrectionTable_Valid() throws Exception {
+        ClockCorrectionTable table = ClockCorrectionTable.parse(Arrays.asList("2015-06-12T20:00:00 1.5", "2015-06-12T22:00:00 2.5"));
+        ShiftTimeInputData stid = new ShiftTimeInputData(Arrays.asList("DATE-OBS", "TIME-OBS"), table, _fitsFiles);
+
+        _validator.validate(stid);
+    }
 }
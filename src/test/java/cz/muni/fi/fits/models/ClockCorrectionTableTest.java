@@ -0,0 +1,114 @@
+package cz.muni.fi.fits.models;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ClockCorrectionTable} class
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class ClockCorrectionTableTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testParse_NullLines() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("lines is null");
+        ClockCorrectionTable.parse(null);
+    }
+
+    @Test
+    public void testParse_NoRows() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("does not contain any row");
+        ClockCorrectionTable.parse(Arrays.asList("# time correction", ""));
+    }
+
+    @Test
+    public void testParse_RowWithoutCorrection() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("line 2 must contain time and correction");
+        ClockCorrectionTable.parse(Arrays.asList("2015-06-12T20:00:00 1.5", "2015-06-12T21:00:00"));
+    }
+
+    @Test
+    public void testParse_InvalidCorrection() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("line 1 is in invalid format");
+        ClockCorrectionTable.parse(Collections.singletonList("2015-06-12T20:00:00 1.5s"));
+    }
+
+    @Test
+    public void testParse_DuplicateTimes() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("multiple rows for the same time");
+        ClockCorrectionTable.parse(Arrays.asList("2015-06-12T20:00:00 1.5", "2015-06-12T20:00:00 1.6"));
+    }
+
+    @Test
+    public void testParse_CommentsAndSeparators() throws Exception {
+        ClockCorrectionTable table = ClockCorrectionTable.parse(Arrays.asList(
+                "# time; correction [s]",
+                "2015-06-12T20:00:00, 1.5",
+                "",
+                "2015-06-12T21:00:00;-0.25",
+                "2015-06-12T22:00:00\t2"));
+
+        assertEquals(3, table.size());
+        assertEquals(-250000000L, table.getCorrectionNanos(LocalDateTime.of(2015, 6, 12, 21, 0)));
+    }
+
+    @Test
+    public void testGetCorrectionNanos_InterpolatedBetweenRows() throws Exception {
+        ClockCorrectionTable table = ClockCorrectionTable.parse(Arrays.asList(
+                "2015-06-12T20:00:00 1.0",
+                "2015-06-12T22:00:00 3.0"));
+
+        assertEquals(1000000000L, table.getCorrectionNanos(LocalDateTime.of(2015, 6, 12, 20, 0)));
+        assertEquals(2000000000L, table.getCorrectionNanos(LocalDateTime.of(2015, 6, 12, 21, 0)));
+        assertEquals(2500000000L, table.getCorrectionNanos(LocalDateTime.of(2015, 6, 12, 21, 30)));
+        assertEquals(3000000000L, table.getCorrectionNanos(LocalDateTime.of(2015, 6, 12, 22, 0)));
+    }
+
+    @Test
+    public void testGetCorrectionNanos_UnsortedRows() throws Exception {
+        ClockCorrectionTable table = ClockCorrectionTable.parse(Arrays.asList(
+                "2015-06-13T00:00:00 -4",
+                "2015-06-12T20:00:00 0",
+                "2015-06-12T22:00:00 -2"));
+
+        assertEquals(-1000000000L, table.getCorrectionNanos(LocalDateTime.of(2015, 6, 12, 21, 0)));
+        assertEquals(-3000000000L, table.getCorrectionNanos(LocalDateTime.of(2015, 6, 12, 23, 0)));
+    }
+
+    @Test
+    public void testCovers_TimesOutsideOfTable() throws Exception {
+        ClockCorrectionTable table = ClockCorrectionTable.parse(Arrays.asList(
+                "2015-06-12T20:00:00 1.0",
+                "2015-06-12T22:00:00 3.0"));
+
+        assertTrue(table.covers(LocalDateTime.of(2015, 6, 12, 22, 0)));
+        assertFalse(table.covers(LocalDateTime.of(2015, 6, 12, 19, 59, 59)));
+        assertFalse(table.covers(LocalDateTime.of(2015, 6, 12, 22, 0, 1)));
+    }
+
+    @Test
+    public void testGetCorrectionNanos_TimeNotCovered() throws Exception {
+        ClockCorrectionTable table = ClockCorrectionTable.parse(Collections.singletonList("2015-06-12T20:00:00 1.0"));
+
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("is not covered by clock correction table");
+        table.getCorrectionNanos(LocalDateTime.of(2015, 6, 12, 21, 0));
+    }
+}
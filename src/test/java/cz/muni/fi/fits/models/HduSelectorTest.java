@@ -0,0 +1,73 @@
+package cz.muni.fi.fits.models;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link HduSelector} class
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class HduSelectorTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testIndex_Negative() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        HduSelector.index(-1);
+    }
+
+    @Test
+    public void testExtension_Extname_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        HduSelector.extension(null);
+    }
+
+    @Test
+    public void testPrimary_MatchesOnlyFirstUnit() throws Exception {
+        HduSelector hduSelector = HduSelector.primary();
+
+        assertTrue(hduSelector.isPrimaryOnly());
+        assertTrue(hduSelector.matches(0, null, HduSelector.DEFAULT_EXTVER));
+        assertFalse(hduSelector.matches(1, null, HduSelector.DEFAULT_EXTVER));
+        assertFalse(hduSelector.canMatchAfter(0));
+    }
+
+    @Test
+    public void testIndex_StopsAfterSelectedUnit() throws Exception {
+        HduSelector hduSelector = HduSelector.index(2);
+
+        assertFalse(hduSelector.isPrimaryOnly());
+        assertTrue(hduSelector.matches(2, "SCI", 1));
+        assertTrue(hduSelector.canMatchAfter(1));
+        assertFalse(hduSelector.canMatchAfter(2));
+    }
+
+    @Test
+    public void testExtension_MatchesNameAndVersion() throws Exception {
+        HduSelector anyVersion = HduSelector.extension("SCI");
+        HduSelector secondVersion = HduSelector.extension("SCI", 2);
+
+        assertTrue(anyVersion.matches(1, "SCI", 1));
+        assertTrue(anyVersion.matches(3, "SCI ", 2));
+        assertFalse(anyVersion.matches(0, null, HduSelector.DEFAULT_EXTVER));
+        assertFalse(secondVersion.matches(1, "SCI", 1));
+        assertTrue(secondVersion.matches(3, "SCI", 2));
+        assertTrue(secondVersion.canMatchAfter(3));
+    }
+
+    @Test
+    public void testAll_MatchesEveryUnit() throws Exception {
+        HduSelector hduSelector = HduSelector.all();
+
+        assertTrue(hduSelector.matches(0, null, HduSelector.DEFAULT_EXTVER));
+        assertTrue(hduSelector.matches(5, "ERR", 3));
+        assertTrue(hduSelector.canMatchAfter(5));
+    }
+}
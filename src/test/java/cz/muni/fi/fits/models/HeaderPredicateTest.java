@@ -0,0 +1,82 @@
+package cz.muni.fi.fits.models;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.math.BigDecimal;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link HeaderPredicate} class
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class HeaderPredicateTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testInRange_NoBounds() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        HeaderPredicate.inRange("EXPTIME", null, null);
+    }
+
+    @Test
+    public void testTest_Value_Null() throws Exception {
+        HeaderPredicate predicate = HeaderPredicate.equalTo("FILTER", "V");
+
+        assertFalse(predicate.test(null));
+    }
+
+    @Test
+    public void testTest_EqualTo_String() throws Exception {
+        HeaderPredicate predicate = HeaderPredicate.equalTo("FILTER", "V");
+
+        assertTrue(predicate.test("V"));
+        assertFalse(predicate.test("R"));
+    }
+
+    @Test
+    public void testTest_EqualTo_Number() throws Exception {
+        HeaderPredicate predicate = HeaderPredicate.equalTo("EXPTIME", "30");
+
+        assertTrue(predicate.test("30.0"));
+        assertTrue(predicate.test("3.0D1"));
+        assertFalse(predicate.test("30.5"));
+    }
+
+    @Test
+    public void testTest_InRange_Bounds() throws Exception {
+        HeaderPredicate closed = HeaderPredicate.inRange("EXPTIME", new BigDecimal(10), new BigDecimal(60));
+        HeaderPredicate open = HeaderPredicate.inRange("EXPTIME", new BigDecimal(10), null);
+
+        assertTrue(closed.test("10"));
+        assertTrue(closed.test("60.0"));
+        assertFalse(closed.test("60.5"));
+        assertFalse(closed.test("long"));
+        assertTrue(open.test("1E3"));
+        assertFalse(open.test("9.99"));
+    }
+
+    @Test
+    public void testTest_Matching() throws Exception {
+        HeaderPredicate predicate = HeaderPredicate.matching("OBJECT", Pattern.compile("M3[13]"));
+
+        assertTrue(predicate.test("M31"));
+        assertFalse(predicate.test("M31 core"));
+    }
+
+    @Test
+    public void testToString() throws Exception {
+        assertEquals("FILTER=V", HeaderPredicate.equalTo("FILTER", "V").toString());
+        assertEquals("EXPTIME=..60", HeaderPredicate.inRange("EXPTIME", null, new BigDecimal(60)).toString());
+        assertEquals("OBJECT~M.*", HeaderPredicate.matching("OBJECT", Pattern.compile("M.*")).toString());
+    }
+}
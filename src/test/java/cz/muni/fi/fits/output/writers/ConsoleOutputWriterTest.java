@@ -2,7 +2,9 @@ package cz.muni.fi.fits.output.writers;
 
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
@@ -16,10 +18,13 @@ import static org.junit.Assert.*;
  * Tests for methods of {@link ConsoleOutputWriter} class
  *
  * @author Martin Vrábel
- * @version 1.1
+ * @version 1.2
  */
 public class ConsoleOutputWriterTest {
 
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
     private OutputWriter _consoleOutputWriter;
 
     private static final String INFO_MESSAGE_LEADER = "INFO";
@@ -57,6 +62,28 @@ public class ConsoleOutputWriterTest {
         System.setErr(ORIGINAL_STDERR);
     }
 
+    @Test
+    public void testConstructor_NullOut() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        exception.expectMessage("out is null");
+        new ConsoleOutputWriter(null, System.err);
+    }
+
+    @Test
+    public void testConstructor_ProvidedStreams() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        OutputWriter outputWriter = new ConsoleOutputWriter(new PrintStream(out, true), new PrintStream(err, true));
+
+        outputWriter.writeInfo("info message");
+        outputWriter.writeError("error message");
+
+        assertTrue(out.toString().contains("info message"));
+        assertTrue(err.toString().contains("error message"));
+        assertTrue(_standardOutputStream.toString().isEmpty());
+        assertTrue(_errorOutputStream.toString().isEmpty());
+    }
+
     @Test
     public void testWriteInfo1_InfoMessage_Null() throws Exception {
         boolean result = _consoleOutputWriter.writeInfo(null);
@@ -21,7 +21,7 @@ import static org.junit.Assert.assertTrue;
  * Tests for methods of {@link FileOutputWriter} class
  *
  * @author Martin Vrábel
- * @version 1.0
+ * @version 1.1
  */
 public class FileOutputWriterTest {
 
@@ -421,6 +421,21 @@ public class FileOutputWriterTest {
         assertTrue(result);
     }
 
+    @Test
+    public void testClose_AsynchronousWriter_MessagesWritten() throws Exception {
+        OutputWriter outputWriter = new FileOutputWriter(OUTPUT_FILE.toFile(), 16, LogChannel.OverflowPolicy.BLOCK);
+
+        for (int i = 0; i < 100; i++)
+            assertTrue(outputWriter.writeInfo(TEST_FILE, "Message " + i));
+        outputWriter.writeError("Testing error message");
+        outputWriter.close();
+
+        String outputString = readOutputFile();
+        assertTrue(outputString.contains("Message 99"));
+        assertTrue(outputString.contains(ERROR_MESSAGE_LEADER));
+        assertFalse(outputWriter.writeInfo("After close"));
+    }
+
     private String readOutputFile() throws IOException {
         return new String(Files.readAllBytes(OUTPUT_FILE), Charset.defaultCharset());
     }
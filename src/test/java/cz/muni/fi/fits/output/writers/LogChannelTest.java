@@ -0,0 +1,106 @@
+package cz.muni.fi.fits.output.writers;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link LogChannel} class
+ *
+ * @author Martin Vrábel
+ * @version 1.0
+ */
+public class LogChannelTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testConstructor_OutputFile_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        new LogChannel(null);
+    }
+
+    @Test
+    public void testConstructor_QueueCapacity_Negative() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        new LogChannel(folder.newFile(), -1, LogChannel.OverflowPolicy.BLOCK);
+    }
+
+    @Test
+    public void testWrite_Synchronous_WrittenImmediately() throws Exception {
+        File outputFile = folder.newFile();
+        LogChannel logChannel = new LogChannel(outputFile);
+
+        assertTrue(logChannel.write("first line", true));
+
+        assertFalse(logChannel.isAsynchronous());
+        assertEquals(1, readLines(outputFile).size());
+        logChannel.close();
+    }
+
+    @Test
+    public void testFlush_Asynchronous_AllLinesWritten() throws Exception {
+        File outputFile = folder.newFile();
+        LogChannel logChannel = new LogChannel(outputFile, 4, LogChannel.OverflowPolicy.BLOCK);
+
+        for (int i = 0; i < 1000; i++)
+            assertTrue(logChannel.write("line " + i, true));
+        assertTrue(logChannel.flush());
+
+        List<String> lines = readLines(outputFile);
+        assertEquals(1000, lines.size());
+        assertEquals("line 0", lines.get(0));
+        assertEquals("line 999", lines.get(999));
+        logChannel.close();
+    }
+
+    @Test
+    public void testClose_Asynchronous_LinesWrittenAndChannelClosed() throws Exception {
+        File outputFile = folder.newFile();
+        LogChannel logChannel = new LogChannel(outputFile, 16, LogChannel.OverflowPolicy.BLOCK);
+
+        for (int i = 0; i < 10; i++)
+            logChannel.write("line " + i, false);
+        logChannel.close();
+
+        assertEquals(10, readLines(outputFile).size());
+        assertFalse(logChannel.write("after close", false));
+        assertFalse(logChannel.flush());
+    }
+
+    @Test
+    public void testWrite_DropInfo_OnlyDroppableLinesDropped() throws Exception {
+        File outputFile = folder.newFile();
+        LogChannel logChannel = new LogChannel(outputFile, 1, LogChannel.OverflowPolicy.DROP_INFO);
+
+        int acceptedInfoLines = 0;
+        for (int i = 0; i < 500; i++) {
+            if (logChannel.write("info " + i, true))
+                acceptedInfoLines++;
+            assertTrue(logChannel.write("error " + i, false));
+        }
+        long droppedLines = logChannel.getDroppedLines();
+        logChannel.close();
+
+        List<String> lines = readLines(outputFile);
+        assertEquals(500, acceptedInfoLines + droppedLines);
+        assertEquals(500, lines.stream().filter(line -> line.startsWith("error ")).count());
+        assertEquals(acceptedInfoLines, lines.stream().filter(line -> line.startsWith("info ")).count());
+    }
+
+    private static List<String> readLines(File outputFile) throws Exception {
+        return Files.readAllLines(outputFile.toPath(), Charset.defaultCharset());
+    }
+}
@@ -0,0 +1,140 @@
+package cz.muni.fi.fits.output.writers;
+
+import cz.muni.fi.fits.engine.models.Result;
+import cz.muni.fi.fits.engine.models.ResultDetails;
+import cz.muni.fi.fits.models.OperationType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for methods of {@link StructuredOutputWriter} class
+ *
+ * @author Martin Vrábel
+ * @version 1.1
+ */
+public class StructuredOutputWriterTest {
+
+    private static final File FITS_FILE = new File("data/sample.fits");
+    private static final ResultDetails DETAILS =
+            new ResultDetails("OBJECT", "M31", "M \"31\", core", 2880, 5760, 10, 20, 30);
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testConstructor_OutputFile_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        new StructuredOutputWriter(null, StructuredOutputWriter.Format.CSV);
+    }
+
+    @Test
+    public void testConstructor_Format_Null() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        new StructuredOutputWriter(folder.newFile(), null);
+    }
+
+    @Test
+    public void testWriteResult_JsonLines_RecordWritten() throws Exception {
+        File outputFile = folder.newFile();
+        StructuredOutputWriter writer = new StructuredOutputWriter(outputFile, StructuredOutputWriter.Format.JSON_LINES);
+
+        assertTrue(writer.writeResult(FITS_FILE, OperationType.CHANGE_VALUE_BY_KEYWORD,
+                new Result(true, "Value changed", DETAILS)));
+        writer.close();
+
+        List<String> lines = Files.readAllLines(outputFile.toPath(), Charset.defaultCharset());
+        assertEquals(1, lines.size());
+        assertEquals("{\"file\":\"" + FITS_FILE.getPath().replace("\\", "\\\\") + "\","
+                + "\"operation\":\"CHANGE_VALUE_BY_KEYWORD\",\"status\":\"OK\","
+                + "\"keyword\":\"OBJECT\",\"oldValue\":\"M31\",\"newValue\":\"M \\\"31\\\", core\","
+                + "\"bytesRead\":2880,\"bytesWritten\":5760,"
+                + "\"openNanos\":10,\"editNanos\":20,\"writeNanos\":30,\"totalNanos\":60,"
+                + "\"message\":\"Value changed\"}", lines.get(0));
+    }
+
+    @Test
+    public void testWriteResult_JsonLines_NoDetails_ControlCharactersEscaped() throws Exception {
+        File outputFile = folder.newFile();
+        StructuredOutputWriter writer = new StructuredOutputWriter(outputFile, StructuredOutputWriter.Format.JSON_LINES);
+
+        assertTrue(writer.writeResult(FITS_FILE, OperationType.COMPUTE_JD,
+                new Result(false, "Line\nbreak\u0001")));
+        writer.close();
+
+        List<String> lines = Files.readAllLines(outputFile.toPath(), Charset.defaultCharset());
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"status\":\"ERROR\""));
+        assertTrue(lines.get(0).endsWith("\"message\":\"Line\\nbreak\\u0001\"}"));
+        assertFalse(lines.get(0).contains("keyword"));
+    }
+
+    @Test
+    public void testWriteResult_Csv_HeaderAndRecordWritten() throws Exception {
+        File outputFile = folder.newFile();
+        StructuredOutputWriter writer = new StructuredOutputWriter(outputFile, StructuredOutputWriter.Format.CSV);
+
+        assertTrue(writer.writeResult(FITS_FILE, OperationType.CHANGE_VALUE_BY_KEYWORD,
+                new Result(true, "Value changed", DETAILS)));
+        assertTrue(writer.writeError(FITS_FILE, "Keyword does not exist"));
+        writer.close();
+
+        List<String> lines = Files.readAllLines(outputFile.toPath(), Charset.defaultCharset());
+        assertEquals(3, lines.size());
+        assertEquals(StructuredOutputWriter.CSV_HEADER, lines.get(0));
+        assertEquals(FITS_FILE.getPath() + ",CHANGE_VALUE_BY_KEYWORD,OK,OBJECT,M31,\"M \"\"31\"\", core\","
+                + "2880,5760,10,20,30,60,Value changed", lines.get(1));
+        assertEquals(FITS_FILE.getPath() + ",,ERROR,,,,,,,,,,Keyword does not exist", lines.get(2));
+    }
+
+    @Test
+    public void testWriteResult_Csv_AppendedFile_HeaderNotRepeated() throws Exception {
+        File outputFile = folder.newFile();
+        StructuredOutputWriter writer = new StructuredOutputWriter(outputFile, StructuredOutputWriter.Format.CSV);
+        writer.writeResult(FITS_FILE, OperationType.COMPUTE_JD, new Result(true, "JD computed"));
+        writer.close();
+
+        writer = new StructuredOutputWriter(outputFile, StructuredOutputWriter.Format.CSV);
+        writer.writeResult(FITS_FILE, OperationType.COMPUTE_JD, new Result(true, "JD computed"));
+        writer.close();
+
+        List<String> lines = Files.readAllLines(outputFile.toPath(), Charset.defaultCharset());
+        assertEquals(3, lines.size());
+        assertEquals(StructuredOutputWriter.CSV_HEADER, lines.get(0));
+        assertEquals(lines.get(1), lines.get(2));
+    }
+
+    @Test
+    public void testWriteResult_RecordFlushedBeforeClose() throws Exception {
+        File outputFile = folder.newFile();
+        StructuredOutputWriter writer = new StructuredOutputWriter(outputFile, StructuredOutputWriter.Format.JSON_LINES);
+
+        writer.writeResult(FITS_FILE, OperationType.COMPUTE_JD, new Result(true, "JD computed"));
+
+        List<String> lines = Files.readAllLines(outputFile.toPath(), Charset.defaultCharset());
+        writer.close();
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).endsWith("\"message\":\"JD computed\"}"));
+    }
+
+    @Test
+    public void testWriteResult_Result_Null() throws Exception {
+        StructuredOutputWriter writer = new StructuredOutputWriter(folder.newFile(), StructuredOutputWriter.Format.CSV);
+
+        assertFalse(writer.writeResult(FITS_FILE, OperationType.COMPUTE_JD, null));
+        writer.close();
+    }
+}